@@ -8,6 +8,7 @@ import de.unknownreality.dataframe.group.GroupUtil;
 import de.unknownreality.dataframe.index.Index;
 import de.unknownreality.dataframe.io.*;
 import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 import de.unknownreality.dataframe.sort.SortColumn;
@@ -423,6 +424,29 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame select(FilterPredicate predicate);
 
+    /**
+     * Returns the plan used to find the rows valid for a predicate in {@link #select(FilterPredicate)},
+     * {@link #selectRows(FilterPredicate)} and {@link #filter(FilterPredicate)}.
+     * The plan lists the used indices and the predicate evaluated on the found rows,
+     * or <tt>SCAN</tt> if no index can be used and all rows are tested.
+     *
+     * @param predicate filter predicate
+     * @return description of the plan
+     */
+    String explain(FilterPredicate predicate);
+
+    /**
+     * Returns the plan used to find the rows valid for a predicate.
+     * The predicate is compiled from the input string.
+     *
+     * @param predicateString predicate string
+     * @return description of the plan
+     * @see #explain(FilterPredicate)
+     */
+    default String explain(String predicateString) {
+        return explain(FilterPredicate.compile(predicateString));
+    }
+
     /**
      * Returns a new data frame based on filtered rows from this data frame.<br>
      * Rows that are valid according to the input predicate remain in the new data frame.<br>
@@ -530,7 +554,9 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
     DataFrame addIndex(String indexName, DataFrameColumn... columns);
 
     /**
-     * Adds a new index to the dataframe
+     * Adds a new index to the dataframe.
+     * Indices created by {@link #addIndex(String, String...)} are {@link de.unknownreality.dataframe.index.HashIndex hash indices},
+     * other implementations such as {@link de.unknownreality.dataframe.index.TreeIndex} can be added using this method.
      *
      * @param index index to add
      * @return <tt>self</tt> for method chaining
@@ -632,6 +658,23 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame concat(DataFrame... dataFrames);
 
+    /**
+     * Starts appending many rows. The indices of this data frame are not updated for each appended row,
+     * instead they are updated in one pass by {@link #endBulkAppend()} or before an index is used for a lookup.
+     * Each call must be followed by a call of {@link #endBulkAppend()}.
+     *
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame beginBulkAppend();
+
+    /**
+     * Updates the indices with the rows appended since {@link #beginBulkAppend()}.
+     * Throws a {@link DataFrameRuntimeException} if a unique index contains duplicate values.
+     *
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame endBulkAppend();
+
     /**
      * Returns <tt>true</tt> if the header of an input data frame equals the header of this data frame.
      *
@@ -769,6 +812,17 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataGrouping groupBy(String... column);
 
+    /**
+     * Groups this data frame using one or more columns without copying its values.
+     * Changed values of this data frame are visible in the grouping,
+     * structural changes (e.g. sorting or filtering) invalidate the grouping.
+     *
+     * @param column group columns
+     * @return {@link DataGrouping data grouping}
+     * @see GroupUtil#groupByView(DataFrame, String...)
+     */
+    DataGrouping groupByView(String... column);
+
     /**
      * Joins this data frame with another data frame using the <tt>LEFT JOIN</tt> method.
      *
@@ -802,6 +856,33 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     JoinedDataFrame joinLeft(DataFrame dataFrame, String suffixA, String suffixB, JoinColumn... joinColumns);
 
+    /**
+     * Joins this data frame with another data frame using the <tt>LEFT JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     *
+     * @param dataFrame   other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#leftJoin(DataFrame, DataFrame, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinLeft(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns);
+
+    /**
+     * Joins this data frame with another data frame using the <tt>LEFT JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     * Column names are altered using the provided suffixes.
+     *
+     * @param dataFrame   other data frame
+     * @param suffixA     suffixes for columns from this data frame
+     * @param suffixB     suffixes for columns from the other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#leftJoin(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinLeft(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
     /**
      * Joins this data frame with another data frame using the <tt>RIGHT JOIN</tt> method.
      *
@@ -835,6 +916,33 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     JoinedDataFrame joinRight(DataFrame dataFrame, String suffixA, String suffixB, JoinColumn... joinColumns);
 
+    /**
+     * Joins this data frame with another data frame using the <tt>RIGHT JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     *
+     * @param dataFrame   other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#rightJoin(DataFrame, DataFrame, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinRight(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns);
+
+    /**
+     * Joins this data frame with another data frame using the <tt>RIGHT JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     * Column names are altered using the provided suffixes.
+     *
+     * @param dataFrame   other data frame
+     * @param suffixA     suffixes for columns from this data frame
+     * @param suffixB     suffixes for columns from the other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#rightJoin(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinRight(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
     /**
      * Joins this data frame with another data frame using the <tt>INNER JOIN</tt> method.
      *
@@ -868,6 +976,64 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     JoinedDataFrame joinInner(DataFrame dataFrame, String suffixA, String suffixB, JoinColumn... joinColumns);
 
+    /**
+     * Joins this data frame with another data frame using the <tt>INNER JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     *
+     * @param dataFrame   other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#innerJoin(DataFrame, DataFrame, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinInner(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns);
+
+    /**
+     * Joins this data frame with another data frame using the <tt>INNER JOIN</tt> method.
+     * The matching rows are found using the specified strategy.
+     * Column names are altered using the provided suffixes.
+     *
+     * @param dataFrame   other data frame
+     * @param suffixA     suffixes for columns from this data frame
+     * @param suffixB     suffixes for columns from the other data frame
+     * @param strategy    join strategy
+     * @param joinColumns join columns
+     * @return joined data frame
+     * @see JoinUtil#innerJoin(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    JoinedDataFrame joinInner(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
+    /**
+     * Joins the rows of this data frame with the rows of another data frame whose closed intervals overlap
+     * using the <tt>INNER JOIN</tt> method. Both data frames use the same interval columns.
+     *
+     * @param dataFrame   other data frame
+     * @param startColumn interval start column
+     * @param endColumn   interval end column
+     * @return joined data frame
+     * @see de.unknownreality.dataframe.join.impl.OverlapJoin
+     */
+    default JoinedDataFrame joinOverlap(DataFrame dataFrame, String startColumn, String endColumn) {
+        return joinOverlap(dataFrame, startColumn, endColumn, startColumn, endColumn);
+    }
+
+    /**
+     * Joins the rows of this data frame with the rows of another data frame whose closed intervals overlap
+     * using the <tt>INNER JOIN</tt> method.
+     * A {@link de.unknownreality.dataframe.index.interval.StaticIntervalIndex static interval index}
+     * on the interval columns of one of the data frames is used, otherwise one is built for the join.
+     *
+     * @param dataFrame        other data frame
+     * @param startColumn      interval start column of this data frame
+     * @param endColumn        interval end column of this data frame
+     * @param otherStartColumn interval start column of the other data frame
+     * @param otherEndColumn   interval end column of the other data frame
+     * @return joined data frame
+     * @see de.unknownreality.dataframe.join.impl.OverlapJoin
+     */
+    JoinedDataFrame joinOverlap(DataFrame dataFrame, String startColumn, String endColumn,
+                                String otherStartColumn, String otherEndColumn);
+
     /**
      * Returns a copy of this data frame.
      * Header, columns, rows and indices are copied.
@@ -892,6 +1058,16 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     boolean isIndexColumn(DataFrameColumn column);
 
+    /**
+     * Returns an index that is based on exactly the specified columns.
+     * The primary key is preferred over other indices.
+     * If no such index exists, <tt>null</tt> is returned.
+     *
+     * @param columns index columns
+     * @return index based on the columns or <tt>null</tt>
+     */
+    Index findIndex(DataFrameColumn... columns);
+
     /**
 
      */
@@ -925,6 +1101,34 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame selectByIndex(String name, Comparable... values);
 
+    /**
+     * Returns a new dataframe containing the rows with values of the first column of a
+     * {@link de.unknownreality.dataframe.index.SortedIndex sorted index} between two values (inclusive).
+     * The rows keep their order in this dataframe.
+     *
+     * @param name name of sorted index
+     * @param low  lower bound or <tt>null</tt> for no lower bound
+     * @param high upper bound or <tt>null</tt> for no upper bound
+     * @return dataframe containing found rows
+     */
+    default DataFrame selectByIndexRange(String name, Comparable low, Comparable high) {
+        return selectByIndexRange(name, low, true, high, true);
+    }
+
+    /**
+     * Returns a new dataframe containing the rows with values of the first column of a
+     * {@link de.unknownreality.dataframe.index.SortedIndex sorted index} inside a range.
+     * The rows keep their order in this dataframe.
+     *
+     * @param name          name of sorted index
+     * @param low           lower bound or <tt>null</tt> for no lower bound
+     * @param lowInclusive  <tt>true</tt> if the lower bound is inclusive
+     * @param high          upper bound or <tt>null</tt> for no upper bound
+     * @param highInclusive <tt>true</tt> if the upper bound is inclusive
+     * @return dataframe containing found rows
+     */
+    DataFrame selectByIndexRange(String name, Comparable low, boolean lowInclusive, Comparable high, boolean highInclusive);
+
     /**
      * Returns a collection of all columns in this data frame
      *
@@ -242,6 +242,43 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
     }
 
 
+    /**
+     * Used by {@link #reorder(int[])} to move the column values to their new positions.
+     * The default implementation copies the values in the new order and sets them one by one,
+     * columns with direct access to their storage should override it.
+     *
+     * @param order previous index of the value at each position
+     * @see #reorder(int[])
+     */
+    protected void doReorder(int[] order) {
+        C reordered = copy(order);
+        for (int i = 0; i < order.length; i++) {
+            if (reordered.isNA(i)) {
+                doSetNA(i);
+            } else {
+                doSet(i, reordered.get(i));
+            }
+        }
+    }
+
+    /**
+     * Reorders the column values using a permutation of the value indices.
+     * After reordering, the value at index <tt>i</tt> is the value previously found at index <tt>order[i]</tt>.
+     * <p>Calls {@link #notifyDataFrameColumnChanged()} to ensure data frame index consistency</p>
+     *
+     * @param order permutation of the value indices
+     * @return <tt>self</tt> for method chaining
+     */
+    public final C reorder(int[] order) {
+        if (order.length != size()) {
+            throw new DataFrameRuntimeException(String.format("permutation size (%d) differs from column size (%d)", order.length, size()));
+        }
+        doReorder(order);
+        notifyDataFrameColumnChanged();
+        return getThis();
+    }
+
+
     /**
      * Returns the value at a specified index
      *
@@ -257,6 +294,26 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      */
     public abstract C copy();
 
+    /**
+     * Creates a copy of this column only containing the values at the specified row indices.
+     * The values are copied in the order of the indices, a negative index results in a <tt>NA</tt> value.
+     *
+     * @param rowIndices indices of the copied values
+     * @return The copy of this column
+     */
+    public C copy(int[] rowIndices) {
+        C column = copyEmpty();
+        column.setCapacity(rowIndices.length);
+        for (int index : rowIndices) {
+            if (index < 0 || isNA(index)) {
+                column.appendNA();
+            } else {
+                column.append(get(index));
+            }
+        }
+        return column;
+    }
+
     /**
      * Creates a empty copy (no values) of this column
      *
@@ -333,6 +390,15 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      */
     public abstract boolean isValueValid(Comparable value);
 
+    /**
+     * Returns <tt>true</tt> if the values of this column can not be modified, e.g. if the column is memory-mapped.
+     *
+     * @return <tt>true</tt> if this column is read-only
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     public abstract<H> T getValueFromRow(Row<?,H> row,H headerName);
 
     public abstract T getValueFromRow(Row<?,?> row, int headerIndex);
@@ -26,44 +26,38 @@ package de.unknownreality.dataframe;
 
 import de.unknownreality.dataframe.column.BasicColumn;
 import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.common.Header;
 import de.unknownreality.dataframe.common.Row;
-import de.unknownreality.dataframe.common.parser.Parser;
-import de.unknownreality.dataframe.common.parser.ParserUtil;
-import de.unknownreality.dataframe.common.row.BasicRow;
+import de.unknownreality.dataframe.common.header.BasicHeader;
+import de.unknownreality.dataframe.common.row.AbstractHeaderRow;
 import de.unknownreality.dataframe.filter.FilterPredicate;
 import de.unknownreality.dataframe.io.ColumnInformation;
 import de.unknownreality.dataframe.io.DataIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 
 /**
  * Created by Alex on 09.03.2016.
  */
 public class DataFrameConverter {
     private static final Logger log = LoggerFactory.getLogger(DataFrameConverter.class);
+    private static final int MAX_PROMOTION_COMBINATIONS = 64;
 
+    /**
+     * @deprecated types are inferred from the first {@link TypeInference#getSampleRows() sample rows},
+     * later values promote the column type if required.
+     */
+    @Deprecated
     public static boolean SAMPLE_ROW_DETECTION = true;
-    @SuppressWarnings("unchecked")
-    private static Class<? extends Comparable<?>>[] TYPES = new Class[]
-            {
-                    Boolean.class,
-                    Integer.class,
-                    Long.class,
-                    Double.class
-            };
-    private static Parser<?>[] TYPE_PARSER = new Parser[]
-            {
-                    ParserUtil.findParserOrNull(Boolean.class),
-                    ParserUtil.findParserOrNull(Integer.class),
-                    ParserUtil.findParserOrNull(Long.class),
-                    ParserUtil.findParserOrNull(Double.class),
-
-            };
 
     private DataFrameConverter() {
     }
@@ -119,165 +113,493 @@ public class DataFrameConverter {
 
 
         int columnCount = dataIterator.getColumnsInformation().size();
+        for (int i = 0; i < columnCount; i++) {
+            if (isAutodetect(columnsInformation.get(i))) {
+                TypeInference.OriginalText[][] texts = new TypeInference.OriginalText[1][columnCount];
+                AtomicBoolean refilter = new AtomicBoolean();
+                return fromColumnParts(new DataFrameColumn[][]{
+                        readColumns(dataIterator, columnsInformation, columnCount, expectedSize, filterPredicate, texts[0], refilter)},
+                        texts, refilter.get() ? filterPredicate : FilterPredicate.EMPTY_FILTER);
+            }
+        }
         DataFrame dataFrame = new DefaultDataFrame();
-        DataFrameColumn[] columns = new DataFrameColumn[columnCount];
-        boolean[] autodetect = new boolean[columns.length];
-        boolean[][] types = new boolean[columns.length][TYPES.length];
-        boolean hasAutodetect = false;
+        final DataFrameColumn[] columns = new DataFrameColumn[columnCount];
         for (int i = 0; i < columnCount; i++) {
-            ColumnInformation columnInformation = columnsInformation.get(i);
-            Class colType = columnInformation.getColumnType();
+            DataFrameColumn<?, ?> col = createColumn(columnsInformation.get(i), expectedSize);
+            dataFrame.addColumn(col);
+            columns[i] = col;
+        }
+        final List<ColumnInformation> information = columnsInformation;
+        int r = 0;
+        for (final R row : dataIterator) {
+            LazyRow lazyRow = new LazyRow(dataFrame.getHeader(), r++,
+                    i -> readValue(row, columns[i], information.get(i).getIndex()));
+            if (filterPredicate.valid(lazyRow)) {
+                dataFrame.append(lazyRow.getValues());
+            }
+        }
+        return dataFrame;
+    }
 
-            DataFrameColumn<?, ?> col;
-            try {
-                col = (DataFrameColumn<?, ?>) colType.newInstance();
-            } catch (InstantiationException | IllegalAccessException | ClassCastException e) {
-                throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", colType.getCanonicalName()), e);
+    /**
+     * Converts several parent data containers to one data frame.
+     * All data containers must provide the same columns, e.g. iterators over consecutive parts of one file.
+     * The data containers are read in parallel and the resulting columns are concatenated in the order of the data containers.
+     * Column types are inferred for each part, differing types of a column are promoted to a common type
+     * (see {@link TypeInference}).
+     * Only rows validated by the filter are contained in the resulting data frame
+     *
+     * @param <R> row type
+     * @param dataIterators      parent data containers
+     * @param columnsInformation column information
+     * @param filterPredicate    row filter
+     * @return created data frame
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Row> DataFrame fromDataIterators(final List<? extends DataIterator<R>> dataIterators,
+                                                              List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        if (dataIterators.size() == 1) {
+            return fromDataIterator(dataIterators.get(0), columnsInformation, filterPredicate);
+        }
+        if (columnsInformation == null) {
+            columnsInformation = new ArrayList<>(dataIterators.get(0).getColumnsInformation());
+        }
+        columnsInformation.sort(Comparator.comparingInt(ColumnInformation::getIndex));
+        final List<ColumnInformation> information = columnsInformation;
+        final int columnCount = dataIterators.get(0).getColumnsInformation().size();
+
+        final DataFrameColumn[][] parts = new DataFrameColumn[dataIterators.size()][];
+        final TypeInference.OriginalText[][] texts = new TypeInference.OriginalText[parts.length][columnCount];
+        final AtomicBoolean refilter = new AtomicBoolean();
+        forEachParallel(parts.length, part -> parts[part] = readColumns(dataIterators.get(part), information, columnCount, -1,
+                filterPredicate, texts[part], refilter));
+        return fromColumnParts(parts, texts, refilter.get() ? filterPredicate : FilterPredicate.EMPTY_FILTER);
+    }
+
+    /**
+     * Creates a data frame from consecutive parts of its columns.
+     * Each part contains one column for each column of the resulting data frame,
+     * the columns of all parts are concatenated in parallel.
+     * If the parts of a column have different types, they are promoted to a common type (see {@link TypeInference}).
+     * Only rows validated by the filter are contained in the resulting data frame
+     *
+     * @param parts           column parts
+     * @param filterPredicate row filter
+     * @return created data frame
+     */
+    public static DataFrame fromColumnParts(final DataFrameColumn[][] parts, FilterPredicate filterPredicate) {
+        return fromColumnParts(parts, null, filterPredicate);
+    }
+
+    /**
+     * Creates a data frame from consecutive parts of its columns.
+     * Values of parts that are promoted to <tt>String</tt> keep their original text.
+     *
+     * @param parts           column parts
+     * @param texts           original text of the values of each column part, may be <tt>null</tt>
+     * @param filterPredicate row filter
+     * @return created data frame
+     * @see #fromColumnParts(DataFrameColumn[][], FilterPredicate)
+     */
+    @SuppressWarnings("unchecked")
+    public static DataFrame fromColumnParts(final DataFrameColumn[][] parts, final TypeInference.OriginalText[][] texts,
+                                            FilterPredicate filterPredicate) {
+        final DataFrameColumn[] columns = new DataFrameColumn[parts[0].length];
+        forEachParallel(columns.length, i -> {
+            Class<?> type = parts[0][i].getType();
+            for (DataFrameColumn[] part : parts) {
+                type = TypeInference.getCommonType(type, part[i].getType());
             }
-            if(expectedSize > BasicColumn.INIT_SIZE){
-                col.setCapacity(expectedSize);
+            for (int p = 0; p < parts.length; p++) {
+                parts[p][i] = TypeInference.promote(parts[p][i], type, texts == null ? null : texts[p][i]);
             }
-            col.setName(columnInformation.getName());
-            dataFrame.addColumn(col);
-            columns[i] = col;
-            autodetect[i] = columnInformation.isAutodetect()
-                    && columnInformation.getColumnType().equals(StringColumn.class);
-            if (autodetect[i]) {
-                hasAutodetect = true;
-                for (int j = 0; j < TYPES.length; j++) {
-                    types[i][j] = true;
+            if (parts.length == 1) {
+                columns[i] = parts[0][i];
+            } else {
+                int size = 0;
+                for (DataFrameColumn[] part : parts) {
+                    size += part[i].size();
+                }
+                DataFrameColumn column = parts[0][i].copyEmpty();
+                column.setCapacity(size);
+                for (DataFrameColumn[] part : parts) {
+                    DataFrameColumn partColumn = part[i];
+                    for (int j = 0; j < partColumn.size(); j++) {
+                        if (partColumn.isNA(j)) {
+                            column.appendNA();
+                        } else {
+                            column.append(partColumn.get(j));
+                        }
+                    }
+                    part[i] = null;
                 }
+                columns[i] = column;
             }
+        });
+
+        DataFrame dataFrame = new DefaultDataFrame();
+        for (DataFrameColumn column : columns) {
+            dataFrame.addColumn(column);
+        }
+        if (filterPredicate != null && filterPredicate != FilterPredicate.EMPTY_FILTER) {
+            dataFrame.filter(filterPredicate);
         }
+        return dataFrame;
+    }
+
+    /**
+     * Reads all rows of a data container into columns.
+     * The types of autodetected columns are inferred from the first {@link TypeInference#getSampleRows() sample rows},
+     * afterwards values are appended directly to the inferred column.
+     * Rows after the sample rows are filtered before values that are not required by the filter are parsed.
+     * A row is only removed if its filter result can not change when a read column is promoted,
+     * otherwise the row is kept and <tt>refilter</tt> is set to filter the columns again once their types are final.
+     * The original text of inferred values that is required if the column is promoted to <tt>String</tt> is stored in <tt>texts</tt>.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R extends Row> DataFrameColumn[] readColumns(DataIterator<R> dataIterator, final List<ColumnInformation> columnsInformation,
+                                                                 int columnCount, int expectedSize, FilterPredicate filterPredicate,
+                                                                 TypeInference.OriginalText[] texts, AtomicBoolean refilter) {
+        final DataFrameColumn[] columns = new DataFrameColumn[columnCount];
+        boolean[] autodetect = new boolean[columnCount];
+        final TypeInference.InferredColumn[] inferredColumns = new TypeInference.InferredColumn[columnCount];
+        BasicHeader header = new BasicHeader();
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = createColumn(columnsInformation.get(i), expectedSize);
+            autodetect[i] = isAutodetect(columnsInformation.get(i));
+            header.add(columns[i].getName());
+        }
+        boolean filter = filterPredicate != null && filterPredicate != FilterPredicate.EMPTY_FILTER;
+        int sampleRows = TypeInference.getSampleRows();
+        String[][] samples = new String[columnCount][];
+        final String[] rowTexts = new String[columnCount];
         int r = 0;
-        for (R row : dataIterator) {
-            Comparable[] rowValues = new Comparable[columnCount];
-            for (int i = 0; i < columnCount; i++) {
-                ColumnInformation columnInformation = columnsInformation.get(i);
-                Comparable val = null;
-                if (Values.NA.isNA(row.get(columnInformation.getIndex()))) {
-                    rowValues[i] = Values.NA;
-                    continue;
+        for (final R row : dataIterator) {
+            if (r == sampleRows) {
+                inferColumns(columns, autodetect, samples, r, inferredColumns, expectedSize);
+                if (filter && filterRows(columns, inferredColumns, header, r, filterPredicate)) {
+                    refilter.set(true);
                 }
-                try {
-                    val = columns[i].getValueFromRow(row, columnInformation.getIndex());
-                } catch (Exception e) {
-                    log.warn("error parsing value ({}), NA added", e.getMessage());
-                }
-                if (val == null || Values.NA.isNA(val) ||
-                        val instanceof String && ("".equals(val.toString()) || "null".equals(val.toString()))) {
-                    rowValues[i] = Values.NA;
-                    continue;
+            }
+            if (r >= sampleRows) {
+                LazyRow lazyRow = new LazyRow(header, r, i -> {
+                    Comparable val = readValue(row, columns[i], columnsInformation.get(i).getIndex());
+                    if (inferredColumns[i] == null || val == Values.NA) {
+                        return val;
+                    }
+                    rowTexts[i] = val.toString();
+                    return inferredColumns[i].parse(rowTexts[i]);
+                });
+                boolean valid = !filter || filterPredicate.valid(lazyRow);
+                if (filter && isProvisional(header, lazyRow, valid, inferredColumns, i -> rowTexts[i], filterPredicate)) {
+                    valid = true;
+                    refilter.set(true);
                 }
-                if (autodetect[i] && (!SAMPLE_ROW_DETECTION || doSample(r))) {
-                    for (int j = 0; j < TYPES.length; j++) {
-                        types[i][j] = types[i][j]
-                                && (TYPE_PARSER[j].parseOrNull(val.toString()) != null);
+                if (valid) {
+                    Comparable[] values = lazyRow.getValues();
+                    for (int i = 0; i < columnCount; i++) {
+                        if (values[i] == Values.NA) {
+                            if (inferredColumns[i] != null) {
+                                inferredColumns[i].appendNA();
+                            } else {
+                                columns[i].appendNA();
+                            }
+                        } else if (inferredColumns[i] != null) {
+                            inferredColumns[i].appendValue(values[i], rowTexts[i]);
+                        } else {
+                            columns[i].append(values[i]);
+                        }
                     }
                 }
-                rowValues[i] = val;
+                r++;
+                continue;
             }
-            if (hasAutodetect || filterPredicate.valid(new BasicRow(dataFrame.getHeader(),rowValues,dataFrame.size() - 1))) {
-                dataFrame.append(rowValues);
+            for (int i = 0; i < columnCount; i++) {
+                Comparable val = readValue(row, columns[i], columnsInformation.get(i).getIndex());
+                if (autodetect[i]) {
+                    if (samples[i] == null) {
+                        samples[i] = new String[Math.min(sampleRows, BasicColumn.INIT_SIZE)];
+                    } else if (r == samples[i].length) {
+                        samples[i] = Arrays.copyOf(samples[i], Math.min(sampleRows, r * 2));
+                    }
+                    samples[i][r] = val == Values.NA ? null : val.toString();
+                } else if (val == Values.NA) {
+                    columns[i].appendNA();
+                } else {
+                    columns[i].append(val);
+                }
             }
             r++;
         }
-        if (hasAutodetect) {
-            replaceAutodetectColumns(dataFrame, autodetect, types);
-            if(filterPredicate != null && filterPredicate != FilterPredicate.EMPTY_FILTER){
-                dataFrame.filter(filterPredicate);
+        if (r <= sampleRows) {
+            inferColumns(columns, autodetect, samples, r, inferredColumns, expectedSize);
+            if (filter && filterRows(columns, inferredColumns, header, r, filterPredicate)) {
+                refilter.set(true);
             }
         }
-
-        return dataFrame;
+        for (int i = 0; i < columnCount; i++) {
+            if (inferredColumns[i] != null) {
+                columns[i] = inferredColumns[i].getColumn();
+                texts[i] = inferredColumns[i].getOriginalText();
+            }
+        }
+        return columns;
     }
 
-    private static boolean doSample(int row){
-        if (row < 100) {
-            return true;
+    /**
+     * Removes the first rows of the columns that are not valid for the filter.
+     * Rows are kept if their filter result can change when a read column is promoted.
+     *
+     * @return <tt>true</tt> if a row was kept because its filter result can change
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean filterRows(final DataFrameColumn[] columns, final TypeInference.InferredColumn[] inferredColumns,
+                                      BasicHeader header, int rowCount, FilterPredicate filterPredicate) {
+        int[] validRows = new int[rowCount];
+        int size = 0;
+        boolean provisional = false;
+        for (int r = 0; r < rowCount; r++) {
+            final int row = r;
+            LazyRow lazyRow = new LazyRow(header, r, i -> {
+                DataFrameColumn column = inferredColumns[i] == null ? columns[i] : inferredColumns[i].getColumn();
+                return column.isNA(row) ? Values.NA : column.get(row);
+            });
+            boolean valid = filterPredicate.valid(lazyRow);
+            if (isProvisional(header, lazyRow, valid, inferredColumns,
+                    i -> inferredColumns[i].getOriginalText().restore(row, lazyRow.get(i)), filterPredicate)) {
+                valid = true;
+                provisional = true;
+            }
+            if (valid) {
+                validRows[size++] = r;
+            }
+        }
+        if (size == rowCount) {
+            return provisional;
         }
-        if (row < 1000) {
-            return row % 10 == 0;
+        validRows = Arrays.copyOf(validRows, size);
+        for (int i = 0; i < columns.length; i++) {
+            if (inferredColumns[i] != null) {
+                inferredColumns[i].retain(validRows);
+            } else {
+                columns[i] = columns[i].copy(validRows);
+            }
         }
-        if (row < 10000) {
-            return row % 100 == 0;
+        return provisional;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the filter result of a row can change when a read column of an inferred type is promoted.
+     * The filter is evaluated again for all combinations of the types the read values can still be promoted to,
+     * e.g. numeric comparisons keep their result while comparisons with text usually change it.
+     *
+     * @param header          header of the row
+     * @param lazyRow         row the filter was evaluated on
+     * @param valid           filter result of the row
+     * @param inferredColumns inferred columns, <tt>null</tt> for columns with a specified type
+     * @param textReader      returns the original text of a read value
+     * @param filterPredicate filter predicate
+     * @return <tt>true</tt> if the filter result is not final
+     */
+    private static boolean isProvisional(BasicHeader header, final LazyRow lazyRow, boolean valid,
+                                         final TypeInference.InferredColumn[] inferredColumns,
+                                         IntFunction<String> textReader, FilterPredicate filterPredicate) {
+        final Comparable[][] promoted = new Comparable[inferredColumns.length][];
+        int[] promotable = new int[inferredColumns.length];
+        int count = 0;
+        int combinations = 1;
+        for (int i = 0; i < inferredColumns.length; i++) {
+            if (inferredColumns[i] == null || !lazyRow.isRead(i) || lazyRow.get(i) == Values.NA) {
+                continue;
+            }
+            Comparable[] values = promotedValues(lazyRow.get(i), textReader.apply(i));
+            if (values.length == 0) {
+                continue;
+            }
+            promoted[i] = values;
+            promotable[count++] = i;
+            combinations *= values.length + 1;
+            if (combinations > MAX_PROMOTION_COMBINATIONS) {
+                return true;
+            }
         }
-        if (row < 100000) {
-            return row % 1000 == 0;
+        final int[] choice = new int[inferredColumns.length];
+        final boolean[] unknown = new boolean[1];
+        for (int c = 1; c < combinations; c++) {
+            int rest = c;
+            for (int j = 0; j < count; j++) {
+                int i = promotable[j];
+                choice[i] = rest % (promoted[i].length + 1);
+                rest /= promoted[i].length + 1;
+            }
+            LazyRow promotedRow = new LazyRow(header, lazyRow.getIndex(), i -> {
+                if (promoted[i] != null) {
+                    return choice[i] == 0 ? lazyRow.get(i) : promoted[i][choice[i] - 1];
+                }
+                Comparable value = lazyRow.get(i);
+                if (inferredColumns[i] != null && value != Values.NA && !(value instanceof String)) {
+                    unknown[0] = true;
+                }
+                return value;
+            });
+            if (filterPredicate.valid(promotedRow) != valid || unknown[0]) {
+                return true;
+            }
         }
-        if (row < 1000000) {
-            return row % 10000 == 0;
+        return false;
+    }
+
+    /**
+     * Returns the values an inferred value is converted to if its column is promoted.
+     *
+     * @param value inferred value that is not NA
+     * @param text  original text of the value
+     * @return promoted values, empty for <tt>String</tt> values
+     */
+    private static Comparable[] promotedValues(Comparable value, String text) {
+        if (value instanceof String) {
+            return new Comparable[0];
         }
-        if (row < 10000000) {
-            return row % 100000 == 0;
+        if (value instanceof Integer) {
+            return new Comparable[]{((Integer) value).longValue(), ((Integer) value).doubleValue(), text};
         }
-        if (row < 100000000) {
-            return row % 1000000 == 0;
+        if (value instanceof Long) {
+            return new Comparable[]{((Long) value).doubleValue(), text};
         }
-        return row % 10000000 == 0;
+        return new Comparable[]{text};
     }
 
-    @SuppressWarnings("unchecked")
-    private static void replaceAutodetectColumns(DataFrame dataFrame, boolean[] autodetect, boolean[][] types) {
-        DataFrameColumn[] newColumns = new DataFrameColumn[autodetect.length];
-        List<String> columnNames = new ArrayList<>(dataFrame.getColumnNames());
-        for (int i = 0; i < autodetect.length; i++) {
-            if (autodetect[i]) {
-                Class<? extends Comparable> colType = null;
-                for (int j = 0; j < TYPES.length; j++) {
-                    if (types[i][j]) {
-                        colType = TYPES[j];
-                        break;
-                    }
+    private static void inferColumns(DataFrameColumn[] columns, boolean[] autodetect, String[][] samples, int sampleCount,
+                                     TypeInference.InferredColumn[] inferredColumns, int expectedSize) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!autodetect[i]) {
+                continue;
+            }
+            boolean[] candidates = TypeInference.createCandidates();
+            for (int r = 0; r < sampleCount; r++) {
+                if (samples[i][r] != null) {
+                    TypeInference.updateCandidates(candidates, samples[i][r]);
                 }
-                if (colType == null) {
-                    continue;
+            }
+            inferredColumns[i] = new TypeInference.InferredColumn(columns[i].getName(), TypeInference.getType(candidates), expectedSize);
+            for (int r = 0; r < sampleCount; r++) {
+                if (samples[i][r] == null) {
+                    inferredColumns[i].appendNA();
+                } else {
+                    inferredColumns[i].append(samples[i][r]);
                 }
-                DataFrameColumn newColumn = ColumnTypeMap.createColumn(colType);
-                newColumn.setName(columnNames.get(i));
-                newColumn.setCapacity(dataFrame.size());
-                newColumns[i] = newColumn;
             }
+            samples[i] = null;
+        }
+    }
+
+    private static void forEachParallel(int count, IntConsumer action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(index)));
         }
-        int currentRow = 0;
-        int currentCol = 0;
-        String currentVal = null;
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    private static DataFrameColumn<?, ?> createColumn(ColumnInformation columnInformation, int expectedSize) {
+        Class colType = columnInformation.getColumnType();
+        DataFrameColumn<?, ?> col;
         try {
-            for (DataRow row : dataFrame) {
-                for (int j = 0; j < autodetect.length; j++) {
-                    if (newColumns[j] != null) {
-                        currentCol = j;
+            col = (DataFrameColumn<?, ?>) colType.newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassCastException e) {
+            throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", colType.getCanonicalName()), e);
+        }
+        if(expectedSize > BasicColumn.INIT_SIZE){
+            col.setCapacity(expectedSize);
+        }
+        col.setName(columnInformation.getName());
+        return col;
+    }
 
-                        if (row.isNA(j)) {
-                            newColumns[j].appendNA();
-                            continue;
-                        }
-                        currentVal = row.getString(j);
-                        newColumns[j].append(
-                                newColumns[j].getParser().parse(currentVal)
-                        );
-                    }
-                }
-                currentRow++;
+    private static boolean isAutodetect(ColumnInformation columnInformation) {
+        return columnInformation.isAutodetect()
+                && columnInformation.getColumnType().equals(StringColumn.class);
+    }
+
+    /**
+     * Reads a value from a row.
+     * {@link Values#NA NA} is returned for missing, empty or unparsable values.
+     *
+     * @param row    source row
+     * @param column column used to parse the value
+     * @param index  index of the value in the row
+     * @return parsed value or {@link Values#NA NA}
+     */
+    private static Comparable readValue(Row<?, ?> row, DataFrameColumn<?, ?> column, int index) {
+        if (Values.NA.isNA(row.get(index))) {
+            return Values.NA;
+        }
+        Comparable val = null;
+        try {
+            val = column.getValueFromRow(row, index);
+        } catch (Exception e) {
+            log.warn("error parsing value ({}), NA added", e.getMessage());
+        }
+        if (val == null || Values.NA.isNA(val) ||
+                val instanceof String && ("".equals(val.toString()) || "null".equals(val.toString()))) {
+            return Values.NA;
+        }
+        return val;
+    }
+
+    /**
+     * Row that reads the values of a source row when they are accessed.
+     * Filters are evaluated on this row, so only the values required by the filter are parsed for invalid rows.
+     */
+    private static class LazyRow extends AbstractHeaderRow<String, Header<String>, Comparable> {
+        private final Comparable[] values;
+        private final IntFunction<Comparable> valueReader;
+
+        LazyRow(Header<String> header, int index, IntFunction<Comparable> valueReader) {
+            super(header, index);
+            this.values = new Comparable[header.size()];
+            this.valueReader = valueReader;
+        }
+
+        @Override
+        public Comparable get(int index) {
+            Comparable value = values[index];
+            if (value == null) {
+                value = valueReader.apply(index);
+                values[index] = value;
             }
-        } catch (ParseException e) {
-            throw new DataFrameRuntimeException(
-                    String.format("error parsing value '%s in row %d col %d",
-                            currentVal,
-                            currentRow,
-                            currentCol));
-        }
-        int i = 0;
-        List<DataFrameColumn> columns = new ArrayList<>(dataFrame.getColumns());
-        for (DataFrameColumn column : columns) {
-            if (newColumns[i] != null) {
-                dataFrame.replaceColumn(column, newColumns[i]);
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Returns <tt>true</tt> if the value at the specified index was already read
+         *
+         * @param index value index
+         * @return <tt>true</tt> if the value was read
+         */
+        boolean isRead(int index) {
+            return values[index] != null;
+        }
+
+        /**
+         * Reads all remaining values and returns the values of this row
+         *
+         * @return values of this row
+         */
+        Comparable[] getValues() {
+            for (int i = 0; i < values.length; i++) {
+                get(i);
             }
-            i++;
+            return values;
         }
     }
 
-
     /**
      * Converts a parent data container to a data frame.
      * The required column information is provided by a column information map.
@@ -11,11 +11,11 @@ public class DataFrameHeader extends BasicTypeHeader<String> {
 
 
     public DataFrameHeader add(DataFrameColumn<?, ?> column) {
-        return (DataFrameHeader)add(column.getName(), column.getClass(), column.getType());
+        return (DataFrameHeader)add(column.getName(), getColumnClass(column), column.getType());
     }
 
     public DataFrameHeader replace(DataFrameColumn<?, ?> existing, DataFrameColumn<?, ?> replacement){
-        return (DataFrameHeader) replace(existing.getName(),replacement.getName(),replacement.getClass(), replacement.getType());
+        return (DataFrameHeader) replace(existing.getName(),replacement.getName(), getColumnClass(replacement), replacement.getType());
     }
     public DataFrameHeader copy() {
         DataFrameHeader copy = new DataFrameHeader();
@@ -442,7 +442,7 @@ public class DataFrameLoader {
      */
     public static DataFrame load(File file, DataReader reader) {
 
-        return load(reader.load(file));
+        return reader.loadDataFrame(file, -1, null, FilterPredicate.EMPTY_FILTER);
 
     }
 
@@ -604,8 +604,7 @@ public class DataFrameLoader {
             throw new DataFrameRuntimeException("error loading reading meta file", e);
         }
         DataReader<?, ?> reader = getDataReader(dataFrameMeta);
-        DataIterator<?> dataIterator = reader.load(file);
-        return DataFrameConverter.fromDataIterator(dataIterator,dataFrameMeta.getSize(), dataFrameMeta.getColumnInformation(), filterPredicate);
+        return reader.loadDataFrame(file, dataFrameMeta, filterPredicate);
     }
 
     /**
@@ -35,6 +35,7 @@ import de.unknownreality.dataframe.meta.DataFrameMetaWriter;
 import java.io.File;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.List;
 
 /**
  * Created by Alex on 23.06.2017.
@@ -336,16 +337,21 @@ public class DataFrameWriter {
 
 
     /**
-     * Writes the meta file for a dataframe and {@link DataWriter} to a target file
+     * Writes the meta file for a dataframe and {@link DataWriter} to a target file.
+     * Block statistics are added if the data writer defines a statistics block size.
      * @param file target file
      * @param dataFrame input dataframe
      * @param dataWriter {@link DataWriter} used to write the dataframe
      */
     public static void writeMetaFile(File file, DataFrame dataFrame, DataWriter dataWriter) {
         File metaFile = new File(file.getAbsolutePath() + "." + DataFrameMeta.META_FILE_EXTENSION);
+        List<DataFrameColumn> metaColumns = dataWriter.getMetaColumns(dataFrame);
         DataFrameMeta meta = DataFrameMeta.create(
-                dataWriter.getReadFormat().getClass(),dataWriter.getMetaColumns(dataFrame), dataWriter.getSettings(dataFrame)
+                dataWriter.getReadFormat().getClass(), metaColumns, dataWriter.getSettings(dataFrame)
         );
+        if (dataWriter.getStatisticsBlockSize() > 0) {
+            meta.setBlockStatistics(DataFrameMeta.createBlockStatistics(metaColumns, dataWriter.getStatisticsBlockSize()));
+        }
         DataFrameMetaWriter.write(meta, metaFile);
     }
 
@@ -26,24 +26,29 @@ package de.unknownreality.dataframe;
 
 import de.unknownreality.dataframe.column.*;
 import de.unknownreality.dataframe.common.mapping.DataMapper;
+import de.unknownreality.dataframe.filter.BoundPredicate;
 import de.unknownreality.dataframe.filter.FilterPredicate;
 import de.unknownreality.dataframe.filter.compile.PredicateCompiler;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupUtil;
 import de.unknownreality.dataframe.group.impl.TreeGroupUtil;
 import de.unknownreality.dataframe.index.Index;
+import de.unknownreality.dataframe.index.IndexPlan;
 import de.unknownreality.dataframe.index.Indices;
 import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 import de.unknownreality.dataframe.join.impl.DefaultJoinUtil;
-import de.unknownreality.dataframe.sort.RowColumnComparator;
+import de.unknownreality.dataframe.join.impl.OverlapJoin;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
 import de.unknownreality.dataframe.sort.SortColumn;
 import de.unknownreality.dataframe.transform.DataFrameTransform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -187,7 +192,7 @@ public class DefaultDataFrame implements DataFrame {
         } catch (DataFrameException e) {
             throw new DataFrameRuntimeException("error adding column", e);
         }
-        header.add(column.getName(), column.getClass(), column.getType());
+        header.add(column);
         columnsMap.put(column.getName(), column);
         return this;
     }
@@ -341,6 +346,7 @@ public class DefaultDataFrame implements DataFrame {
         if (dataFrame.getHeader().size() != columns.length) {
             throw new DataFrameRuntimeException("value for each column required");
         }
+        checkWritable();
         DataFrameColumn column;
         Comparable value;
         for (int i = 0; i < columns.length; i++) {
@@ -355,7 +361,7 @@ public class DefaultDataFrame implements DataFrame {
             column.endDataFrameAppend();
         }
         size++;
-        indices.update(getRow(size - 1));
+        indices.update(size - 1);
         return this;
     }
 
@@ -370,6 +376,7 @@ public class DefaultDataFrame implements DataFrame {
         if (values.length != columns.length) {
             throw new DataFrameRuntimeException("value for each column required");
         }
+        checkWritable();
         DataFrameColumn column;
         Comparable value;
         for (int i = 0; i< columns.length; i++) {
@@ -394,7 +401,7 @@ public class DefaultDataFrame implements DataFrame {
             column.endDataFrameAppend();
         }
         size++;
-        indices.update(getRow(size - 1));
+        indices.update(size - 1);
         return this;
     }
 
@@ -406,6 +413,7 @@ public class DefaultDataFrame implements DataFrame {
     @Override
     @SuppressWarnings("unchecked")
     public DefaultDataFrame append(DataRow row) {
+        checkWritable();
         Comparable value;
         for (String h : header) {
             DataFrameColumn column = columnsMap.get(h);
@@ -420,13 +428,14 @@ public class DefaultDataFrame implements DataFrame {
 
         }
         this.size++;
-        indices.update(getRow(size - 1));
+        indices.update(size - 1);
         return this;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public DefaultDataFrame appendMatchingRow(DataRow row) {
+        checkWritable();
         Comparable value;
         for (int i  = 0; i < row.size(); i++) {
             DataFrameColumn column = columns[i];
@@ -440,12 +449,17 @@ public class DefaultDataFrame implements DataFrame {
             column.endDataFrameAppend();
         }
         this.size++;
-        indices.update(getRow(size - 1));
+        indices.update(size - 1);
         return this;
     }
 
     @Override
     public DefaultDataFrame update(DataRow dataRow) {
+        for (String h : header) {
+            if (dataRow.get(h) != null && getColumn(h).isReadOnly()) {
+                throw new DataFrameRuntimeException(String.format("column '%s' is read-only", h));
+            }
+        }
         for (String h : header) {
             DataFrameColumn column = getColumn(h);
             Comparable newValue = dataRow.get(h);
@@ -512,6 +526,7 @@ public class DefaultDataFrame implements DataFrame {
         }
         if (indices == this.indices) {
             this.indices.clearValues();
+            this.indices.rebindColumns();
         } else if (indices != null) {
             indices.copyTo(this);
         } else {
@@ -550,6 +565,22 @@ public class DefaultDataFrame implements DataFrame {
         return this;
     }
 
+    /**
+     * Throws a {@link DataFrameRuntimeException} if rows can not be added because a column is read-only.
+     * The check is done before any column is modified, so that a failed append leaves the data frame unchanged.
+     */
+    private void checkWritable() {
+        if (columns == null) {
+            return;
+        }
+        for (DataFrameColumn column : columns) {
+            if (column.isReadOnly()) {
+                throw new DataFrameRuntimeException(
+                        String.format("column '%s' is read-only, use copy() to get a modifiable data frame", column.getName()));
+            }
+        }
+    }
+
     private void removeFromColumns(DataFrameColumn column) {
         if (columns == null) {
             throw new DataFrameRuntimeException("error removing column: dataframe contains no column");
@@ -578,10 +609,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame sort(SortColumn... columns) {
-        DataRows rows = getRows(0, size);
-        Collections.sort(rows, new RowColumnComparator(columns));
-        set(rows,indices);
-        return this;
+        return reorderRows(RowIndexSorter.sort(this, columns));
     }
 
 
@@ -589,8 +617,11 @@ public class DefaultDataFrame implements DataFrame {
     public DefaultDataFrame sort(Comparator<DataRow> comp) {
         DataRows rows = getRows(0, size);
         Collections.sort(rows, comp);
-        set(rows,indices);
-        return this;
+        int[] order = new int[rows.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = rows.get(i).getIndex();
+        }
+        return reorderRows(order);
     }
 
 
@@ -602,18 +633,41 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame sort(String name, SortColumn.Direction dir) {
-        DataRows rows = getRows(0, size);
-        Collections.sort(rows, new RowColumnComparator(new SortColumn[]{new SortColumn(name, dir)}));
-        set(rows,indices);
-        return this;
+        return sort(new SortColumn(name, dir));
     }
 
 
     @Override
     public DefaultDataFrame shuffle() {
-        DataRows rows = getRows(0, size);
-        Collections.shuffle(rows);
-        set(rows, indices);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Random random = ThreadLocalRandom.current();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return reorderRows(order);
+    }
+
+    /**
+     * Reorders all rows using a permutation of the row indices.
+     * The columns are reordered in place and the row numbers in all indices are remapped.
+     *
+     * @param order previous row index of each row
+     * @return <tt>self</tt> for method chaining
+     */
+    protected DefaultDataFrame reorderRows(int[] order) {
+        this.version.incrementAndGet();
+        if (columns != null) {
+            for (DataFrameColumn column : columns) {
+                column.doReorder(order);
+            }
+        }
+        indices.remapRows(order);
         return this;
     }
 
@@ -638,9 +692,10 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DataRow selectFirst(FilterPredicate predicate) {
-        for (DataRow row : this) {
-            if (predicate.valid(row)) {
-                return row;
+        BoundPredicate boundPredicate = predicate.bind(this);
+        for (int i = 0; i < size(); i++) {
+            if (boundPredicate.valid(i)) {
+                return getRow(i);
             }
         }
         return null;
@@ -649,14 +704,12 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame select(FilterPredicate predicate) {
+        int[] rows = selectRowIndices(predicate);
         DefaultDataFrame df = new DefaultDataFrame();
-        df.set(getHeader());
-        indices.copyTo(df);
-        for (DataRow row : this) {
-            if (predicate.valid(row)) {
-                df.append(row);
-            }
+        for (DataFrameColumn column : getColumns()) {
+            df.addColumn(column.copy(rows));
         }
+        indices.copyTo(df);
         return df;
     }
 
@@ -694,15 +747,50 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DataRows selectRows(FilterPredicate predicate) {
-        List<DataRow> rows = new ArrayList<>();
-        for (DataRow row : this) {
-            if (predicate.valid(row)) {
-                rows.add(row);
-            }
+        int[] rowIndices = selectRowIndices(predicate);
+        List<DataRow> rows = new ArrayList<>(rowIndices.length);
+        for (int rowIndex : rowIndices) {
+            rows.add(getRow(rowIndex));
         }
         return new DataRows(this, rows);
     }
 
+    /**
+     * Returns the indices of all rows that are valid for a predicate.
+     * The rows found using the indices of this data frame are selected, see {@link Indices#plan(FilterPredicate)}.
+     * The remaining predicate is evaluated on this selection or on a selection containing all rows,
+     * combined predicates evaluate their parts one after another on the remaining selection.
+     *
+     * @param predicate filter predicate
+     * @return ascending indices of the valid rows
+     */
+    protected int[] selectRowIndices(FilterPredicate predicate) {
+        IndexPlan plan = indices.plan(predicate);
+        if (plan.isIndexed() && plan.getResidual() == null) {
+            return plan.getRows();
+        }
+        BitSet selection = new BitSet(size);
+        if (plan.isIndexed()) {
+            for (int row : plan.getRows()) {
+                selection.set(row);
+            }
+        } else {
+            selection.set(0, size);
+        }
+        plan.getResidual().bind(this).filter(selection);
+        int[] rows = new int[selection.cardinality()];
+        int j = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            rows[j++] = i;
+        }
+        return rows;
+    }
+
+
+    @Override
+    public String explain(FilterPredicate predicate) {
+        return indices.plan(predicate).toString();
+    }
 
     @Override
     public DefaultDataFrame transform(DataFrameTransform transformer) {
@@ -807,13 +895,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame concat(DataFrame other) {
-        if (!header.equals(other.getHeader())) {
-            throw new DataFrameRuntimeException("data frames not compatible");
-        }
-        for (DataRow row : other) {
-            append(row);
-        }
-        return this;
+        return concat(Collections.singletonList(other));
     }
 
 
@@ -823,10 +905,35 @@ public class DefaultDataFrame implements DataFrame {
             if (!header.equals(dataFrame.getHeader())) {
                 throw new DataFrameRuntimeException("data frames not compatible");
             }
-            for (DataRow row : dataFrame) {
-                append(row);
+        }
+        beginBulkAppend();
+        try {
+            for (DataFrame dataFrame : dataFrames) {
+                for (DataRow row : dataFrame) {
+                    append(row);
+                }
+            }
+        } catch (RuntimeException e) {
+            try {
+                endBulkAppend();
+            } catch (RuntimeException indexError) {
+                e.addSuppressed(indexError);
             }
+            throw e;
         }
+        endBulkAppend();
+        return this;
+    }
+
+    @Override
+    public DefaultDataFrame beginBulkAppend() {
+        indices.beginBulkUpdate();
+        return this;
+    }
+
+    @Override
+    public DefaultDataFrame endBulkAppend() {
+        indices.endBulkUpdate();
         return this;
     }
 
@@ -935,6 +1042,11 @@ public class DefaultDataFrame implements DataFrame {
         return groupUtil.groupBy(this, column);
     }
 
+    @Override
+    public DataGrouping groupByView(String... column) {
+        return groupUtil.groupByView(this, column);
+    }
+
 
     @Override
     public JoinedDataFrame joinLeft(DataFrame dataFrame, String... joinColumns) {
@@ -958,6 +1070,18 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public JoinedDataFrame joinLeft(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.leftJoin(this, dataFrame, strategy, joinColumns);
+    }
+
+
+    @Override
+    public JoinedDataFrame joinLeft(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.leftJoin(this, dataFrame, suffixA, suffixB, strategy, joinColumns);
+    }
+
+
     @Override
     public JoinedDataFrame joinRight(DataFrame dataFrame, String... joinColumns) {
         JoinColumn[] joinColumnsArray = new JoinColumn[joinColumns.length];
@@ -980,6 +1104,18 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public JoinedDataFrame joinRight(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.rightJoin(this, dataFrame, strategy, joinColumns);
+    }
+
+
+    @Override
+    public JoinedDataFrame joinRight(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.rightJoin(this, dataFrame, suffixA, suffixB, strategy, joinColumns);
+    }
+
+
     @Override
     public JoinedDataFrame joinInner(DataFrame dataFrame, String... joinColumns) {
         JoinColumn[] joinColumnsArray = new JoinColumn[joinColumns.length];
@@ -1002,11 +1138,34 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public JoinedDataFrame joinInner(DataFrame dataFrame, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.innerJoin(this, dataFrame, strategy, joinColumns);
+    }
+
+
+    @Override
+    public JoinedDataFrame joinInner(DataFrame dataFrame, String suffixA, String suffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return joinUtil.innerJoin(this, dataFrame, suffixA, suffixB, strategy, joinColumns);
+    }
+
+
+    @Override
+    public JoinedDataFrame joinOverlap(DataFrame dataFrame, String startColumn, String endColumn,
+                                       String otherStartColumn, String otherEndColumn) {
+        return OverlapJoin.join(this, startColumn, endColumn, dataFrame, otherStartColumn, otherEndColumn,
+                DefaultJoinUtil.JOIN_SUFFIX_A, DefaultJoinUtil.JOIN_SUFFIX_B);
+    }
+
+
     @Override
     public DefaultDataFrame copy() {
-        DataRows rows = getRows(0, size);
+        DefaultDataFrame columnCopies = new DefaultDataFrame();
+        for (DataFrameColumn column : getColumns()) {
+            columnCopies.addColumn(column.copy());
+        }
         DefaultDataFrame copy = new DefaultDataFrame();
-        copy.set(rows, indices);
+        copy.set(columnCopies, indices);
         return copy;
     }
 
@@ -1042,6 +1201,12 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public Index findIndex(DataFrameColumn... columns) {
+        return indices.findIndex(columns);
+    }
+
+
     @Override
     public DataRows selectRowsByIndex(String name, Comparable... values) {
         Collection<Integer> rowIndices = indices.find(name, values);
@@ -1070,6 +1235,18 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public DefaultDataFrame selectByIndexRange(String name, Comparable low, boolean lowInclusive, Comparable high, boolean highInclusive) {
+        int[] rows = indices.findRange(name, low, lowInclusive, high, highInclusive);
+        Arrays.sort(rows);
+        DefaultDataFrame df = new DefaultDataFrame();
+        for (DataFrameColumn column : getColumns()) {
+            df.addColumn(column.copy(rows));
+        }
+        indices.copyTo(df);
+        return df;
+    }
+
     @Override
     public Collection<DataFrameColumn> getColumns() {
         return Arrays.asList(columns);
@@ -1156,7 +1333,7 @@ public class DefaultDataFrame implements DataFrame {
         } else {
             columns[col].set(row, newValue);
         }
-        indices.update(getRow(row));
+        indices.update(row);
     }
 
     @Override
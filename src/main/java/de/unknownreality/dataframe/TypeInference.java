@@ -0,0 +1,568 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe;
+
+import de.unknownreality.dataframe.column.BasicColumn;
+import de.unknownreality.dataframe.common.parser.Parser;
+import de.unknownreality.dataframe.common.parser.ParserUtil;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Type inference for autodetected columns.
+ * The type of a column is inferred from the values in the first {@link #getSampleRows() sample rows}.
+ * Values that do not fit the inferred type promote the column along
+ * <tt>Integer -&gt; Long -&gt; Double -&gt; String</tt>, boolean columns are promoted to <tt>String</tt>.
+ * Values that were parsed before a promotion to <tt>String</tt> keep their original text, e.g. <tt>001</tt> or <tt>1.50</tt>
+ * (see {@link OriginalText}).
+ */
+public class TypeInference {
+    public static final int DEFAULT_SAMPLE_ROWS = 1000;
+
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends Comparable>[] TYPES = new Class[]
+            {
+                    Boolean.class,
+                    Integer.class,
+                    Long.class,
+                    Double.class
+            };
+    private static final Parser<?>[] TYPE_PARSER = new Parser[]
+            {
+                    ParserUtil.findParserOrNull(Boolean.class),
+                    ParserUtil.findParserOrNull(Integer.class),
+                    ParserUtil.findParserOrNull(Long.class),
+                    ParserUtil.findParserOrNull(Double.class)
+            };
+    private static final List<Class<? extends Comparable>> PROMOTION_ORDER = Arrays.asList(Integer.class, Long.class, Double.class);
+
+    private static final MathContext DECIMAL_CONTEXT = new MathContext(15, RoundingMode.HALF_EVEN);
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    private static volatile int sampleRows = DEFAULT_SAMPLE_ROWS;
+
+    private TypeInference() {
+    }
+
+    /**
+     * Sets the number of rows used to infer the type of a column
+     *
+     * @param sampleRows number of sample rows
+     */
+    public static void setSampleRows(int sampleRows) {
+        if (sampleRows < 1) {
+            throw new DataFrameRuntimeException("at least one sample row is required");
+        }
+        TypeInference.sampleRows = sampleRows;
+    }
+
+    /**
+     * Returns the number of rows used to infer the type of a column
+     *
+     * @return number of sample rows
+     */
+    public static int getSampleRows() {
+        return sampleRows;
+    }
+
+    /**
+     * Creates the type candidates for a column.
+     * Initially all detectable types are candidates.
+     *
+     * @return type candidates
+     */
+    public static boolean[] createCandidates() {
+        boolean[] candidates = new boolean[TYPES.length];
+        Arrays.fill(candidates, true);
+        return candidates;
+    }
+
+    /**
+     * Removes all types that can not parse a value from the type candidates
+     *
+     * @param candidates type candidates
+     * @param value      value that is not NA
+     */
+    public static void updateCandidates(boolean[] candidates, String value) {
+        for (int j = 0; j < TYPES.length; j++) {
+            candidates[j] = candidates[j] && (TYPE_PARSER[j].parseOrNull(value) != null);
+        }
+    }
+
+    /**
+     * Returns the first type of the type candidates or <tt>String</tt> if no candidate is left
+     *
+     * @param candidates type candidates
+     * @return inferred type
+     */
+    public static Class<? extends Comparable> getType(boolean[] candidates) {
+        for (int j = 0; j < TYPES.length; j++) {
+            if (candidates[j]) {
+                return TYPES[j];
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * Returns the type a column is promoted to if a value can not be parsed by the current type.
+     *
+     * @param type  current type
+     * @param value value that can not be parsed
+     * @return promoted type
+     */
+    public static Class<? extends Comparable> promoteType(Class<?> type, String value) {
+        int index = PROMOTION_ORDER.indexOf(type);
+        if (index != -1) {
+            for (int j = index + 1; j < PROMOTION_ORDER.size(); j++) {
+                if (ParserUtil.findParserOrNull(PROMOTION_ORDER.get(j)).parseOrNull(value) != null) {
+                    return PROMOTION_ORDER.get(j);
+                }
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * Returns the narrowest type both types can be promoted to
+     *
+     * @param a first type
+     * @param b second type
+     * @return common type
+     */
+    public static Class<?> getCommonType(Class<?> a, Class<?> b) {
+        if (a.equals(b)) {
+            return a;
+        }
+        int indexA = PROMOTION_ORDER.indexOf(a);
+        int indexB = PROMOTION_ORDER.indexOf(b);
+        if (indexA == -1 || indexB == -1) {
+            return String.class;
+        }
+        return PROMOTION_ORDER.get(Math.max(indexA, indexB));
+    }
+
+    /**
+     * Returns <tt>true</tt> for integers without sign prefix or leading zeros.
+     * {@link Long#toString(long)} returns these integers unchanged.
+     *
+     * @param text value text
+     * @return <tt>true</tt> if the text is a plain integer
+     */
+    public static boolean isPlainInteger(String text) {
+        int length = text.length();
+        int start = length > 1 && text.charAt(0) == '-' ? 1 : 0;
+        if (start == length) {
+            return false;
+        }
+        if (text.charAt(start) == '0') {
+            return length == 1;
+        }
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns <tt>true</tt> for decimals with up to 15 significant digits, a dot,
+     * no leading zeros and no trailing zeros except a single fraction digit.
+     * {@link #formatDecimal(double)} returns these decimals unchanged.
+     *
+     * @param text value text
+     * @return <tt>true</tt> if the text is a plain decimal
+     */
+    public static boolean isPlainDecimal(String text) {
+        int length = text.length();
+        int start = length > 1 && text.charAt(0) == '-' ? 1 : 0;
+        int dot = text.indexOf('.', start);
+        if (dot <= start || dot == length - 1) {
+            return false;
+        }
+        if (text.charAt(start) == '0' && dot != start + 1) {
+            return false;
+        }
+        if (text.charAt(length - 1) == '0' && length - dot > 2) {
+            return false;
+        }
+        int significant = 0;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (i == dot) {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            if (significant > 0 || c != '0') {
+                significant++;
+            }
+        }
+        return significant <= 15;
+    }
+
+    /**
+     * Formats a double as plain decimal with at most 15 significant digits,
+     * without trailing zeros except a single fraction digit, e.g. <tt>12345678.5</tt> or <tt>100.0</tt>.
+     * Every decimal with up to 15 significant digits is restored from its parsed value.
+     *
+     * @param value finite double value
+     * @return plain decimal
+     */
+    public static String formatDecimal(double value) {
+        if (value == 0d) {
+            return Double.doubleToRawLongBits(value) < 0 ? "-0.0" : "0.0";
+        }
+        String plain = new BigDecimal(value).round(DECIMAL_CONTEXT).stripTrailingZeros().toPlainString();
+        return plain.indexOf('.') == -1 ? plain + ".0" : plain;
+    }
+
+    /**
+     * Returns <tt>true</tt> if a double is an integer that {@link Long#toString(long)} restores exactly
+     */
+    private static boolean isExactInteger(double value) {
+        return value == Math.rint(value) && Math.abs(value) <= MAX_EXACT_INTEGER;
+    }
+
+    /**
+     * Converts a column to a column of a promoted type.
+     * If the column already has the specified type it is returned.
+     *
+     * @param column source column
+     * @param type   promoted type
+     * @return column of the promoted type
+     */
+    public static DataFrameColumn promote(DataFrameColumn column, Class<?> type) {
+        return promote(column, type, null);
+    }
+
+    /**
+     * Converts a column to a column of a promoted type.
+     * Values promoted to <tt>String</tt> use their original text if it is available.
+     * If integers are promoted to <tt>Double</tt>, they are marked as integers in the original text,
+     * only integers that a double can not represent exactly keep their text.
+     * If the column already has the specified type it is returned.
+     *
+     * @param column source column
+     * @param type   promoted type
+     * @param text   original text of the column values, may be <tt>null</tt>
+     * @return column of the promoted type
+     */
+    @SuppressWarnings("unchecked")
+    public static DataFrameColumn promote(DataFrameColumn column, Class<?> type, OriginalText text) {
+        if (column.getType().equals(type)) {
+            return column;
+        }
+        DataFrameColumn promoted = ColumnTypeMap.createColumn((Class) type);
+        promoted.setName(column.getName());
+        promoted.setCapacity(column.size());
+        for (int i = 0; i < column.size(); i++) {
+            if (column.isNA(i)) {
+                promoted.appendNA();
+            } else if (type == Long.class) {
+                promoted.append(promoteValue((Comparable<?>) column.get(i), type));
+            } else if (type == Double.class) {
+                Number value = (Number) column.get(i);
+                if (text != null && !(value instanceof Double) && text.get(i) == null) {
+                    if (Math.abs(value.longValue()) <= MAX_EXACT_INTEGER) {
+                        text.setInteger(i);
+                    } else {
+                        text.set(i, value.toString());
+                    }
+                }
+                promoted.append(value.doubleValue());
+            } else {
+                promoted.append(text == null ? promoteValue((Comparable<?>) column.get(i), type) : text.restore(i, column.get(i)));
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * Converts a value to a promoted type.
+     * Numbers are converted to <tt>Long</tt> or <tt>Double</tt>, values promoted to <tt>String</tt> use their string representation.
+     *
+     * @param value value that is not NA
+     * @param type  promoted type
+     * @return value of the promoted type
+     */
+    public static Comparable<?> promoteValue(Comparable<?> value, Class<?> type) {
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (type == Long.class) {
+            return ((Number) value).longValue();
+        }
+        if (type == Double.class) {
+            return ((Number) value).doubleValue();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Information to restore the original text of column values if the column is promoted to <tt>String</tt>.
+     * Integers and plain decimals are restored from their parsed values, doubles that were parsed from integers
+     * are only marked. Other text is stored, e.g. <tt>001</tt>, <tt>1.50</tt> or <tt>1e3</tt>.
+     */
+    public static class OriginalText {
+        private String[] texts;
+        private BitSet integers;
+
+        /**
+         * Records how the text of a parsed value is restored.
+         * The text is only stored if it can not be restored from the value.
+         *
+         * @param row   row index
+         * @param value parsed value
+         * @param text  text the value was parsed from
+         */
+        public void record(int row, Comparable<?> value, String text) {
+            if (value instanceof Integer || value instanceof Long) {
+                if (!isPlainInteger(text)) {
+                    set(row, text);
+                }
+            } else if (value instanceof Double) {
+                if (isPlainDecimal(text)) {
+                    return;
+                }
+                double d = (Double) value;
+                if (isExactInteger(d) && text.equals(Long.toString((long) d))) {
+                    setInteger(row);
+                } else {
+                    set(row, text);
+                }
+            } else if (!text.equals(value.toString())) {
+                set(row, text);
+            }
+        }
+
+        /**
+         * Sets the original text of a row
+         *
+         * @param row  row index
+         * @param text original text
+         */
+        public void set(int row, String text) {
+            if (texts == null) {
+                texts = new String[Math.max(BasicColumn.INIT_SIZE, row + 1)];
+            } else if (row >= texts.length) {
+                texts = Arrays.copyOf(texts, Math.max(texts.length * 2, row + 1));
+            }
+            texts[row] = text;
+        }
+
+        /**
+         * Marks a double value that was parsed from a plain integer
+         *
+         * @param row row index
+         */
+        public void setInteger(int row) {
+            if (integers == null) {
+                integers = new BitSet();
+            }
+            integers.set(row);
+        }
+
+        /**
+         * Returns the stored original text of a row
+         *
+         * @param row row index
+         * @return original text or <tt>null</tt> if the text is restored from the parsed value
+         */
+        public String get(int row) {
+            return texts == null || row >= texts.length ? null : texts[row];
+        }
+
+        /**
+         * Returns the original text of a parsed value
+         *
+         * @param row   row index
+         * @param value parsed value of the row
+         * @return original text
+         */
+        public String restore(int row, Comparable<?> value) {
+            String text = get(row);
+            if (text != null) {
+                return text;
+            }
+            if (value instanceof Double) {
+                double d = (Double) value;
+                if (integers != null && integers.get(row)) {
+                    return Long.toString((long) d);
+                }
+                return Double.isNaN(d) || Double.isInfinite(d) ? value.toString() : formatDecimal(d);
+            }
+            return value.toString();
+        }
+
+        /**
+         * Keeps only the text of the specified rows
+         *
+         * @param rows indices of the retained rows in ascending order
+         */
+        public void retain(int[] rows) {
+            if (texts != null) {
+                String[] retained = new String[Math.max(BasicColumn.INIT_SIZE, rows.length)];
+                for (int i = 0; i < rows.length; i++) {
+                    retained[i] = get(rows[i]);
+                }
+                texts = retained;
+            }
+            if (integers != null) {
+                BitSet retained = new BitSet(rows.length);
+                for (int i = 0; i < rows.length; i++) {
+                    if (integers.get(rows[i])) {
+                        retained.set(i);
+                    }
+                }
+                integers = retained;
+            }
+        }
+    }
+
+    /**
+     * Column that is built in its inferred type and promoted if a value does not fit.
+     */
+    public static class InferredColumn {
+        private DataFrameColumn column;
+        private Parser<?> parser;
+        private OriginalText text = new OriginalText();
+
+        /**
+         * Creates a column with an inferred type
+         *
+         * @param name     column name
+         * @param type     inferred type
+         * @param capacity initial capacity, ignored if <tt>-1</tt>
+         */
+        public InferredColumn(String name, Class<? extends Comparable> type, int capacity) {
+            column = ColumnTypeMap.createColumn((Class) type);
+            column.setName(name);
+            if (capacity > 0) {
+                column.setCapacity(capacity);
+            }
+            parser = column.getParser();
+        }
+
+        /**
+         * Appends a value that is not NA, the column is promoted if the value does not fit
+         *
+         * @param value value string
+         */
+        public void append(String value) {
+            appendValue(parse(value), value);
+        }
+
+        /**
+         * Parses a value using the type of this column.
+         * The column is promoted if the value does not fit.
+         *
+         * @param value value string that is not NA
+         * @return parsed value
+         */
+        public Comparable parse(String value) {
+            try {
+                return (Comparable) parser.parse(value);
+            } catch (ParseException | RuntimeException e) {
+                promote(promoteType(column.getType(), value));
+                return parse(value);
+            }
+        }
+
+        /**
+         * Promotes this column to a wider type, values promoted to <tt>String</tt> keep their original text
+         *
+         * @param type promoted type
+         */
+        public void promote(Class<?> type) {
+            column = TypeInference.promote(column, type, text);
+            parser = column.getParser();
+            if (type == String.class) {
+                text = new OriginalText();
+            }
+        }
+
+        /**
+         * Appends a value returned by {@link #parse(String)}.
+         * The value is parsed again if the column was promoted after the value was parsed.
+         *
+         * @param value parsed value
+         * @param text  text the value was parsed from
+         */
+        @SuppressWarnings("unchecked")
+        public void appendValue(Comparable value, String text) {
+            if (!column.getType().isInstance(value)) {
+                value = parse(text);
+            }
+            if (column.getType() != String.class) {
+                this.text.record(column.size(), value, text);
+            }
+            column.append(value);
+        }
+
+        /**
+         * Keeps only the specified rows of this column
+         *
+         * @param rows indices of the retained rows
+         */
+        public void retain(int[] rows) {
+            column = column.copy(rows);
+            text.retain(rows);
+        }
+
+        /**
+         * Appends a NA value
+         */
+        public void appendNA() {
+            column.appendNA();
+        }
+
+        /**
+         * Returns the original text of the values that do not return their text
+         *
+         * @return original text
+         */
+        public OriginalText getOriginalText() {
+            return text;
+        }
+
+        /**
+         * Returns the current column
+         *
+         * @return column
+         */
+        public DataFrameColumn getColumn() {
+            return column;
+        }
+    }
+}
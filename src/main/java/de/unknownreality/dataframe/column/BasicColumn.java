@@ -30,6 +30,7 @@ import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.MapFunction;
 import de.unknownreality.dataframe.Values;
 import de.unknownreality.dataframe.common.ValueComparator;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -66,24 +67,63 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
         this(name, values, values.length);
     }
 
+    /**
+     * Creates a column without allocating the default value array.
+     * Subclasses using this constructor manage their own value storage
+     * and must override all methods accessing {@link #values}.
+     *
+     * @param name name of the column
+     * @param size number of values already present in the subclass storage
+     */
+    protected BasicColumn(String name, int size) {
+        setName(name);
+        this.size = size;
+    }
+
     @Override
     public C setCapacity(int capacity) {
         if (capacity < size) {
             throw new DataFrameRuntimeException("capacity can not be lower than current size");
         }
-        values = Arrays.copyOf(values, capacity);
+        resize(capacity);
         return getThis();
     }
 
+    /**
+     * Returns the number of values the current storage can hold without growing
+     *
+     * @return capacity of the value storage
+     */
+    protected int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Resizes the value storage to the specified capacity.
+     *
+     * @param capacity new capacity
+     */
+    protected void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
     @Override
     protected void doSort(Comparator<T> comparator) {
-        Arrays.sort(values, 0, size(), comparator);
+        if (RowIndexSorter.isParallel(size())) {
+            Arrays.parallelSort(values, 0, size(), comparator);
+        } else {
+            Arrays.sort(values, 0, size(), comparator);
+        }
     }
 
 
     @Override
     protected void doSort() {
-        Arrays.sort(values, 0, size(), ValueComparator.COMPARATOR);
+        if (RowIndexSorter.isParallel(size())) {
+            Arrays.parallelSort(values, 0, size(), ValueComparator.COMPARATOR);
+        } else {
+            Arrays.sort(values, 0, size(), ValueComparator.COMPARATOR);
+        }
 
     }
 
@@ -108,7 +148,7 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
             if (isNA(i)) {
                 continue;
             }
-            values[i] = mapFunction.map(values[i]);
+            doSet(i, mapFunction.map(get(i)));
         }
     }
 
@@ -116,13 +156,23 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
     @Override
     protected void doReverse() {
         for (int i = 0; i < size() / 2; i++) {
-            T temp = values[i];
-            values[i] = values[size() - i - 1];
-            values[size() - i - 1] = temp;
+            T temp = get(i);
+            doSet(i, get(size() - i - 1));
+            doSet(size() - i - 1, temp);
         }
     }
 
 
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doReorder(int[] order) {
+        T[] reordered = (T[]) Array.newInstance(getType(), values.length);
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = values[order[i]];
+        }
+        values = reordered;
+    }
+
     @Override
     public T get(int index) {
         return values[index];
@@ -171,10 +221,10 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
 
             @Override
             public T next() {
-                if (index >= values.length) {
-                    throw new NoSuchElementException(String.format("element not found: index out of bounds %s >= %s]", index, values.length));
+                if (index >= size()) {
+                    throw new NoSuchElementException(String.format("element not found: index out of bounds %s >= %s]", index, size()));
                 }
-                return values[index++];
+                return get(index++);
             }
         };
     }
@@ -211,11 +261,10 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
 
     @Override
     protected boolean doAppend(T t) {
-
-        if (size >= values.length - 1) {
-            values = Arrays.copyOf(values, (int) ((double) values.length * GROW_FACTOR));
+        if (size >= capacity() - 1) {
+            resize(Math.max(INIT_SIZE, (int) ((double) capacity() * GROW_FACTOR)));
         }
-        values[size++] = t;
+        doSet(size++, t);
         return true;
     }
 
@@ -263,11 +312,18 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
         );
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void clear() {
-        values = (T[]) Array.newInstance(getType(), INIT_SIZE);
         size = 0;
+        clearValues();
+    }
+
+    /**
+     * Discards all stored values and resets the storage to its initial capacity
+     */
+    @SuppressWarnings("unchecked")
+    protected void clearValues() {
+        values = (T[]) Array.newInstance(getType(), INIT_SIZE);
     }
 
 
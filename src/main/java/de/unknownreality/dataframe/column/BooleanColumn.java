@@ -116,6 +116,16 @@ public class BooleanColumn extends BasicColumn<Boolean, BooleanColumn> {
         return new BooleanColumn(getName());
     }
 
+    @Override
+    public BooleanColumn copy(int[] rowIndices) {
+        Boolean[] copyValues = new Boolean[rowIndices.length];
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            copyValues[i] = index < 0 ? null : values[index];
+        }
+        return new BooleanColumn(getName(), copyValues);
+    }
+
     @Override
     public <H> Boolean getValueFromRow(Row<?, H> row, H headerName) {
         return row.getBoolean(headerName);
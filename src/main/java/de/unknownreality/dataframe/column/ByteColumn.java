@@ -27,6 +27,9 @@ package de.unknownreality.dataframe.column;
 import de.unknownreality.dataframe.common.Row;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,22 +38,56 @@ public class ByteColumn extends NumberColumn<Byte, ByteColumn> {
 
     private final Parser<Byte> parser = ParserUtil.findParserOrNull(Byte.class);
 
+    private byte[] byteValues;
+
     public ByteColumn() {
-        super();
+        this(null);
     }
 
     public ByteColumn(String name) {
         super(name);
+        byteValues = new byte[INIT_SIZE];
     }
 
     public ByteColumn(String name, Byte[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
     public ByteColumn(String name, Byte[] values, int size) {
         super(name, values, size);
+        byteValues = new byte[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                byteValues[i] = values[i];
+            }
+        }
+    }
+
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public ByteColumn(String name, byte[] values) {
+        this(name, values, values.length);
+    }
+
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public ByteColumn(String name, byte[] values, int size) {
+        super(name, values.length, size);
+        byteValues = values;
     }
 
+
     @Override
     public Class<Byte> getType() {
         return Byte.class;
@@ -67,11 +104,101 @@ public class ByteColumn extends NumberColumn<Byte, ByteColumn> {
         return this;
     }
 
+    @Override
+    public Byte get(int index) {
+        return isNA(index) ? null : byteValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public byte getByte(int index) {
+        return byteValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public ByteColumn setByte(int index, byte value) {
+        byteValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return byteValues[index];
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        byteValues[index] = value.byteValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        byteValues[to] = byteValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return byteValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        byteValues = Arrays.copyOf(byteValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        byte[] reordered = new byte[byteValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = byteValues[order[i]];
+        }
+        byteValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(byteValues, naCount, size());
+        } else {
+            Arrays.sort(byteValues, naCount, size());
+        }
+    }
+
     @Override
     public ByteColumn copy() {
-        Byte[] copyValues = new Byte[values.length];
-        toArray(copyValues);
-        return new ByteColumn(getName(), copyValues, size());
+        ByteColumn copy = new ByteColumn(getName(), Arrays.copyOf(byteValues, byteValues.length), size());
+        copyNAFlags(copy);
+        return copy;
+    }
+
+    @Override
+    public ByteColumn copy(int[] rowIndices) {
+        byte[] copyValues = new byte[rowIndices.length];
+        ByteColumn copy = new ByteColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = byteValues[index];
+            }
+        }
+        return copy;
     }
 
     @Override
@@ -25,8 +25,12 @@
 package de.unknownreality.dataframe.column;
 
 import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,19 +39,53 @@ public class DoubleColumn extends NumberColumn<Double, DoubleColumn> {
 
     private final Parser<Double> parser = ParserUtil.findParserOrNull(Double.class);
 
+    private double[] doubleValues;
+
     public DoubleColumn() {
-        super();
+        this(null);
     }
 
     public DoubleColumn(String name) {
         super(name);
+        doubleValues = new double[INIT_SIZE];
     }
 
     public DoubleColumn(String name, Double[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
+
     public DoubleColumn(String name, Double[] values, int size) {
         super(name, values, size);
+        doubleValues = new double[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                doubleValues[i] = values[i];
+            }
+        }
+    }
+
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public DoubleColumn(String name, double[] values) {
+        this(name, values, values.length);
+    }
+
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public DoubleColumn(String name, double[] values, int size) {
+        super(name, values.length, size);
+        doubleValues = values;
     }
 
 
@@ -67,13 +105,118 @@ public class DoubleColumn extends NumberColumn<Double, DoubleColumn> {
         return this;
     }
 
+    @Override
+    public Double get(int index) {
+        return isNA(index) ? null : doubleValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public double getDouble(int index) {
+        return doubleValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public DoubleColumn setDouble(int index, double value) {
+        doubleValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        doubleValues[index] = value.doubleValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        doubleValues[to] = doubleValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return doubleValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        doubleValues = Arrays.copyOf(doubleValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        double[] reordered = new double[doubleValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = doubleValues[order[i]];
+        }
+        doubleValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(doubleValues, naCount, size());
+        } else {
+            Arrays.sort(doubleValues, naCount, size());
+        }
+    }
+
+    @Override
+    protected double valueSum() {
+        return PrimitiveStatistics.sum(doubleValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMin() {
+        return PrimitiveStatistics.min(doubleValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMax() {
+        return PrimitiveStatistics.max(doubleValues, getNABits(), size());
+    }
+
+    @Override
+    protected double squaredDeviationSum(double mean) {
+        return PrimitiveStatistics.squaredDeviationSum(doubleValues, getNABits(), size(), mean);
+    }
 
     @Override
     public DoubleColumn copy() {
-        Double[] copyValues = new Double[values.length];
-        toArray(copyValues);
-        return new DoubleColumn(getName(), copyValues, size());
+        DoubleColumn copy = new DoubleColumn(getName(), Arrays.copyOf(doubleValues, doubleValues.length), size());
+        copyNAFlags(copy);
+        return copy;
+    }
+
+    @Override
+    public DoubleColumn copy(int[] rowIndices) {
+        double[] copyValues = new double[rowIndices.length];
+        DoubleColumn copy = new DoubleColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = doubleValues[index];
+            }
+        }
+        return copy;
     }
+
     @Override
     public <H> Double getValueFromRow(Row<?, H> row, H headerName) {
         return row.getDouble(headerName);
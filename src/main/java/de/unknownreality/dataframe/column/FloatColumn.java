@@ -25,8 +25,12 @@
 package de.unknownreality.dataframe.column;
 
 import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,26 +39,53 @@ public class FloatColumn extends NumberColumn<Float, FloatColumn> {
 
     private final Parser<Float> parser = ParserUtil.findParserOrNull(Float.class);
 
+    private float[] floatValues;
+
     public FloatColumn() {
-        super();
+        this(null);
     }
 
     public FloatColumn(String name) {
         super(name);
+        floatValues = new float[INIT_SIZE];
     }
 
     public FloatColumn(String name, Float[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
     public FloatColumn(String name, Float[] values, int size) {
         super(name, values, size);
+        floatValues = new float[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                floatValues[i] = values[i];
+            }
+        }
     }
 
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public FloatColumn(String name, float[] values) {
+        this(name, values, values.length);
+    }
 
-    @Override
-    protected FloatColumn getThis() {
-        return null;
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public FloatColumn(String name, float[] values, int size) {
+        super(name, values.length, size);
+        floatValues = values;
     }
 
 
@@ -64,19 +95,133 @@ public class FloatColumn extends NumberColumn<Float, FloatColumn> {
     }
 
 
-
     @Override
     public Parser<Float> getParser() {
         return parser;
     }
 
+    @Override
+    protected FloatColumn getThis() {
+        return this;
+    }
+
+    @Override
+    public Float get(int index) {
+        return isNA(index) ? null : floatValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public float getFloat(int index) {
+        return floatValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public FloatColumn setFloat(int index, float value) {
+        floatValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return floatValues[index];
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        floatValues[index] = value.floatValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        floatValues[to] = floatValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return floatValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        floatValues = Arrays.copyOf(floatValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        float[] reordered = new float[floatValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = floatValues[order[i]];
+        }
+        floatValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(floatValues, naCount, size());
+        } else {
+            Arrays.sort(floatValues, naCount, size());
+        }
+    }
+
+    @Override
+    protected double valueSum() {
+        return PrimitiveStatistics.sum(floatValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMin() {
+        return PrimitiveStatistics.min(floatValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMax() {
+        return PrimitiveStatistics.max(floatValues, getNABits(), size());
+    }
+
+    @Override
+    protected double squaredDeviationSum(double mean) {
+        return PrimitiveStatistics.squaredDeviationSum(floatValues, getNABits(), size(), mean);
+    }
 
     @Override
     public FloatColumn copy() {
-        Float[] copyValues = new Float[values.length];
-        toArray(copyValues);
-        return new FloatColumn(getName(), copyValues, size());
+        FloatColumn copy = new FloatColumn(getName(), Arrays.copyOf(floatValues, floatValues.length), size());
+        copyNAFlags(copy);
+        return copy;
+    }
+
+    @Override
+    public FloatColumn copy(int[] rowIndices) {
+        float[] copyValues = new float[rowIndices.length];
+        FloatColumn copy = new FloatColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = floatValues[index];
+            }
+        }
+        return copy;
     }
+
     @Override
     public <H> Float getValueFromRow(Row<?, H> row, H headerName) {
         return row.getFloat(headerName);
@@ -25,8 +25,12 @@
 package de.unknownreality.dataframe.column;
 
 import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,28 +39,56 @@ public class IntegerColumn extends NumberColumn<Integer, IntegerColumn> {
 
     private final Parser<Integer> parser = ParserUtil.findParserOrNull(Integer.class);
 
+    private int[] intValues;
+
     public IntegerColumn() {
-        super();
+        this(null);
     }
 
     public IntegerColumn(String name) {
         super(name);
+        intValues = new int[INIT_SIZE];
     }
 
     public IntegerColumn(String name, Integer[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
     public IntegerColumn(String name, Integer[] values, int size) {
         super(name, values, size);
+        intValues = new int[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                intValues[i] = values[i];
+            }
+        }
     }
 
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public IntegerColumn(String name, int[] values) {
+        this(name, values, values.length);
+    }
 
-    @Override
-    protected IntegerColumn getThis() {
-        return this;
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public IntegerColumn(String name, int[] values, int size) {
+        super(name, values.length, size);
+        intValues = values;
     }
 
+
     @Override
     public Class<Integer> getType() {
         return Integer.class;
@@ -68,12 +100,128 @@ public class IntegerColumn extends NumberColumn<Integer, IntegerColumn> {
         return parser;
     }
 
+    @Override
+    protected IntegerColumn getThis() {
+        return this;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return isNA(index) ? null : intValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public int getInt(int index) {
+        return intValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public IntegerColumn setInt(int index, int value) {
+        intValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return intValues[index];
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        intValues[index] = value.intValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        intValues[to] = intValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return intValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        intValues = Arrays.copyOf(intValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        int[] reordered = new int[intValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = intValues[order[i]];
+        }
+        intValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(intValues, naCount, size());
+        } else {
+            Arrays.sort(intValues, naCount, size());
+        }
+    }
+
+    @Override
+    protected double valueSum() {
+        return PrimitiveStatistics.sum(intValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMin() {
+        return PrimitiveStatistics.min(intValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMax() {
+        return PrimitiveStatistics.max(intValues, getNABits(), size());
+    }
+
+    @Override
+    protected double squaredDeviationSum(double mean) {
+        return PrimitiveStatistics.squaredDeviationSum(intValues, getNABits(), size(), mean);
+    }
+
     @Override
     public IntegerColumn copy() {
-        Integer[] copyValues = new Integer[values.length];
-        toArray(copyValues);
-        return new IntegerColumn(getName(), copyValues, size());
+        IntegerColumn copy = new IntegerColumn(getName(), Arrays.copyOf(intValues, intValues.length), size());
+        copyNAFlags(copy);
+        return copy;
     }
+
+    @Override
+    public IntegerColumn copy(int[] rowIndices) {
+        int[] copyValues = new int[rowIndices.length];
+        IntegerColumn copy = new IntegerColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = intValues[index];
+            }
+        }
+        return copy;
+    }
+
     @Override
     public <H> Integer getValueFromRow(Row<?, H> row, H headerName) {
         return row.getInteger(headerName);
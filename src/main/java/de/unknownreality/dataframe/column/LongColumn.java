@@ -25,8 +25,12 @@
 package de.unknownreality.dataframe.column;
 
 import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,28 +39,56 @@ public class LongColumn extends NumberColumn<Long, LongColumn> {
 
     private final Parser<Long> parser = ParserUtil.findParserOrNull(Long.class);
 
+    private long[] longValues;
+
     public LongColumn() {
-        super();
+        this(null);
     }
 
     public LongColumn(String name) {
         super(name);
+        longValues = new long[INIT_SIZE];
     }
 
     public LongColumn(String name, Long[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
     public LongColumn(String name, Long[] values, int size) {
         super(name, values, size);
+        longValues = new long[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                longValues[i] = values[i];
+            }
+        }
     }
 
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public LongColumn(String name, long[] values) {
+        this(name, values, values.length);
+    }
 
-    @Override
-    protected LongColumn getThis() {
-        return this;
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public LongColumn(String name, long[] values, int size) {
+        super(name, values.length, size);
+        longValues = values;
     }
 
+
     @Override
     public Class<Long> getType() {
         return Long.class;
@@ -68,13 +100,141 @@ public class LongColumn extends NumberColumn<Long, LongColumn> {
         return parser;
     }
 
+    @Override
+    protected LongColumn getThis() {
+        return this;
+    }
+
+    @Override
+    public Long get(int index) {
+        return isNA(index) ? null : longValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public long getLong(int index) {
+        return longValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public LongColumn setLong(int index, long value) {
+        longValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return longValues[index];
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        longValues[index] = value.longValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        longValues[to] = longValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return longValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        longValues = Arrays.copyOf(longValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        long[] reordered = new long[longValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = longValues[order[i]];
+        }
+        longValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(longValues, naCount, size());
+        } else {
+            Arrays.sort(longValues, naCount, size());
+        }
+    }
+
+    @Override
+    protected double valueSum() {
+        return PrimitiveStatistics.sum(longValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMin() {
+        return PrimitiveStatistics.min(longValues, getNABits(), size());
+    }
+
+    @Override
+    protected double valueMax() {
+        return PrimitiveStatistics.max(longValues, getNABits(), size());
+    }
+
+    @Override
+    protected double squaredDeviationSum(double mean) {
+        return PrimitiveStatistics.squaredDeviationSum(longValues, getNABits(), size(), mean);
+    }
+
+    @Override
+    protected Long selectValue(int rank) {
+        long[] copy = new long[size() - countNA()];
+        int size = size();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                copy[j++] = longValues[i];
+            }
+        }
+        return PrimitiveStatistics.select(copy, copy.length, rank);
+    }
 
     @Override
     public LongColumn copy() {
-        Long[] copyValues = new Long[values.length];
-        toArray(copyValues);
-        return new LongColumn(getName(), copyValues, size());
+        LongColumn copy = new LongColumn(getName(), Arrays.copyOf(longValues, longValues.length), size());
+        copyNAFlags(copy);
+        return copy;
     }
+
+    @Override
+    public LongColumn copy(int[] rowIndices) {
+        long[] copyValues = new long[rowIndices.length];
+        LongColumn copy = new LongColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = longValues[index];
+            }
+        }
+        return copy;
+    }
+
     @Override
     public <H> Long getValueFromRow(Row<?, H> row, H headerName) {
         return row.getLong(headerName);
@@ -25,68 +25,443 @@
 package de.unknownreality.dataframe.column;
 
 import de.unknownreality.dataframe.common.NumberUtil;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
 import de.unknownreality.dataframe.common.math.Quantiles;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.Comparator;
+import java.lang.reflect.Array;
+import java.util.*;
 
 /**
  * Created by Alex on 11.03.2016.
+ * <p>
+ * Number columns store their values in primitive arrays managed by the concrete subclasses.
+ * NA values are tracked in a separate bitmap, one bit per row.
+ * </p>
  */
 public abstract class NumberColumn<T extends Number & Comparable<T>, C extends NumberColumn<T, C>> extends BasicColumn<T, C> {
     private static final Logger log = LoggerFactory.getLogger(NumberColumn.class);
 
+    private long[] naBits;
+
     public NumberColumn(String name) {
-        super(name);
+        this(name, INIT_SIZE, 0);
     }
 
     public NumberColumn() {
-        super(null);
+        this(null);
     }
 
     public NumberColumn(String name, T[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
+    /**
+     * Creates the NA bitmap for the boxed values.
+     * Subclasses have to copy the non-NA values into their primitive storage.
+     *
+     * @param name   name of the column
+     * @param values boxed values, <tt>null</tt> marks NA
+     * @param size   number of values in the column
+     */
     public NumberColumn(String name, T[] values, int size) {
-        super(name, values, size);
+        this(name, values.length, size);
+        for (int i = 0; i < size; i++) {
+            if (values[i] == null) {
+                setNAFlag(i);
+            }
+        }
+    }
+
+    /**
+     * Creates a column with an empty NA bitmap for the specified capacity.
+     * Subclasses have to allocate their primitive storage with the same capacity.
+     *
+     * @param name     name of the column
+     * @param capacity capacity of the value storage
+     * @param size     number of values in the column
+     */
+    protected NumberColumn(String name, int capacity, int size) {
+        super(name, size);
+        naBits = new long[bitsLength(capacity)];
+    }
+
+    private static int bitsLength(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    @Override
+    public abstract T get(int index);
+
+    /**
+     * Returns the value at the specified index as primitive double.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return value as double
+     */
+    public abstract double getDouble(int index);
+
+    /**
+     * Stores a non-NA value in the primitive storage.
+     * The value may be of a different number type and has to be converted.
+     *
+     * @param index index of the value
+     * @param value value to store
+     */
+    protected abstract void storeValue(int index, Number value);
+
+    /**
+     * Moves a value within the primitive storage.
+     *
+     * @param from source index
+     * @param to   target index
+     */
+    protected abstract void moveValue(int from, int to);
+
+    /**
+     * Resizes the primitive storage to the specified capacity.
+     *
+     * @param capacity new capacity
+     */
+    protected abstract void resizeValues(int capacity);
+
+    /**
+     * Reorders the primitive storage.
+     * The value at index <tt>i</tt> is replaced by the value at index <tt>order[i]</tt>.
+     *
+     * @param order previous index of the value at each position
+     */
+    protected abstract void reorderValues(int[] order);
+
+    @Override
+    protected abstract int capacity();
+
+    @Override
+    protected void resize(int capacity) {
+        naBits = Arrays.copyOf(naBits, bitsLength(capacity));
+        resizeValues(capacity);
+    }
+
+    @Override
+    protected void doReorder(int[] order) {
+        long[] reorderedBits = new long[naBits.length];
+        for (int i = 0; i < order.length; i++) {
+            int from = order[i];
+            if ((naBits[from >>> 6] & (1L << from)) != 0) {
+                reorderedBits[i >>> 6] |= 1L << i;
+            }
+        }
+        naBits = reorderedBits;
+        reorderValues(order);
+    }
+
+    @Override
+    protected void clearValues() {
+        naBits = new long[bitsLength(INIT_SIZE)];
+        resizeValues(INIT_SIZE);
+    }
+
+    protected final void setNAFlag(int index) {
+        naBits[index >>> 6] |= 1L << index;
+    }
+
+    protected final void clearNAFlag(int index) {
+        naBits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Copies the NA bitmap of this column to another column with the same capacity.
+     *
+     * @param target target column
+     */
+    protected void copyNAFlags(NumberColumn<?, ?> target) {
+        target.naBits = Arrays.copyOf(naBits, naBits.length);
+    }
+
+    /**
+     * Moves all NA values to the start of the column.
+     * The order of the remaining values is kept.
+     *
+     * @return number of NA values
+     */
+    protected int compactNA() {
+        int size = size();
+        int target = size - 1;
+        for (int i = size - 1; i >= 0; i--) {
+            if (!isNA(i)) {
+                if (i != target) {
+                    moveValue(i, target);
+                }
+                target--;
+            }
+        }
+        int naCount = target + 1;
+        for (int i = 0; i < size; i++) {
+            if (i < naCount) {
+                setNAFlag(i);
+            } else {
+                clearNAFlag(i);
+            }
+        }
+        return naCount;
+    }
+
+    @Override
+    public boolean isNA(int index) {
+        return index >= size() || (naBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    protected void doSetNA(int index) {
+        setNAFlag(index);
+    }
+
+    @Override
+    protected void setValue(int index, T value) {
+        storeValue(index, value);
+        clearNAFlag(index);
+    }
+
+    @Override
+    protected void doSort(Comparator<T> comparator) {
+        T[] sorted = toArray(newArray(size()));
+        if (RowIndexSorter.isParallel(sorted.length)) {
+            Arrays.parallelSort(sorted, comparator);
+        } else {
+            Arrays.sort(sorted, comparator);
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            doSet(i, sorted[i]);
+        }
+    }
+
+    @Override
+    public boolean contains(T o) {
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (o == null ? isNA(i) : !isNA(i) && o.equals(get(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    @Override
+    public Set<T> uniq() {
+        Set<T> u = new HashSet<>();
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                u.add(get(i));
+            }
+        }
+        return u;
+    }
+
+    @Override
+    public Comparable[] toArray() {
+        return toArray(newArray(size()));
+    }
 
+    @SuppressWarnings("unchecked")
     @Override
-    public T get(int index) {
-        return super.values[index];
+    public T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        for (int i = 0; i < size; i++) {
+            a[i] = get(i);
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return new HashSet<>(asList()).containsAll(c);
+    }
+
+    @Override
+    public List<T> toList() {
+        return new ArrayList<>(asList());
+    }
+
+    @Override
+    public List<T> asList() {
+        return Collections.unmodifiableList(new AbstractList<T>() {
+            @Override
+            public T get(int index) {
+                return NumberColumn.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return NumberColumn.this.size();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] newArray(int size) {
+        return (T[]) Array.newInstance(getType(), size);
     }
 
 
     /**
-     * Returns the median of all values in this column
+     * Returns the number of NA values in this column
      *
-     * @return median of all values
+     * @return number of NA values
+     */
+    public int countNA() {
+        int size = size();
+        int fullWords = size >>> 6;
+        int count = 0;
+        for (int w = 0; w < fullWords; w++) {
+            count += Long.bitCount(naBits[w]);
+        }
+        int rest = size & 63;
+        if (rest != 0) {
+            count += Long.bitCount(naBits[fullWords] & ((1L << rest) - 1));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the NA bitmap of this column.
+     * A set bit marks the value at the same index as NA, bits beyond {@link #size()} are undefined.
+     * The returned array is the internal storage and must not be modified.
+     *
+     * @return NA bitmap
+     */
+    protected long[] getNABits() {
+        return naBits;
+    }
+
+    /**
+     * Returns the sum of all non-NA values.
+     * Subclasses should override this with a loop over their primitive storage.
+     *
+     * @return sum of all non-NA values
+     */
+    protected double valueSum() {
+        double sum = 0d;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                sum += getDouble(i);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of all non-NA values.
+     * Subclasses should override this with a loop over their primitive storage.
+     *
+     * @return minimum of all non-NA values
+     */
+    protected double valueMin() {
+        double min = Double.POSITIVE_INFINITY;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                min = Math.min(min, getDouble(i));
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of all non-NA values.
+     * Subclasses should override this with a loop over their primitive storage.
+     *
+     * @return maximum of all non-NA values
+     */
+    protected double valueMax() {
+        double max = Double.NEGATIVE_INFINITY;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                max = Math.max(max, getDouble(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of squared deviations of all non-NA values from the mean.
+     * Subclasses should override this with a loop over their primitive storage.
+     *
+     * @param mean mean of all non-NA values
+     * @return sum of squared deviations
+     */
+    protected double squaredDeviationSum(double mean) {
+        double sum = 0d;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                double d = getDouble(i) - mean;
+                sum += d * d;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the value with the specified rank among all non-NA values.
+     * The values are copied once and selected using quickselect, the column itself is not modified.
+     *
+     * @param rank rank of the value, starting at 0
+     * @return value with the specified rank
+     */
+    protected T selectValue(int rank) {
+        double[] copy = new double[size() - countNA()];
+        int size = size();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                copy[j++] = getDouble(i);
+            }
+        }
+        return NumberUtil.convert(PrimitiveStatistics.select(copy, copy.length, rank), getType());
+    }
+
+    /**
+     * Returns the median of all values in this column.
+     * NA values are ignored. The median is found in linear time without sorting the values.
+     *
+     * @return median of all values or <tt>null</tt> if the column contains no values
      */
     public T median() {
-        return new Quantiles<T>(
-                getSortedValues(),
-                getType(), true).median();
+        int count = size() - countNA();
+        if (count == 0) {
+            return null;
+        }
+        return selectValue(count / 2);
     }
 
 
     /**
      * returns the specified quantile.
-     * This calculation requires sorting of the values each time.
-     * If more than one quantile should be calculated, use {@link #getQuantiles()}.
+     * NA values are ignored. The quantile is found in linear time without sorting the values.
+     * If many quantiles should be calculated, {@link #getQuantiles()} sorts the values only once.
      *
      * @param percent quantile percent
-     * @return quantile
+     * @return quantile or <tt>null</tt> if the column contains no values
      */
     public T getQuantile(double percent) {
-        return new Quantiles<T>(
-                getSortedValues(),
-                getType(), true)
-                .getQuantile(percent);
-
+        int count = size() - countNA();
+        if (count == 0) {
+            return null;
+        }
+        int index = (int) Math.ceil(percent * count) - 1;
+        return selectValue(Math.min(count - 1, Math.max(0, index)));
     }
 
     /**
@@ -107,66 +482,70 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return mean of all values
      */
     public Double mean() {
-        int naCount = 0;
-        Double sum = 0d;
-        int count = 0;
-        int size = size();
-        for (int i = 0; i < size; i++) {
-            if (isNA(i)) {
-                naCount++;
-                continue;
-            }
-            count++;
-            sum += get(i).doubleValue();
-        }
+        int naCount = countNA();
         if (naCount > 0) {
             log.warn("mean() ignored {} NA", naCount);
         }
-        return sum / count;
+        return valueSum() / (size() - naCount);
+    }
+
+    /**
+     * Returns the sample variance of all values in this column
+     *
+     * @return variance of all values
+     */
+    public Double variance() {
+        int naCount = countNA();
+        if (naCount > 0) {
+            log.warn("variance() ignored {} NA", naCount);
+        }
+        int count = size() - naCount;
+        if (count < 2) {
+            return Double.NaN;
+        }
+        double mean = valueSum() / count;
+        return squaredDeviationSum(mean) / (count - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation of all values in this column
+     *
+     * @return standard deviation of all values
+     */
+    public Double stddev() {
+        return Math.sqrt(variance());
     }
 
     /**
      * Returns the minimum of all values in this column
      *
-     * @return minimum of all values
+     * @return minimum of all values or <tt>null</tt> if the column contains no values
      */
     public T min() {
-        Double min = Double.MAX_VALUE;
-        int naCount = 0;
-        int size = size();
-        for (int i = 0; i < size; i++) {
-            if (isNA(i)) {
-                naCount++;
-                continue;
-            }
-            min = Math.min(min, get(i).doubleValue());
-        }
+        int naCount = countNA();
         if (naCount > 0) {
             log.warn("min() ignored {} NA", naCount);
         }
-        return NumberUtil.convert(min, getType());
+        if (naCount == size()) {
+            return null;
+        }
+        return NumberUtil.convert(valueMin(), getType());
     }
 
     /**
      * Returns the maximum of all values in this column
      *
-     * @return maximum of all values
+     * @return maximum of all values or <tt>null</tt> if the column contains no values
      */
     public T max() {
-        double max = Double.NEGATIVE_INFINITY;
-        int naCount = 0;
-        int size = size();
-        for (int i = 0; i < size; i++) {
-            if (isNA(i)) {
-                naCount++;
-                continue;
-            }
-            max = Math.max(max, get(i).doubleValue());
-        }
+        int naCount = countNA();
         if (naCount > 0) {
             log.warn("max() ignored {} NA", naCount);
         }
-        return NumberUtil.convert(max, getType());
+        if (naCount == size()) {
+            return null;
+        }
+        return NumberUtil.convert(valueMax(), getType());
     }
 
     /**
@@ -175,20 +554,11 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return sum of all values
      */
     public T sum() {
-        int naCount = 0;
-        double sum = 0;
-        int size = size();
-        for (int i = 0; i < size; i++) {
-            if (isNA(i)) {
-                naCount++;
-                continue;
-            }
-            sum += get(i).doubleValue();
-        }
+        int naCount = countNA();
         if (naCount > 0) {
             log.warn("sum() ignored {} NA", naCount);
         }
-        return NumberUtil.convert(sum, getType());
+        return NumberUtil.convert(valueSum(), getType());
     }
 
 
@@ -217,23 +587,21 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
         return getThis();
     }
 
+    /**
+     * Returns all non-NA values in ascending order
+     *
+     * @return sorted values
+     */
     protected T[] getSortedValues() {
-        T[] sortedValues = (T[]) toArray();
-        Arrays.sort(sortedValues, new Comparator<T>() {
-            @Override
-            public int compare(T o1, T o2) {
-                if (o1 == null && o2 == null) {
-                    return 0;
-                }
-                if (o1 == null) {
-                    return -1;
-                }
-                if (o2 == null) {
-                    return 1;
-                }
-                return o1.compareTo(o2);
+        T[] sortedValues = newArray(size() - countNA());
+        int size = size();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                sortedValues[j++] = get(i);
             }
-        });
+        }
+        Arrays.sort(sortedValues);
         return sortedValues;
     }
 
@@ -424,22 +792,8 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
         return getThis();
     }
 
-    @Override
-    protected boolean doAppend(T t) {
-        if (t != null
-                && t.getClass() != getType()) {
-            t = NumberUtil.convert(t, getType());
-        }
-        return super.doAppend(t);
-    }
-
     @Override
     public boolean isValueValid(Comparable value) {
         return super.isValueValid(value) || (value != null && Number.class.isAssignableFrom(value.getClass()));
     }
-
-    @Override
-    protected void setValue(int index, T value) {
-        values[index] = NumberUtil.convert(value, getType());
-    }
 }
@@ -27,6 +27,9 @@ package de.unknownreality.dataframe.column;
 import de.unknownreality.dataframe.common.Row;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.Arrays;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -35,22 +38,54 @@ public class ShortColumn extends NumberColumn<Short, ShortColumn> {
 
     private final Parser<Short> parser = ParserUtil.findParserOrNull(Short.class);
 
+    private short[] shortValues;
+
     public ShortColumn() {
-        super();
+        this(null);
     }
 
     public ShortColumn(String name) {
         super(name);
+        shortValues = new short[INIT_SIZE];
     }
 
     public ShortColumn(String name, Short[] values) {
-        super(name, values);
+        this(name, values, values.length);
     }
 
     public ShortColumn(String name, Short[] values, int size) {
         super(name, values, size);
+        shortValues = new short[values.length];
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                shortValues[i] = values[i];
+            }
+        }
     }
 
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     */
+    public ShortColumn(String name, short[] values) {
+        this(name, values, values.length);
+    }
+
+    /**
+     * Creates a column backed by a primitive array.
+     * The array is used directly and not copied.
+     *
+     * @param name   name of the column
+     * @param values primitive values
+     * @param size   number of values in the column
+     */
+    public ShortColumn(String name, short[] values, int size) {
+        super(name, values.length, size);
+        shortValues = values;
+    }
 
 
     @Override
@@ -69,12 +104,103 @@ public class ShortColumn extends NumberColumn<Short, ShortColumn> {
         return this;
     }
 
+    @Override
+    public Short get(int index) {
+        return isNA(index) ? null : shortValues[index];
+    }
+
+    /**
+     * Returns the value at the specified index without boxing.
+     * The result is undefined if the value is NA, use {@link #isNA(int)} to check this first.
+     *
+     * @param index index of the value
+     * @return primitive value
+     */
+    public short getShort(int index) {
+        return shortValues[index];
+    }
+
+    /**
+     * Sets the value at the specified index without boxing.
+     * <p>Calls {@link #notifyDataFrameValueChanged(int)} to ensure data frame index consistency</p>
+     *
+     * @param index index of the value
+     * @param value new value
+     * @return <tt>self</tt> for method chaining
+     */
+    public ShortColumn setShort(int index, short value) {
+        shortValues[index] = value;
+        clearNAFlag(index);
+        notifyDataFrameValueChanged(index);
+        return this;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return shortValues[index];
+    }
+
+    @Override
+    protected void storeValue(int index, Number value) {
+        shortValues[index] = value.shortValue();
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        shortValues[to] = shortValues[from];
+    }
+
+    @Override
+    protected int capacity() {
+        return shortValues.length;
+    }
+
+    @Override
+    protected void resizeValues(int capacity) {
+        shortValues = Arrays.copyOf(shortValues, capacity);
+    }
+
+    @Override
+    protected void reorderValues(int[] order) {
+        short[] reordered = new short[shortValues.length];
+        for (int i = 0; i < order.length; i++) {
+            reordered[i] = shortValues[order[i]];
+        }
+        shortValues = reordered;
+    }
+
+    @Override
+    protected void doSort() {
+        int naCount = compactNA();
+        if (RowIndexSorter.isParallel(size() - naCount)) {
+            Arrays.parallelSort(shortValues, naCount, size());
+        } else {
+            Arrays.sort(shortValues, naCount, size());
+        }
+    }
+
     @Override
     public ShortColumn copy() {
-        Short[] copyValues = new Short[values.length];
-        toArray(copyValues);
-        return new ShortColumn(getName(), copyValues, size());
+        ShortColumn copy = new ShortColumn(getName(), Arrays.copyOf(shortValues, shortValues.length), size());
+        copyNAFlags(copy);
+        return copy;
     }
+
+    @Override
+    public ShortColumn copy(int[] rowIndices) {
+        short[] copyValues = new short[rowIndices.length];
+        ShortColumn copy = new ShortColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNAFlag(i);
+            } else {
+                copyValues[i] = shortValues[index];
+            }
+        }
+        return copy;
+    }
+
     @Override
     public <H> Short getValueFromRow(Row<?, H> row, H headerName) {
         return row.getShort(headerName);
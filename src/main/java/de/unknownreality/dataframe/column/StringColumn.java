@@ -76,6 +76,16 @@ public class StringColumn extends BasicColumn<String, StringColumn> {
         return new StringColumn(getName(), copyValues, size());
     }
 
+    @Override
+    public StringColumn copy(int[] rowIndices) {
+        String[] copyValues = new String[rowIndices.length];
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            copyValues[i] = index < 0 ? null : values[index];
+        }
+        return new StringColumn(getName(), copyValues);
+    }
+
     @Override
     public <H> String getValueFromRow(Row<?, H> row, H headerName) {
 
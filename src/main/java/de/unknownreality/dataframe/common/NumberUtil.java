@@ -95,6 +95,27 @@ public class NumberUtil {
         return b;
     }
 
+    /**
+     * Compares two doubles the same way {@link #compare(Number, Number)} compares them.
+     * <tt>-0.0</tt> is equal to <tt>0.0</tt>, NaN is greater than all other values and equal to itself.
+     *
+     * @param a first value
+     * @param b second value
+     * @return comparison result
+     */
+    public static int compareDouble(double a, double b) {
+        if (a < b) {
+            return -1;
+        }
+        if (a > b) {
+            return 1;
+        }
+        if (a == b) {
+            return 0;
+        }
+        return Double.compare(a, b);
+    }
+
     public static int compare(Number a, Number b) {
         if (isSpecialNumber(a) || isSpecialNumber(b))
             return Double.compare(a.doubleValue(), b.doubleValue());
@@ -78,6 +78,24 @@ public class StringUtil {
         splitQuoted(input, split, new ArrayParts(parts));
     }
 
+    /**
+     * Split an input string at a specified split-character into several parts.
+     * <tt>"</tt> and <tt>'</tt> are considered during the process.
+     * Only parts that are not skipped are created and stored in the result array,
+     * skipped parts are scanned but not copied.
+     *
+     * @param input input string
+     * @param split char used to split
+     * @param skip  <tt>true</tt> for each part that is skipped
+     * @param parts array filled with the parts that are not skipped
+     * @return total number of parts in the input string
+     */
+    public static int splitQuoted(String input, Character split, boolean[] skip, String[] parts) {
+        SkipParts skipParts = new SkipParts(skip, parts);
+        splitQuoted(input, split, skipParts);
+        return skipParts.count;
+    }
+
     /**
      * Split an input string at a specified split-character  into several parts.
      * <tt>"</tt> and <tt>'</tt> are considered during the process.
@@ -98,11 +116,14 @@ public class StringUtil {
         boolean escapeNext = false;
         char c;
         boolean startOrSplit = true;
+        boolean skip = parts.isSkipped();
         final StringBuilder sb = new StringBuilder(input.length());
         for (int i = 0; i < input.length(); i++) {
             c = input.charAt(i);
             if (escapeNext) {
-                sb.append(c);
+                if (!skip) {
+                    sb.append(c);
+                }
                 escapeNext = false;
                 continue;
             } else if (c == '\\') {
@@ -114,7 +135,7 @@ public class StringUtil {
                 } else if (!inDoubleQuotation && startOrSplit) {
                     inQuotation = true;
                     startOrSplit = false;
-                } else {
+                } else if (!skip) {
                     sb.append(c);
                 }
                 continue;
@@ -124,28 +145,38 @@ public class StringUtil {
                 } else if (!inDoubleQuotation && startOrSplit) {
                     inDoubleQuotation = true;
                     startOrSplit = false;
-                } else {
+                } else if (!skip) {
                     sb.append(c);
                 }
                 continue;
             } else if (c == split && !inDoubleQuotation && !inQuotation) {
 
-                parts.add(sb.toString());
+                parts.add(skip ? null : sb.toString());
                 sb.setLength(0);
+                skip = parts.isSkipped();
                 startOrSplit = true;
                 continue;
             } else {
                 startOrSplit = false;
             }
-            sb.append(c);
+            if (!skip) {
+                sb.append(c);
+            }
 
         }
-        parts.add(sb.toString());
+        parts.add(skip ? null : sb.toString());
 
     }
 
     private interface Parts {
         void add(String part);
+
+        /**
+         * Returns <tt>true</tt> if the next part is skipped
+         */
+        default boolean isSkipped() {
+            return false;
+        }
     }
 
     private static class ListParts implements Parts {
@@ -174,4 +205,29 @@ public class StringUtil {
             array[p++] = part;
         }
     }
+
+    private static class SkipParts implements Parts {
+        private final boolean[] skip;
+        private final String[] array;
+        private int p = 0;
+        private int count = 0;
+
+        public SkipParts(boolean[] skip, String[] array) {
+            this.skip = skip;
+            this.array = array;
+        }
+
+        @Override
+        public void add(String part) {
+            if (!isSkipped() && p < array.length) {
+                array[p++] = part;
+            }
+            count++;
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return count < skip.length && skip[count];
+        }
+    }
 }
@@ -28,6 +28,7 @@ import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.common.Header;
 
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
@@ -52,7 +53,24 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @return <tt>self</tt> for method chaining
      */
     public BasicTypeHeader add(T headerName, DataFrameColumn<?, ?> column) {
-        return add(headerName, column.getClass(), column.getType());
+        return add(headerName, getColumnClass(column), column.getType());
+    }
+
+    /**
+     * Returns the column class that is stored for a column in a header.
+     * Column views that are not public (e.g. memory-mapped columns) can not be instantiated,
+     * in this case the nearest public column class they extend is returned.
+     *
+     * @param column data frame column
+     * @return public column class
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends DataFrameColumn> getColumnClass(DataFrameColumn<?, ?> column) {
+        Class<?> columnClass = column.getClass();
+        while (!Modifier.isPublic(columnClass.getModifiers()) && DataFrameColumn.class.isAssignableFrom(columnClass.getSuperclass())) {
+            columnClass = columnClass.getSuperclass();
+        }
+        return (Class<? extends DataFrameColumn>) columnClass;
     }
 
 
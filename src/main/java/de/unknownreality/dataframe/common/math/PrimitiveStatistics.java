@@ -0,0 +1,655 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.common.math;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate functions working directly on primitive value arrays and a NA bitmap.
+ * A set bit in the bitmap marks the value at the same index as NA.
+ * The loops avoid boxing so the JIT is able to unroll and vectorize them.
+ */
+public class PrimitiveStatistics {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private PrimitiveStatistics() {
+    }
+
+    /**
+     * Returns the sum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return sum of all non-NA values
+     */
+    public static double sum(double[] values, long[] naBits, int size) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    sum += values[i];
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        sum += values[i];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return minimum of all non-NA values
+     */
+    public static double min(double[] values, long[] naBits, int size) {
+        double min = Double.POSITIVE_INFINITY;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    min = Math.min(min, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        min = Math.min(min, values[i]);
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return maximum of all non-NA values
+     */
+    public static double max(double[] values, long[] naBits, int size) {
+        double max = Double.NEGATIVE_INFINITY;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    max = Math.max(max, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        max = Math.max(max, values[i]);
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of squared deviations of all non-NA values from the mean.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @param mean   mean of all non-NA values
+     * @return sum of squared deviations
+     */
+    public static double squaredDeviationSum(double[] values, long[] naBits, int size, double mean) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    double d = values[i] - mean;
+                    sum += d * d;
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        double d = values[i] - mean;
+                        sum += d * d;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return sum of all non-NA values
+     */
+    public static double sum(float[] values, long[] naBits, int size) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    sum += values[i];
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        sum += values[i];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return minimum of all non-NA values
+     */
+    public static double min(float[] values, long[] naBits, int size) {
+        double min = Double.POSITIVE_INFINITY;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    min = Math.min(min, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        min = Math.min(min, values[i]);
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return maximum of all non-NA values
+     */
+    public static double max(float[] values, long[] naBits, int size) {
+        double max = Double.NEGATIVE_INFINITY;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    max = Math.max(max, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        max = Math.max(max, values[i]);
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of squared deviations of all non-NA values from the mean.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @param mean   mean of all non-NA values
+     * @return sum of squared deviations
+     */
+    public static double squaredDeviationSum(float[] values, long[] naBits, int size, double mean) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    double d = values[i] - mean;
+                    sum += d * d;
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        double d = values[i] - mean;
+                        sum += d * d;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return sum of all non-NA values
+     */
+    public static double sum(int[] values, long[] naBits, int size) {
+        long sum = 0L;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    sum += values[i];
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        sum += values[i];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return minimum of all non-NA values
+     */
+    public static double min(int[] values, long[] naBits, int size) {
+        int min = Integer.MAX_VALUE;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    min = Math.min(min, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        min = Math.min(min, values[i]);
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return maximum of all non-NA values
+     */
+    public static double max(int[] values, long[] naBits, int size) {
+        int max = Integer.MIN_VALUE;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    max = Math.max(max, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        max = Math.max(max, values[i]);
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of squared deviations of all non-NA values from the mean.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @param mean   mean of all non-NA values
+     * @return sum of squared deviations
+     */
+    public static double squaredDeviationSum(int[] values, long[] naBits, int size, double mean) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    double d = values[i] - mean;
+                    sum += d * d;
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        double d = values[i] - mean;
+                        sum += d * d;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return sum of all non-NA values
+     */
+    public static double sum(long[] values, long[] naBits, int size) {
+        long sum = 0L;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    sum += values[i];
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        sum += values[i];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return minimum of all non-NA values
+     */
+    public static double min(long[] values, long[] naBits, int size) {
+        long min = Long.MAX_VALUE;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    min = Math.min(min, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        min = Math.min(min, values[i]);
+                    }
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of all non-NA values.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @return maximum of all non-NA values
+     */
+    public static double max(long[] values, long[] naBits, int size) {
+        long max = Long.MIN_VALUE;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    max = Math.max(max, values[i]);
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        max = Math.max(max, values[i]);
+                    }
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of squared deviations of all non-NA values from the mean.
+     *
+     * @param values values
+     * @param naBits NA bitmap
+     * @param size   number of values
+     * @param mean   mean of all non-NA values
+     * @return sum of squared deviations
+     */
+    public static double squaredDeviationSum(long[] values, long[] naBits, int size, double mean) {
+        double sum = 0d;
+        int words = (size + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            int start = w << 6;
+            int end = Math.min(start + 64, size);
+            long na = naBits[w];
+            if (na == 0L) {
+                for (int i = start; i < end; i++) {
+                    double d = values[i] - mean;
+                    sum += d * d;
+                }
+            } else if (na != -1L) {
+                for (int i = start; i < end; i++) {
+                    if ((na & (1L << i)) == 0L) {
+                        double d = values[i] - mean;
+                        sum += d * d;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the k-th smallest value of the first <tt>n</tt> values in the array.
+     * The array is partially reordered.
+     *
+     * @param values values
+     * @param n      number of values
+     * @param k      rank of the selected value, starting at 0
+     * @return k-th smallest value
+     */
+    public static double select(double[] values, int n, int k) {
+        if (k < 0 || k >= n) {
+            throw new IllegalArgumentException(String.format("rank %d out of bounds [0,%d)", k, n));
+        }
+        int left = 0;
+        int right = n - 1;
+        while (right - left > INSERTION_SORT_THRESHOLD) {
+            int mid = (left + right) >>> 1;
+            if (compare(values[mid], values[left]) < 0) {
+                swap(values, mid, left);
+            }
+            if (compare(values[right], values[left]) < 0) {
+                swap(values, right, left);
+            }
+            if (compare(values[right], values[mid]) < 0) {
+                swap(values, right, mid);
+            }
+            double pivot = values[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (compare(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return values[k];
+            }
+        }
+        Arrays.sort(values, left, right + 1);
+        return values[k];
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+
+    private static int compare(double a, double b) {
+        return Double.compare(a, b);
+    }
+
+    /**
+     * Returns the k-th smallest value of the first <tt>n</tt> values in the array.
+     * The array is partially reordered.
+     *
+     * @param values values
+     * @param n      number of values
+     * @param k      rank of the selected value, starting at 0
+     * @return k-th smallest value
+     */
+    public static long select(long[] values, int n, int k) {
+        if (k < 0 || k >= n) {
+            throw new IllegalArgumentException(String.format("rank %d out of bounds [0,%d)", k, n));
+        }
+        int left = 0;
+        int right = n - 1;
+        while (right - left > INSERTION_SORT_THRESHOLD) {
+            int mid = (left + right) >>> 1;
+            if (compare(values[mid], values[left]) < 0) {
+                swap(values, mid, left);
+            }
+            if (compare(values[right], values[left]) < 0) {
+                swap(values, right, left);
+            }
+            if (compare(values[right], values[mid]) < 0) {
+                swap(values, right, mid);
+            }
+            long pivot = values[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (compare(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return values[k];
+            }
+        }
+        Arrays.sort(values, left, right + 1);
+        return values[k];
+    }
+
+    private static void swap(long[] values, int i, int j) {
+        long temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+
+    private static int compare(long a, long b) {
+        return Long.compare(a, b);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.csv;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.common.DataContainer;
+import de.unknownreality.dataframe.common.Row;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes csv data into a reusable byte buffer that is written to a channel when it is full.
+ * Numbers are formatted directly into the buffer without creating strings.
+ * The columns of data frames are accessed directly instead of creating rows.
+ */
+final class CSVByteWriter {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_NUMBER_LENGTH = 32;
+    private static final int MAX_FRACTION_DIGITS = 15;
+    private static final long[] POWERS_OF_TEN = new long[MAX_FRACTION_DIGITS + 1];
+    private static final byte[] NA = "NA".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private final CSVSettings settings;
+    private final Charset charset = Charset.defaultCharset();
+    private final boolean ascii;
+    private final byte[] separator;
+    private final byte[] lineSeparator;
+    private final byte[] digits = new byte[20];
+    private int position = 0;
+
+    CSVByteWriter(WritableByteChannel channel, CSVSettings settings, int bufferSize) {
+        this.channel = channel;
+        this.settings = settings;
+        this.bytes = new byte[Math.max(bufferSize, MAX_NUMBER_LENGTH * 2)];
+        this.buffer = ByteBuffer.wrap(bytes);
+        String test = "\"-.0123456789EINaefilnrstuy";
+        this.ascii = Arrays.equals(test.getBytes(charset), test.getBytes(StandardCharsets.US_ASCII));
+        this.separator = Character.toString(settings.getSeparator()).getBytes(charset);
+        this.lineSeparator = System.lineSeparator().getBytes(charset);
+    }
+
+    /**
+     * Writes the header and all rows of a data container and flushes the buffer
+     *
+     * @param dataContainer data container
+     * @throws IOException thrown if the data can not be written
+     */
+    void write(DataContainer<?, ?> dataContainer) throws IOException {
+        if (settings.isContainsHeader()) {
+            writeHeader(dataContainer);
+        }
+        if (dataContainer instanceof DataFrame) {
+            writeColumns((DataFrame) dataContainer);
+        } else {
+            writeRows(dataContainer);
+        }
+        flush();
+    }
+
+    private void writeHeader(DataContainer<?, ?> dataContainer) throws IOException {
+        if (settings.getHeaderPrefix() != null) {
+            writeString(settings.getHeaderPrefix());
+        }
+        for (int i = 0; i < dataContainer.getHeader().size(); i++) {
+            if (i != 0) {
+                writeBytes(separator);
+            }
+            writeString(dataContainer.getHeader().get(i).toString());
+        }
+        writeBytes(lineSeparator);
+    }
+
+    private void writeRows(DataContainer<?, ?> dataContainer) throws IOException {
+        for (Row row : dataContainer) {
+            for (int i = 0; i < row.size(); i++) {
+                if (i != 0) {
+                    writeBytes(separator);
+                }
+                writeValue(row.get(i));
+            }
+            writeBytes(lineSeparator);
+        }
+    }
+
+    private void writeColumns(DataFrame dataFrame) throws IOException {
+        DataFrameColumn[] columns = dataFrame.getColumns().toArray(new DataFrameColumn[0]);
+        for (int r = 0; r < dataFrame.size(); r++) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i != 0) {
+                    writeBytes(separator);
+                }
+                DataFrameColumn column = columns[i];
+                if (column.isNA(r)) {
+                    writeBytes(NA);
+                } else if (column instanceof IntegerColumn) {
+                    ensureCapacity(MAX_NUMBER_LENGTH);
+                    writeLong(((IntegerColumn) column).getInt(r));
+                } else if (column instanceof LongColumn) {
+                    ensureCapacity(MAX_NUMBER_LENGTH);
+                    writeLong(((LongColumn) column).getLong(r));
+                } else if (column instanceof DoubleColumn) {
+                    writeDouble(((DoubleColumn) column).getDouble(r));
+                } else {
+                    writeValue(column.get(r));
+                }
+            }
+            writeBytes(lineSeparator);
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (Values.NA.isNA(value)) {
+            writeBytes(NA);
+        } else if (value instanceof String) {
+            if (settings.isQuoteStrings()) {
+                writeString("\"");
+                writeString((String) value);
+                writeString("\"");
+            } else {
+                writeString((String) value);
+            }
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            ensureCapacity(MAX_NUMBER_LENGTH);
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            writeBytes((Boolean) value ? TRUE : FALSE);
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * Writes a long value, the buffer must contain space for {@link #MAX_NUMBER_LENGTH} bytes
+     */
+    private void writeLong(long value) throws IOException {
+        if (!ascii || value == Long.MIN_VALUE) {
+            writeString(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+        int p = digits.length;
+        do {
+            digits[--p] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        int length = digits.length - p;
+        System.arraycopy(digits, p, bytes, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes a double value in the same notation as {@link Double#toString(double)}.
+     * Values between <tt>1e-3</tt> and <tt>1e7</tt> with up to 15 significant digits are formatted without creating strings,
+     * using the shortest number of fraction digits that parses to the same value.
+     */
+    private void writeDouble(double value) throws IOException {
+        ensureCapacity(MAX_NUMBER_LENGTH);
+        double abs = Math.abs(value);
+        if (ascii && (abs >= 1e-3 && abs < 1e7 || abs == 0)) {
+            long integer = (long) abs;
+            int maxFractionDigits = MAX_FRACTION_DIGITS;
+            for (long i = integer; i != 0; i /= 10) {
+                maxFractionDigits--;
+            }
+            for (int fractionDigits = 0; fractionDigits <= maxFractionDigits; fractionDigits++) {
+                long scaled = Math.round(abs * POWERS_OF_TEN[fractionDigits]);
+                if (scaled / (double) POWERS_OF_TEN[fractionDigits] != abs) {
+                    continue;
+                }
+                if (value < 0 || value == 0 && 1 / value < 0) {
+                    bytes[position++] = '-';
+                }
+                writeLong(scaled / POWERS_OF_TEN[fractionDigits]);
+                bytes[position++] = '.';
+                long fraction = scaled % POWERS_OF_TEN[fractionDigits];
+                if (fractionDigits == 0) {
+                    bytes[position++] = '0';
+                }
+                for (int d = fractionDigits - 1; d >= 0; d--) {
+                    bytes[position++] = (byte) ('0' + fraction / POWERS_OF_TEN[d] % 10);
+                }
+                return;
+            }
+        }
+        writeString(Double.toString(value));
+    }
+
+    private void writeString(String value) throws IOException {
+        if (!ascii) {
+            writeBytes(value.getBytes(charset));
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                writeBytes(value.substring(i).getBytes(charset));
+                return;
+            }
+            if (position == bytes.length) {
+                flush();
+            }
+            bytes[position++] = (byte) c;
+        }
+    }
+
+    private void writeBytes(byte[] value) throws IOException {
+        if (value.length > bytes.length - position) {
+            flush();
+            if (value.length > bytes.length) {
+                drain(ByteBuffer.wrap(value));
+                return;
+            }
+        }
+        System.arraycopy(value, 0, bytes, position, value.length);
+        position += value.length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (bytes.length - position < length) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel
+     *
+     * @throws IOException thrown if the bytes can not be written
+     */
+    void flush() throws IOException {
+        buffer.clear();
+        buffer.limit(position);
+        drain(buffer);
+        position = 0;
+    }
+
+    private void drain(ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+    }
+}
@@ -70,6 +70,28 @@ public class CSVIterator extends BufferedStreamIterator<CSVRow> implements DataI
 
     }
 
+    /**
+     * Creates a csv iterator for a part of a csv file that contains no header.
+     * Header, settings and selected columns are taken from the iterator of the first part.
+     *
+     * @param reader         reader for the csv part
+     * @param headerIterator iterator of the first part of the csv file
+     */
+    CSVIterator(BufferedReader reader, CSVIterator headerIterator) {
+        super(reader);
+        this.csvSettings = headerIterator.csvSettings;
+        this.columnSettings = headerIterator.columnSettings;
+        this.ignoredColumns = headerIterator.ignoredColumns;
+        this.includedColumns = headerIterator.includedColumns;
+        this.colTypes = headerIterator.colTypes;
+        this.selectedColumnsIndex = headerIterator.selectedColumnsIndex;
+        this.header = headerIterator.header;
+        this.cols = headerIterator.cols;
+        this.skipIndices = headerIterator.skipIndices;
+        this.columnInformations = headerIterator.columnInformations;
+        loadNext();
+    }
+
     /**
      * Creates a DataFrameBuilder using this CSV iterator
      * @return DataFrameBuilder {@link DataFrameBuilder}
@@ -180,6 +202,14 @@ public class CSVIterator extends BufferedStreamIterator<CSVRow> implements DataI
                     return getNext();
                 }
             }
+            if (cols != -1 && skipIndices != null && header.size() != cols) {
+                String[] values = new String[header.size()];
+                int count = StringUtil.splitQuoted(line, csvSettings.getSeparator(), skipIndices, values);
+                if (count != cols) {
+                    throw new CSVException(String.format("unequal number of column %d != %d in line %d", count, cols, lineNumber));
+                }
+                return new CSVRow(header, values, lineNumber);
+            }
             String[] values = StringUtil.splitQuoted(line, csvSettings.getSeparator());
 
             if (cols == -1) {
@@ -208,6 +238,24 @@ public class CSVIterator extends BufferedStreamIterator<CSVRow> implements DataI
         }
     }
 
+    /**
+     * Returns the number of values in each line of the csv input
+     *
+     * @return number of values per line
+     */
+    int getColumnCount() {
+        return cols;
+    }
+
+    /**
+     * Returns the skipped value indices of each line
+     *
+     * @return <tt>true</tt> for each skipped value index
+     */
+    boolean[] getSkipIndices() {
+        return skipIndices;
+    }
+
     @Override
     public List<ColumnInformation> getColumnsInformation() {
         return columnInformations;
@@ -24,10 +24,16 @@
 
 package de.unknownreality.dataframe.csv;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.io.ColumnInformation;
 import de.unknownreality.dataframe.io.DataReader;
+import de.unknownreality.dataframe.io.GZipUtil;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.Reader;
+import java.util.List;
 
 /**
  * Created by Alex on 17.06.2017.
@@ -41,6 +47,32 @@ public class CSVReader extends DataReader<CSVRow, CSVIterator> {
         this.columnSettings = columnSettings;
     }
 
+    /**
+     * Loads a data frame from a csv file.
+     * If parallel reading is enabled and the file is not gzipped, the file is read using {@link ParallelCSVReader}.
+     *
+     * @param file               source file
+     * @param expectedSize       expected size of the resulting data frame or <tt>-1</tt> if unknown
+     * @param columnsInformation column information, if <tt>null</tt> the column information of the csv header is used
+     * @param filterPredicate    row filter
+     * @return loaded data frame
+     */
+    @Override
+    public DataFrame loadDataFrame(File file, int expectedSize, List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        if (settings.isParallelReading() && !GZipUtil.isGzipped(file)) {
+            return ParallelCSVReader.load(file, settings, columnSettings, expectedSize, columnsInformation, filterPredicate);
+        }
+        return super.loadDataFrame(file, expectedSize, columnsInformation, filterPredicate);
+    }
+
+    protected CSVSettings getSettings() {
+        return settings;
+    }
+
+    protected ColumnSettings getColumnSettings() {
+        return columnSettings;
+    }
+
     @Override
     public CSVIterator load(Reader reader){
         return new CSVIterator(new BufferedReader(reader), settings, columnSettings);
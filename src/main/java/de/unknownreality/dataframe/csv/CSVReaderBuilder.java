@@ -41,6 +41,8 @@ public class CSVReaderBuilder implements ReaderBuilder<CSVRow, CSVReader> {
     private char separator = ';';
     private String headerPrefix = "";
     private boolean containsHeader = true;
+    private boolean parallelReading = false;
+    private boolean memoryMapping = false;
     private List<String> ignoreColumns = new ArrayList();
     private List<String> selectColumns = new ArrayList<>();
     private List<String> skipPrefixes = new ArrayList<>();
@@ -105,6 +107,33 @@ public class CSVReaderBuilder implements ReaderBuilder<CSVRow, CSVReader> {
         return this;
     }
 
+    /**
+     * Enables parallel reading of csv files.
+     * Uncompressed files are split into parts at line boundaries,
+     * the parts are read and parsed in parallel.
+     *
+     * @param parallelReading <tt>true</tt> to read files in parallel
+     * @return <tt>self</tt> for method chaining
+     * @see ParallelCSVReader
+     */
+    public CSVReaderBuilder withParallelReading(boolean parallelReading) {
+        this.parallelReading = parallelReading;
+        return this;
+    }
+
+    /**
+     * Enables reading of csv files using memory mapping.
+     * The values are parsed directly from the bytes of the file.
+     *
+     * @param memoryMapping <tt>true</tt> to read files using memory mapping
+     * @return <tt>self</tt> for method chaining
+     * @see MappedCSVReader
+     */
+    public CSVReaderBuilder withMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
 
 
 
@@ -167,10 +196,14 @@ public class CSVReaderBuilder implements ReaderBuilder<CSVRow, CSVReader> {
         settings.setHeaderPrefix(headerPrefix);
         settings.setSeparator(separator);
         settings.setSkipPrefixes(skipPrefixes);
+        settings.setParallelReading(parallelReading);
         ColumnSettings columnSettings = new ColumnSettings();
         columnSettings.getColumnTypeMap().putAll(columnTypeMap);
         columnSettings.getIgnoreColumns().addAll(ignoreColumns);
         columnSettings.getSelectColumns().addAll(selectColumns);
+        if (memoryMapping) {
+            return new MappedCSVReader(settings, columnSettings);
+        }
         return new CSVReader(settings, columnSettings);
     }
 
@@ -41,6 +41,7 @@ public class CSVSettings implements FormatSettings{
     private String headerPrefix = "";
     private boolean gzip = false;
     private boolean quoteStrings = false;
+    private boolean parallelReading = false;
 
     public boolean isGzip() {
         return gzip;
@@ -82,6 +83,14 @@ public class CSVSettings implements FormatSettings{
         this.containsHeader = containsHeader;
     }
 
+    public boolean isParallelReading() {
+        return parallelReading;
+    }
+
+    public void setParallelReading(boolean parallelReading) {
+        this.parallelReading = parallelReading;
+    }
+
     public char getSeparator() {
         return separator;
     }
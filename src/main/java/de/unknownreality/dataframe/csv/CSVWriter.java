@@ -26,18 +26,23 @@ package de.unknownreality.dataframe.csv;
 
 import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
 import de.unknownreality.dataframe.common.DataContainer;
 import de.unknownreality.dataframe.common.Row;
 import de.unknownreality.dataframe.io.DataWriter;
 import de.unknownreality.dataframe.io.FileFormat;
+import de.unknownreality.dataframe.io.GZipUtil;
+import de.unknownreality.dataframe.io.ParallelGZIPOutputStream;
 import de.unknownreality.dataframe.io.ReadFormat;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Created by Alex on 17.06.2017.
@@ -50,16 +55,42 @@ public class CSVWriter extends DataWriter {
     }
 
 
+    /**
+     * Writes a data container to an output stream.
+     * The values are formatted into a byte buffer that is written to the stream when it is full.
+     *
+     * @param os            target output stream
+     * @param dataContainer data container
+     */
     @Override
     public void write(OutputStream os, DataContainer<?, ?> dataContainer) {
-        if (settings.isGzip()) {
-            try {
-                os = new GZIPOutputStream(os);
-            } catch (IOException e) {
-                throw new CSVRuntimeException("error creating gzip output stream", e);
+        try {
+            if (settings.isGzip()) {
+                ParallelGZIPOutputStream gzipOutputStream = GZipUtil.createOutputStream(os);
+                write(Channels.newChannel(gzipOutputStream), dataContainer);
+                gzipOutputStream.finish();
+            } else {
+                write(Channels.newChannel(os), dataContainer);
             }
+            os.flush();
+        } catch (IOException e) {
+            throw new CSVRuntimeException("error writing csv", e);
+        }
+    }
+
+    /**
+     * Writes a data container to a channel, e.g. a {@link java.nio.channels.FileChannel}.
+     * The values are formatted into a byte buffer that is written to the channel when it is full.
+     *
+     * @param channel       target channel
+     * @param dataContainer data container
+     */
+    public void write(WritableByteChannel channel, DataContainer<?, ?> dataContainer) {
+        try {
+            new CSVByteWriter(channel, settings, CSVByteWriter.DEFAULT_BUFFER_SIZE).write(dataContainer);
+        } catch (IOException e) {
+            throw new CSVRuntimeException("error writing csv", e);
         }
-        super.write(os, dataContainer);
     }
 
     @Override
@@ -76,43 +107,67 @@ public class CSVWriter extends DataWriter {
                     }
                 }
                 bufferedWriter.newLine();
-                bufferedWriter.flush();
             }
-            for (Row row : dataContainer) {
-                for (int i = 0; i < row.size(); i++) {
-                    Object v = row.get(i);
-                    String s;
-                    if(settings.isQuoteStrings() && v instanceof String){
-                        s = "\""+v+"\"";
-                    }
-                    else{
-                        s = v.toString();
+            if (dataContainer instanceof DataFrame) {
+                DataFrame dataFrame = (DataFrame) dataContainer;
+                DataFrameColumn[] columns = dataFrame.getColumns().toArray(new DataFrameColumn[0]);
+                for (int r = 0; r < dataFrame.size(); r++) {
+                    for (int i = 0; i < columns.length; i++) {
+                        writeValue(bufferedWriter, columns[i].isNA(r) ? Values.NA : columns[i].get(r));
+                        if (i < columns.length - 1) {
+                            bufferedWriter.write(settings.getSeparator());
+                        }
                     }
-                    bufferedWriter.write(s);
-                    if (i < row.size() - 1) {
-                        bufferedWriter.write(settings.getSeparator());
+                    bufferedWriter.newLine();
+                }
+            } else {
+                for (Row row : dataContainer) {
+                    for (int i = 0; i < row.size(); i++) {
+                        writeValue(bufferedWriter, row.get(i));
+                        if (i < row.size() - 1) {
+                            bufferedWriter.write(settings.getSeparator());
+                        }
                     }
+                    bufferedWriter.newLine();
                 }
-                bufferedWriter.newLine();
-                bufferedWriter.flush();
-
             }
+            bufferedWriter.flush();
         } catch (IOException e) {
             throw new CSVRuntimeException("error writing csv", e);
         }
     }
 
+    private void writeValue(BufferedWriter bufferedWriter, Object v) throws IOException {
+        if (settings.isQuoteStrings() && v instanceof String) {
+            bufferedWriter.write('"');
+            bufferedWriter.write((String) v);
+            bufferedWriter.write('"');
+        } else {
+            bufferedWriter.write(v.toString());
+        }
+    }
+
+    /**
+     * Writes a data container to a file.
+     * Uncompressed files are written using a {@link FileChannel}.
+     *
+     * @param file          target file
+     * @param dataContainer data container
+     */
     @Override
     public void write(File file, DataContainer<?, ?> dataContainer) {
-        if (settings.isGzip()) {
-            try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(file))) {
-                write(new BufferedWriter(new OutputStreamWriter(outputStream)), dataContainer);
-                return;
-            } catch (IOException e) {
-                throw new CSVRuntimeException(String.format("error writing file '%s'", file.getAbsolutePath()), e);
+        if (file.getParentFile() != null && !file.getParentFile().isDirectory()) {
+            file.getParentFile().mkdirs();
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            if (settings.isGzip()) {
+                write(outputStream, dataContainer);
+            } else {
+                write(outputStream.getChannel(), dataContainer);
             }
+        } catch (IOException e) {
+            throw new CSVRuntimeException(String.format("error writing file '%s'", file.getAbsolutePath()), e);
         }
-        super.write(file, dataContainer);
     }
 
 
@@ -0,0 +1,1064 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.csv;
+
+import de.unknownreality.dataframe.ColumnTypeMap;
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameConverter;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.TypeInference;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.*;
+import de.unknownreality.dataframe.common.StringUtil;
+import de.unknownreality.dataframe.common.parser.Parser;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.io.ColumnInformation;
+import de.unknownreality.dataframe.io.GZipUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * CSV reader that tokenizes files directly on the bytes of a memory mapped file.
+ * Integer, long, double and boolean values are parsed from the bytes without creating strings,
+ * strings are only created for string columns.
+ * Lines containing quotes or escape characters are split using {@link StringUtil#splitQuoted(String, Character)}.
+ * The resulting data frame is the same as the data frame loaded by {@link CSVReader}.
+ * </p>
+ * <p>
+ * If parallel reading is enabled, the parts of the file are tokenized in parallel.
+ * Gzipped files, charsets that are not ASCII compatible and column types without byte parser
+ * are loaded by {@link CSVReader}.
+ * Inputs that are no files are always read by {@link CSVIterator}.
+ */
+public class MappedCSVReader extends CSVReader {
+    private static final Logger log = LoggerFactory.getLogger(MappedCSVReader.class);
+    private static final long MAX_REGION_SIZE = 1L << 30;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final Set<Class<?>> SUPPORTED_COLUMNS = new HashSet<>(Arrays.asList(
+            StringColumn.class, IntegerColumn.class, LongColumn.class, DoubleColumn.class,
+            BooleanColumn.class, FloatColumn.class, ShortColumn.class, ByteColumn.class));
+
+    protected MappedCSVReader(CSVSettings settings, ColumnSettings columnSettings) {
+        super(settings, columnSettings);
+    }
+
+    /**
+     * Loads a data frame from a csv file by tokenizing the bytes of the memory mapped file.
+     *
+     * @param file               source file
+     * @param expectedSize       expected size of the resulting data frame or <tt>-1</tt> if unknown
+     * @param columnsInformation column information, if <tt>null</tt> the column information of the csv header is used
+     * @param filterPredicate    row filter
+     * @return loaded data frame
+     */
+    @Override
+    public DataFrame loadDataFrame(File file, int expectedSize, List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        if (!isAsciiCompatible(getSettings().getSeparator()) || GZipUtil.isGzipped(file)) {
+            return super.loadDataFrame(file, expectedSize, columnsInformation, filterPredicate);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long headerEnd = ParallelCSVReader.findHeaderEnd(raf, getSettings());
+            CSVIterator headerIterator = new CSVIterator(ParallelCSVReader.openPart(file, 0, headerEnd), getSettings(), getColumnSettings());
+            headerIterator.close();
+            List<ColumnInformation> information = new ArrayList<>(
+                    columnsInformation == null ? headerIterator.getColumnsInformation() : columnsInformation);
+            information.sort(Comparator.comparingInt(ColumnInformation::getIndex));
+            Layout layout = Layout.create(headerIterator, information);
+            if (layout == null) {
+                return super.loadDataFrame(file, expectedSize, columnsInformation, filterPredicate);
+            }
+            long dataStart = getSettings().isContainsHeader() ? headerEnd : 0;
+            long[] bounds = getSettings().isParallelReading()
+                    ? ParallelCSVReader.findPartBounds(file, getSettings())
+                    : new long[]{0, raf.length()};
+            bounds[0] = dataStart;
+            final long[] regions = splitRegions(raf, bounds);
+            final FileChannel channel = raf.getChannel();
+            if (layout.hasAutodetect()) {
+                detectTypes(channel, regions, layout);
+            }
+            final DataFrameColumn[][] parts = new DataFrameColumn[regions.length - 1][];
+            final TypeInference.OriginalText[][] texts = new TypeInference.OriginalText[parts.length][layout.columnCount];
+            final int capacity = parts.length == 1 ? expectedSize : -1;
+            if (getSettings().isParallelReading() && parts.length > 1) {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(parts.length);
+                for (int i = 0; i < parts.length; i++) {
+                    final int part = i;
+                    tasks.add(ForkJoinTask.adapt(() -> parts[part] = parseRegion(channel, regions[part], regions[part + 1], layout, capacity, texts[part])));
+                }
+                ForkJoinTask.invokeAll(tasks);
+            } else {
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = parseRegion(channel, regions[i], regions[i + 1], layout, capacity, texts[i]);
+                }
+            }
+            return DataFrameConverter.fromColumnParts(parts, texts, filterPredicate);
+        } catch (IOException e) {
+            throw new CSVRuntimeException(String.format("error reading csv file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    private static boolean isAsciiCompatible(char separator) {
+        String test = "\n\r\"'\\NAnul0123456789+-.tf" + separator;
+        return separator < 0x80 && Arrays.equals(test.getBytes(Charset.defaultCharset()), test.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Splits the parts of a file into regions that can be mapped into memory.
+     */
+    private static long[] splitRegions(RandomAccessFile raf, long[] bounds) throws IOException {
+        List<Long> regions = new ArrayList<>();
+        regions.add(bounds[0]);
+        for (int i = 1; i < bounds.length; i++) {
+            long start = regions.get(regions.size() - 1);
+            while (bounds[i] - start > MAX_REGION_SIZE) {
+                long next = ParallelCSVReader.findLineStart(raf, start + MAX_REGION_SIZE);
+                if (next > start + MAX_REGION_SIZE) {
+                    throw new CSVRuntimeException(String.format("line at position %d is too long", start));
+                }
+                regions.add(next);
+                start = next;
+            }
+            if (bounds[i] > start) {
+                regions.add(bounds[i]);
+            }
+        }
+        long[] result = new long[regions.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = regions.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Infers the types of all autodetect columns from the first {@link TypeInference#getSampleRows() sample rows}.
+     */
+    private void detectTypes(FileChannel channel, long[] regions, final Layout layout) throws IOException {
+        final int sampleRows = TypeInference.getSampleRows();
+        final int[] row = {0};
+        for (int i = 0; i < regions.length - 1 && row[0] < sampleRows; i++) {
+            final Tokenizer tokenizer = new Tokenizer(map(channel, regions[i], regions[i + 1]), getSettings(), layout.valueCount);
+            tokenizer.forEachLine((start, end, quoted) -> {
+                String[] values = tokenizer.split(start, end, quoted, row[0]);
+                if (values != null) {
+                    for (int j = 0; j < values.length; j++) {
+                        int column = layout.columnOfValue(j);
+                        if (column >= 0 && layout.autodetect[column] && !isNA(values[j])) {
+                            TypeInference.updateCandidates(layout.types[column], values[j]);
+                        }
+                    }
+                }
+                return ++row[0] < sampleRows;
+            });
+        }
+        for (int i = 0; i < layout.columnCount; i++) {
+            if (layout.autodetect[i]) {
+                layout.columnTypes[i] = ColumnTypeMap.get(TypeInference.getType(layout.types[i]));
+            }
+        }
+    }
+
+    private DataFrameColumn[] parseRegion(FileChannel channel, long start, long end, Layout layout, int capacity,
+                                          TypeInference.OriginalText[] texts) {
+        final ColumnValues[] values = new ColumnValues[layout.columnCount];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ColumnValues.create(layout.columnTypes[i], layout.autodetect[i], i, capacity);
+        }
+        final Tokenizer tokenizer;
+        try {
+            tokenizer = new Tokenizer(map(channel, start, end), getSettings(), layout.valueCount);
+        } catch (IOException e) {
+            throw new CSVRuntimeException(String.format("error mapping csv file at position %d", start), e);
+        }
+        final int[] row = {0};
+        tokenizer.forEachLine((lineStart, lineEnd, quoted) -> {
+            int r = row[0]++;
+            if (quoted) {
+                String[] strings = tokenizer.split(lineStart, lineEnd, true, r);
+                checkValueCount(strings.length, layout, r);
+                for (int j = 0; j < strings.length; j++) {
+                    int column = layout.columnOfValue(j);
+                    if (column >= 0) {
+                        values[column] = values[column].append(strings[j], r);
+                    }
+                }
+                return true;
+            }
+            int count = tokenizer.splitBytes(lineStart, lineEnd);
+            checkValueCount(count, layout, r);
+            for (int j = 0; j < count; j++) {
+                int column = layout.columnOfValue(j);
+                if (column >= 0) {
+                    values[column] = values[column].append(tokenizer, tokenizer.valueStarts[j], tokenizer.valueEnds[j], r);
+                }
+            }
+            return true;
+        });
+        DataFrameColumn[] columns = new DataFrameColumn[values.length];
+        for (int i = 0; i < values.length; i++) {
+            columns[i] = values[i].toColumn(layout.names[i]);
+            texts[i] = values[i].text;
+        }
+        return columns;
+    }
+
+    private static void checkValueCount(int count, Layout layout, int row) {
+        if (count != layout.valueCount) {
+            throw new CSVRuntimeException(String.format("error reading csv row: %d", row),
+                    new CSVException(String.format("unequal number of column %d != %d in line %d", count, layout.valueCount, row)));
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long start, long end) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    private static boolean isNA(String value) {
+        return Values.NA.isNA(value) || "".equals(value) || "null".equals(value);
+    }
+
+    /**
+     * Maps the values of each line to the columns of the resulting data frame
+     */
+    private static class Layout {
+        private final int columnCount;
+        private final int valueCount;
+        private final int[] valueColumns;
+        private final String[] names;
+        private final Class<? extends DataFrameColumn>[] columnTypes;
+        private final boolean[] autodetect;
+        private final boolean[][] types;
+
+        @SuppressWarnings("unchecked")
+        private Layout(int columnCount, int valueCount) {
+            this.columnCount = columnCount;
+            this.valueCount = valueCount;
+            this.valueColumns = new int[valueCount];
+            this.names = new String[columnCount];
+            this.columnTypes = new Class[columnCount];
+            this.autodetect = new boolean[columnCount];
+            this.types = new boolean[columnCount][];
+        }
+
+        /**
+         * Creates the layout for a csv header.
+         * Returns <tt>null</tt> if the columns can not be read from bytes.
+         */
+        static Layout create(CSVIterator headerIterator, List<ColumnInformation> information) {
+            int columnCount = headerIterator.getColumnsInformation().size();
+            int valueCount = headerIterator.getColumnCount();
+            boolean[] skipIndices = headerIterator.getSkipIndices();
+            boolean filter = skipIndices != null && columnCount != valueCount;
+            Layout layout = new Layout(columnCount, valueCount);
+            int[] rowIndexColumns = new int[valueCount];
+            Arrays.fill(rowIndexColumns, -1);
+            for (int i = 0; i < columnCount; i++) {
+                ColumnInformation columnInformation = information.get(i);
+                if (!SUPPORTED_COLUMNS.contains(columnInformation.getColumnType())
+                        || columnInformation.getIndex() < 0 || columnInformation.getIndex() >= valueCount
+                        || rowIndexColumns[columnInformation.getIndex()] != -1) {
+                    return null;
+                }
+                rowIndexColumns[columnInformation.getIndex()] = i;
+                layout.names[i] = columnInformation.getName();
+                layout.columnTypes[i] = columnInformation.getColumnType();
+                layout.autodetect[i] = columnInformation.isAutodetect()
+                        && columnInformation.getColumnType().equals(StringColumn.class);
+                if (layout.autodetect[i]) {
+                    layout.types[i] = TypeInference.createCandidates();
+                }
+            }
+            int rowIndex = 0;
+            for (int j = 0; j < valueCount; j++) {
+                if (filter && skipIndices[j]) {
+                    layout.valueColumns[j] = -1;
+                } else {
+                    layout.valueColumns[j] = rowIndexColumns[rowIndex++];
+                }
+            }
+            return layout;
+        }
+
+        int columnOfValue(int value) {
+            return valueColumns[value];
+        }
+
+        boolean hasAutodetect() {
+            for (boolean a : autodetect) {
+                if (a) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private interface LineConsumer {
+        /**
+         * Consumes a line, returns <tt>false</tt> to stop reading
+         */
+        boolean accept(int start, int end, boolean quoted);
+    }
+
+    /**
+     * Splits a mapped region into lines and values.
+     * Lines are separated by <tt>\n</tt>, <tt>\r</tt> or <tt>\r\n</tt>.
+     * Empty lines and lines starting with a skip prefix are ignored.
+     */
+    private static class Tokenizer {
+        private final ByteBuffer buffer;
+        private final byte separator;
+        private final char separatorChar;
+        private final byte[][] skipPrefixes;
+        private final Charset charset = Charset.defaultCharset();
+        private int[] valueStarts;
+        private int[] valueEnds;
+        private byte[] scratch = new byte[64];
+
+        Tokenizer(ByteBuffer buffer, CSVSettings settings, int valueCount) {
+            this.buffer = buffer;
+            this.separatorChar = settings.getSeparator();
+            this.separator = (byte) separatorChar;
+            List<byte[]> prefixes = new ArrayList<>();
+            for (String prefix : settings.getSkipPrefixes()) {
+                if (prefix != null && !"".equals(prefix)) {
+                    prefixes.add(prefix.getBytes(charset));
+                }
+            }
+            this.skipPrefixes = prefixes.toArray(new byte[prefixes.size()][]);
+            this.valueStarts = new int[Math.max(1, valueCount)];
+            this.valueEnds = new int[Math.max(1, valueCount)];
+        }
+
+        void forEachLine(LineConsumer consumer) {
+            int limit = buffer.limit();
+            int pos = 0;
+            while (pos < limit) {
+                int start = pos;
+                boolean quoted = false;
+                boolean blank = true;
+                byte b = 0;
+                while (pos < limit && (b = buffer.get(pos)) != '\n' && b != '\r') {
+                    if (b == '"' || b == '\'' || b == '\\') {
+                        quoted = true;
+                    }
+                    if (blank && (b & 0xff) > ' ') {
+                        blank = false;
+                    }
+                    pos++;
+                }
+                int end = pos;
+                if (pos < limit) {
+                    pos++;
+                    if (b == '\r' && pos < limit && buffer.get(pos) == '\n') {
+                        pos++;
+                    }
+                }
+                if (!blank && !isSkipped(start, end) && !consumer.accept(start, end, quoted)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isSkipped(int start, int end) {
+            for (byte[] prefix : skipPrefixes) {
+                if (end - start < prefix.length) {
+                    continue;
+                }
+                boolean match = true;
+                for (int i = 0; i < prefix.length && match; i++) {
+                    match = buffer.get(start + i) == prefix[i];
+                }
+                if (match) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Splits a line into value strings, returns <tt>null</tt> if the number of values is wrong
+         */
+        String[] split(int start, int end, boolean quoted, int row) {
+            if (quoted) {
+                return StringUtil.splitQuoted(decode(start, end), separatorChar);
+            }
+            int count = splitBytes(start, end);
+            if (count != valueStarts.length) {
+                return null;
+            }
+            String[] values = new String[count];
+            for (int j = 0; j < count; j++) {
+                values[j] = decode(valueStarts[j], valueEnds[j]);
+            }
+            return values;
+        }
+
+        /**
+         * Splits a line without quotes at the separator.
+         * The value positions are stored in {@link #valueStarts} and {@link #valueEnds}.
+         *
+         * @return number of values in the line
+         */
+        int splitBytes(int start, int end) {
+            int count = 0;
+            int valueStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buffer.get(i) == separator) {
+                    if (count == valueStarts.length) {
+                        valueStarts = Arrays.copyOf(valueStarts, count * 2);
+                        valueEnds = Arrays.copyOf(valueEnds, count * 2);
+                    }
+                    valueStarts[count] = valueStart;
+                    valueEnds[count] = i;
+                    count++;
+                    valueStart = i + 1;
+                }
+            }
+            return count;
+        }
+
+        String decode(int start, int end) {
+            int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(start + i);
+            }
+            return new String(scratch, 0, length, charset);
+        }
+
+        byte get(int index) {
+            return buffer.get(index);
+        }
+    }
+
+    /**
+     * Collects the values of one column
+     */
+    private abstract static class ColumnValues {
+        protected final boolean autodetect;
+        protected final int columnIndex;
+        protected int size;
+        protected TypeInference.OriginalText text = new TypeInference.OriginalText();
+
+        ColumnValues(boolean autodetect, int columnIndex) {
+            this.autodetect = autodetect;
+            this.columnIndex = columnIndex;
+        }
+
+        static ColumnValues create(Class<? extends DataFrameColumn> columnType, boolean autodetect, int columnIndex, int capacity) {
+            int initialCapacity = Math.max(capacity, BasicColumn.INIT_SIZE);
+            if (columnType == IntegerColumn.class) {
+                return new IntValues(autodetect, columnIndex, initialCapacity);
+            }
+            if (columnType == LongColumn.class) {
+                return new LongValues(autodetect, columnIndex, initialCapacity);
+            }
+            if (columnType == DoubleColumn.class) {
+                return new DoubleValues(autodetect, columnIndex, initialCapacity);
+            }
+            if (columnType == StringColumn.class) {
+                return new StringValues(autodetect, columnIndex, initialCapacity);
+            }
+            if (columnType == BooleanColumn.class) {
+                return new BooleanValues(autodetect, columnIndex, initialCapacity);
+            }
+            return new ParsedValues(columnType, autodetect, columnIndex, capacity);
+        }
+
+        /**
+         * Appends a value without quotes from the bytes of a line.
+         * Returns the values the next value is appended to, which differ if the column type was promoted.
+         */
+        abstract ColumnValues append(Tokenizer tokenizer, int start, int end, int row);
+
+        /**
+         * Appends a value string.
+         * Returns the values the next value is appended to, which differ if the column type was promoted.
+         */
+        ColumnValues append(String value, int row) {
+            if (MappedCSVReader.isNA(value)) {
+                appendNA();
+                return this;
+            }
+            try {
+                Comparable parsed = appendParsed(value);
+                if (autodetect) {
+                    text.record(size - 1, parsed, value);
+                }
+            } catch (Exception e) {
+                if (autodetect) {
+                    return promote(value, row);
+                }
+                log.warn("error parsing value ({}), NA added", e.getMessage());
+                appendNA();
+            }
+            return this;
+        }
+
+        /**
+         * Promotes the values of an autodetect column to a type that can parse the value
+         */
+        private ColumnValues promote(String value, int row) {
+            DataFrameColumn column = toColumn(null);
+            Class<?> type = TypeInference.promoteType(column.getType(), value);
+            column = TypeInference.promote(column, type, text);
+            ColumnValues promoted = create(column.getClass(), true, columnIndex, size * 2);
+            if (type != String.class) {
+                promoted.text = text;
+            }
+            for (int i = 0; i < column.size(); i++) {
+                if (column.isNA(i)) {
+                    promoted.appendNA();
+                } else {
+                    promoted.appendValue(column.get(i));
+                }
+            }
+            return promoted.append(value, row);
+        }
+
+        /**
+         * Parses and appends a value string, returns the parsed value
+         */
+        abstract Comparable appendParsed(String value) throws Exception;
+
+        abstract void appendValue(Object value);
+
+        abstract void appendNA();
+
+        abstract DataFrameColumn toColumn(String name);
+
+        protected static boolean isNA(Tokenizer tokenizer, int start, int end) {
+            int length = end - start;
+            if (length == 0) {
+                return true;
+            }
+            if (length == 2) {
+                return tokenizer.get(start) == 'N' && tokenizer.get(start + 1) == 'A';
+            }
+            return length == 4 && tokenizer.get(start) == 'n' && tokenizer.get(start + 1) == 'u'
+                    && tokenizer.get(start + 2) == 'l' && tokenizer.get(start + 3) == 'l';
+        }
+
+        /**
+         * Parses a long consisting of an optional sign and up to 18 digits.
+         * Returns <tt>false</tt> for all other inputs.
+         */
+        protected static boolean parseLong(Tokenizer tokenizer, int start, int end, long[] result) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (tokenizer.get(i) == '-' || tokenizer.get(i) == '+')) {
+                negative = tokenizer.get(i) == '-';
+                i++;
+            }
+            if (i == end || end - i > 18) {
+                return false;
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = tokenizer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+                value = value * 10 + digit;
+            }
+            result[0] = negative ? -value : value;
+            return true;
+        }
+
+        /**
+         * Returns <tt>true</tt> if the parsed integer reproduces the bytes, see {@link TypeInference#isPlainInteger(String)}
+         */
+        protected static boolean isPlainInteger(Tokenizer tokenizer, int start, int end) {
+            int i = start < end - 1 && tokenizer.get(start) == '-' ? start + 1 : start;
+            return tokenizer.get(i) != '+' && (tokenizer.get(i) != '0' || end - start == 1);
+        }
+    }
+
+    private static class IntValues extends ColumnValues {
+        private final long[] parsed = new long[1];
+        private final BitSet na = new BitSet();
+        private int[] values;
+
+        IntValues(boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            values = new int[capacity];
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            if (isNA(tokenizer, start, end)) {
+                appendNA();
+            } else if (parseLong(tokenizer, start, end, parsed)
+                    && parsed[0] >= Integer.MIN_VALUE && parsed[0] <= Integer.MAX_VALUE) {
+                if (autodetect && !isPlainInteger(tokenizer, start, end)) {
+                    text.set(size, tokenizer.decode(start, end));
+                }
+                add((int) parsed[0]);
+            } else {
+                return append(tokenizer.decode(start, end), row);
+            }
+            return this;
+        }
+
+        @Override
+        Comparable appendParsed(String value) {
+            int parsedValue = Integer.parseInt(value);
+            add(parsedValue);
+            return parsedValue;
+        }
+
+        @Override
+        void appendValue(Object value) {
+            add((Integer) value);
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        void appendNA() {
+            na.set(size);
+            add(0);
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            IntegerColumn column = new IntegerColumn(name, values, size);
+            for (int i = na.nextSetBit(0); i >= 0; i = na.nextSetBit(i + 1)) {
+                column.setNA(i);
+            }
+            return column;
+        }
+    }
+
+    private static class LongValues extends ColumnValues {
+        private final long[] parsed = new long[1];
+        private final BitSet na = new BitSet();
+        private long[] values;
+
+        LongValues(boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            values = new long[capacity];
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            if (isNA(tokenizer, start, end)) {
+                appendNA();
+            } else if (parseLong(tokenizer, start, end, parsed)) {
+                if (autodetect && !isPlainInteger(tokenizer, start, end)) {
+                    text.set(size, tokenizer.decode(start, end));
+                }
+                add(parsed[0]);
+            } else {
+                return append(tokenizer.decode(start, end), row);
+            }
+            return this;
+        }
+
+        @Override
+        Comparable appendParsed(String value) {
+            long parsedValue = Long.parseLong(value);
+            add(parsedValue);
+            return parsedValue;
+        }
+
+        @Override
+        void appendValue(Object value) {
+            add((Long) value);
+        }
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        void appendNA() {
+            na.set(size);
+            add(0);
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            LongColumn column = new LongColumn(name, values, size);
+            for (int i = na.nextSetBit(0); i >= 0; i = na.nextSetBit(i + 1)) {
+                column.setNA(i);
+            }
+            return column;
+        }
+    }
+
+    private static class DoubleValues extends ColumnValues {
+        private final BitSet na = new BitSet();
+        private final double[] parsed = new double[1];
+        private double[] values;
+
+        DoubleValues(boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            values = new double[capacity];
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            if (isNA(tokenizer, start, end)) {
+                appendNA();
+            } else if (parseDouble(tokenizer, start, end, parsed)) {
+                if (autodetect) {
+                    recordText(tokenizer, start, end);
+                }
+                add(parsed[0]);
+            } else {
+                return append(tokenizer.decode(start, end), row);
+            }
+            return this;
+        }
+
+        /**
+         * Records the original text of a decimal accepted by {@link #parseDouble(Tokenizer, int, int, double[])}.
+         * Plain decimals and integers are restored from the parsed value, only other text is decoded and stored.
+         */
+        private void recordText(Tokenizer tokenizer, int start, int end) {
+            int i = tokenizer.get(start) == '-' ? start + 1 : start;
+            int dot = -1;
+            for (int j = i; j < end; j++) {
+                if (tokenizer.get(j) == '.') {
+                    dot = j;
+                    break;
+                }
+            }
+            if (dot == -1) {
+                if (isPlainInteger(tokenizer, start, end)) {
+                    text.setInteger(size);
+                    return;
+                }
+            } else if (isPlainDecimal(tokenizer, i, end, dot)) {
+                return;
+            }
+            text.set(size, tokenizer.decode(start, end));
+        }
+
+        /**
+         * Returns <tt>true</tt> if the unsigned decimal starting at <tt>i</tt> is restored by
+         * {@link TypeInference#formatDecimal(double)}, see {@link TypeInference#isPlainDecimal(String)}
+         */
+        private static boolean isPlainDecimal(Tokenizer tokenizer, int i, int end, int dot) {
+            if (dot <= i || dot == end - 1 || tokenizer.get(i) == '+') {
+                return false;
+            }
+            if (tokenizer.get(i) == '0' && dot != i + 1) {
+                return false;
+            }
+            return tokenizer.get(end - 1) != '0' || end - dot == 2;
+        }
+
+        /**
+         * Parses decimals with up to 15 significant digits and 22 fraction digits.
+         * These values are exactly representable as a long and the division by the power of ten
+         * is correctly rounded, so the result equals {@link Double#parseDouble(String)}.
+         * Returns <tt>false</tt> for all other inputs.
+         */
+        private static boolean parseDouble(Tokenizer tokenizer, int start, int end, double[] result) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (tokenizer.get(i) == '-' || tokenizer.get(i) == '+')) {
+                negative = tokenizer.get(i) == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean anyDigit = false;
+            boolean dot = false;
+            for (; i < end; i++) {
+                byte b = tokenizer.get(i);
+                if (b == '.' && !dot) {
+                    dot = true;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+                anyDigit = true;
+                if (dot) {
+                    fractionDigits++;
+                }
+                if (mantissa == 0 && digit == 0) {
+                    continue;
+                }
+                if (++digits > 15) {
+                    return false;
+                }
+                mantissa = mantissa * 10 + digit;
+            }
+            if (!anyDigit || fractionDigits >= POWERS_OF_TEN.length) {
+                return false;
+            }
+            double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+            result[0] = negative ? -value : value;
+            return true;
+        }
+
+        @Override
+        Comparable appendParsed(String value) {
+            double parsedValue = Double.parseDouble(value);
+            add(parsedValue);
+            return parsedValue;
+        }
+
+        @Override
+        void appendValue(Object value) {
+            add((Double) value);
+        }
+
+        private void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        void appendNA() {
+            na.set(size);
+            add(0);
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            DoubleColumn column = new DoubleColumn(name, values, size);
+            for (int i = na.nextSetBit(0); i >= 0; i = na.nextSetBit(i + 1)) {
+                column.setNA(i);
+            }
+            return column;
+        }
+    }
+
+    private static class BooleanValues extends ColumnValues {
+        private static final Parser<Boolean> PARSER = new BooleanColumn().getParser();
+        private Boolean[] values;
+
+        BooleanValues(boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            values = new Boolean[capacity];
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            if (isNA(tokenizer, start, end)) {
+                appendNA();
+                return this;
+            }
+            int length = end - start;
+            char first = (char) (tokenizer.get(start) | 0x20);
+            if (length == 1 && first == 't' || length == 4 && first == 't' && matches(tokenizer, start, "true")) {
+                if (autodetect && !equals(tokenizer, start, end, "true")) {
+                    text.set(size, tokenizer.decode(start, end));
+                }
+                add(Boolean.TRUE);
+            } else if (length == 1 && first == 'f' || length == 5 && first == 'f' && matches(tokenizer, start, "false")) {
+                if (autodetect && !equals(tokenizer, start, end, "false")) {
+                    text.set(size, tokenizer.decode(start, end));
+                }
+                add(Boolean.FALSE);
+            } else {
+                return append(tokenizer.decode(start, end), row);
+            }
+            return this;
+        }
+
+        private static boolean equals(Tokenizer tokenizer, int start, int end, String text) {
+            if (end - start != text.length()) {
+                return false;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                if (tokenizer.get(start + i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matches(Tokenizer tokenizer, int start, String lowerCase) {
+            for (int i = 0; i < lowerCase.length(); i++) {
+                if ((tokenizer.get(start + i) | 0x20) != lowerCase.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Comparable appendParsed(String value) throws Exception {
+            Boolean parsedValue = PARSER.parse(value);
+            add(parsedValue);
+            return parsedValue;
+        }
+
+        @Override
+        void appendValue(Object value) {
+            add((Boolean) value);
+        }
+
+        private void add(Boolean value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        void appendNA() {
+            add(null);
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            return new BooleanColumn(name, values, size);
+        }
+    }
+
+    private static class StringValues extends ColumnValues {
+        private String[] values;
+
+        StringValues(boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            values = new String[capacity];
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            if (isNA(tokenizer, start, end)) {
+                appendNA();
+            } else {
+                add(tokenizer.decode(start, end));
+            }
+            return this;
+        }
+
+        @Override
+        Comparable appendParsed(String value) {
+            add(value);
+            return value;
+        }
+
+        @Override
+        void appendValue(Object value) {
+            add((String) value);
+        }
+
+        private void add(String value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        void appendNA() {
+            add(null);
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            return new StringColumn(name, values, size);
+        }
+    }
+
+    /**
+     * Values of columns without byte parser, the values are parsed from strings using the column parser
+     */
+    private static class ParsedValues extends ColumnValues {
+        private final DataFrameColumn column;
+
+        @SuppressWarnings("unchecked")
+        ParsedValues(Class<? extends DataFrameColumn> columnType, boolean autodetect, int columnIndex, int capacity) {
+            super(autodetect, columnIndex);
+            try {
+                column = columnType.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", columnType.getCanonicalName()), e);
+            }
+            if (capacity > BasicColumn.INIT_SIZE) {
+                column.setCapacity(capacity);
+            }
+        }
+
+        @Override
+        ColumnValues append(Tokenizer tokenizer, int start, int end, int row) {
+            return append(tokenizer.decode(start, end), row);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Comparable appendParsed(String value) throws Exception {
+            Comparable parsedValue = (Comparable) column.getParser().parse(value);
+            appendValue(parsedValue);
+            return parsedValue;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void appendValue(Object value) {
+            column.append((Comparable) value);
+            size++;
+        }
+
+        @Override
+        void appendNA() {
+            column.appendNA();
+            size++;
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            column.setName(name);
+            return column;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.csv;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameConverter;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.io.ColumnInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reads uncompressed csv files in parallel.
+ * The file is split into parts at line boundaries, the first part contains the header.
+ * Each part is read by its own {@link CSVIterator} and parsed into column parts on the common fork join pool.
+ * The column parts are concatenated in file order using {@link DataFrameConverter#fromDataIterators(List, List, FilterPredicate)}.
+ * </p>
+ * <p>
+ * Rows in csv files are separated by line breaks, values containing line breaks are not supported.
+ * Line breaks are therefore always row boundaries, also within quoted values.
+ * Line numbers in error messages are relative to the part containing the line.
+ */
+public final class ParallelCSVReader {
+    private static final Logger log = LoggerFactory.getLogger(ParallelCSVReader.class);
+
+    /**
+     * Default minimal size of a file part in bytes
+     */
+    public static final long DEFAULT_MIN_PART_SIZE = 1L << 24;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static volatile long minPartSize = DEFAULT_MIN_PART_SIZE;
+
+    private ParallelCSVReader() {
+    }
+
+    /**
+     * Returns the minimal size of a file part in bytes.
+     * Files smaller than two parts are read by one thread.
+     *
+     * @return minimal part size
+     */
+    public static long getMinPartSize() {
+        return minPartSize;
+    }
+
+    /**
+     * Sets the minimal size of a file part in bytes.
+     *
+     * @param minPartSize minimal part size
+     */
+    public static void setMinPartSize(long minPartSize) {
+        ParallelCSVReader.minPartSize = Math.max(1, minPartSize);
+    }
+
+    /**
+     * Loads a data frame from a csv file by reading parts of the file in parallel.
+     *
+     * @param file               source file
+     * @param csvSettings        csv settings
+     * @param columnSettings     column settings
+     * @param expectedSize       expected size of the resulting data frame or <tt>-1</tt> if unknown
+     * @param columnsInformation column information, if <tt>null</tt> the column information of the csv header is used
+     * @param filterPredicate    row filter
+     * @return loaded data frame
+     */
+    static DataFrame load(File file, CSVSettings csvSettings, ColumnSettings columnSettings,
+                          int expectedSize, List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        List<CSVIterator> iterators = new ArrayList<>();
+        try {
+            long[] bounds = findPartBounds(file, csvSettings);
+            log.debug("reading {} in {} parts", file.getName(), bounds.length - 1);
+            CSVIterator headerIterator = new CSVIterator(openPart(file, bounds[0], bounds[1]), csvSettings, columnSettings);
+            iterators.add(headerIterator);
+            for (int i = 1; i < bounds.length - 1; i++) {
+                iterators.add(new CSVIterator(openPart(file, bounds[i], bounds[i + 1]), headerIterator));
+            }
+        } catch (IOException e) {
+            for (CSVIterator iterator : iterators) {
+                iterator.close();
+            }
+            throw new CSVRuntimeException(String.format("error reading csv file '%s'", file.getAbsolutePath()), e);
+        }
+        if (iterators.size() == 1) {
+            return DataFrameConverter.fromDataIterator(iterators.get(0), expectedSize, columnsInformation, filterPredicate);
+        }
+        return DataFrameConverter.fromDataIterators(iterators, columnsInformation, filterPredicate);
+    }
+
+    /**
+     * Splits a file into parts at line boundaries.
+     * The first part ends after the first line that is not empty and not skipped,
+     * so the header is always read by the first part.
+     *
+     * @param file        csv file
+     * @param csvSettings csv settings
+     * @return start positions of all parts followed by the file length
+     * @throws IOException if the file can not be read
+     */
+    static long[] findPartBounds(File file, CSVSettings csvSettings) throws IOException {
+        long length = file.length();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int partCount = (int) Math.max(1, Math.min(Math.max(2, parallelism) * 4L, length / minPartSize));
+        List<Long> bounds = new ArrayList<>(partCount + 1);
+        bounds.add(0L);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long last = partCount == 1 ? length : findHeaderEnd(raf, csvSettings);
+            for (int i = 1; i < partCount; i++) {
+                long bound = findLineStart(raf, Math.max(length * i / partCount, last));
+                if (bound >= length) {
+                    break;
+                }
+                if (bound > bounds.get(bounds.size() - 1)) {
+                    bounds.add(bound);
+                }
+                last = bound;
+            }
+        }
+        bounds.add(length);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position after the first line that is not empty and does not start with a skip prefix.
+     */
+    static long findHeaderEnd(RandomAccessFile raf, CSVSettings csvSettings) throws IOException {
+        raf.seek(0);
+        InputStream is = new BufferedInputStream(new FileInputStream(raf.getFD()), BUFFER_SIZE);
+        ByteArrayOutputStream lineBytes = new ByteArrayOutputStream();
+        long position = 0;
+        int b;
+        while ((b = is.read()) != -1) {
+            position++;
+            if (b != '\n') {
+                lineBytes.write(b);
+                continue;
+            }
+            String line = new String(lineBytes.toByteArray(), Charset.defaultCharset());
+            lineBytes.reset();
+            if (!line.trim().isEmpty() && !isSkipped(line, csvSettings)) {
+                return position;
+            }
+        }
+        return position;
+    }
+
+    private static boolean isSkipped(String line, CSVSettings csvSettings) {
+        for (String prefix : csvSettings.getSkipPrefixes()) {
+            if (prefix != null && !"".equals(prefix) && line.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the start of the first line starting at or after a position.
+     */
+    static long findLineStart(RandomAccessFile raf, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        long offset = position - 1;
+        raf.seek(offset);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = raf.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return offset;
+    }
+
+    static BufferedReader openPart(File file, long start, long end) throws IOException {
+        FileInputStream is = new FileInputStream(file);
+        try {
+            is.getChannel().position(start);
+        } catch (IOException e) {
+            is.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(new PartInputStream(is, end - start)));
+    }
+
+    /**
+     * Input stream limited to a number of bytes
+     */
+    private static class PartInputStream extends FilterInputStream {
+        private long remaining;
+
+        PartInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
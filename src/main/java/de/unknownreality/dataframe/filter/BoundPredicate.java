@@ -0,0 +1,194 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.filter;
+
+import java.util.BitSet;
+
+/**
+ * Filter predicate bound to the columns of a specific data frame.
+ * Rows are tested by their index, column lookups and type checks are done once
+ * when the {@link FilterPredicate} is {@link FilterPredicate#bind(de.unknownreality.dataframe.DataFrame) bound}.
+ * A bound predicate is only valid as long as the columns of the data frame are not changed.
+ * </p>
+ * <p>
+ * Predicates can also be evaluated on a selection of rows using {@link #filter(BitSet)}.
+ * Combined predicates evaluate their parts one after another on the whole selection
+ * and combine the resulting selections using bitwise operations.
+ * Rows that are already rejected are not tested again.
+ */
+public interface BoundPredicate {
+
+    /**
+     * Returns <tt>true</tt> if the row at the specified index is valid for this predicate
+     *
+     * @param row row index
+     * @return <tt>true</tt> if the row is valid
+     */
+    boolean valid(int row);
+
+    /**
+     * Removes all rows that are not valid for this predicate from a selection.
+     * Only rows contained in the selection are tested.
+     *
+     * @param selection selected row indices
+     */
+    default void filter(BitSet selection) {
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (!valid(i)) {
+                selection.clear(i);
+            }
+        }
+    }
+
+    /**
+     * Returns a predicate that accepts all rows
+     *
+     * @return predicate accepting all rows
+     */
+    static BoundPredicate all() {
+        return new BoundPredicate() {
+            @Override
+            public boolean valid(int row) {
+                return true;
+            }
+
+            @Override
+            public void filter(BitSet selection) {
+                // all rows are valid
+            }
+        };
+    }
+
+    /**
+     * Returns the negation of a predicate.
+     *
+     * @param predicate input predicate
+     * @return negated predicate
+     */
+    static BoundPredicate not(final BoundPredicate predicate) {
+        return new BoundPredicate() {
+            @Override
+            public boolean valid(int row) {
+                return !predicate.valid(row);
+            }
+
+            @Override
+            public void filter(BitSet selection) {
+                BitSet valid = (BitSet) selection.clone();
+                predicate.filter(valid);
+                selection.andNot(valid);
+            }
+        };
+    }
+
+    /**
+     * Returns a predicate that is valid if all input predicates are valid.
+     * Each predicate only tests the rows accepted by the previous predicates.
+     *
+     * @param predicates input predicates
+     * @return <tt>AND</tt> predicate
+     */
+    static BoundPredicate and(final BoundPredicate... predicates) {
+        return new BoundPredicate() {
+            @Override
+            public boolean valid(int row) {
+                for (BoundPredicate predicate : predicates) {
+                    if (!predicate.valid(row)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void filter(BitSet selection) {
+                for (BoundPredicate predicate : predicates) {
+                    if (selection.isEmpty()) {
+                        return;
+                    }
+                    predicate.filter(selection);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a predicate that is valid if at least one input predicate is valid.
+     * Each predicate only tests the rows rejected by the previous predicates.
+     *
+     * @param predicates input predicates
+     * @return <tt>OR</tt> predicate
+     */
+    static BoundPredicate or(final BoundPredicate... predicates) {
+        return new BoundPredicate() {
+            @Override
+            public boolean valid(int row) {
+                for (BoundPredicate predicate : predicates) {
+                    if (predicate.valid(row)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void filter(BitSet selection) {
+                BitSet rejected = (BitSet) selection.clone();
+                for (BoundPredicate predicate : predicates) {
+                    if (rejected.isEmpty()) {
+                        break;
+                    }
+                    BitSet valid = (BitSet) rejected.clone();
+                    predicate.filter(valid);
+                    rejected.andNot(valid);
+                }
+                selection.andNot(rejected);
+            }
+        };
+    }
+
+    /**
+     * Returns a predicate that is valid if exactly one of the input predicates is valid.
+     *
+     * @param p1 first input predicate
+     * @param p2 second input predicate
+     * @return <tt>XOR</tt> predicate
+     */
+    static BoundPredicate xor(final BoundPredicate p1, final BoundPredicate p2) {
+        return new BoundPredicate() {
+            @Override
+            public boolean valid(int row) {
+                return p1.valid(row) != p2.valid(row);
+            }
+
+            @Override
+            public void filter(BitSet selection) {
+                BitSet valid1 = (BitSet) selection.clone();
+                p1.filter(valid1);
+                p2.filter(selection);
+                selection.xor(valid1);
+            }
+        };
+    }
+}
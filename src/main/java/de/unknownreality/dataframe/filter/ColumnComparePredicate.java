@@ -24,6 +24,11 @@
 
 package de.unknownreality.dataframe.filter;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
 import de.unknownreality.dataframe.common.KeyValueGetter;
 
 /**
@@ -56,6 +61,53 @@ public class ColumnComparePredicate extends ComparePredicate {
         return super.compare(kv.get(getHeaderName()), kv.get(headerB));
     }
 
+    /**
+     * Binds this predicate to the columns of a data frame.
+     * Two numeric columns are compared using their primitive values.
+     *
+     * @param dataFrame data frame containing the tested rows
+     * @return predicate bound to the data frame
+     */
+    @Override
+    public BoundPredicate bind(DataFrame dataFrame) {
+        final DataFrameColumn<?, ?> columnA = dataFrame.getColumn(getHeaderName());
+        final DataFrameColumn<?, ?> columnB = dataFrame.getColumn(headerB);
+        if (columnA == null || columnB == null) {
+            return super.bind(dataFrame);
+        }
+        final boolean lt = isValid(getOperation(), -1);
+        final boolean eq = isValid(getOperation(), 0);
+        final boolean gt = isValid(getOperation(), 1);
+        if (columnA instanceof LongColumn && columnB instanceof LongColumn) {
+            final LongColumn longA = (LongColumn) columnA;
+            final LongColumn longB = (LongColumn) columnB;
+            return row -> {
+                if (longA.isNA(row) || longB.isNA(row)) {
+                    return compare(getValue(longA, row), getValue(longB, row));
+                }
+                int c = Long.compare(longA.getLong(row), longB.getLong(row));
+                return c < 0 ? lt : (c == 0 ? eq : gt);
+            };
+        }
+        if (columnA instanceof NumberColumn && columnB instanceof NumberColumn
+                && !(columnA instanceof LongColumn) && !(columnB instanceof LongColumn)) {
+            final NumberColumn<?, ?> numberA = (NumberColumn<?, ?>) columnA;
+            final NumberColumn<?, ?> numberB = (NumberColumn<?, ?>) columnB;
+            return row -> {
+                if (numberA.isNA(row) || numberB.isNA(row)) {
+                    return compare(getValue(numberA, row), getValue(numberB, row));
+                }
+                int c = compareDouble(numberA.getDouble(row), numberB.getDouble(row));
+                return c < 0 ? lt : (c == 0 ? eq : gt);
+            };
+        }
+        return row -> compare(getValue(columnA, row), getValue(columnB, row));
+    }
+
+    private static Object getValue(DataFrameColumn<?, ?> column, int row) {
+        return column.isNA(row) ? Values.NA : column.get(row);
+    }
+
     @Override
     public String toString() {
         return "." + getHeaderName() + " " + getOperation() + " ." + headerB;
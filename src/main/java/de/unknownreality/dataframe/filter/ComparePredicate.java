@@ -24,14 +24,22 @@
 
 package de.unknownreality.dataframe.filter;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
 import de.unknownreality.dataframe.common.KeyValueGetter;
 import de.unknownreality.dataframe.common.NumberUtil;
+import de.unknownreality.dataframe.meta.BlockStatistics;
+import de.unknownreality.dataframe.meta.ColumnStatistics;
 
 /**
  * Created by Alex on 09.03.2016.
  */
 public class ComparePredicate extends FilterPredicate {
+    private static final long MAX_EXACT_LONG = 1L << 53;
     /**
      * Operations available for compare predicates
      */
@@ -126,6 +134,150 @@ public class ComparePredicate extends FilterPredicate {
         return compare(kv.get(headerName),value);
     }
 
+    /**
+     * Binds this predicate to the column of a data frame.
+     * Numeric columns compared with a number are tested on their primitive values,
+     * other columns compared with a value of the column type are tested using {@link Comparable#compareTo(Object)}.
+     * The results are the same as the results of {@link #valid(KeyValueGetter)}.
+     *
+     * @param dataFrame data frame containing the tested rows
+     * @return predicate bound to the data frame
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public BoundPredicate bind(DataFrame dataFrame) {
+        final DataFrameColumn<?, ?> column = dataFrame.getColumn(headerName);
+        if (column == null || value == null) {
+            return super.bind(dataFrame);
+        }
+        final boolean naResult = compare(Values.NA, value);
+        final boolean lt = isValid(operation, -1);
+        final boolean eq = isValid(operation, 0);
+        final boolean gt = isValid(operation, 1);
+        if (column instanceof NumberColumn && value instanceof Number) {
+            final Number number = (Number) value;
+            if (column instanceof LongColumn && isIntegral(number)) {
+                final LongColumn longColumn = (LongColumn) column;
+                final long l = number.longValue();
+                return row -> {
+                    if (longColumn.isNA(row)) {
+                        return naResult;
+                    }
+                    int c = Long.compare(longColumn.getLong(row), l);
+                    return c < 0 ? lt : (c == 0 ? eq : gt);
+                };
+            }
+            if (!(column instanceof LongColumn) && isExactDouble(number)) {
+                final NumberColumn<?, ?> numberColumn = (NumberColumn<?, ?>) column;
+                final double d = number.doubleValue();
+                return row -> {
+                    if (numberColumn.isNA(row)) {
+                        return naResult;
+                    }
+                    int c = compareDouble(numberColumn.getDouble(row), d);
+                    return c < 0 ? lt : (c == 0 ? eq : gt);
+                };
+            }
+        }
+        if (!(column instanceof NumberColumn) && column.getType() == value.getClass() && value instanceof Comparable) {
+            return row -> {
+                if (column.isNA(row)) {
+                    return naResult;
+                }
+                int c = ((Comparable<Object>) column.get(row)).compareTo(value);
+                return c < 0 ? lt : (c == 0 ? eq : gt);
+            };
+        }
+        return row -> column.isNA(row) ? naResult : compare(column.get(row), value);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the number is an integral type that fits into a long
+     *
+     * @param number input number
+     * @return <tt>true</tt> if the number is a byte, short, integer or long
+     */
+    protected static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer
+                || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * Checks the value range of the compared column in a block.
+     * Blocks are only skipped if the column minimum and maximum have the type of the compared value
+     * or both are numbers, other combinations are compared per row and never skipped.
+     *
+     * @param statistics statistics of the block
+     * @return <tt>false</tt> if no row in the block can be valid
+     */
+    @Override
+    public boolean mayBeValid(BlockStatistics statistics) {
+        ColumnStatistics column = statistics.getColumnStatistics(headerName);
+        if (column == null || value == null) {
+            return true;
+        }
+        if (column.getNACount() > 0 && compare(Values.NA, value)) {
+            return true;
+        }
+        if (column.getMin() == null) {
+            return false;
+        }
+        Object min = column.getMin();
+        Object max = column.getMax();
+        boolean numberCompare = min instanceof Number && value instanceof Number;
+        if (!numberCompare && min.getClass() != value.getClass()) {
+            return true;
+        }
+        int cMin = numberCompare ? NumberUtil.compare((Number) min, (Number) value) : compareTo(min, value);
+        int cMax = numberCompare ? NumberUtil.compare((Number) max, (Number) value) : compareTo(max, value);
+        switch (operation) {
+            case GT:
+                return cMax > 0;
+            case GE:
+                return cMax >= 0;
+            case LT:
+                return cMin < 0;
+            case LE:
+                return cMin <= 0;
+            case EQ:
+                return cMin <= 0 && cMax >= 0;
+            default:
+                return cMin != 0 || cMax != 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareTo(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the number can be converted to a double without loss of precision
+     *
+     * @param number input number
+     * @return <tt>true</tt> if the double value of the number is exact
+     */
+    protected static boolean isExactDouble(Number number) {
+        if (number instanceof Long) {
+            long l = number.longValue();
+            return l <= MAX_EXACT_LONG && l >= -MAX_EXACT_LONG;
+        }
+        return number instanceof Double || number instanceof Float
+                || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * Compares two doubles the same way {@link NumberUtil#compare(Number, Number)} compares them.
+     * <tt>-0.0</tt> is equal to <tt>0.0</tt>, NaN is greater than all other values and equal to itself.
+     *
+     * @param a first value
+     * @param b second value
+     * @return comparison result
+     */
+    protected static int compareDouble(double a, double b) {
+        return NumberUtil.compareDouble(a, b);
+    }
+
     protected boolean compare(Object valueA, Object valueB){
         if (operation == Operation.EQ && valueA.equals(valueB)) {
             return true;
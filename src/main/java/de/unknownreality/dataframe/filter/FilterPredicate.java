@@ -24,8 +24,10 @@
 
 package de.unknownreality.dataframe.filter;
 
+import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.common.KeyValueGetter;
 import de.unknownreality.dataframe.filter.compile.PredicateCompiler;
+import de.unknownreality.dataframe.meta.BlockStatistics;
 
 import java.util.*;
 import java.util.regex.Pattern;
@@ -45,6 +47,31 @@ public abstract class FilterPredicate {
      */
     public abstract boolean valid(KeyValueGetter<String, ?> kv);
 
+    /**
+     * Binds this predicate to the columns of a data frame.
+     * The bound predicate tests rows by index.
+     * The default implementation tests the {@link de.unknownreality.dataframe.DataRow} at each index,
+     * predicates on columns override this to access the column values directly.
+     *
+     * @param dataFrame data frame containing the tested rows
+     * @return predicate bound to the data frame
+     */
+    public BoundPredicate bind(final DataFrame dataFrame) {
+        return row -> valid(dataFrame.getRow(row));
+    }
+
+    /**
+     * Returns <tt>false</tt> if no row in a block can be valid for this predicate, according to the statistics of the block.
+     * Used to skip blocks while loading data frames.
+     * The default implementation returns <tt>true</tt>, predicates on columns override this to check the column value ranges.
+     *
+     * @param statistics statistics of the block
+     * @return <tt>false</tt> if the block can be skipped
+     */
+    public boolean mayBeValid(BlockStatistics statistics) {
+        return true;
+    }
+
     /**
      * Returns a string representation for this predicate
      *
@@ -64,6 +91,11 @@ public abstract class FilterPredicate {
                 return true;
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.all();
+            }
+
             @Override
             public String toString() {
                 return "";
@@ -141,6 +173,11 @@ public abstract class FilterPredicate {
                 return !filterPredicate.valid(kv);
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.not(filterPredicate.bind(dataFrame));
+            }
+
             @Override
             public String toString() {
                 return "!(" + filterPredicate.toString() + ")";
@@ -164,6 +201,11 @@ public abstract class FilterPredicate {
                 return p1.valid(value) != p2.valid(value);
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.xor(p1.bind(dataFrame), p2.bind(dataFrame));
+            }
+
             @Override
             public String toString() {
                 return "(" + p1.toString() + ") != (" + p2.toString() + ")";
@@ -186,6 +228,11 @@ public abstract class FilterPredicate {
                 return p1.valid(kv) == p2.valid(kv);
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.not(BoundPredicate.xor(p1.bind(dataFrame), p2.bind(dataFrame)));
+            }
+
             @Override
             public String toString() {
                 return "(" + p1.toString() + ") == (" + p2.toString() + ")";
@@ -202,29 +249,7 @@ public abstract class FilterPredicate {
      * @return <tt>true</tt> if all input predicates return  <tt>true</tt>
      */
     public static FilterPredicate and(final FilterPredicate... predicates) {
-        return new FilterPredicate() {
-            @Override
-            public boolean valid(KeyValueGetter<String, ?> kv) {
-                for (FilterPredicate predicate : predicates) {
-                    if (!predicate.valid(kv)) {
-                        return false;
-                    }
-                }
-                return true;
-            }
-
-            @Override
-            public String toString() {
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < predicates.length; i++) {
-                    sb.append("(").append(predicates[i]).append(")");
-                    if (i < predicates.length - 1) {
-                        sb.append(" AND ");
-                    }
-                }
-                return sb.toString();
-            }
-        };
+        return new AndPredicate(predicates);
     }
 
     /**
@@ -235,29 +260,7 @@ public abstract class FilterPredicate {
      * @return <tt>true</tt> if at least one input predicate returns <tt>true</tt>
      */
     public static FilterPredicate or(final FilterPredicate... predicates) {
-        return new FilterPredicate() {
-            @Override
-            public boolean valid(KeyValueGetter<String, ?> kv) {
-                for (FilterPredicate predicate : predicates) {
-                    if (predicate.valid(kv)) {
-                        return true;
-                    }
-                }
-                return false;
-            }
-
-            @Override
-            public String toString() {
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < predicates.length; i++) {
-                    sb.append("(").append(predicates[i]).append(")");
-                    if (i < predicates.length - 1) {
-                        sb.append(" OR ");
-                    }
-                }
-                return sb.toString();
-            }
-        };
+        return new OrPredicate(predicates);
     }
 
 
@@ -270,17 +273,7 @@ public abstract class FilterPredicate {
      * @return <tt>true</tt> if both input predicates return  <tt>true</tt>
      */
     public static FilterPredicate and(final FilterPredicate p1, final FilterPredicate p2) {
-        return new FilterPredicate() {
-            @Override
-            public boolean valid(KeyValueGetter<String, ?> kv) {
-                return p1.valid(kv) && p2.valid(kv);
-            }
-
-            @Override
-            public String toString() {
-                return "(" + p1.toString() + ") AND (" + p2.toString() + ")";
-            }
-        };
+        return new AndPredicate(p1, p2);
     }
 
     /**
@@ -292,17 +285,7 @@ public abstract class FilterPredicate {
      * @return <tt>true</tt> if at least one input predicate returns <tt>true</tt>
      */
     public static FilterPredicate or(final FilterPredicate p1, final FilterPredicate p2) {
-        return new FilterPredicate() {
-            @Override
-            public boolean valid(KeyValueGetter<String, ?> kv) {
-                return p1.valid(kv) || p2.valid(kv);
-            }
-
-            @Override
-            public String toString() {
-                return "(" + p1.toString() + ") OR (" + p2.toString() + ")";
-            }
-        };
+        return new OrPredicate(p1, p2);
     }
 
     /**
@@ -322,6 +305,11 @@ public abstract class FilterPredicate {
                 return (p1v && !p2v) || (p2v && !p1v);
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.xor(p1.bind(dataFrame), p2.bind(dataFrame));
+            }
+
             @Override
             public String toString() {
                 return "(" + p1.toString() + ") XOR (" + p2.toString() + ")";
@@ -346,6 +334,11 @@ public abstract class FilterPredicate {
                 return !p1v && !p2v;
             }
 
+            @Override
+            public BoundPredicate bind(DataFrame dataFrame) {
+                return BoundPredicate.not(BoundPredicate.or(p1.bind(dataFrame), p2.bind(dataFrame)));
+            }
+
             @Override
             public String toString() {
                 return "(" + p1.toString() + ") NOR (" + p2.toString() + ")";
@@ -542,17 +535,7 @@ public abstract class FilterPredicate {
      * @return <tt>'in'</tt> predicate.
      */
     public static FilterPredicate in(final String name, final Set<Object> values) {
-        return new FilterPredicate() {
-            @Override
-            public boolean valid(KeyValueGetter<String, ?> kv) {
-                return values.contains(kv.get(name));
-            }
-
-            @Override
-            public String toString() {
-                return name + " in " + values.toString();
-            }
-        };
+        return new InPredicate(name, values);
     }
 
     /**
@@ -596,4 +579,23 @@ public abstract class FilterPredicate {
         return PredicateCompiler.compile(predicateString);
     }
 
+    static BoundPredicate[] bindAll(FilterPredicate[] predicates, DataFrame dataFrame) {
+        BoundPredicate[] bound = new BoundPredicate[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            bound[i] = predicates[i].bind(dataFrame);
+        }
+        return bound;
+    }
+
+    static String join(FilterPredicate[] predicates, String operator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < predicates.length; i++) {
+            sb.append("(").append(predicates[i]).append(")");
+            if (i < predicates.length - 1) {
+                sb.append(operator);
+            }
+        }
+        return sb.toString();
+    }
+
 }
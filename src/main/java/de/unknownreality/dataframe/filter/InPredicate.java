@@ -0,0 +1,66 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.filter;
+
+import de.unknownreality.dataframe.common.KeyValueGetter;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Predicate that checks whether the row column value is contained in a set of comparison values.
+ */
+public class InPredicate extends FilterPredicate {
+    private final String headerName;
+    private final Set<Object> values;
+
+    /**
+     * Creates an <tt>in</tt> predicate using a row column name and a set of comparison values
+     *
+     * @param headerName row column name
+     * @param values     comparison values
+     */
+    public InPredicate(String headerName, Set<Object> values) {
+        this.headerName = headerName;
+        this.values = values;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public Set<Object> getValues() {
+        return Collections.unmodifiableSet(values);
+    }
+
+    @Override
+    public boolean valid(KeyValueGetter<String, ?> kv) {
+        return values.contains(kv.get(headerName));
+    }
+
+    @Override
+    public String toString() {
+        return headerName + " in " + values.toString();
+    }
+}
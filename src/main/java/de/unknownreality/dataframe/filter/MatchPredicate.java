@@ -24,6 +24,9 @@
 
 package de.unknownreality.dataframe.filter;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
 import de.unknownreality.dataframe.common.KeyValueGetter;
 
 import java.util.regex.Pattern;
@@ -68,6 +71,22 @@ public class MatchPredicate extends FilterPredicate {
         return pattern.matcher(v.toString()).matches();
     }
 
+    /**
+     * Binds this predicate to the column of a data frame.
+     *
+     * @param dataFrame data frame containing the tested rows
+     * @return predicate bound to the data frame
+     */
+    @Override
+    public BoundPredicate bind(DataFrame dataFrame) {
+        final DataFrameColumn<?, ?> column = dataFrame.getColumn(headerName);
+        if (column == null) {
+            return super.bind(dataFrame);
+        }
+        final String na = Values.NA.toString();
+        return row -> pattern.matcher(column.isNA(row) ? na : column.get(row).toString()).matches();
+    }
+
     @Override
     public String toString() {
         return headerName + " =~ /" + pattern.toString() + "/";
@@ -0,0 +1,84 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.filter;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.common.KeyValueGetter;
+import de.unknownreality.dataframe.meta.BlockStatistics;
+
+/**
+ * <tt>OR</tt> combination of predicates, valid if at least one part is valid.
+ * The parts can be inspected using {@link #getPredicates()}, e.g. to find indices for them.
+ */
+public class OrPredicate extends FilterPredicate {
+    private final FilterPredicate[] predicates;
+
+    /**
+     * Creates an <tt>OR</tt> predicate
+     *
+     * @param predicates combined predicates
+     */
+    public OrPredicate(FilterPredicate... predicates) {
+        this.predicates = predicates;
+    }
+
+    /**
+     * Returns the combined predicates
+     *
+     * @return combined predicates
+     */
+    public FilterPredicate[] getPredicates() {
+        return predicates.clone();
+    }
+
+    @Override
+    public boolean valid(KeyValueGetter<String, ?> kv) {
+        for (FilterPredicate predicate : predicates) {
+            if (predicate.valid(kv)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BoundPredicate bind(DataFrame dataFrame) {
+        return BoundPredicate.or(bindAll(predicates, dataFrame));
+    }
+
+    @Override
+    public boolean mayBeValid(BlockStatistics statistics) {
+        for (FilterPredicate predicate : predicates) {
+            if (predicate.mayBeValid(statistics)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return join(predicates, " OR ");
+    }
+}
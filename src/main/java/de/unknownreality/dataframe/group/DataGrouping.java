@@ -25,6 +25,8 @@
 package de.unknownreality.dataframe.group;
 
 import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.AccumulatorFunction;
 import de.unknownreality.dataframe.group.aggr.AggregateFunction;
 
 import java.util.ArrayList;
@@ -36,6 +38,9 @@ import java.util.List;
 public class DataGrouping extends DefaultDataFrame {
     public final static String GROUP_INDEX = "%group_index%";
     private DataGroup[] groups;
+    private DataFrame source;
+    private int sourceVersion;
+    private RowGroup[] rowGroups;
 
     /**
      * Creates a data grouping based on a collections of {@link DataGroup data groups} and the corresponding group columns
@@ -56,6 +61,45 @@ public class DataGrouping extends DefaultDataFrame {
         }
     }
 
+    /**
+     * Creates a data grouping based on {@link RowGroup row groups} of a source data frame.
+     * The columns of the source data frame are copied, later changes of the source do not affect the grouping.
+     * The {@link DataGroup data groups} are only created when they are accessed using {@link #getGroup(int)}.
+     *
+     * @param source       source data frame
+     * @param rowGroups    row groups
+     * @param groupColumns group columns
+     */
+    public DataGrouping(DataFrame source, List<RowGroup> rowGroups, DataFrameColumn... groupColumns) {
+        this(source, rowGroups, false, groupColumns);
+    }
+
+    /**
+     * Creates a data grouping based on {@link RowGroup row groups} of a source data frame.
+     * If <tt>view</tt> is <tt>true</tt>, the groups read their rows from the source data frame instead of a copy.
+     * Changed values of the source are visible in the grouping
+     * and structural changes of the source (e.g. sorting or filtering) invalidate the grouping.
+     *
+     * @param source       source data frame
+     * @param rowGroups    row groups
+     * @param view         <tt>true</tt> to read the rows from the source data frame without copying its columns
+     * @param groupColumns group columns
+     */
+    public DataGrouping(DataFrame source, List<RowGroup> rowGroups, boolean view, DataFrameColumn... groupColumns) {
+        this.addIndex(GROUP_INDEX, groupColumns);
+        this.source = view ? source : copyColumns(source);
+        this.sourceVersion = this.source.getVersion();
+        this.groups = new DataGroup[rowGroups.size()];
+        this.rowGroups = new RowGroup[rowGroups.size()];
+        rowGroups.toArray(this.rowGroups);
+        for (DataFrameColumn col : groupColumns) {
+            addColumn(col);
+        }
+        for (RowGroup rowGroup : this.rowGroups) {
+            this.append(rowGroup.getGroupValues());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Comparable<T>> DataGrouping aggregate(String columnName, AggregateFunction<T> fun) {
         return agg(columnName,fun);
@@ -63,10 +107,22 @@ public class DataGrouping extends DefaultDataFrame {
 
     @SuppressWarnings("unchecked")
     public <T extends Comparable<T>> DataGrouping agg(String columnName, AggregateFunction<T> fun) {
-        List<T> values = new ArrayList<>();
-        for(int i = 0; i < size(); i++){
-            T v = fun.aggregate(getRow(i).getGroup());
-            values.add(v);
+        List<T> values = new ArrayList<>(size());
+        if (rowGroups != null && fun instanceof AccumulatorFunction) {
+            checkSourceVersion();
+            AccumulatorFunction<T> accumulatorFunction = (AccumulatorFunction<T>) fun;
+            for (RowGroup rowGroup : rowGroups) {
+                Accumulator<T> accumulator = accumulatorFunction.init(source);
+                for (int rowIndex : rowGroup.getRowIndices()) {
+                    accumulator.accumulate(rowIndex);
+                }
+                values.add(accumulator.finish());
+            }
+        } else {
+            for (int i = 0; i < size(); i++) {
+                T v = fun.aggregate(getRow(i).getGroup());
+                values.add(v);
+            }
         }
         Class<? extends Comparable> vType = null;
         for(T v : values){
@@ -99,9 +155,40 @@ public class DataGrouping extends DefaultDataFrame {
     }
 
     public DataGroup getGroup(int index) {
+        if (groups[index] == null && rowGroups != null) {
+            checkSourceVersion();
+            groups[index] = createGroup(rowGroups[index]);
+        }
         return groups[index];
     }
 
+    private static DataFrame copyColumns(DataFrame source) {
+        DataFrame copy = new DefaultDataFrame();
+        for (DataFrameColumn column : source.getColumns()) {
+            copy.addColumn(column.copy());
+        }
+        return copy;
+    }
+
+    private void checkSourceVersion() {
+        if (source.getVersion() != sourceVersion) {
+            throw new DataFrameRuntimeException("grouping is no longer valid, the source dataframe changed since the grouping was created");
+        }
+    }
+
+    private DataGroup createGroup(RowGroup rowGroup) {
+        String[] groupColumnNames = new String[rowGroup.getGroupValues().length];
+        for (int i = 0; i < groupColumnNames.length; i++) {
+            groupColumnNames[i] = getHeader().get(i);
+        }
+        DataGroup group = new DataGroup(groupColumnNames, rowGroup.getGroupValues());
+        group.set(source.getHeader().copy());
+        for (int rowIndex : rowGroup.getRowIndices()) {
+            group.append(source, rowIndex);
+        }
+        return group;
+    }
+
     public DataGroup getGroup(DataRow row) {
         return getGroup(row.getIndex());
     }
@@ -120,7 +207,7 @@ public class DataGrouping extends DefaultDataFrame {
 
     @Override
     public GroupRow getRow(int i) {
-        return new GroupRow(getGroup(i), this, i);
+        return new GroupRow(this, i);
     }
 
 }
@@ -7,12 +7,21 @@ import de.unknownreality.dataframe.DataRow;
  */
 public class GroupRow extends DataRow {
     private DataGroup group;
+    private DataGrouping grouping;
     public GroupRow(DataGroup group, DataGrouping grouping,int index) {
         super(grouping, index);
         this.group = group;
     }
 
+    public GroupRow(DataGrouping grouping, int index) {
+        super(grouping, index);
+        this.grouping = grouping;
+    }
+
     public DataGroup getGroup() {
+        if (group == null) {
+            group = grouping.getGroup(getIndex());
+        }
         return group;
     }
 
@@ -31,4 +31,17 @@ import de.unknownreality.dataframe.DataFrame;
  */
 public interface GroupUtil {
     DataGrouping groupBy(DataFrame df, String... columns);
+
+    /**
+     * Groups a data frame without copying its values.
+     * The groups read their rows from the data frame, so structural changes of the data frame invalidate the grouping.
+     * Implementations that do not support views return {@link #groupBy(DataFrame, String...)}.
+     *
+     * @param df      input data frame
+     * @param columns grouping columns
+     * @return data grouping
+     */
+    default DataGrouping groupByView(DataFrame df, String... columns) {
+        return groupBy(df, columns);
+    }
 }
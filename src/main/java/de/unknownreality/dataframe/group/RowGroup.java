@@ -0,0 +1,56 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.group;
+
+/**
+ * A group defined by its group values and the indices of its rows in the source data frame.
+ * In contrast to {@link DataGroup} the rows are not copied.
+ */
+public class RowGroup {
+    private final Comparable[] groupValues;
+    private final int[] rowIndices;
+
+    /**
+     * Creates a row group
+     *
+     * @param groupValues group column values
+     * @param rowIndices  indices of the group rows in the source data frame
+     */
+    public RowGroup(Comparable[] groupValues, int[] rowIndices) {
+        this.groupValues = groupValues;
+        this.rowIndices = rowIndices;
+    }
+
+    public Comparable[] getGroupValues() {
+        return groupValues;
+    }
+
+    public int[] getRowIndices() {
+        return rowIndices;
+    }
+
+    public int size() {
+        return rowIndices.length;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.group.aggr;
+
+/**
+ * Incrementally calculates an aggregate value from the rows of a group.
+ * An accumulator is bound to a data frame by {@link AccumulatorFunction#init(de.unknownreality.dataframe.DataFrame)}
+ * and receives the indices of the group rows in this data frame.
+ *
+ * @param <T> type of the aggregated value
+ */
+public interface Accumulator<T> {
+    /**
+     * Adds the row at the specified index to the aggregate
+     *
+     * @param rowIndex index of the row in the bound data frame
+     */
+    void accumulate(int rowIndex);
+
+    /**
+     * Merges the state of another accumulator of the same type into this accumulator.
+     * The other accumulator must have received rows following the rows of this accumulator.
+     *
+     * @param other other accumulator
+     */
+    void merge(Accumulator<T> other);
+
+    /**
+     * Returns the aggregated value
+     *
+     * @return aggregated value
+     */
+    T finish();
+
+    /**
+     * Releases all references to the bound data frame and its columns.
+     * Afterwards the accumulator can still be merged and finished, but no rows can be added.
+     * Accumulators that keep references to the data frame should override this method.
+     */
+    default void detach() {
+    }
+}
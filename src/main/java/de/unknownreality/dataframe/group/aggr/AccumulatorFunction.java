@@ -0,0 +1,55 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.group.aggr;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.group.DataGroup;
+
+/**
+ * Aggregate function that can be calculated in one pass over the rows of a group using an {@link Accumulator}.
+ * {@link de.unknownreality.dataframe.group.DataGrouping#agg(String, AggregateFunction)} uses the accumulators
+ * directly on the grouped data frame, so no {@link DataGroup} has to be created.
+ *
+ * @param <T> type of the aggregated value
+ */
+@FunctionalInterface
+public interface AccumulatorFunction<T> extends AggregateFunction<T> {
+    /**
+     * Creates a new empty accumulator bound to a data frame
+     *
+     * @param df data frame containing the group rows
+     * @return new accumulator
+     */
+    Accumulator<T> init(DataFrame df);
+
+    @Override
+    default T aggregate(DataGroup group) {
+        Accumulator<T> accumulator = init(group);
+        int size = group.size();
+        for (int i = 0; i < size; i++) {
+            accumulator.accumulate(i);
+        }
+        return accumulator.finish();
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.group.aggr;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.TypeInference;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.common.NumberUtil;
+
+/**
+ * {@link Accumulator} implementations used by {@link Aggregate}.
+ */
+class Accumulators {
+
+    private Accumulators() {
+    }
+
+    /**
+     * Returns the type of an aggregate merged from columns of different types, e.g. of the batches of a stream
+     */
+    private static Class mergeType(Class a, Class b) {
+        if (a.equals(b)) {
+            return a;
+        }
+        Class<?> type = TypeInference.getCommonType(a, b);
+        return type == String.class ? Double.class : type;
+    }
+
+    static class Count implements Accumulator<Integer> {
+        private int count = 0;
+
+        @Override
+        public void accumulate(int rowIndex) {
+            count++;
+        }
+
+        @Override
+        public void merge(Accumulator<Integer> other) {
+            count += ((Count) other).count;
+        }
+
+        @Override
+        public Integer finish() {
+            return count;
+        }
+    }
+
+    static class NACount implements Accumulator<Integer> {
+        private DataFrameColumn column;
+        private int count = 0;
+
+        NACount(DataFrameColumn column) {
+            this.column = column;
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (column.isNA(rowIndex)) {
+                count++;
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Integer> other) {
+            count += ((NACount) other).count;
+        }
+
+        @Override
+        public Integer finish() {
+            return count;
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class Sum implements Accumulator<Comparable> {
+        private NumberColumn column;
+        private Class type;
+        private double sum = 0d;
+
+        Sum(NumberColumn column) {
+            this.column = column;
+            this.type = column.getType();
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (!column.isNA(rowIndex)) {
+                sum += column.getDouble(rowIndex);
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Comparable> other) {
+            Sum o = (Sum) other;
+            sum += o.sum;
+            type = mergeType(type, o.type);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Comparable finish() {
+            return (Comparable) NumberUtil.convert(sum, type);
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class Mean implements Accumulator<Double> {
+        private NumberColumn column;
+        private double sum = 0d;
+        private int count = 0;
+
+        Mean(NumberColumn column) {
+            this.column = column;
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (!column.isNA(rowIndex)) {
+                sum += column.getDouble(rowIndex);
+                count++;
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Double> other) {
+            Mean o = (Mean) other;
+            sum += o.sum;
+            count += o.count;
+        }
+
+        @Override
+        public Double finish() {
+            return sum / count;
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class Min implements Accumulator<Comparable> {
+        private NumberColumn column;
+        private Class type;
+        private double min = Double.POSITIVE_INFINITY;
+        private boolean empty = true;
+
+        Min(NumberColumn column) {
+            this.column = column;
+            this.type = column.getType();
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (!column.isNA(rowIndex)) {
+                min = Math.min(min, column.getDouble(rowIndex));
+                empty = false;
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Comparable> other) {
+            Min o = (Min) other;
+            type = mergeType(type, o.type);
+            if (!o.empty) {
+                min = Math.min(min, o.min);
+                empty = false;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Comparable finish() {
+            return empty ? null : (Comparable) NumberUtil.convert(min, type);
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class Max implements Accumulator<Comparable> {
+        private NumberColumn column;
+        private Class type;
+        private double max = Double.NEGATIVE_INFINITY;
+        private boolean empty = true;
+
+        Max(NumberColumn column) {
+            this.column = column;
+            this.type = column.getType();
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (!column.isNA(rowIndex)) {
+                max = Math.max(max, column.getDouble(rowIndex));
+                empty = false;
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Comparable> other) {
+            Max o = (Max) other;
+            type = mergeType(type, o.type);
+            if (!o.empty) {
+                max = Math.max(max, o.max);
+                empty = false;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Comparable finish() {
+            return empty ? null : (Comparable) NumberUtil.convert(max, type);
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class First implements Accumulator<Comparable> {
+        private DataFrameColumn column;
+        private Comparable value;
+        private boolean empty = true;
+
+        First(DataFrameColumn column) {
+            this.column = column;
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            if (empty) {
+                value = column.get(rowIndex);
+                empty = false;
+            }
+        }
+
+        @Override
+        public void merge(Accumulator<Comparable> other) {
+            First o = (First) other;
+            if (empty && !o.empty) {
+                value = o.value;
+                empty = false;
+            }
+        }
+
+        @Override
+        public Comparable finish() {
+            return value;
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+
+    static class Last implements Accumulator<Comparable> {
+        private DataFrameColumn column;
+        private Comparable value;
+        private boolean empty = true;
+
+        Last(DataFrameColumn column) {
+            this.column = column;
+        }
+
+        @Override
+        public void accumulate(int rowIndex) {
+            value = column.get(rowIndex);
+            empty = false;
+        }
+
+        @Override
+        public void merge(Accumulator<Comparable> other) {
+            Last o = (Last) other;
+            if (!o.empty) {
+                value = o.value;
+                empty = false;
+            }
+        }
+
+        @Override
+        public Comparable finish() {
+            return value;
+        }
+
+        @Override
+        public void detach() {
+            column = null;
+        }
+    }
+}
@@ -30,27 +30,31 @@ import de.unknownreality.dataframe.filter.FilterPredicate;
  * Created by Alex on 13.06.2017.
  */
 public class Aggregate {
-    public static final AggregateFunction<Integer> count = (group -> group.size());
+    public static final AccumulatorFunction<Integer> count = (df -> new Accumulators.Count());
 
-    public static AggregateFunction<Integer> count() {
+    public static AccumulatorFunction<Integer> count() {
         return count;
     }
 
-    public static AggregateFunction<Double> mean(final String colName) {
-        return group -> group.getNumberColumn(colName).mean();
+    public static AccumulatorFunction<Double> mean(final String colName) {
+        return df -> new Accumulators.Mean(df.getNumberColumn(colName));
+    }
+
+    public static AccumulatorFunction<Comparable> sum(final String colName) {
+        return df -> new Accumulators.Sum(df.getNumberColumn(colName));
     }
 
     public static AggregateFunction<Comparable> median(final String colName) {
         return group -> group.getNumberColumn(colName).median();
     }
 
-    public static AggregateFunction<Comparable> min(final String colName) {
-        return group -> group.getNumberColumn(colName).min();
+    public static AccumulatorFunction<Comparable> min(final String colName) {
+        return df -> new Accumulators.Min(df.getNumberColumn(colName));
     }
 
 
-    public static AggregateFunction<Comparable> max(final String colName) {
-        return group -> group.getNumberColumn(colName).max();
+    public static AccumulatorFunction<Comparable> max(final String colName) {
+        return df -> new Accumulators.Max(df.getNumberColumn(colName));
     }
 
     public static AggregateFunction<Integer> filterCount(FilterPredicate filterPredicate) {
@@ -61,12 +65,12 @@ public class Aggregate {
         return group -> group.selectRows(predicateString).size();
     }
 
-    public static AggregateFunction<Comparable> first(final String colName) {
-        return group -> group.getRow(0).get(colName);
+    public static AccumulatorFunction<Comparable> first(final String colName) {
+        return df -> new Accumulators.First(df.getColumn(colName));
     }
 
-    public static AggregateFunction<Comparable> last(final String colName) {
-        return group -> group.getRow(group.size() - 1).get(colName);
+    public static AccumulatorFunction<Comparable> last(final String colName) {
+        return df -> new Accumulators.Last(df.getColumn(colName));
     }
 
 
@@ -75,16 +79,8 @@ public class Aggregate {
     }
 
 
-    public static AggregateFunction<Integer> naCount(String column) {
-        return group -> {
-            int c = 0;
-            for (int i = 0; i < group.size(); i++) {
-                if (group.getRow(i).isNA(column)) {
-                    c++;
-                }
-            }
-            return c;
-        };
+    public static AccumulatorFunction<Integer> naCount(String column) {
+        return df -> new Accumulators.NACount(df.getColumn(column));
     }
 
 
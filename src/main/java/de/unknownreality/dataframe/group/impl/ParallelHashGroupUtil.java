@@ -0,0 +1,173 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.common.CompositeKey;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.group.RowGroup;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Groups a data frame using hash tables on the group column values.
+ * The rows are split into chunks that are grouped in parallel using a {@link ForkJoinPool}.
+ * The chunk results are merged in row order, so the group order equals the order of {@link TreeGroupUtil}.
+ * Groups only store the indices of their rows, {@link de.unknownreality.dataframe.group.DataGroup data groups}
+ * are created when they are accessed.
+ * </p>
+ * <p>
+ * The grouped data frame must not be modified while the grouping is created.
+ */
+public class ParallelHashGroupUtil implements GroupUtil {
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 50000;
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    /**
+     * Creates a group util using the common {@link ForkJoinPool}
+     */
+    public ParallelHashGroupUtil() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a group util using the specified {@link ForkJoinPool}.
+     * Data frames with less than <tt>minChunkSize</tt> rows are grouped in the calling thread.
+     *
+     * @param pool         pool used to group the chunks
+     * @param minChunkSize minimum number of rows per chunk
+     */
+    public ParallelHashGroupUtil(ForkJoinPool pool, int minChunkSize) {
+        if (minChunkSize < 1) {
+            throw new IllegalArgumentException("minimum chunk size must be greater than 0");
+        }
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Groups a {@link DataFrame} using one or more columns.
+     *
+     * @param df      input data frame
+     * @param columns grouping columns
+     * @return data grouping
+     */
+    @Override
+    public DataGrouping groupBy(DataFrame df, String... columns) {
+        return groupBy(df, false, columns);
+    }
+
+    @Override
+    public DataGrouping groupByView(DataFrame df, String... columns) {
+        return groupBy(df, true, columns);
+    }
+
+    private DataGrouping groupBy(DataFrame df, boolean view, String... columns) {
+        DataFrameColumn[] groupColumns = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            groupColumns[i] = df.getColumn(columns[i]);
+        }
+        int size = df.size();
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, size / minChunkSize));
+        Map<CompositeKey, IntList> groupMap;
+        if (chunks == 1) {
+            groupMap = groupRows(groupColumns, 0, size);
+        } else {
+            groupMap = groupParallel(groupColumns, size, chunks);
+        }
+        List<RowGroup> rowGroups = new ArrayList<>(groupMap.size());
+        for (Map.Entry<CompositeKey, IntList> entry : groupMap.entrySet()) {
+            rowGroups.add(new RowGroup(entry.getKey().getValues(), entry.getValue().toArray()));
+        }
+        return new DataGrouping(df, rowGroups, view, createGroupColumns(groupColumns));
+    }
+
+    private Map<CompositeKey, IntList> groupParallel(DataFrameColumn[] groupColumns, int size, int chunks) {
+        List<Future<Map<CompositeKey, IntList>>> futures = new ArrayList<>(chunks);
+        int chunkSize = (size + chunks - 1) / chunks;
+        for (int start = 0; start < size; start += chunkSize) {
+            int from = start;
+            int to = Math.min(size, start + chunkSize);
+            futures.add(pool.submit(() -> groupRows(groupColumns, from, to)));
+        }
+        Map<CompositeKey, IntList> groupMap = null;
+        try {
+            for (Future<Map<CompositeKey, IntList>> future : futures) {
+                Map<CompositeKey, IntList> chunkMap = future.get();
+                if (groupMap == null) {
+                    groupMap = chunkMap;
+                    continue;
+                }
+                for (Map.Entry<CompositeKey, IntList> entry : chunkMap.entrySet()) {
+                    IntList rows = groupMap.get(entry.getKey());
+                    if (rows == null) {
+                        groupMap.put(entry.getKey(), entry.getValue());
+                    } else {
+                        rows.addAll(entry.getValue());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataFrameRuntimeException("grouping interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DataFrameRuntimeException("error grouping data frame", e.getCause());
+        }
+        return groupMap;
+    }
+
+    private static Map<CompositeKey, IntList> groupRows(DataFrameColumn[] groupColumns, int from, int to) {
+        Map<CompositeKey, IntList> groupMap = new LinkedHashMap<>();
+        for (int row = from; row < to; row++) {
+            Comparable[] values = new Comparable[groupColumns.length];
+            for (int i = 0; i < groupColumns.length; i++) {
+                values[i] = groupColumns[i].get(row);
+            }
+            CompositeKey key = new CompositeKey(values);
+            IntList rows = groupMap.get(key);
+            if (rows == null) {
+                rows = new IntList();
+                groupMap.put(key, rows);
+            }
+            rows.add(row);
+        }
+        return groupMap;
+    }
+
+    private static DataFrameColumn[] createGroupColumns(DataFrameColumn[] columns) {
+        DataFrameColumn[] groupColumns = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            groupColumns[i] = columns[i].copyEmpty();
+        }
+        return groupColumns;
+    }
+}
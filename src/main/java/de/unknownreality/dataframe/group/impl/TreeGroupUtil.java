@@ -28,11 +28,13 @@ import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameHeader;
 import de.unknownreality.dataframe.DefaultDataFrame;
-import de.unknownreality.dataframe.group.DataGroup;
+import de.unknownreality.dataframe.common.IntList;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.group.RowGroup;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -42,43 +44,50 @@ import java.util.List;
 public class TreeGroupUtil implements GroupUtil {
     /**
      * Groups a {@link DefaultDataFrame} using one or more columns.
+     * The groups only store the indices of their rows, {@link de.unknownreality.dataframe.group.DataGroup data groups}
+     * are created when they are accessed.
      *
      * @param df      input data frame
      * @param columns grouping columns
      * @return data grouping
      */
     public DataGrouping groupBy(DataFrame df, String... columns) {
-        List<DataGroup> groupList = new ArrayList<>();
-        DataFrameHeader header = df.getHeader().copy();
+        return groupBy(df, false, columns);
+    }
+
+    @Override
+    public DataGrouping groupByView(DataFrame df, String... columns) {
+        return groupBy(df, true, columns);
+    }
+
+    private DataGrouping groupBy(DataFrame df, boolean view, String... columns) {
+        List<GroupNode> groupNodes = new ArrayList<>();
+        DataFrameHeader header = df.getHeader();
         GroupNode root = new GroupNode(null);
-        DataFrameColumn[] dfColumns = new DataFrameColumn[df.getHeader().size()];
-        df.getColumns().toArray(dfColumns);
         int[] groupColumnIndices = new int[columns.length];
         for (int i = 0; i < columns.length; i++) {
             groupColumnIndices[i] = header.getIndex(columns[i]);
         }
         Comparable[] groupValues = new Comparable[columns.length];
         for (int i = 0; i < df.size(); i++) {
-            addRec(groupList, root, 0, columns, groupColumnIndices, groupValues, header, df, i);
+            addRec(groupNodes, root, 0, groupColumnIndices, groupValues, df, i);
+        }
+        List<RowGroup> groupList = new ArrayList<>(groupNodes.size());
+        for (GroupNode node : groupNodes) {
+            groupList.add(new RowGroup(node.getGroupValues(), node.getRows().toArray()));
         }
         root.clear();
-        return new DataGrouping(groupList, createGroupColumns(df, columns));
+        return new DataGrouping(df, groupList, view, createGroupColumns(df, columns));
     }
 
-    private void addRec(List<DataGroup> groups, GroupNode node, int index, String[] groupColumns, int[] groupColumnIndices,
-                        Comparable[] groupValues, DataFrameHeader header,
-                        DataFrame df, int rowIndex) {
-        if (index == groupColumns.length) {
+    private void addRec(List<GroupNode> groups, GroupNode node, int index, int[] groupColumnIndices,
+                        Comparable[] groupValues, DataFrame df, int rowIndex) {
+        if (index == groupColumnIndices.length) {
             if (!node.hasGroup()) {
-                DataGroup group = new DataGroup(
-                        groupColumns,
-                        groupValues
-                );
-                group.set(header.copy());
-                groups.add(group);
-                node.setGroup(group);
+                node.setGroupValues(Arrays.copyOf(groupValues, groupValues.length));
+                groups.add(node);
             }
-            node.addRow(df, rowIndex);
+            node.addRow(rowIndex);
             return;
         }
         Comparable value = df.getValue(groupColumnIndices[index], rowIndex);
@@ -88,7 +97,7 @@ public class TreeGroupUtil implements GroupUtil {
             child = new GroupNode(value);
             node.addChild(child);
         }
-        addRec(groups, child, index + 1, groupColumns, groupColumnIndices, groupValues, header, df, rowIndex);
+        addRec(groups, child, index + 1, groupColumnIndices, groupValues, df, rowIndex);
     }
 
     private static DataFrameColumn[] createGroupColumns(DataFrame df, String... columns) {
@@ -104,7 +113,8 @@ public class TreeGroupUtil implements GroupUtil {
     private class GroupNode {
         private Comparable value;
         private HashMap<Comparable, GroupNode> children;
-        private DataGroup dataGroup;
+        private Comparable[] groupValues;
+        private IntList rows;
 
         public GroupNode(Comparable value) {
             this.value = value;
@@ -114,9 +124,6 @@ public class TreeGroupUtil implements GroupUtil {
             if (children != null) {
                 children.clear();
             }
-            if (dataGroup != null) {
-                dataGroup = null;
-            }
         }
 
         private HashMap<Comparable, GroupNode> getChildrenMap() {
@@ -138,17 +145,25 @@ public class TreeGroupUtil implements GroupUtil {
             return getChildrenMap().get(value);
         }
 
-        public void addRow(DataFrame df, int rowIndex) {
-            dataGroup.append(df, rowIndex);
+        public void addRow(int rowIndex) {
+            rows.add(rowIndex);
+        }
+
+        public IntList getRows() {
+            return rows;
         }
 
+        public Comparable[] getGroupValues() {
+            return groupValues;
+        }
 
-        public void setGroup(DataGroup group) {
-            this.dataGroup = group;
+        public void setGroupValues(Comparable[] groupValues) {
+            this.groupValues = groupValues;
+            this.rows = new IntList();
         }
 
         public boolean hasGroup() {
-            return dataGroup != null;
+            return groupValues != null;
         }
 
     }
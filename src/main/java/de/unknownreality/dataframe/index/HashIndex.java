@@ -0,0 +1,449 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.index;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.Values;
+
+import java.util.*;
+
+/**
+ * Index for equality lookups on one or more columns using a hash table with open addressing.
+ * The table stores the hash of each distinct key and the row numbers of the key in <tt>int</tt> arrays,
+ * keys are not stored but compared with the column values of the first row of the key.
+ * A key with one row only requires one slot entry, the rows of other keys are stored in <tt>int[]</tt> postings.
+ * </p>
+ * <p>
+ * The postings of a key are kept in the order the rows were added, after {@link #remapRows(int[])} they are sorted.
+ */
+public class HashIndex implements Index {
+    private static final int INIT_CAPACITY = 16;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private final Map<DataFrameColumn, Integer> columnIndexMap = new LinkedHashMap<>();
+    private final String name;
+    private DataFrameColumn[] columns;
+    private DataFrame dataFrame;
+    private int version;
+    private boolean unique;
+
+    private int[] hashes;
+    private int[] counts;
+    private int[] rows;
+    private int[][] postings;
+    private int[] rowSlots = new int[0];
+    private int keys;
+    private int deleted;
+
+    /**
+     * Creates a hash index using one or more columns
+     *
+     * @param indexName name of index
+     * @param unique    defines whether this index only allows unique values
+     * @param columns   index columns
+     */
+    public HashIndex(String indexName, boolean unique, DataFrameColumn... columns) {
+        int i = 0;
+        for (DataFrameColumn column : columns) {
+            columnIndexMap.put(column, i++);
+        }
+        this.columns = columns.clone();
+        this.name = indexName;
+        this.unique = unique;
+        init(INIT_CAPACITY);
+    }
+
+    public HashIndex(String indexName, DataFrameColumn... columns) {
+        this(indexName, false, columns);
+    }
+
+    private void init(int capacity) {
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        rows = new int[capacity];
+        postings = new int[capacity][];
+        keys = 0;
+        deleted = 0;
+    }
+
+    @Override
+    public void setUnique(boolean unique) {
+        this.unique = unique;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void clear() {
+        init(INIT_CAPACITY);
+        rowSlots = new int[0];
+    }
+
+    @Override
+    public boolean containsColumn(DataFrameColumn column) {
+        return columnIndexMap.containsKey(column);
+    }
+
+    @Override
+    public boolean isUnique() {
+        return unique;
+    }
+
+    @Override
+    public void replaceColumn(DataFrameColumn existing, DataFrameColumn replacement) {
+        Integer index = columnIndexMap.get(existing);
+        if (index == null) {
+            throw new DataFrameRuntimeException(String.format("column not found: %s", existing.getName()));
+        }
+        columnIndexMap.remove(existing);
+        columnIndexMap.put(replacement, index);
+        columns[index] = replacement;
+    }
+
+    @Override
+    public List<DataFrameColumn> getColumns() {
+        return new ArrayList<>(Arrays.asList(columns));
+    }
+
+    /**
+     * Returns the number of distinct keys in this index
+     *
+     * @return number of keys
+     */
+    public int getKeyCount() {
+        return keys;
+    }
+
+    @Override
+    public void update(DataRow dataRow) {
+        resolveColumns(dataRow.getDataFrame());
+        add(dataRow.getIndex());
+    }
+
+    /**
+     * Adds the rows without creating a {@link DataRow} for each row
+     */
+    @Override
+    public void updateRows(DataFrame dataFrame, int fromRow) {
+        resolveColumns(dataFrame);
+        int size = dataFrame.size();
+        if (size > rowSlots.length) {
+            rowSlots = Arrays.copyOf(rowSlots, size);
+        }
+        for (int row = fromRow; row < size; row++) {
+            add(row);
+        }
+    }
+
+    private void add(int row) {
+        remove(row);
+        int hash = hash(row);
+        int slot = findSlot(hash, row);
+        if (slot >= 0) {
+            if (unique) {
+                throw new DataFrameRuntimeException(String.format("error adding row to index: duplicated values found '%s'",
+                        Arrays.toString(getValues(row))));
+            }
+            addRow(slot, row);
+        } else {
+            if ((keys + deleted + 1) * 4L > hashes.length * 3L) {
+                rehash(keys * 4L >= hashes.length ? hashes.length * 2 : hashes.length);
+            }
+            slot = insertSlot(hash);
+            if (counts[slot] == DELETED) {
+                deleted--;
+            }
+            hashes[slot] = hash;
+            counts[slot] = 1;
+            rows[slot] = row;
+            keys++;
+        }
+        setRowSlot(row, slot);
+    }
+
+    /**
+     * Resolves the index columns by name if the structure of the data frame changed,
+     * e.g. filtering replaces the columns of a data frame by new columns.
+     */
+    private void resolveColumns(DataFrame dataFrame) {
+        if (dataFrame == this.dataFrame && dataFrame.getVersion() == version) {
+            return;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            DataFrameColumn column = dataFrame.getColumn(columns[i].getName());
+            if (column != null) {
+                columns[i] = column;
+            }
+        }
+        this.dataFrame = dataFrame;
+        this.version = dataFrame.getVersion();
+    }
+
+    @Override
+    public void remove(DataRow dataRow) {
+        remove(dataRow.getIndex());
+    }
+
+    private void remove(int row) {
+        if (row >= rowSlots.length || rowSlots[row] == 0) {
+            return;
+        }
+        int slot = rowSlots[row] - 1;
+        rowSlots[row] = 0;
+        int count = counts[slot];
+        if (count == 1) {
+            counts[slot] = DELETED;
+            postings[slot] = null;
+            keys--;
+            deleted++;
+            return;
+        }
+        int[] posting = postings[slot];
+        int pos = 0;
+        while (posting[pos] != row) {
+            pos++;
+        }
+        System.arraycopy(posting, pos + 1, posting, pos, count - pos - 1);
+        count--;
+        counts[slot] = count;
+        rows[slot] = posting[0];
+        if (count == 1) {
+            postings[slot] = null;
+        }
+    }
+
+    private void addRow(int slot, int row) {
+        int count = counts[slot];
+        int[] posting = postings[slot];
+        if (posting == null) {
+            posting = new int[4];
+            posting[0] = rows[slot];
+            postings[slot] = posting;
+        } else if (count == posting.length) {
+            posting = Arrays.copyOf(posting, count + (count >> 1));
+            postings[slot] = posting;
+        }
+        posting[count] = row;
+        counts[slot] = count + 1;
+    }
+
+    private void setRowSlot(int row, int slot) {
+        if (row >= rowSlots.length) {
+            rowSlots = Arrays.copyOf(rowSlots, Math.max(row + 1, rowSlots.length + (rowSlots.length >> 1)));
+        }
+        rowSlots[row] = slot + 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        int[] oldRows = rows;
+        int[][] oldPostings = postings;
+        int oldKeys = keys;
+        init(capacity);
+        keys = oldKeys;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldCounts[i] <= 0) {
+                continue;
+            }
+            int slot = insertSlot(oldHashes[i]);
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+            rows[slot] = oldRows[i];
+            postings[slot] = oldPostings[i];
+            updateRowSlots(slot);
+        }
+    }
+
+    private void updateRowSlots(int slot) {
+        if (counts[slot] == 1) {
+            rowSlots[rows[slot]] = slot + 1;
+            return;
+        }
+        int[] posting = postings[slot];
+        for (int i = 0; i < counts[slot]; i++) {
+            rowSlots[posting[i]] = slot + 1;
+        }
+    }
+
+    /**
+     * Returns the first free slot for a hash, deleted slots are reused
+     */
+    private int insertSlot(int hash) {
+        int mask = hashes.length - 1;
+        int slot = hash & mask;
+        while (counts[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the key of the specified row or <tt>-1</tt> if the key is not contained
+     */
+    private int findSlot(int hash, int row) {
+        int mask = hashes.length - 1;
+        int slot = hash & mask;
+        int count;
+        while ((count = counts[slot]) != EMPTY) {
+            if (count > 0 && hashes[slot] == hash && equalsRow(rows[slot], row)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot of a key or <tt>-1</tt> if the key is not contained
+     */
+    private int findSlot(int hash, Comparable[] values) {
+        int mask = hashes.length - 1;
+        int slot = hash & mask;
+        int count;
+        while ((count = counts[slot]) != EMPTY) {
+            if (count > 0 && hashes[slot] == hash && equalsValues(rows[slot], values)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean equalsRow(int indexedRow, int row) {
+        for (DataFrameColumn column : columns) {
+            if (!getValue(column, indexedRow).equals(getValue(column, row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsValues(int indexedRow, Comparable[] values) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!getValue(columns[i], indexedRow).equals(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Comparable getValue(DataFrameColumn column, int row) {
+        Comparable value = column.get(row);
+        return value == null ? Values.NA : value;
+    }
+
+    private Comparable[] getValues(int row) {
+        Comparable[] values = new Comparable[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = getValue(columns[i], row);
+        }
+        return values;
+    }
+
+    private int hash(int row) {
+        int h = 1;
+        for (DataFrameColumn column : columns) {
+            h = 31 * h + getValue(column, row).hashCode();
+        }
+        return spread(h);
+    }
+
+    private static int hash(Comparable[] values) {
+        int h = 1;
+        for (Comparable value : values) {
+            h = 31 * h + value.hashCode();
+        }
+        return spread(h);
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean remapRows(int[] oldToNew) {
+        rowSlots = new int[rowSlots.length];
+        for (int slot = 0; slot < counts.length; slot++) {
+            int count = counts[slot];
+            if (count <= 0) {
+                continue;
+            }
+            if (count == 1) {
+                rows[slot] = oldToNew[rows[slot]];
+            } else {
+                int[] posting = postings[slot];
+                for (int i = 0; i < count; i++) {
+                    posting[i] = oldToNew[posting[i]];
+                }
+                Arrays.sort(posting, 0, count);
+                rows[slot] = posting[0];
+            }
+            updateRowSlots(slot);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the row numbers for the values of the index columns without boxing them.
+     *
+     * @param values indexed row values
+     * @return row numbers of the rows with the input values
+     */
+    public int[] findRows(Comparable... values) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("value for each index column required");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values = values.clone();
+                for (int j = i; j < values.length; j++) {
+                    values[j] = values[j] == null ? Values.NA : values[j];
+                }
+                break;
+            }
+        }
+        int slot = findSlot(hash(values), values);
+        if (slot < 0) {
+            return new int[0];
+        }
+        if (counts[slot] == 1) {
+            return new int[]{rows[slot]};
+        }
+        return Arrays.copyOf(postings[slot], counts[slot]);
+    }
+
+    @Override
+    public Collection<Integer> find(Comparable... values) {
+        return new RowList(findRows(values));
+    }
+}
@@ -24,6 +24,7 @@
 
 package de.unknownreality.dataframe.index;
 
+import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataRow;
 
@@ -41,6 +42,19 @@ public interface Index {
      */
     void update(DataRow dataRow);
 
+    /**
+     * Updates all rows of a data frame starting at a row number in this index,
+     * e.g. to build the index in one pass after many rows were appended.
+     *
+     * @param dataFrame data frame containing the rows
+     * @param fromRow   first row to update
+     */
+    default void updateRows(DataFrame dataFrame, int fromRow) {
+        for (int i = fromRow; i < dataFrame.size(); i++) {
+            update(dataFrame.getRow(i));
+        }
+    }
+
 
     /**
      * removes a {@link DataRow} from this index
@@ -98,4 +112,28 @@ public interface Index {
 
     void replaceColumn(DataFrameColumn existing, DataFrameColumn replacement);
 
+    /**
+     * Changes the row numbers in this index after the rows of the data frame were reordered.
+     * Indices that can not change their row numbers return <tt>false</tt>,
+     * they are cleared and rebuilt from the reordered rows instead.
+     *
+     * @param oldToNew new row number for each previous row number
+     * @return <tt>true</tt> if the row numbers were changed, <tt>false</tt> if the index has to be rebuilt
+     */
+    default boolean remapRows(int[] oldToNew) {
+        return false;
+    }
+
+    /**
+     * Creates an empty index of the same type and name based on other columns,
+     * e.g. the corresponding columns of a selection of rows.
+     * If <tt>null</tt> is returned, an equality index is created instead.
+     *
+     * @param columns columns of the new index in the order of {@link #getColumns()}
+     * @return empty index or <tt>null</tt>
+     */
+    default Index copyEmpty(DataFrameColumn... columns) {
+        return null;
+    }
+
 }
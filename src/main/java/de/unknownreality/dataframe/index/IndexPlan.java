@@ -0,0 +1,80 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.index;
+
+import de.unknownreality.dataframe.filter.FilterPredicate;
+
+/**
+ * Plan for selecting the rows valid for a filter predicate, created by {@link IndexPlanner}.
+ * An indexed plan contains the candidate rows found using indices and a residual predicate
+ * that is evaluated on the candidate rows only, otherwise all rows are scanned.
+ */
+public class IndexPlan {
+    private final int[] rows;
+    private final FilterPredicate residual;
+    private final String description;
+
+    IndexPlan(int[] rows, FilterPredicate residual, String description) {
+        this.rows = rows;
+        this.residual = residual;
+        this.description = description;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this plan uses indices
+     *
+     * @return <tt>true</tt> if indices are used
+     */
+    public boolean isIndexed() {
+        return rows != null;
+    }
+
+    /**
+     * Returns the ascending candidate rows found using indices or <tt>null</tt> if all rows are scanned
+     *
+     * @return candidate rows
+     */
+    public int[] getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the predicate that has to be evaluated on the candidate rows
+     *
+     * @return residual predicate
+     */
+    public FilterPredicate getResidual() {
+        return residual;
+    }
+
+    /**
+     * Returns the description of this plan, one step per line
+     *
+     * @return plan description
+     */
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,574 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.index;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.common.NumberUtil;
+import de.unknownreality.dataframe.filter.AndPredicate;
+import de.unknownreality.dataframe.filter.ComparePredicate;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.filter.InPredicate;
+import de.unknownreality.dataframe.filter.OrPredicate;
+import de.unknownreality.dataframe.index.interval.IntervalIndex;
+import de.unknownreality.dataframe.index.interval.StaticIntervalIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates {@link IndexPlan plans} for filter predicates using the indices of a data frame.
+ * Equality comparisons and <tt>in</tt> predicates are looked up in hash, tree or sorted indices,
+ * range comparisons in sorted indices and <tt>start &lt;= x AND end &gt;= x</tt> in interval indices.
+ * The rows of the parts of <tt>AND</tt> predicates are intersected, the rows of <tt>OR</tt> predicates are united.
+ * Parts without a matching index remain in the residual predicate, which is evaluated on the found rows.
+ * If no index can be used, all rows are scanned.
+ */
+public class IndexPlanner {
+    private static final int[] NO_ROWS = new int[0];
+    private static final Object NO_MATCH = new Object();
+    private static final String INDENT = "  ";
+
+    private final Collection<Index> indices;
+
+    /**
+     * Creates a planner using a collection of indices
+     *
+     * @param indices available indices
+     */
+    public IndexPlanner(Collection<Index> indices) {
+        this.indices = indices;
+    }
+
+    /**
+     * Creates a plan for a filter predicate
+     *
+     * @param predicate filter predicate
+     * @return plan for the predicate
+     */
+    public IndexPlan plan(FilterPredicate predicate) {
+        Step step = indices.isEmpty() ? null : planPredicate(predicate);
+        if (step == null) {
+            return scan(predicate);
+        }
+        StringBuilder sb = new StringBuilder();
+        step.describe(sb, "");
+        if (step.residual != null) {
+            sb.append("FILTER (").append(step.residual).append(")\n");
+        }
+        return new IndexPlan(step.rows, step.residual, sb.toString().trim());
+    }
+
+    /**
+     * Creates a plan that scans all rows
+     *
+     * @param predicate filter predicate
+     * @return scan plan
+     */
+    public static IndexPlan scan(FilterPredicate predicate) {
+        return new IndexPlan(null, predicate, "SCAN (" + predicate + ")");
+    }
+
+    private Step planPredicate(FilterPredicate predicate) {
+        if (predicate instanceof AndPredicate) {
+            List<FilterPredicate> parts = new ArrayList<>();
+            flatten((AndPredicate) predicate, parts);
+            return planAnd(parts);
+        }
+        if (predicate instanceof OrPredicate) {
+            return planOr((OrPredicate) predicate);
+        }
+        if (predicate instanceof InPredicate) {
+            return planIn((InPredicate) predicate);
+        }
+        if (predicate instanceof ComparePredicate) {
+            ComparePredicate compare = (ComparePredicate) predicate;
+            if (compare.getOperation() == ComparePredicate.Operation.EQ) {
+                return planEquals(compare);
+            }
+            return planRange(compare.getHeaderName(), Arrays.asList(compare));
+        }
+        return null;
+    }
+
+    private static void flatten(AndPredicate predicate, List<FilterPredicate> parts) {
+        for (FilterPredicate part : predicate.getPredicates()) {
+            if (part instanceof AndPredicate) {
+                flatten((AndPredicate) part, parts);
+            } else {
+                parts.add(part);
+            }
+        }
+    }
+
+    private Step planEquals(ComparePredicate predicate) {
+        for (Index index : indices) {
+            if (!isEqualityIndex(index) || index.getColumns().size() != 1) {
+                continue;
+            }
+            DataFrameColumn column = index.getColumns().get(0);
+            if (!column.getName().equals(predicate.getHeaderName())) {
+                continue;
+            }
+            Object key = toKey(column, predicate.getValue());
+            if (key == null) {
+                return null;
+            }
+            return new Step(probe(index, key), null, "INDEX " + index.getName() + " (" + predicate + ")");
+        }
+        return null;
+    }
+
+    private Step planIn(InPredicate predicate) {
+        for (Index index : indices) {
+            if (!isEqualityIndex(index) || index.getColumns().size() != 1) {
+                continue;
+            }
+            DataFrameColumn column = index.getColumns().get(0);
+            if (!column.getName().equals(predicate.getHeaderName())) {
+                continue;
+            }
+            int[] rows = NO_ROWS;
+            for (Object value : predicate.getValues()) {
+                if (value == null || Values.NA.isNA(value) || value.getClass() != column.getType()) {
+                    return null;
+                }
+                rows = union(rows, probe(index, value));
+            }
+            return new Step(rows, null, "INDEX " + index.getName() + " (" + predicate + ")");
+        }
+        return null;
+    }
+
+    /**
+     * Plans a conjunction of range comparisons on the same column using a sorted index
+     */
+    private Step planRange(String headerName, List<ComparePredicate> predicates) {
+        for (Index index : indices) {
+            if (!(index instanceof SortedIndex)) {
+                continue;
+            }
+            DataFrameColumn column = index.getColumns().get(0);
+            if (!column.getName().equals(headerName)) {
+                continue;
+            }
+            Comparable low = null;
+            Comparable high = null;
+            boolean lowInclusive = false;
+            boolean highInclusive = false;
+            for (ComparePredicate predicate : predicates) {
+                Comparable value = toRangeValue(column, predicate.getValue());
+                if (value == null) {
+                    return null;
+                }
+                ComparePredicate.Operation operation = predicate.getOperation();
+                boolean inclusive = operation == ComparePredicate.Operation.GE || operation == ComparePredicate.Operation.LE;
+                if (operation == ComparePredicate.Operation.GT || operation == ComparePredicate.Operation.GE) {
+                    int c = low == null ? 1 : compare(value, low);
+                    if (c > 0 || (c == 0 && !inclusive)) {
+                        low = value;
+                        lowInclusive = inclusive;
+                    }
+                } else if (operation == ComparePredicate.Operation.LT || operation == ComparePredicate.Operation.LE) {
+                    int c = high == null ? -1 : compare(value, high);
+                    if (c < 0 || (c == 0 && !inclusive)) {
+                        high = value;
+                        highInclusive = inclusive;
+                    }
+                } else {
+                    return null;
+                }
+            }
+            int[] rows = ((SortedIndex) index).findRange(low, lowInclusive, high, highInclusive);
+            Arrays.sort(rows);
+            return new Step(rows, null, "INDEX " + index.getName() + " (" + FilterPredicate.and(predicates.toArray(new FilterPredicate[0])) + ")");
+        }
+        return null;
+    }
+
+    private Step planAnd(List<FilterPredicate> parts) {
+        List<Step> steps = new ArrayList<>();
+        List<FilterPredicate> residual = new ArrayList<>();
+        List<FilterPredicate> remaining = new ArrayList<>(parts);
+
+        Step composite = planCompositeEquals(remaining);
+        if (composite != null) {
+            steps.add(composite);
+        }
+        Step interval = planInterval(remaining, residual);
+        if (interval != null) {
+            steps.add(interval);
+        }
+        List<String> rangeColumns = new ArrayList<>();
+        for (FilterPredicate part : remaining) {
+            if (isRange(part) && !rangeColumns.contains(((ComparePredicate) part).getHeaderName())) {
+                rangeColumns.add(((ComparePredicate) part).getHeaderName());
+            }
+        }
+        for (String rangeColumn : rangeColumns) {
+            List<ComparePredicate> rangeParts = new ArrayList<>();
+            for (FilterPredicate part : remaining) {
+                if (isRange(part) && ((ComparePredicate) part).getHeaderName().equals(rangeColumn)) {
+                    rangeParts.add((ComparePredicate) part);
+                }
+            }
+            Step step = planRange(rangeColumn, rangeParts);
+            if (step != null) {
+                steps.add(step);
+                remaining.removeAll(rangeParts);
+            }
+        }
+        for (FilterPredicate part : remaining) {
+            Step step = isRange(part) ? null : planPredicate(part);
+            if (step == null) {
+                residual.add(part);
+                continue;
+            }
+            steps.add(step);
+            if (step.residual != null) {
+                residual.add(step.residual);
+            }
+        }
+        if (steps.isEmpty()) {
+            return null;
+        }
+        int[] rows = steps.get(0).rows;
+        for (int i = 1; i < steps.size(); i++) {
+            rows = intersect(rows, steps.get(i).rows);
+        }
+        FilterPredicate residualPredicate = combine(residual);
+        if (steps.size() == 1) {
+            Step step = steps.get(0);
+            return new Step(rows, residualPredicate, step.description, step.children);
+        }
+        return new Step(rows, residualPredicate, "INTERSECT", steps);
+    }
+
+    /**
+     * Plans the equality comparisons of a conjunction using the index with the most columns that are all compared,
+     * the used comparisons are removed from the parts
+     */
+    private Step planCompositeEquals(List<FilterPredicate> parts) {
+        Index best = null;
+        List<ComparePredicate> bestParts = null;
+        for (Index index : indices) {
+            if (!isEqualityIndex(index) || index.getColumns().size() < 2
+                    || (best != null && best.getColumns().size() >= index.getColumns().size())) {
+                continue;
+            }
+            List<ComparePredicate> indexParts = new ArrayList<>();
+            for (DataFrameColumn column : index.getColumns()) {
+                ComparePredicate part = findEquals(parts, column);
+                if (part == null) {
+                    break;
+                }
+                indexParts.add(part);
+            }
+            if (indexParts.size() == index.getColumns().size()) {
+                best = index;
+                bestParts = indexParts;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        List<DataFrameColumn> columns = best.getColumns();
+        Comparable[] keys = new Comparable[columns.size()];
+        int[] rows = null;
+        for (int i = 0; i < keys.length; i++) {
+            Object key = toKey(columns.get(i), bestParts.get(i).getValue());
+            if (key == NO_MATCH) {
+                rows = NO_ROWS;
+            }
+            keys[i] = key == NO_MATCH ? null : (Comparable) key;
+        }
+        if (rows == null) {
+            rows = probe(best, (Object[]) keys);
+        }
+        parts.removeAll(bestParts);
+        return new Step(rows, null, "INDEX " + best.getName() + " (" + FilterPredicate.and(bestParts.toArray(new FilterPredicate[0])) + ")");
+    }
+
+    /**
+     * Finds the rows containing a value using an interval index for <tt>start &lt;= x AND end &gt;= x</tt>.
+     * The comparisons remain in the residual predicate.
+     */
+    private Step planInterval(List<FilterPredicate> parts, List<FilterPredicate> residual) {
+        for (Index index : indices) {
+            if (!(index instanceof IntervalIndex) && !(index instanceof StaticIntervalIndex)) {
+                continue;
+            }
+            DataFrameColumn start = index.getColumns().get(0);
+            DataFrameColumn end = index.getColumns().get(1);
+            for (FilterPredicate startPart : parts) {
+                if (!isCompare(startPart, start, ComparePredicate.Operation.LE)) {
+                    continue;
+                }
+                Object value = ((ComparePredicate) startPart).getValue();
+                if (!(value instanceof Number) || Double.isNaN(((Number) value).doubleValue())) {
+                    continue;
+                }
+                for (FilterPredicate endPart : parts) {
+                    if (isCompare(endPart, end, ComparePredicate.Operation.GE)
+                            && value.equals(((ComparePredicate) endPart).getValue())) {
+                        int[] rows = index instanceof StaticIntervalIndex ? ((StaticIntervalIndex) index).findRows((Number) value)
+                                : toSortedArray(index.find((Comparable) value));
+                        parts.remove(startPart);
+                        parts.remove(endPart);
+                        residual.add(startPart);
+                        residual.add(endPart);
+                        return new Step(rows, null, "INDEX " + index.getName() + " (" + start.getName()
+                                + " <= " + value + " <= " + end.getName() + ")");
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private Step planOr(OrPredicate predicate) {
+        List<Step> steps = new ArrayList<>();
+        boolean exact = true;
+        int[] rows = NO_ROWS;
+        for (FilterPredicate part : predicate.getPredicates()) {
+            Step step = planPredicate(part);
+            if (step == null) {
+                return null;
+            }
+            steps.add(step);
+            exact &= step.residual == null;
+            rows = union(rows, step.rows);
+        }
+        return new Step(rows, exact ? null : predicate, "UNION", steps);
+    }
+
+    private static boolean isEqualityIndex(Index index) {
+        return index instanceof HashIndex || index instanceof TreeIndex || index instanceof SortedIndex;
+    }
+
+    private static boolean isRange(FilterPredicate predicate) {
+        if (!(predicate instanceof ComparePredicate)) {
+            return false;
+        }
+        ComparePredicate.Operation operation = ((ComparePredicate) predicate).getOperation();
+        return operation == ComparePredicate.Operation.GT || operation == ComparePredicate.Operation.GE
+                || operation == ComparePredicate.Operation.LT || operation == ComparePredicate.Operation.LE;
+    }
+
+    private static boolean isCompare(FilterPredicate predicate, DataFrameColumn column, ComparePredicate.Operation operation) {
+        return predicate instanceof ComparePredicate
+                && ((ComparePredicate) predicate).getOperation() == operation
+                && ((ComparePredicate) predicate).getHeaderName().equals(column.getName());
+    }
+
+    private static ComparePredicate findEquals(List<FilterPredicate> parts, DataFrameColumn column) {
+        for (FilterPredicate part : parts) {
+            if (isCompare(part, column, ComparePredicate.Operation.EQ) && toKey(column, ((ComparePredicate) part).getValue()) != null) {
+                return (ComparePredicate) part;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value stored in an index that equals a comparison value,
+     * {@link #NO_MATCH} if no value of the column equals it
+     * or <tt>null</tt> if the comparison can not be answered by an index lookup.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object toKey(DataFrameColumn column, Object value) {
+        if (value == null || Values.NA.isNA(value)) {
+            return null;
+        }
+        Class<?> type = column.getType();
+        if (column instanceof NumberColumn && value instanceof Number) {
+            if (type == Double.class || type == Float.class) {
+                double d = ((Number) value).doubleValue();
+                if (d == 0 || Double.isNaN(d)) {
+                    return null;
+                }
+            }
+            Number key = NumberUtil.convert((Number) value, (Class<? extends Number>) type);
+            if (key == null) {
+                return null;
+            }
+            return NumberUtil.compare(key, (Number) value) == 0 ? key : NO_MATCH;
+        }
+        if (column instanceof NumberColumn || type != value.getClass() || !(value instanceof Comparable)) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the comparison value if a range comparison can be answered using a sorted index,
+     * otherwise <tt>null</tt>.
+     */
+    private static Comparable toRangeValue(DataFrameColumn column, Object value) {
+        if (value == null || Values.NA.isNA(value)) {
+            return null;
+        }
+        if (column instanceof NumberColumn) {
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            boolean integral = value instanceof Long || value instanceof Integer
+                    || value instanceof Short || value instanceof Byte;
+            if (column instanceof LongColumn) {
+                return integral ? (Comparable) value : null;
+            }
+            if (value instanceof Long) {
+                long l = (Long) value;
+                return Math.abs(l) <= 1L << 53 ? (Comparable) value : null;
+            }
+            if (value instanceof Double || value instanceof Float) {
+                double d = ((Number) value).doubleValue();
+                return Double.isNaN(d) ? null : (Comparable) value;
+            }
+            return integral ? (Comparable) value : null;
+        }
+        return column.getType() == value.getClass() && value instanceof Comparable ? (Comparable) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable a, Comparable b) {
+        if (a instanceof Number && b instanceof Number) {
+            return NumberUtil.compare((Number) a, (Number) b);
+        }
+        return a.compareTo(b);
+    }
+
+    private static int[] probe(Index index, Object... keys) {
+        Comparable[] values = new Comparable[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == NO_MATCH) {
+                return NO_ROWS;
+            }
+            values[i] = (Comparable) keys[i];
+        }
+        if (index instanceof HashIndex) {
+            int[] rows = ((HashIndex) index).findRows(values);
+            Arrays.sort(rows);
+            return rows;
+        }
+        return toSortedArray(index.find(values));
+    }
+
+    private static int[] toSortedArray(Collection<Integer> rows) {
+        int[] result = new int[rows.size()];
+        int i = 0;
+        for (Integer row : rows) {
+            result[i++] = row;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static FilterPredicate combine(List<FilterPredicate> predicates) {
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        if (predicates.size() == 1) {
+            return predicates.get(0);
+        }
+        return FilterPredicate.and(predicates.toArray(new FilterPredicate[0]));
+    }
+
+    /**
+     * Intersects two ascending row arrays
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return k == result.length ? result : Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Unites two ascending row arrays
+     */
+    static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[k++] = b[j++];
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[k++] = a[i++];
+        }
+        while (j < b.length) {
+            result[k++] = b[j++];
+        }
+        return k == result.length ? result : Arrays.copyOf(result, k);
+    }
+
+    private static class Step {
+        private final int[] rows;
+        private final FilterPredicate residual;
+        private final String description;
+        private final List<Step> children;
+
+        private Step(int[] rows, FilterPredicate residual, String description) {
+            this(rows, residual, description, null);
+        }
+
+        private Step(int[] rows, FilterPredicate residual, String description, List<Step> children) {
+            this.rows = rows;
+            this.residual = residual;
+            this.description = description;
+            this.children = children;
+        }
+
+        private void describe(StringBuilder sb, String indent) {
+            sb.append(indent).append(description).append('\n');
+            if (children != null) {
+                for (Step child : children) {
+                    child.describe(sb, indent + INDENT);
+                }
+            }
+        }
+    }
+}
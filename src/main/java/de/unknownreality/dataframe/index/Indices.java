@@ -28,6 +28,7 @@ import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.filter.FilterPredicate;
 
 import java.util.*;
 
@@ -40,6 +41,8 @@ public class Indices {
     private final Map<String, Index> indexMap = new HashMap<>();
     private final Map<DataFrameColumn, List<Index>> columnIndexMap = new WeakHashMap<>();
     private final DataFrame dataFrame;
+    private int bulkUpdates = 0;
+    private int pendingFrom = -1;
     /**
      * Creates an index for a data frame
      *
@@ -83,6 +86,26 @@ public class Indices {
         }
     }
 
+    /**
+     * Replaces the index columns by the columns with the same names of the data frame,
+     * e.g. after the columns of the data frame were replaced by filtered copies.
+     * The values of the indices are not updated.
+     */
+    public void rebindColumns() {
+        columnIndexMap.clear();
+        for (Index index : indexMap.values()) {
+            for (DataFrameColumn column : index.getColumns()) {
+                DataFrameColumn current = dataFrame.getColumn(column.getName());
+                if (current != null && current != column) {
+                    index.replaceColumn(column, current);
+                }
+            }
+            for (DataFrameColumn column : index.getColumns()) {
+                columnIndexMap.computeIfAbsent(column, c -> new ArrayList<>()).add(index);
+            }
+        }
+    }
+
     /**
      * Copies all indices into another data frame
      *
@@ -102,7 +125,12 @@ public class Indices {
                 dfColumns[i] = dfCol;
             }
             if (!invalid) {
-                dataFrame.addIndex(entry.getKey(), dfColumns);
+                Index copy = entry.getValue().copyEmpty(dfColumns);
+                if (copy == null) {
+                    dataFrame.addIndex(entry.getKey(), dfColumns);
+                } else {
+                    dataFrame.addIndex(copy);
+                }
             }
         }
     }
@@ -116,20 +144,146 @@ public class Indices {
         if(indicesCount() == 0){
             return;
         }
+        if (bulkUpdates > 0) {
+            markPending(dataRow.getIndex());
+            return;
+        }
         for (Index index : indexMap.values()) {
             index.update(dataRow);
         }
     }
 
     /**
-     * Updates all rows in all available indices
+     * Updates a row in all available indices.
+     * The data row is only created if an index has to be updated.
+     *
+     * @param row row number
+     */
+    public void update(int row) {
+        if(indicesCount() == 0){
+            return;
+        }
+        if (bulkUpdates > 0) {
+            markPending(row);
+            return;
+        }
+        update(dataFrame.getRow(row));
+    }
+
+    /**
+     * Starts a bulk update, e.g. before appending many rows.
+     * Until the bulk update ends, updated rows are only recorded. The indices are updated in one pass
+     * when the bulk update ends or before an index is used for a lookup.
+     * Bulk updates can be nested, the indices are updated when the outermost bulk update ends.
+     */
+    public void beginBulkUpdate() {
+        bulkUpdates++;
+    }
+
+    /**
+     * Ends a bulk update and updates all indices with the recorded rows.
+     * Duplicate values in unique indices are detected at this point.
+     */
+    public void endBulkUpdate() {
+        if (bulkUpdates == 0) {
+            throw new DataFrameRuntimeException("no bulk update started");
+        }
+        if (--bulkUpdates == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if a bulk update is active
+     *
+     * @return <tt>true</tt> if a bulk update is active
+     */
+    public boolean isBulkUpdate() {
+        return bulkUpdates > 0;
+    }
+
+    private void markPending(int row) {
+        pendingFrom = pendingFrom < 0 ? row : Math.min(pendingFrom, row);
+    }
+
+    /**
+     * Updates all indices with the rows recorded during a bulk update.
+     * If all rows have to be updated, the indices are rebuilt.
+     * If an index fails, e.g. because of duplicated values in a unique index, its remaining rows are added one by one
+     * and only the failing rows are left out, like for single appended rows. The first error is thrown afterwards.
+     */
+    private void flush() {
+        if (pendingFrom < 0) {
+            return;
+        }
+        int from = pendingFrom;
+        pendingFrom = -1;
+        if (from == 0) {
+            clearValues();
+        }
+        RuntimeException error = null;
+        for (Index index : indexMap.values()) {
+            try {
+                index.updateRows(dataFrame, from);
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = e;
+                }
+                updateEachRow(index, from);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void updateEachRow(Index index, int from) {
+        for (int row = from; row < dataFrame.size(); row++) {
+            try {
+                index.update(dataFrame.getRow(row));
+            } catch (RuntimeException e) {
+                // the row is left out, flush throws the first error
+            }
+        }
+    }
+
+    /**
+     * Rebuilds all available indices from all rows.
+     * The indices are cleared first, since the values of many rows may have changed.
      */
     public void updateAllRows(){
         if(indicesCount() == 0){
             return;
         }
-        for(DataRow row : dataFrame){
-            update(row);
+        markPending(0);
+        if (bulkUpdates == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Remaps the row numbers in all indices after the rows of the data frame were reordered.
+     * The row at position <tt>i</tt> was previously found at position <tt>order[i]</tt>.
+     *
+     * @param order previous row number of each row
+     */
+    public void remapRows(int[] order) {
+        if (indicesCount() == 0) {
+            return;
+        }
+        if (bulkUpdates > 0) {
+            markPending(0);
+            return;
+        }
+        int[] oldToNew = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            oldToNew[order[i]] = i;
+        }
+        for (Index index : indexMap.values()) {
+            if (!index.remapRows(oldToNew)) {
+                index.clear();
+                index.updateRows(dataFrame, 0);
+            }
         }
     }
 
@@ -144,9 +298,63 @@ public class Indices {
         if (!indexMap.containsKey(name)) {
             throw new DataFrameRuntimeException(String.format("index not found'%s'", name));
         }
+        flush();
         return indexMap.get(name).find(values);
     }
 
+    /**
+     * Returns the row numbers with values of the first column of a {@link SortedIndex} inside a range.
+     *
+     * @param name          name of the index
+     * @param low           lower bound or <tt>null</tt> for no lower bound
+     * @param lowInclusive  <tt>true</tt> if the lower bound is inclusive
+     * @param high          upper bound or <tt>null</tt> for no upper bound
+     * @param highInclusive <tt>true</tt> if the upper bound is inclusive
+     * @return row numbers in index order
+     */
+    public int[] findRange(String name, Comparable low, boolean lowInclusive, Comparable high, boolean highInclusive) {
+        Index index = indexMap.get(name);
+        if (index == null) {
+            throw new DataFrameRuntimeException(String.format("index not found'%s'", name));
+        }
+        if (!(index instanceof SortedIndex)) {
+            throw new DataFrameRuntimeException(String.format("index does not support range lookups '%s'", name));
+        }
+        flush();
+        return ((SortedIndex) index).findRange(low, lowInclusive, high, highInclusive);
+    }
+
+    /**
+     * Creates a plan for selecting the rows valid for a predicate using the indices.
+     * Only indices based on the current columns of the data frame are used.
+     *
+     * @param predicate filter predicate
+     * @return plan for the predicate
+     * @see IndexPlanner
+     */
+    public IndexPlan plan(FilterPredicate predicate) {
+        if (indexMap.isEmpty()) {
+            return IndexPlanner.scan(predicate);
+        }
+        flush();
+        List<Index> currentIndices = new ArrayList<>();
+        for (Index index : indexMap.values()) {
+            if (isCurrent(index)) {
+                currentIndices.add(index);
+            }
+        }
+        return new IndexPlanner(currentIndices).plan(predicate);
+    }
+
+    private boolean isCurrent(Index index) {
+        for (DataFrameColumn column : index.getColumns()) {
+            if (dataFrame.getColumn(column.getName()) != column || !isIndexColumn(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the first found row number for a index and a set of values for the index
      * If no row is found, null is returned
@@ -171,6 +379,7 @@ public class Indices {
         if (primaryKey == null) {
             throw new DataFrameRuntimeException("no primaryKey found");
         }
+        flush();
         Collection<Integer> indices = primaryKey.find(values);
         if(indices.isEmpty()){
             return null;
@@ -178,6 +387,41 @@ public class Indices {
         return indices.iterator().next();
     }
 
+    /**
+     * Returns an index that is based on exactly the specified columns, the order of the columns is not relevant.
+     * The primary key is preferred over other indices.
+     * If no such index exists, <tt>null</tt> is returned.
+     *
+     * @param columns index columns
+     * @return index based on the columns or <tt>null</tt>
+     */
+    public Index findIndex(DataFrameColumn... columns) {
+        flush();
+        Index primaryKey = indexMap.get(PRIMARY_KEY_NAME);
+        if (primaryKey != null && isBasedOn(primaryKey, columns)) {
+            return primaryKey;
+        }
+        for (Index index : indexMap.values()) {
+            if (isBasedOn(index, columns)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBasedOn(Index index, DataFrameColumn[] columns) {
+        List<DataFrameColumn> indexColumns = index.getColumns();
+        if (indexColumns.size() != columns.length) {
+            return false;
+        }
+        for (DataFrameColumn column : columns) {
+            if (!indexColumns.contains(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Creates and adds a new index using one or more columns
      *
@@ -196,7 +440,7 @@ public class Indices {
      */
     public void addIndex(String name, boolean unique,DataFrameColumn... columns) {
 
-        Index index = new TreeIndex(name,columns);
+        Index index = new HashIndex(name,columns);
         index.setUnique(unique);
         addIndex(index);
     }
@@ -218,9 +462,7 @@ public class Indices {
             }
             indexList.add(index);
         }
-        for (DataRow row : dataFrame) {
-            index.update(row);
-        }
+        index.updateRows(dataFrame, 0);
     }
 
     /**
@@ -277,6 +519,10 @@ public class Indices {
         if (!isIndexColumn(column)) {
             return;
         }
+        if (bulkUpdates > 0) {
+            markPending(dataRow.getIndex());
+            return;
+        }
         for (Index indexObject : columnIndexMap.get(column)) {
             indexObject.update(dataRow);
         }
@@ -295,14 +541,14 @@ public class Indices {
         if (!isIndexColumn(column)) {
             return;
         }
+        if (bulkUpdates > 0) {
+            markPending(0);
+            return;
+        }
         Collection<Index> columnIndices = columnIndexMap.get(column);
         for (Index indexObject : columnIndices) {
             indexObject.clear();
-        }
-        for (DataRow row : dataFrame) {
-            for (Index indexObject : columnIndices) {
-                indexObject.update(row);
-            }
+            indexObject.updateRows(dataFrame, 0);
         }
     }
 
@@ -315,6 +561,10 @@ public class Indices {
         if(indicesCount() == 0){
             return;
         }
+        if (bulkUpdates > 0) {
+            markPending(0);
+            return;
+        }
         for (Index index : indexMap.values()) {
             index.remove(dataRow);
         }
@@ -363,6 +613,7 @@ public class Indices {
     public void clear(){
         this.columnIndexMap.clear();
         this.indexMap.clear();
+        this.pendingFrom = -1;
     }
 
 }
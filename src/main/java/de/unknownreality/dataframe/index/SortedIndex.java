@@ -0,0 +1,342 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.index;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.common.NumberUtil;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.*;
+
+/**
+ * Ordered index on one or more columns that supports range lookups.
+ * The index is a permutation of the row numbers sorted by the index columns, NA values are sorted last.
+ * Lookups use binary search, {@link #findRange(Comparable, boolean, Comparable, boolean)} finds all rows with
+ * values of the first index column inside a range in logarithmic time.
+ * </p>
+ * <p>
+ * Rows that are appended in index order are added to the end of the permutation.
+ * Other changes mark the index as outdated, it is sorted again on the next lookup.
+ * Reordering the rows of the data frame only renumbers the permutation.
+ */
+public class SortedIndex implements Index {
+    private final Map<DataFrameColumn, Integer> columnIndexMap = new LinkedHashMap<>();
+    private final String name;
+    private final DataFrameColumn[] columns;
+    private DataFrame dataFrame;
+    private int version;
+
+    private final BitSet indexedRows = new BitSet();
+    private int[] sortedRows = new int[0];
+    private int size = 0;
+    private boolean outdated = false;
+
+    /**
+     * Creates a sorted index for columns of a data frame
+     *
+     * @param dataFrame   data frame containing the columns
+     * @param name        name of index
+     * @param columnNames index columns
+     * @return sorted index
+     */
+    public static SortedIndex create(DataFrame dataFrame, String name, String... columnNames) {
+        DataFrameColumn[] columns = new DataFrameColumn[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = dataFrame.getColumn(columnNames[i]);
+            if (columns[i] == null) {
+                throw new DataFrameRuntimeException(String.format("column not found '%s'", columnNames[i]));
+            }
+        }
+        return new SortedIndex(name, columns);
+    }
+
+    public SortedIndex(String name, DataFrameColumn... columns) {
+        if (columns.length == 0) {
+            throw new DataFrameRuntimeException("at least one index column is required");
+        }
+        int i = 0;
+        for (DataFrameColumn column : columns) {
+            columnIndexMap.put(column, i++);
+        }
+        this.columns = columns.clone();
+        this.name = name;
+    }
+
+    @Override
+    public void update(DataRow dataRow) {
+        resolveColumns(dataRow.getDataFrame());
+        add(dataRow.getIndex());
+    }
+
+    /**
+     * Adds the rows without creating a {@link DataRow} for each row.
+     * Rows appended out of order are sorted once on the next lookup.
+     */
+    @Override
+    public void updateRows(DataFrame dataFrame, int fromRow) {
+        resolveColumns(dataFrame);
+        for (int row = fromRow; row < dataFrame.size(); row++) {
+            add(row);
+        }
+    }
+
+    private void add(int row) {
+        if (!outdated && !indexedRows.get(row) && (size == 0 || compareRows(sortedRows[size - 1], row) <= 0)) {
+            if (size == sortedRows.length) {
+                sortedRows = Arrays.copyOf(sortedRows, Math.max(16, size + (size >> 1)));
+            }
+            sortedRows[size++] = row;
+        } else {
+            outdated = true;
+        }
+        indexedRows.set(row);
+    }
+
+    @Override
+    public void remove(DataRow dataRow) {
+        if (indexedRows.get(dataRow.getIndex())) {
+            indexedRows.clear(dataRow.getIndex());
+            outdated = true;
+        }
+    }
+
+    /**
+     * Resolves the index columns by name if the structure of the data frame changed,
+     * e.g. filtering replaces the columns of a data frame by new columns.
+     */
+    private void resolveColumns(DataFrame dataFrame) {
+        if (dataFrame == this.dataFrame && dataFrame.getVersion() == version) {
+            return;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            DataFrameColumn column = dataFrame.getColumn(columns[i].getName());
+            if (column != null) {
+                columns[i] = column;
+            }
+        }
+        this.dataFrame = dataFrame;
+        this.version = dataFrame.getVersion();
+    }
+
+    private void sort() {
+        if (!outdated) {
+            return;
+        }
+        int rowCount = indexedRows.length();
+        int[] rows = RowIndexSorter.sort(columns, new boolean[columns.length], rowCount);
+        size = 0;
+        for (int row : rows) {
+            if (indexedRows.get(row)) {
+                rows[size++] = row;
+            }
+        }
+        sortedRows = rows;
+        outdated = false;
+    }
+
+    /**
+     * Returns the row numbers with values of the first index column inside a range.
+     * The rows are returned in index order.
+     *
+     * @param low           lower bound or <tt>null</tt> for no lower bound
+     * @param lowInclusive  <tt>true</tt> if the lower bound is inclusive
+     * @param high          upper bound or <tt>null</tt> for no upper bound
+     * @param highInclusive <tt>true</tt> if the upper bound is inclusive
+     * @return row numbers in the range
+     */
+    public int[] findRange(Comparable low, boolean lowInclusive, Comparable high, boolean highInclusive) {
+        sort();
+        DataFrameColumn column = columns[0];
+        int from = low == null ? 0 : search(column, low, !lowInclusive);
+        int to = high == null ? search(column, Values.NA, false) : search(column, high, highInclusive);
+        if (to <= from) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(sortedRows, from, to);
+    }
+
+    /**
+     * Returns the first position whose value of a column is greater than (<tt>after=true</tt>)
+     * or greater than or equal to (<tt>after=false</tt>) a value
+     */
+    private int search(DataFrameColumn column, Comparable value, boolean after) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(column, sortedRows[mid], value);
+            if (c < 0 || (after && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the rows matching the values of the first <tt>values.length</tt> index columns.
+     */
+    @Override
+    public Collection<Integer> find(Comparable... values) {
+        if (values.length == 0 || values.length > columns.length) {
+            throw new IllegalArgumentException("values for the first index columns required");
+        }
+        sort();
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareValues(sortedRows[mid], values) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int from = lo;
+        hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareValues(sortedRows[mid], values) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return new RowList(Arrays.copyOfRange(sortedRows, from, lo));
+    }
+
+    private int compareValues(int row, Comparable[] values) {
+        for (int i = 0; i < values.length; i++) {
+            int c = compare(columns[i], row, values[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private int compareRows(int rowA, int rowB) {
+        for (DataFrameColumn column : columns) {
+            int c = compare(column, rowA, column.isNA(rowB) ? Values.NA : column.get(rowB));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compares the value of a row with a value, NA is greater than all other values.
+     * Doubles are compared like in {@link de.unknownreality.dataframe.filter.ComparePredicate}, <tt>-0.0</tt> is equal to <tt>0.0</tt>.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare(DataFrameColumn column, int row, Comparable value) {
+        boolean na = column.isNA(row);
+        boolean valueNA = value == null || Values.NA.isNA(value);
+        if (na || valueNA) {
+            return na == valueNA ? 0 : (na ? 1 : -1);
+        }
+        if (column instanceof NumberColumn && value instanceof Number) {
+            if (column instanceof LongColumn && !(value instanceof Double || value instanceof Float)) {
+                return Long.compare(((LongColumn) column).getLong(row), ((Number) value).longValue());
+            }
+            return NumberUtil.compareDouble(((NumberColumn) column).getDouble(row), ((Number) value).doubleValue());
+        }
+        return column.get(row).compareTo(value);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setUnique(boolean unique) {
+        if (unique) {
+            throw new DataFrameRuntimeException("unique is not supported by sorted indices");
+        }
+    }
+
+    @Override
+    public boolean containsColumn(DataFrameColumn column) {
+        return columnIndexMap.containsKey(column);
+    }
+
+    @Override
+    public boolean isUnique() {
+        return false;
+    }
+
+    @Override
+    public List<DataFrameColumn> getColumns() {
+        return new ArrayList<>(Arrays.asList(columns));
+    }
+
+    @Override
+    public void clear() {
+        indexedRows.clear();
+        sortedRows = new int[0];
+        size = 0;
+        outdated = false;
+    }
+
+    @Override
+    public void replaceColumn(DataFrameColumn existing, DataFrameColumn replacement) {
+        Integer index = columnIndexMap.get(existing);
+        if (index == null) {
+            throw new DataFrameRuntimeException(String.format("column not found: %s", existing.getName()));
+        }
+        columnIndexMap.remove(existing);
+        columnIndexMap.put(replacement, index);
+        columns[index] = replacement;
+    }
+
+    @Override
+    public Index copyEmpty(DataFrameColumn... columns) {
+        return new SortedIndex(name, columns);
+    }
+
+    @Override
+    public boolean remapRows(int[] oldToNew) {
+        BitSet remapped = new BitSet(indexedRows.length());
+        for (int row = indexedRows.nextSetBit(0); row >= 0; row = indexedRows.nextSetBit(row + 1)) {
+            remapped.set(oldToNew[row]);
+        }
+        indexedRows.clear();
+        indexedRows.or(remapped);
+        if (!outdated) {
+            for (int i = 0; i < size; i++) {
+                sortedRows[i] = oldToNew[sortedRows[i]];
+            }
+        }
+        return true;
+    }
+}
@@ -48,7 +48,7 @@ public class TreeIndex implements Index {
      * @param unique    defines whether this index only allows unique values
      * @param columns   index columns
      */
-    protected TreeIndex(String indexName, boolean unique, DataFrameColumn... columns) {
+    public TreeIndex(String indexName, boolean unique, DataFrameColumn... columns) {
         int i = 0;
         for (DataFrameColumn column : columns) {
             columnIndexMap.put(column, i++);
@@ -57,7 +57,7 @@ public class TreeIndex implements Index {
         this.unique = unique;
     }
 
-    protected TreeIndex(String indexName, DataFrameColumn... columns) {
+    public TreeIndex(String indexName, DataFrameColumn... columns) {
         this(indexName, false, columns);
     }
 
@@ -93,8 +93,12 @@ public class TreeIndex implements Index {
         if (index == null) {
             throw new DataFrameRuntimeException(String.format("column not found: %s", existing.getName()));
         }
-        columnIndexMap.remove(existing);
-        columnIndexMap.put(replacement, index);
+        Map<DataFrameColumn, Integer> columns = new LinkedHashMap<>();
+        for (Map.Entry<DataFrameColumn, Integer> entry : columnIndexMap.entrySet()) {
+            columns.put(entry.getKey() == existing ? replacement : entry.getKey(), entry.getValue());
+        }
+        columnIndexMap.clear();
+        columnIndexMap.putAll(columns);
     }
 
     @Override
@@ -149,6 +153,22 @@ public class TreeIndex implements Index {
         }
     }
 
+    @Override
+    public boolean remapRows(int[] oldToNew) {
+        Map<Integer, TreeNode> remapped = new HashMap<>();
+        Set<TreeNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Integer, TreeNode> entry : indexNodeMap.entrySet()) {
+            remapped.put(oldToNew[entry.getKey()], entry.getValue());
+            nodes.add(entry.getValue());
+        }
+        indexNodeMap.clear();
+        indexNodeMap.putAll(remapped);
+        for (TreeNode node : nodes) {
+            node.remapIndices(oldToNew);
+        }
+        return true;
+    }
+
     private Comparable[] createValues(DataRow dataRow) {
         Comparable[] values = new Comparable[columnIndexMap.size()];
         int i = 0;
@@ -257,6 +277,16 @@ public class TreeIndex implements Index {
             getIndices().remove(index);
         }
 
+        public void remapIndices(int[] oldToNew) {
+            if (indices == null) {
+                return;
+            }
+            for (int i = 0; i < indices.size(); i++) {
+                indices.set(i, oldToNew[indices.get(i)]);
+            }
+            Collections.sort(indices);
+        }
+
         public Collection<Integer> getIndices() {
             if (indices == null) {
                 indices = new ArrayList<>();
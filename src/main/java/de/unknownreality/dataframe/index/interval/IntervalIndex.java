@@ -131,6 +131,24 @@ public class IntervalIndex implements Index {
         intervalSearchTree.clear();
     }
 
+    @Override
+    public Index copyEmpty(DataFrameColumn... columns) {
+        return new IntervalIndex(name, (NumberColumn<?, ?>) columns[0], (NumberColumn<?, ?>) columns[1]);
+    }
+
+    @Override
+    public boolean remapRows(int[] oldToNew) {
+        Map<Integer, Interval> remapped = new HashMap<>();
+        intervalSearchTree.clear();
+        for (Map.Entry<Integer, Interval> entry : intervalMap.entrySet()) {
+            int row = oldToNew[entry.getKey()];
+            remapped.put(row, entry.getValue());
+            intervalSearchTree.add(entry.getValue(), row);
+        }
+        intervalMap = remapped;
+        return true;
+    }
+
     @Override
     public void replaceColumn(DataFrameColumn existing, DataFrameColumn replacement) {
         if(!(replacement instanceof NumberColumn<?,?>)){
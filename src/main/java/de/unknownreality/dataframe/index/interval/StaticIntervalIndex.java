@@ -0,0 +1,474 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.index.interval;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.index.Index;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Static interval index for read-mostly data frames with many intervals.
+ * The closed intervals <tt>[start, end]</tt> are sorted by start and stored in primitive arrays,
+ * together with the maximum end of each subtree of an implicit balanced binary tree over the sorted arrays.
+ * The index is built in one pass, any change of the rows marks it as outdated and it is rebuilt on the next lookup.
+ * </p>
+ * <p>
+ * Bounds of integer columns are stored as longs. If a bound column contains floating point values,
+ * all bounds are stored as doubles, encoded as order preserving longs.
+ * Rows with <tt>NA</tt> or <tt>NaN</tt> bounds are not indexed.
+ */
+public class StaticIntervalIndex implements Index {
+    private static final int LINEAR_SCAN_LEVEL = 3;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final String name;
+    private NumberColumn<?, ?> startColumn;
+    private NumberColumn<?, ?> endColumn;
+    private DataFrame dataFrame;
+    private boolean outdated = false;
+
+    private boolean integral = true;
+    private long[] starts = new long[0];
+    private long[] ends = new long[0];
+    private long[] maxEnds = new long[0];
+    private int[] rows = NO_ROWS;
+    private int size = 0;
+    private int maxLevel = -1;
+
+    public static StaticIntervalIndex create(DataFrame dataFrame, String name, String startColumn, String endColumn) {
+        return new StaticIntervalIndex(name, dataFrame.getNumberColumn(startColumn), dataFrame.getNumberColumn(endColumn));
+    }
+
+    public StaticIntervalIndex(String name, NumberColumn<?, ?> startColumn, NumberColumn<?, ?> endColumn) {
+        if (startColumn == null || endColumn == null) {
+            throw new DataFrameRuntimeException("start and end columns are required for interval indices");
+        }
+        this.name = name;
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.dataFrame = startColumn.getDataFrame();
+        this.outdated = dataFrame != null;
+    }
+
+    @Override
+    public void update(DataRow dataRow) {
+        this.dataFrame = dataRow.getDataFrame();
+        outdated = true;
+    }
+
+    @Override
+    public void updateRows(DataFrame dataFrame, int fromRow) {
+        this.dataFrame = dataFrame;
+        outdated = true;
+    }
+
+    @Override
+    public void remove(DataRow dataRow) {
+        outdated = true;
+    }
+
+    @Override
+    public boolean remapRows(int[] oldToNew) {
+        outdated = true;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        starts = new long[0];
+        ends = new long[0];
+        maxEnds = new long[0];
+        rows = NO_ROWS;
+        size = 0;
+        maxLevel = -1;
+        outdated = false;
+    }
+
+    /**
+     * Returns the number of indexed intervals
+     *
+     * @return number of intervals
+     */
+    public int size() {
+        build();
+        return size;
+    }
+
+    /**
+     * Returns the rows containing a value (<tt>value = x</tt>) or overlapping an interval (<tt>values = start, end</tt>).
+     */
+    @Override
+    public Collection<Integer> find(Comparable... values) {
+        int[] found;
+        if (values.length == 1) {
+            if (!(values[0] instanceof Number)) {
+                throw new DataFrameRuntimeException("stab value must be a number for interval search");
+            }
+            found = findRows((Number) values[0]);
+        } else if (values.length == 2) {
+            if (!(values[0] instanceof Number) || !(values[1] instanceof Number)) {
+                throw new DataFrameRuntimeException("start and end values must be numbers for interval search");
+            }
+            found = findRows((Number) values[0], (Number) values[1]);
+        } else {
+            throw new DataFrameRuntimeException("start and end values are required for interval search");
+        }
+        List<Integer> result = new ArrayList<>(found.length);
+        for (int row : found) {
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ascending rows whose interval contains a value
+     *
+     * @param value stab value
+     * @return rows containing the value
+     */
+    public int[] findRows(Number value) {
+        return findRows(value, value);
+    }
+
+    /**
+     * Returns the ascending rows whose interval overlaps the closed interval <tt>[low, high]</tt>
+     *
+     * @param low  start of the interval
+     * @param high end of the interval
+     * @return rows overlapping the interval
+     */
+    public int[] findRows(Number low, Number high) {
+        build();
+        IntList found = new IntList();
+        query(lowerKey(low), upperKey(high), found, new int[stackSize()]);
+        return sorted(found);
+    }
+
+    /**
+     * Returns the rows containing each of the values in one batch.
+     * The index is checked once and the search buffers are shared by all queries.
+     *
+     * @param values stab values
+     * @return ascending rows containing the value for each value
+     */
+    public int[][] findAll(Number... values) {
+        build();
+        int[][] result = new int[values.length][];
+        IntList found = new IntList();
+        int[] stack = new int[stackSize()];
+        for (int i = 0; i < values.length; i++) {
+            found.clear();
+            query(lowerKey(values[i]), upperKey(values[i]), found, stack);
+            result[i] = sorted(found);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the pairs of overlapping intervals of the rows of another data frame and this index.
+     * The pairs are ordered by the row of the other data frame and the row of this index.
+     * Rows of the other data frame with <tt>NA</tt> bounds have no overlaps.
+     *
+     * @param probeStart start column of the other data frame
+     * @param probeEnd   end column of the other data frame
+     * @param probeRows  filled with the rows of the other data frame
+     * @param indexRows  filled with the overlapping rows of this index
+     */
+    public void overlaps(NumberColumn<?, ?> probeStart, NumberColumn<?, ?> probeEnd, IntList probeRows, IntList indexRows) {
+        build();
+        IntList found = new IntList();
+        int[] stack = new int[stackSize()];
+        int probeSize = Math.min(probeStart.size(), probeEnd.size());
+        for (int row = 0; row < probeSize; row++) {
+            if (probeStart.isNA(row) || probeEnd.isNA(row)) {
+                continue;
+            }
+            found.clear();
+            query(lowerKey(value(probeStart, row)), upperKey(value(probeEnd, row)), found, stack);
+            for (int r : sorted(found)) {
+                probeRows.add(row);
+                indexRows.add(r);
+            }
+        }
+    }
+
+    private static Number value(NumberColumn<?, ?> column, int row) {
+        if (column instanceof LongColumn) {
+            return ((LongColumn) column).getLong(row);
+        }
+        return column.getDouble(row);
+    }
+
+    private static int[] sorted(IntList found) {
+        if (found.isEmpty()) {
+            return NO_ROWS;
+        }
+        int[] result = found.toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int stackSize() {
+        return 3 * (maxLevel + 2);
+    }
+
+    /**
+     * Adds the rows of all intervals with <tt>start &lt;= high</tt> and <tt>end &gt;= low</tt>.
+     * The implicit tree is traversed iteratively, small subtrees are scanned linearly.
+     */
+    private void query(long low, long high, IntList found, int[] stack) {
+        if (size == 0) {
+            return;
+        }
+        int top = push(stack, 0, (1 << maxLevel) - 1, maxLevel, 0);
+        while (top > 0) {
+            top -= 3;
+            int x = stack[top];
+            int k = stack[top + 1];
+            int visited = stack[top + 2];
+            if (k <= LINEAR_SCAN_LEVEL) {
+                int from = x >> k << k;
+                int to = Math.min(from + (1 << (k + 1)) - 1, size);
+                for (int i = from; i < to && starts[i] <= high; i++) {
+                    if (ends[i] >= low) {
+                        found.add(rows[i]);
+                    }
+                }
+            } else if (visited == 0) {
+                int left = x - (1 << (k - 1));
+                top = push(stack, top, x, k, 1);
+                if (left >= size || maxEnds[left] >= low) {
+                    top = push(stack, top, left, k - 1, 0);
+                }
+            } else if (x < size && starts[x] <= high) {
+                if (ends[x] >= low) {
+                    found.add(rows[x]);
+                }
+                top = push(stack, top, x + (1 << (k - 1)), k - 1, 0);
+            }
+        }
+    }
+
+    private static int push(int[] stack, int top, int x, int k, int visited) {
+        stack[top] = x;
+        stack[top + 1] = k;
+        stack[top + 2] = visited;
+        return top + 3;
+    }
+
+    private void build() {
+        if (!outdated) {
+            return;
+        }
+        outdated = false;
+        NumberColumn<?, ?> start = resolve(startColumn);
+        NumberColumn<?, ?> end = resolve(endColumn);
+        startColumn = start;
+        endColumn = end;
+        integral = isIntegral(start) && isIntegral(end);
+        int rowCount = Math.min(dataFrame.size(), Math.min(start.size(), end.size()));
+        int[] order = RowIndexSorter.sort(new DataFrameColumn[]{start}, new boolean[1], rowCount);
+        starts = new long[rowCount];
+        ends = new long[rowCount];
+        rows = new int[rowCount];
+        size = 0;
+        for (int row : order) {
+            if (start.isNA(row) || end.isNA(row) || isNaN(start, row) || isNaN(end, row)) {
+                continue;
+            }
+            starts[size] = key(start, row);
+            ends[size] = key(end, row);
+            rows[size] = row;
+            size++;
+        }
+        if (size < rowCount) {
+            starts = Arrays.copyOf(starts, size);
+            ends = Arrays.copyOf(ends, size);
+            rows = Arrays.copyOf(rows, size);
+        }
+        maxEnds = new long[size];
+        maxLevel = buildMaxEnds();
+    }
+
+    /**
+     * Computes the maximum end of each subtree.
+     * The leaves are at even positions, the node at position <tt>i</tt> on level <tt>k</tt>
+     * has the lowest <tt>k</tt> bits set and its children at <tt>i -/+ 2^(k-1)</tt>.
+     * Subtrees that exceed the array use the maximum end of the last existing node.
+     *
+     * @return level of the root
+     */
+    private int buildMaxEnds() {
+        if (size == 0) {
+            return -1;
+        }
+        int lastNode = 0;
+        long last = 0;
+        for (int i = 0; i < size; i += 2) {
+            lastNode = i;
+            maxEnds[i] = last = ends[i];
+        }
+        int k = 1;
+        for (; (1L << k) <= size; k++) {
+            int x = 1 << (k - 1);
+            int step = x << 2;
+            for (int i = (x << 1) - 1; i < size; i += step) {
+                long leftMax = maxEnds[i - x];
+                long rightMax = i + x < size ? maxEnds[i + x] : last;
+                maxEnds[i] = Math.max(ends[i], Math.max(leftMax, rightMax));
+            }
+            lastNode = ((lastNode >> k) & 1) != 0 ? lastNode - x : lastNode + x;
+            if (lastNode < size && maxEnds[lastNode] > last) {
+                last = maxEnds[lastNode];
+            }
+        }
+        return k - 1;
+    }
+
+    private NumberColumn<?, ?> resolve(NumberColumn<?, ?> column) {
+        DataFrameColumn resolved = dataFrame.getColumn(column.getName());
+        return resolved instanceof NumberColumn ? (NumberColumn<?, ?>) resolved : column;
+    }
+
+    private static boolean isIntegral(NumberColumn<?, ?> column) {
+        Class<?> type = column.getType();
+        return type == Long.class || type == Integer.class || type == Short.class || type == Byte.class;
+    }
+
+    private static boolean isNaN(NumberColumn<?, ?> column, int row) {
+        return !isIntegral(column) && Double.isNaN(column.getDouble(row));
+    }
+
+    private long key(NumberColumn<?, ?> column, int row) {
+        if (column instanceof LongColumn && integral) {
+            return ((LongColumn) column).getLong(row);
+        }
+        double d = column.getDouble(row);
+        return integral ? (long) d : doubleKey(d);
+    }
+
+    /**
+     * Returns the smallest key greater than or equal to a value
+     */
+    private long lowerKey(Number value) {
+        if (!integral) {
+            return doubleKey(toDouble(value));
+        }
+        if (isIntegral(value)) {
+            return value.longValue();
+        }
+        return (long) Math.ceil(toDouble(value));
+    }
+
+    /**
+     * Returns the greatest key less than or equal to a value
+     */
+    private long upperKey(Number value) {
+        if (!integral) {
+            return doubleKey(toDouble(value));
+        }
+        if (isIntegral(value)) {
+            return value.longValue();
+        }
+        return (long) Math.floor(toDouble(value));
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static double toDouble(Number value) {
+        double d = value.doubleValue();
+        if (Double.isNaN(d)) {
+            throw new DataFrameRuntimeException("NaN can not be used for interval search");
+        }
+        return d;
+    }
+
+    /**
+     * Maps a double to a long with the same order, <tt>-0.0</tt> and <tt>0.0</tt> are mapped to the same key
+     */
+    private static long doubleKey(double d) {
+        long bits = Double.doubleToLongBits(d == 0 ? 0.0 : d);
+        return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setUnique(boolean unique) {
+        throw new DataFrameRuntimeException("unique is not supported by interval indices");
+    }
+
+    @Override
+    public boolean containsColumn(DataFrameColumn column) {
+        return startColumn == column || endColumn == column;
+    }
+
+    @Override
+    public boolean isUnique() {
+        return false;
+    }
+
+    @Override
+    public List<DataFrameColumn> getColumns() {
+        List<DataFrameColumn> columns = new ArrayList<>();
+        columns.add(startColumn);
+        columns.add(endColumn);
+        return columns;
+    }
+
+    @Override
+    public void replaceColumn(DataFrameColumn existing, DataFrameColumn replacement) {
+        if (!(replacement instanceof NumberColumn<?, ?>)) {
+            throw new DataFrameRuntimeException("only number columns are supported by interval indices");
+        }
+        if (startColumn == existing) {
+            startColumn = (NumberColumn<?, ?>) replacement;
+        }
+        if (endColumn == existing) {
+            endColumn = (NumberColumn<?, ?>) replacement;
+        }
+        outdated = dataFrame != null;
+    }
+
+    @Override
+    public Index copyEmpty(DataFrameColumn... columns) {
+        return new StaticIntervalIndex(name, (NumberColumn<?, ?>) columns[0], (NumberColumn<?, ?>) columns[1]);
+    }
+}
@@ -0,0 +1,645 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.column.*;
+import de.unknownreality.dataframe.common.parser.Parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the blocks of one column in the binary format.
+ * A block starts with the number of NA values, followed by the NA bitmap if the block contains NA values
+ * and the typed values of the block.
+ * String columns are dictionary encoded if the block contains few distinct values.
+ */
+abstract class BinaryColumnCodec {
+    static final int DICTIONARY = 1;
+
+    private final long[] naBits;
+    private boolean containsNA = false;
+
+    BinaryColumnCodec(int size) {
+        naBits = new long[words(size)];
+    }
+
+    /**
+     * Returns the codec for a column class.
+     * Columns without a specific codec are stored as strings and parsed on load.
+     *
+     * @param columnClass column class
+     * @param size        number of rows to decode
+     * @return column codec
+     */
+    static BinaryColumnCodec create(Class<? extends DataFrameColumn> columnClass, int size) {
+        if (columnClass == IntegerColumn.class) {
+            return new IntegerCodec(size);
+        }
+        if (columnClass == LongColumn.class) {
+            return new LongCodec(size);
+        }
+        if (columnClass == DoubleColumn.class) {
+            return new DoubleCodec(size);
+        }
+        if (columnClass == FloatColumn.class) {
+            return new FloatCodec(size);
+        }
+        if (columnClass == ShortColumn.class) {
+            return new ShortCodec(size);
+        }
+        if (columnClass == ByteColumn.class) {
+            return new ByteCodec(size);
+        }
+        if (columnClass == BooleanColumn.class) {
+            return new BooleanCodec(size);
+        }
+        if (columnClass == StringColumn.class) {
+            return new StringCodec(size);
+        }
+        return new ParsedCodec(columnClass, size);
+    }
+
+    static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * Returns the number of bytes used for each code of a dictionary encoded block
+     *
+     * @param dictionarySize number of dictionary entries
+     * @return bytes per code
+     */
+    static int codeWidth(int dictionarySize) {
+        return dictionarySize <= 256 ? 1 : dictionarySize <= 65536 ? 2 : 4;
+    }
+
+    /**
+     * Writes a block of a column to the output buffer.
+     *
+     * @param column source column
+     * @param from   first row of the block
+     * @param count  number of rows in the block
+     * @param out    output buffer
+     * @return encoding flags of the block
+     */
+    int encode(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+        int naCount = 0;
+        long[] blockNA = new long[words(count)];
+        for (int i = 0; i < count; i++) {
+            if (column.isNA(from + i)) {
+                blockNA[i >>> 6] |= 1L << i;
+                naCount++;
+            }
+        }
+        out.ensure(4 + blockNA.length * 8);
+        out.buffer.putInt(naCount);
+        if (naCount > 0) {
+            putLongs(out.buffer, blockNA);
+        }
+        return encodeValues(column, from, count, out);
+    }
+
+    /**
+     * Reads a block written by {@link #encode(DataFrameColumn, int, int, Output)}.
+     *
+     * @param in    block content
+     * @param flags encoding flags of the block
+     * @param from  first row of the block
+     * @param count number of rows in the block
+     */
+    void decode(ByteBuffer in, int flags, int from, int count) {
+        int naCount = in.getInt();
+        long[] blockNA = null;
+        if (naCount > 0) {
+            blockNA = new long[words(count)];
+            in.asLongBuffer().get(blockNA);
+            in.position(in.position() + blockNA.length * 8);
+            for (int i = 0; i < count; i++) {
+                if ((blockNA[i >>> 6] & (1L << i)) != 0) {
+                    naBits[(from + i) >>> 6] |= 1L << (from + i);
+                }
+            }
+            containsNA = true;
+        }
+        decodeValues(in, flags, from, count, blockNA);
+    }
+
+    /**
+     * Creates the column from the decoded values.
+     *
+     * @param name column name
+     * @return decoded column
+     */
+    DataFrameColumn toColumn(String name) {
+        DataFrameColumn column = createColumn(name);
+        if (containsNA) {
+            for (int w = 0; w < naBits.length; w++) {
+                long bits = naBits[w];
+                while (bits != 0) {
+                    column.setNA((w << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return column;
+    }
+
+    abstract int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out);
+
+    abstract void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA);
+
+    abstract DataFrameColumn createColumn(String name);
+
+    private static void putLongs(ByteBuffer buffer, long[] values) {
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 8);
+    }
+
+    private static boolean isNA(long[] blockNA, int index) {
+        return blockNA != null && (blockNA[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Reads a dictionary code at an absolute position of the buffer
+     *
+     * @param in     input buffer
+     * @param offset position of the code
+     * @param width  bytes per code
+     * @return dictionary code
+     */
+    static int getCode(ByteBuffer in, int offset, int width) {
+        if (width == 1) {
+            return in.get(offset) & 0xff;
+        }
+        if (width == 2) {
+            return in.getShort(offset) & 0xffff;
+        }
+        return in.getInt(offset);
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string at the current position of the buffer.
+     *
+     * @param in input buffer
+     * @return decoded string
+     */
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        String value = getString(in, in.position(), length);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Decodes UTF-8 bytes at an absolute position of the buffer.
+     * Works for heap and mapped buffers.
+     *
+     * @param in     input buffer
+     * @param offset position of the first byte
+     * @param length number of bytes
+     * @return decoded string
+     */
+    static String getString(ByteBuffer in, int offset, int length) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer source = in.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable output buffer for a single block.
+     */
+    static final class Output {
+        ByteBuffer buffer;
+
+        Output(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+                ByteBuffer grown = ByteBuffer.allocate(capacity);
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class IntegerCodec extends BinaryColumnCodec {
+        private final int[] values;
+
+        IntegerCodec(int size) {
+            super(size);
+            values = new int[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            IntegerColumn intColumn = (IntegerColumn) column;
+            out.ensure(count * 4);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.putInt(intColumn.getInt(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.asIntBuffer().get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new IntegerColumn(name, values);
+        }
+    }
+
+    private static final class LongCodec extends BinaryColumnCodec {
+        private final long[] values;
+
+        LongCodec(int size) {
+            super(size);
+            values = new long[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            LongColumn longColumn = (LongColumn) column;
+            out.ensure(count * 8);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.putLong(longColumn.getLong(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.asLongBuffer().get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new LongColumn(name, values);
+        }
+    }
+
+    private static final class DoubleCodec extends BinaryColumnCodec {
+        private final double[] values;
+
+        DoubleCodec(int size) {
+            super(size);
+            values = new double[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            DoubleColumn doubleColumn = (DoubleColumn) column;
+            out.ensure(count * 8);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.putDouble(doubleColumn.getDouble(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.asDoubleBuffer().get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new DoubleColumn(name, values);
+        }
+    }
+
+    private static final class FloatCodec extends BinaryColumnCodec {
+        private final float[] values;
+
+        FloatCodec(int size) {
+            super(size);
+            values = new float[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            FloatColumn floatColumn = (FloatColumn) column;
+            out.ensure(count * 4);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.putFloat(floatColumn.getFloat(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.asFloatBuffer().get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new FloatColumn(name, values);
+        }
+    }
+
+    private static final class ShortCodec extends BinaryColumnCodec {
+        private final short[] values;
+
+        ShortCodec(int size) {
+            super(size);
+            values = new short[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            ShortColumn shortColumn = (ShortColumn) column;
+            out.ensure(count * 2);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.putShort(shortColumn.getShort(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.asShortBuffer().get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new ShortColumn(name, values);
+        }
+    }
+
+    private static final class ByteCodec extends BinaryColumnCodec {
+        private final byte[] values;
+
+        ByteCodec(int size) {
+            super(size);
+            values = new byte[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            ByteColumn byteColumn = (ByteColumn) column;
+            out.ensure(count);
+            ByteBuffer buffer = out.buffer;
+            for (int i = from; i < from + count; i++) {
+                buffer.put(byteColumn.getByte(i));
+            }
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            in.get(values, from, count);
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new ByteColumn(name, values);
+        }
+    }
+
+    private static final class BooleanCodec extends BinaryColumnCodec {
+        private final Boolean[] values;
+
+        BooleanCodec(int size) {
+            super(size);
+            values = new Boolean[size];
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            long[] bits = new long[words(count)];
+            for (int i = 0; i < count; i++) {
+                if (Boolean.TRUE.equals(column.get(from + i))) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            out.ensure(bits.length * 8);
+            putLongs(out.buffer, bits);
+            return 0;
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            long[] bits = new long[words(count)];
+            in.asLongBuffer().get(bits);
+            for (int i = 0; i < count; i++) {
+                if (!isNA(blockNA, i)) {
+                    values[from + i] = (bits[i >>> 6] & (1L << i)) != 0;
+                }
+            }
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new BooleanColumn(name, values);
+        }
+    }
+
+    private static class StringCodec extends BinaryColumnCodec {
+        protected final String[] values;
+
+        StringCodec(int size) {
+            super(size);
+            values = new String[size];
+        }
+
+        protected String toString(Object value) {
+            return (String) value;
+        }
+
+        @Override
+        int encodeValues(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            int maxDictionarySize = count / 2;
+            Map<String, Integer> dictionary = new HashMap<>();
+            int[] codes = new int[count];
+            for (int i = 0; i < count && dictionary.size() <= maxDictionarySize; i++) {
+                if (!column.isNA(from + i)) {
+                    String value = toString(column.get(from + i));
+                    Integer code = dictionary.get(value);
+                    if (code == null) {
+                        code = dictionary.size();
+                        dictionary.put(value, code);
+                    }
+                    codes[i] = code;
+                }
+            }
+            if (dictionary.size() > maxDictionarySize) {
+                encodePlain(column, from, count, out);
+                return 0;
+            }
+            String[] entries = new String[dictionary.size()];
+            for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                entries[entry.getValue()] = entry.getKey();
+            }
+            out.ensure(4);
+            out.buffer.putInt(entries.length);
+            for (String entry : entries) {
+                putString(out, entry);
+            }
+            int width = codeWidth(entries.length);
+            out.ensure(count * width);
+            for (int code : codes) {
+                if (width == 1) {
+                    out.buffer.put((byte) code);
+                } else if (width == 2) {
+                    out.buffer.putShort((short) code);
+                } else {
+                    out.buffer.putInt(code);
+                }
+            }
+            return DICTIONARY;
+        }
+
+        /**
+         * Writes the end offsets of all values followed by the UTF-8 bytes of the values.
+         * The offsets allow random access to single values without decoding the whole block.
+         */
+        private void encodePlain(DataFrameColumn<?, ?> column, int from, int count, Output out) {
+            byte[][] encoded = new byte[count][];
+            int length = 0;
+            for (int i = 0; i < count; i++) {
+                encoded[i] = column.isNA(from + i) ? new byte[0] : toString(column.get(from + i)).getBytes(StandardCharsets.UTF_8);
+                length += encoded[i].length;
+            }
+            out.ensure(count * 4 + length);
+            int end = 0;
+            for (byte[] bytes : encoded) {
+                end += bytes.length;
+                out.buffer.putInt(end);
+            }
+            for (byte[] bytes : encoded) {
+                out.buffer.put(bytes);
+            }
+        }
+
+        @Override
+        void decodeValues(ByteBuffer in, int flags, int from, int count, long[] blockNA) {
+            if ((flags & DICTIONARY) == 0) {
+                int base = in.position() + count * 4;
+                int start = 0;
+                for (int i = 0; i < count; i++) {
+                    int end = in.getInt();
+                    if (!isNA(blockNA, i)) {
+                        values[from + i] = getString(in, base + start, end - start);
+                    }
+                    start = end;
+                }
+                return;
+            }
+            String[] entries = new String[in.getInt()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = getString(in);
+            }
+            int width = codeWidth(entries.length);
+            for (int i = 0; i < count; i++) {
+                int code = getCode(in, in.position() + i * width, width);
+                if (!isNA(blockNA, i)) {
+                    values[from + i] = entries[code];
+                }
+            }
+        }
+
+        @Override
+        DataFrameColumn createColumn(String name) {
+            return new StringColumn(name, values);
+        }
+
+        private static void putString(Output out, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.ensure(4 + bytes.length);
+            out.buffer.putInt(bytes.length);
+            out.buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Stores the values of columns without a specific codec as strings
+     * and restores them using the parser of the column.
+     */
+    private static final class ParsedCodec extends StringCodec {
+        private final Class<? extends DataFrameColumn> columnClass;
+
+        ParsedCodec(Class<? extends DataFrameColumn> columnClass, int size) {
+            super(size);
+            this.columnClass = columnClass;
+        }
+
+        @Override
+        protected String toString(Object value) {
+            return value.toString();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        DataFrameColumn createColumn(String name) {
+            DataFrameColumn column;
+            try {
+                column = columnClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new DataFrameRuntimeException(String.format("error creating column of type '%s'", columnClass.getName()), e);
+            }
+            column.setName(name);
+            column.setCapacity(values.length);
+            Parser<?> parser = column.getParser();
+            for (String value : values) {
+                if (value == null) {
+                    column.appendNA();
+                    continue;
+                }
+                try {
+                    column.append((Comparable) parser.parse(value));
+                } catch (Exception e) {
+                    throw new DataFrameRuntimeException(String.format("error parsing value '%s'", value), e);
+                }
+            }
+            return column;
+        }
+
+        @Override
+        DataFrameColumn toColumn(String name) {
+            return createColumn(name);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+/**
+ * Binary columnar file format.
+ * The file starts with a header containing the number of rows, the block size and the names and classes of all columns.
+ * The header is followed by the typed blocks of each column, one column after another.
+ * Each block stores the NA bitmap and the values of up to block size rows and may be compressed.
+ */
+public class BinaryFormat implements FileFormat, ReadFormat, WriteFormat {
+    public static final String FILE_EXTENSION = "dfb";
+    static final int MAGIC = 0x44464231;
+    static final int VERSION = 1;
+    static final int COMPRESSED = 0x80;
+
+    @Override
+    public ReaderBuilder getReaderBuilder() {
+        return BinaryReaderBuilder.create();
+    }
+
+    public static BinaryReaderBuilder createReader() {
+        return BinaryReaderBuilder.create();
+    }
+
+    @Override
+    public WriterBuilder getWriterBuilder() {
+        return BinaryWriterBuilder.create();
+    }
+
+    public static BinaryWriterBuilder createWriter() {
+        return BinaryWriterBuilder.create();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameHeader;
+import de.unknownreality.dataframe.DataRow;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Iterates the rows of a data frame read by a {@link BinaryReader}.
+ */
+public class BinaryIterator implements DataIterator<DataRow> {
+    private final DataFrame dataFrame;
+    private final List<ColumnInformation> columnsInformation = new ArrayList<>();
+    private int index = 0;
+
+    BinaryIterator(DataFrame dataFrame) {
+        this.dataFrame = dataFrame;
+        int i = 0;
+        for (DataFrameColumn column : dataFrame.getColumns()) {
+            ColumnInformation columnInformation = new ColumnInformation(i++, column.getName());
+            columnInformation.setColumnType(DataFrameHeader.getColumnClass(column));
+            columnsInformation.add(columnInformation);
+        }
+    }
+
+    /**
+     * Returns the data frame read from the binary input
+     *
+     * @return data frame
+     */
+    public DataFrame getDataFrame() {
+        return dataFrame;
+    }
+
+    @Override
+    public List<ColumnInformation> getColumnsInformation() {
+        return columnsInformation;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < dataFrame.size();
+    }
+
+    @Override
+    public DataRow next() {
+        return dataFrame.getRow(index++);
+    }
+
+    @Override
+    public Iterator<DataRow> iterator() {
+        return new BinaryIterator(dataFrame);
+    }
+}
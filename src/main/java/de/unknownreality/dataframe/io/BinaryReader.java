@@ -0,0 +1,472 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.filter.BoundPredicate;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.meta.BlockStatistics;
+import de.unknownreality.dataframe.meta.DataFrameMeta;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads data frames written in the binary columnar format ({@link BinaryFormat}).
+ * Column blocks are read in bulk into primitive arrays that back the resulting columns.
+ * Blocks of columns that are not selected are skipped.
+ * If memory mapping is enabled, files are mapped instead of read ({@link #map(File)}).
+ */
+public class BinaryReader extends DataReader<DataRow, BinaryIterator> {
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final int BLOCK_HEADER_SIZE = 9;
+    private final List<String> selectColumns;
+    private final boolean memoryMapping;
+
+    BinaryReader(List<String> selectColumns, boolean memoryMapping) {
+        this.selectColumns = selectColumns;
+        this.memoryMapping = memoryMapping;
+    }
+
+    @Override
+    public BinaryIterator load(File file) {
+        return new BinaryIterator(memoryMapping ? map(file) : read(file));
+    }
+
+    @Override
+    public BinaryIterator load(InputStream is) {
+        try {
+            return new BinaryIterator(read(is));
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException("error reading binary data frame", e);
+        }
+    }
+
+    @Override
+    public BinaryIterator load(Reader reader) {
+        throw new DataFrameRuntimeException("binary data frames can not be read from a character stream");
+    }
+
+    @Override
+    public DataFrame loadDataFrame(File file, int expectedSize, List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        DataFrame dataFrame = memoryMapping ? map(file) : read(file);
+        if (filterPredicate != null && filterPredicate != FilterPredicate.EMPTY_FILTER) {
+            dataFrame.filter(filterPredicate);
+        }
+        return dataFrame;
+    }
+
+    /**
+     * Loads a data frame and skips all blocks whose statistics in the meta data show
+     * that none of their rows can satisfy the filter predicate.
+     * Skipped blocks are neither decompressed nor decoded, memory mapped blocks are not touched.
+     *
+     * @param file            input file
+     * @param meta            meta data of the file
+     * @param filterPredicate filter predicate
+     * @return filtered data frame
+     */
+    @Override
+    public DataFrame loadDataFrame(File file, DataFrameMeta meta, FilterPredicate filterPredicate) {
+        if (filterPredicate == null || filterPredicate == FilterPredicate.EMPTY_FILTER
+                || meta.getBlockStatistics().isEmpty()) {
+            return loadDataFrame(file, meta.getSize(), meta.getColumnInformation(), filterPredicate);
+        }
+        List<BlockStatistics> statistics = meta.getBlockStatistics();
+        if (memoryMapping) {
+            DataFrame mapped = map(file);
+            int blockSize = readBlockSize(file);
+            return select(mapped, getRequiredBlocks(mapped.size(), blockSize, statistics, filterPredicate),
+                    blockSize, filterPredicate);
+        }
+        try (InputStream is = new FileInputStream(file)) {
+            DataFrame dataFrame = read(is, statistics, filterPredicate);
+            dataFrame.filter(filterPredicate);
+            return dataFrame;
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException(String.format("error loading file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Reads a data frame from a binary file
+     *
+     * @param file input file
+     * @return data frame
+     */
+    public DataFrame read(File file) {
+        try (InputStream is = new FileInputStream(file)) {
+            return read(is);
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException(String.format("error loading file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Reads a data frame from a binary input stream.
+     * The stream is not closed.
+     *
+     * @param is input stream
+     * @return data frame
+     * @throws IOException if the stream can not be read
+     */
+    public DataFrame read(InputStream is) throws IOException {
+        return read(is, null, null);
+    }
+
+    private DataFrame read(InputStream is, List<BlockStatistics> statistics, FilterPredicate filterPredicate) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(is, 1 << 16));
+        FileHeader header = readHeader(in);
+        int size = header.size;
+        int blockSize = header.blockSize;
+        boolean[] required = statistics == null ? null
+                : getRequiredBlocks(size, blockSize, statistics, filterPredicate);
+        int requiredSize = size;
+        if (required != null) {
+            requiredSize = 0;
+            for (int from = 0; from < size; from += blockSize) {
+                if (required[from / blockSize]) {
+                    requiredSize += Math.min(blockSize, size - from);
+                }
+            }
+        }
+        DataFrame dataFrame = new DefaultDataFrame();
+        Inflater inflater = new Inflater();
+        byte[] stored = new byte[0];
+        byte[] raw = new byte[0];
+        try {
+            for (int i = 0; i < header.names.length; i++) {
+                boolean selected = selectColumns.isEmpty() || selectColumns.contains(header.names[i]);
+                BinaryColumnCodec codec = selected ? BinaryColumnCodec.create(header.columnClasses[i], requiredSize) : null;
+                int target = 0;
+                for (int from = 0; from < size; from += blockSize) {
+                    int flags = in.readUnsignedByte();
+                    int storedLength = in.readInt();
+                    int length = in.readInt();
+                    if (!selected || (required != null && !required[from / blockSize])) {
+                        skipFully(in, storedLength);
+                        continue;
+                    }
+                    if (stored.length < storedLength) {
+                        stored = new byte[storedLength];
+                    }
+                    in.readFully(stored, 0, storedLength);
+                    ByteBuffer block;
+                    if ((flags & BinaryFormat.COMPRESSED) != 0) {
+                        if (raw.length < length) {
+                            raw = new byte[length];
+                        }
+                        inflate(inflater, stored, storedLength, raw, length);
+                        block = ByteBuffer.wrap(raw, 0, length);
+                    } else {
+                        block = ByteBuffer.wrap(stored, 0, length);
+                    }
+                    int count = Math.min(blockSize, size - from);
+                    codec.decode(block, flags & ~BinaryFormat.COMPRESSED, target, count);
+                    target += count;
+                }
+                if (selected) {
+                    dataFrame.addColumn(codec.toColumn(header.names[i]));
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return dataFrame;
+    }
+
+    /**
+     * Returns for each block of the binary file whether it may contain rows that satisfy the predicate.
+     * A block is skipped only if all statistics blocks overlapping it exclude the predicate.
+     *
+     * @param size            number of rows
+     * @param blockSize       block size of the binary file
+     * @param statistics      block statistics from the meta data, ordered by first row
+     * @param filterPredicate filter predicate
+     * @return required blocks
+     */
+    static boolean[] getRequiredBlocks(int size, int blockSize, List<BlockStatistics> statistics, FilterPredicate filterPredicate) {
+        boolean[] required = new boolean[(size + blockSize - 1) / blockSize];
+        int s = 0;
+        for (int b = 0; b < required.length; b++) {
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, size);
+            while (s < statistics.size()
+                    && statistics.get(s).getFrom() + statistics.get(s).getSize() <= from) {
+                s++;
+            }
+            int covered = from;
+            for (int j = s; j < statistics.size() && statistics.get(j).getFrom() < to; j++) {
+                BlockStatistics block = statistics.get(j);
+                if (block.getFrom() > covered || filterPredicate.mayBeValid(block)) {
+                    break;
+                }
+                covered = block.getFrom() + block.getSize();
+            }
+            required[b] = covered < to;
+        }
+        return required;
+    }
+
+    private static DataFrame select(DataFrame dataFrame, boolean[] required, int blockSize, FilterPredicate filterPredicate) {
+        BoundPredicate predicate = filterPredicate.bind(dataFrame);
+        int size = dataFrame.size();
+        int[] rows = new int[size];
+        int count = 0;
+        for (int b = 0; b < required.length; b++) {
+            if (!required[b]) {
+                continue;
+            }
+            int to = Math.min((b + 1) * blockSize, size);
+            for (int row = b * blockSize; row < to; row++) {
+                if (predicate.valid(row)) {
+                    rows[count++] = row;
+                }
+            }
+        }
+        rows = Arrays.copyOf(rows, count);
+        DataFrame result = new DefaultDataFrame();
+        for (DataFrameColumn column : dataFrame.getColumns()) {
+            result.addColumn(column.copy(rows));
+        }
+        return result;
+    }
+
+    private static int readBlockSize(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readHeader(in).blockSize;
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException(String.format("error loading file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Maps a binary data frame file into memory.
+     * Integer, long, double and string columns are returned as read-only views on the mapped file,
+     * their values are paged in by the operating system on access and are shared between processes mapping the same file.
+     * Other columns and compressed blocks are decoded onto the heap.
+     * The resulting data frame can be queried, filtered, grouped and joined,
+     * operations that modify the mapped columns fail with a {@link DataFrameRuntimeException}.
+     *
+     * @param file input file
+     * @return data frame backed by the mapped file
+     */
+    public DataFrame map(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return map(channel);
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException(String.format("error mapping file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    private DataFrame map(FileChannel channel) throws IOException {
+        FileHeader header = readHeader(new DataInputStream(Channels.newInputStream(channel)));
+        int columnCount = header.names.length;
+        int blockCount = (int) (((long) header.size + header.blockSize - 1) / header.blockSize);
+        long[][] offsets = new long[columnCount][blockCount];
+        int[][] storedLengths = new int[columnCount][blockCount];
+        int[][] lengths = new int[columnCount][blockCount];
+        int[][] flags = new int[columnCount][blockCount];
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        long position = channel.position();
+        List<Long> segmentStarts = new ArrayList<>();
+        List<Long> segmentEnds = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            for (int b = 0; b < blockCount; b++) {
+                blockHeader.clear();
+                while (blockHeader.hasRemaining()) {
+                    if (channel.read(blockHeader, position + blockHeader.position()) < 0) {
+                        throw new EOFException("unexpected end of binary data frame");
+                    }
+                }
+                flags[i][b] = blockHeader.get(0) & 0xff;
+                storedLengths[i][b] = blockHeader.getInt(1);
+                lengths[i][b] = blockHeader.getInt(5);
+                offsets[i][b] = position + BLOCK_HEADER_SIZE;
+                position = offsets[i][b] + storedLengths[i][b];
+                int last = segmentStarts.size() - 1;
+                if (last < 0 || position - segmentStarts.get(last) > MAX_SEGMENT_SIZE) {
+                    segmentStarts.add(offsets[i][b]);
+                    segmentEnds.add(position);
+                } else {
+                    segmentEnds.set(last, position);
+                }
+            }
+        }
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentStarts.size()];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, segmentStarts.get(s), segmentEnds.get(s) - segmentStarts.get(s));
+        }
+        DataFrame dataFrame = new DefaultDataFrame();
+        Inflater inflater = new Inflater();
+        int segment = 0;
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                String name = header.names[i];
+                Class<? extends DataFrameColumn> columnClass = header.columnClasses[i];
+                boolean selected = selectColumns.isEmpty() || selectColumns.contains(name);
+                boolean mapped = isMappable(columnClass);
+                for (int b = 0; b < blockCount; b++) {
+                    mapped &= (flags[i][b] & BinaryFormat.COMPRESSED) == 0;
+                }
+                MappedBlocks blocks = new MappedBlocks(header.size, header.blockSize);
+                BinaryColumnCodec codec = selected && !mapped ? BinaryColumnCodec.create(columnClass, header.size) : null;
+                for (int b = 0; b < blockCount; b++) {
+                    while (offsets[i][b] >= segmentEnds.get(segment)) {
+                        segment++;
+                    }
+                    if (!selected) {
+                        continue;
+                    }
+                    ByteBuffer block = MappedBlocks.slice(segments[segment],
+                            (int) (offsets[i][b] - segmentStarts.get(segment)), storedLengths[i][b]);
+                    if (mapped) {
+                        blocks.setBlock(b, flags[i][b], block);
+                        continue;
+                    }
+                    byte[] stored = new byte[storedLengths[i][b]];
+                    block.get(stored);
+                    if ((flags[i][b] & BinaryFormat.COMPRESSED) != 0) {
+                        byte[] raw = new byte[lengths[i][b]];
+                        inflate(inflater, stored, stored.length, raw, raw.length);
+                        stored = raw;
+                    }
+                    codec.decode(ByteBuffer.wrap(stored), flags[i][b] & ~BinaryFormat.COMPRESSED,
+                            b * header.blockSize, blocks.getBlockLength(b));
+                }
+                if (selected) {
+                    dataFrame.addColumn(mapped ? createMappedColumn(columnClass, name, blocks, header.size) : codec.toColumn(name));
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return dataFrame;
+    }
+
+    private static boolean isMappable(Class<? extends DataFrameColumn> columnClass) {
+        return columnClass == IntegerColumn.class || columnClass == LongColumn.class
+                || columnClass == DoubleColumn.class || columnClass == StringColumn.class;
+    }
+
+    private static DataFrameColumn createMappedColumn(Class<? extends DataFrameColumn> columnClass, String name, MappedBlocks blocks, int size) {
+        if (columnClass == IntegerColumn.class) {
+            return new MappedIntegerColumn(name, blocks, size);
+        }
+        if (columnClass == LongColumn.class) {
+            return new MappedLongColumn(name, blocks, size);
+        }
+        if (columnClass == DoubleColumn.class) {
+            return new MappedDoubleColumn(name, blocks, size);
+        }
+        return new MappedStringColumn(name, blocks, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FileHeader readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != BinaryFormat.MAGIC) {
+            throw new DataFrameRuntimeException("input is not a binary data frame");
+        }
+        int version = in.readInt();
+        if (version != BinaryFormat.VERSION) {
+            throw new DataFrameRuntimeException(String.format("unsupported binary data frame version %d", version));
+        }
+        FileHeader header = new FileHeader();
+        int columnCount = in.readInt();
+        header.size = in.readInt();
+        header.blockSize = in.readInt();
+        header.names = new String[columnCount];
+        header.columnClasses = new Class[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            header.names[i] = in.readUTF();
+            header.columnClasses[i] = getColumnClass(in.readUTF());
+        }
+        return header;
+    }
+
+    private static void inflate(Inflater inflater, byte[] stored, int storedLength, byte[] raw, int length) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        try {
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int n = inflater.inflate(raw, offset, length - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new EOFException("truncated compressed block");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("invalid compressed block", e);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException("unexpected end of binary data frame");
+            }
+            remaining -= skipped;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends DataFrameColumn> getColumnClass(String className) {
+        try {
+            Class<?> columnClass = Class.forName(className);
+            if (!DataFrameColumn.class.isAssignableFrom(columnClass)) {
+                throw new DataFrameRuntimeException(String.format("'%s' is not a column class", className));
+            }
+            return (Class<? extends DataFrameColumn>) columnClass;
+        } catch (ClassNotFoundException e) {
+            throw new DataFrameRuntimeException(String.format("column class '%s' not found", className), e);
+        }
+    }
+
+    private static final class FileHeader {
+        private String[] names;
+        private Class<? extends DataFrameColumn>[] columnClasses;
+        private int size;
+        private int blockSize;
+    }
+}
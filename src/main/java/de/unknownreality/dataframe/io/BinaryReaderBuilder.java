@@ -0,0 +1,78 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.DataRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryReaderBuilder implements ReaderBuilder<DataRow, BinaryReader> {
+    private final List<String> selectColumns = new ArrayList<>();
+    private boolean memoryMapping = false;
+
+    private BinaryReaderBuilder() {
+    }
+
+    public static BinaryReaderBuilder create() {
+        return new BinaryReaderBuilder();
+    }
+
+    public BinaryReaderBuilder selectColumns(String... cols) {
+        for (String col : cols) {
+            selectColumn(col);
+        }
+        return this;
+    }
+
+    @Override
+    public BinaryReaderBuilder selectColumn(String col) {
+        selectColumns.add(col);
+        return this;
+    }
+
+    /**
+     * Defines whether files are memory-mapped instead of read onto the heap.
+     * Mapped data frames are read-only, see {@link BinaryReader#map(java.io.File)}.
+     *
+     * @param memoryMapping <tt>true</tt> if files should be memory-mapped
+     * @return <tt>self</tt> for method chaining
+     */
+    public BinaryReaderBuilder withMemoryMapping(boolean memoryMapping) {
+        this.memoryMapping = memoryMapping;
+        return this;
+    }
+
+    @Override
+    public BinaryReaderBuilder loadSettings(Map<String, String> map) {
+        return this;
+    }
+
+    @Override
+    public BinaryReader build() {
+        return new BinaryReader(new ArrayList<>(selectColumns), memoryMapping);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameHeader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.common.DataContainer;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes data frames in the binary columnar format ({@link BinaryFormat}).
+ * Only data frames can be written, the values are taken directly from the columns.
+ */
+public class BinaryWriter extends DataWriter {
+    private final int blockSize;
+    private final boolean compress;
+
+    BinaryWriter(int blockSize, boolean compress) {
+        this.blockSize = blockSize;
+        this.compress = compress;
+    }
+
+    @Override
+    public void write(OutputStream os, DataContainer<?, ?> dataContainer) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+        try {
+            write(out, toDataFrame(dataContainer));
+            out.flush();
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException("error writing binary data frame", e);
+        }
+    }
+
+    @Override
+    public void write(File file, DataContainer<?, ?> dataContainer) {
+        if (file.getParentFile() != null && !file.getParentFile().isDirectory()) {
+            file.getParentFile().mkdirs();
+        }
+        try (OutputStream os = new FileOutputStream(file)) {
+            write(os, dataContainer);
+        } catch (IOException e) {
+            throw new DataFrameRuntimeException(String.format("error writing file '%s'", file.getAbsolutePath()), e);
+        }
+    }
+
+    @Override
+    public void write(BufferedWriter writer, DataContainer<?, ?> dataContainer) {
+        throw new DataFrameRuntimeException("binary data frames can not be written to a character stream");
+    }
+
+    private static DataFrame toDataFrame(DataContainer<?, ?> dataContainer) {
+        if (!(dataContainer instanceof DataFrame)) {
+            throw new DataFrameRuntimeException("only data frames can be written in the binary format");
+        }
+        return (DataFrame) dataContainer;
+    }
+
+    private void write(DataOutputStream out, DataFrame dataFrame) throws IOException {
+        List<DataFrameColumn> columns = new ArrayList<>(dataFrame.getColumns());
+        int size = dataFrame.size();
+        out.writeInt(BinaryFormat.MAGIC);
+        out.writeInt(BinaryFormat.VERSION);
+        out.writeInt(columns.size());
+        out.writeInt(size);
+        out.writeInt(blockSize);
+        for (DataFrameColumn column : columns) {
+            out.writeUTF(column.getName());
+            out.writeUTF(DataFrameHeader.getColumnClass(column).getName());
+        }
+        BinaryColumnCodec.Output block = new BinaryColumnCodec.Output(1 << 16);
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        byte[] compressed = new byte[0];
+        try {
+            for (DataFrameColumn column : columns) {
+                BinaryColumnCodec codec = BinaryColumnCodec.create(DataFrameHeader.getColumnClass(column), 0);
+                for (int from = 0; from < size; from += blockSize) {
+                    block.buffer.clear();
+                    int flags = codec.encode(column, from, Math.min(blockSize, size - from), block);
+                    int length = block.buffer.position();
+                    byte[] data = block.buffer.array();
+                    int storedLength = length;
+                    if (deflater != null) {
+                        if (compressed.length < length) {
+                            compressed = new byte[length];
+                        }
+                        deflater.reset();
+                        deflater.setInput(data, 0, length);
+                        deflater.finish();
+                        int compressedLength = deflater.deflate(compressed, 0, length);
+                        if (deflater.finished() && compressedLength < length) {
+                            flags |= BinaryFormat.COMPRESSED;
+                            data = compressed;
+                            storedLength = compressedLength;
+                        }
+                    }
+                    out.writeByte(flags);
+                    out.writeInt(storedLength);
+                    out.writeInt(length);
+                    out.write(data, 0, storedLength);
+                }
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, String> getSettings(DataFrame dataFrame) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("blockSize", Integer.toString(blockSize));
+        attributes.put("compress", Boolean.toString(compress));
+        return attributes;
+    }
+
+    /**
+     * Returns the block size of the written file, so that block statistics in the meta file
+     * can be used to skip column blocks ({@link BinaryReader#loadDataFrame(File, de.unknownreality.dataframe.meta.DataFrameMeta, FilterPredicate)}).
+     *
+     * @return rows per block
+     */
+    @Override
+    public int getStatisticsBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public List<DataFrameColumn> getMetaColumns(DataFrame dataFrame) {
+        return new ArrayList<>(dataFrame.getColumns());
+    }
+
+    @Override
+    public ReadFormat getReadFormat() {
+        return FileFormat.BINARY;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+public class BinaryWriterBuilder implements WriterBuilder<BinaryWriter> {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private boolean compress = false;
+
+    private BinaryWriterBuilder() {
+    }
+
+    public static BinaryWriterBuilder create() {
+        return new BinaryWriterBuilder();
+    }
+
+    /**
+     * Sets the number of rows stored in each column block
+     *
+     * @param blockSize rows per block
+     * @return <tt>self</tt> for method chaining
+     */
+    public BinaryWriterBuilder withBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * Defines whether column blocks are compressed.
+     * Blocks that do not get smaller are stored uncompressed.
+     *
+     * @param compress <tt>true</tt> if blocks should be compressed
+     * @return <tt>self</tt> for method chaining
+     */
+    public BinaryWriterBuilder useCompression(boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    @Override
+    public BinaryWriter build() {
+        return new BinaryWriter(blockSize, compress);
+    }
+}
@@ -24,12 +24,16 @@
 
 package de.unknownreality.dataframe.io;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameConverter;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.meta.DataFrameMeta;
 
 import java.io.*;
 import java.net.URL;
-import java.util.zip.GZIPInputStream;
+import java.util.List;
 
 /**
  * Created by Alex on 17.06.2017.
@@ -40,7 +44,7 @@ public abstract class DataReader<R extends Row, C extends DataIterator<R>> {
     public C load(File file) {
         try {
             if (GZipUtil.isGzipped(file)) {
-                InputStream is = new GZIPInputStream(new FileInputStream(file));
+                InputStream is = GZipUtil.createInputStream(new FileInputStream(file));
                 return load(is);
             }
             return load(new FileReader(file));
@@ -49,6 +53,35 @@ public abstract class DataReader<R extends Row, C extends DataIterator<R>> {
         }
     }
 
+    /**
+     * Loads a data frame from a file.
+     * The default implementation converts the data iterator returned by {@link #load(File)}.
+     *
+     * @param file               source file
+     * @param expectedSize       expected size of the resulting data frame or <tt>-1</tt> if unknown
+     * @param columnsInformation column information, if <tt>null</tt> the column information of the data iterator is used
+     * @param filterPredicate    row filter
+     * @return loaded data frame
+     */
+    public DataFrame loadDataFrame(File file, int expectedSize, List<ColumnInformation> columnsInformation, FilterPredicate filterPredicate) {
+        return DataFrameConverter.fromDataIterator(load(file), expectedSize, columnsInformation, filterPredicate);
+    }
+
+    /**
+     * Loads a data frame from a file described by a meta file.
+     * Readers that can seek by row block may use the block statistics of the meta data to skip blocks
+     * that can not satisfy the filter predicate.
+     * The default implementation ignores the statistics.
+     *
+     * @param file            source file
+     * @param meta            meta data of the file
+     * @param filterPredicate row filter
+     * @return loaded data frame
+     */
+    public DataFrame loadDataFrame(File file, DataFrameMeta meta, FilterPredicate filterPredicate) {
+        return loadDataFrame(file, meta.getSize(), meta.getColumnInformation(), filterPredicate);
+    }
+
     public C load(String content) {
         StringReader reader = new StringReader(content);
         return load(reader);
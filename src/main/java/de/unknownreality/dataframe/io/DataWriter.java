@@ -29,6 +29,7 @@ import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.DataFrameWriter;
 import de.unknownreality.dataframe.common.DataContainer;
+import de.unknownreality.dataframe.meta.DataFrameMeta;
 
 import java.io.*;
 import java.util.List;
@@ -96,6 +97,16 @@ public abstract class DataWriter {
 
     public abstract Map<String,String> getSettings(DataFrame dataFrame);
 
+    /**
+     * Returns the number of rows per block used for the block statistics in the meta file.
+     * Returns <tt>0</tt> if no statistics should be written.
+     *
+     * @return rows per statistics block
+     */
+    public int getStatisticsBlockSize() {
+        return DataFrameMeta.DEFAULT_STATISTICS_BLOCK_SIZE;
+    }
+
     public abstract List<DataFrameColumn> getMetaColumns(DataFrame dataFrame);
 
     public abstract ReadFormat getReadFormat();
@@ -33,5 +33,6 @@ import de.unknownreality.dataframe.csv.TSVFormat;
 public interface FileFormat {
     public static CSVFormat CSV = new CSVFormat();
     public static TSVFormat TSV = new TSVFormat();
+    public static BinaryFormat BINARY = new BinaryFormat();
 
 }
@@ -44,8 +44,8 @@ public class GZipUtil {
      * @return <tt>true</tt> if file is gzipped
      */
     public static boolean isGzipped(File file) {
-        try {
-            return isGzipped(new FileInputStream(file));
+        try (InputStream is = new FileInputStream(file)) {
+            return isGzipped(is);
         } catch (Exception e) {
             log.error("error opening file", e);
         }
@@ -72,4 +72,28 @@ public class GZipUtil {
         }
         return m == GZIPInputStream.GZIP_MAGIC;
     }
+
+    /**
+     * Creates an input stream that decompresses a gzip stream.
+     * The data is inflated on a background thread and read ahead, see {@link ReadAheadInputStream}.
+     * Multi-member gzip streams are supported.
+     *
+     * @param is gzip input stream
+     * @return decompressed input stream
+     * @throws IOException thrown if the gzip header can not be read
+     */
+    public static InputStream createInputStream(InputStream is) throws IOException {
+        return new ReadAheadInputStream(new GZIPInputStream(is, ReadAheadInputStream.DEFAULT_BLOCK_SIZE));
+    }
+
+    /**
+     * Creates an output stream that compresses data in parallel blocks,
+     * see {@link ParallelGZIPOutputStream}.
+     *
+     * @param os target output stream
+     * @return gzip output stream
+     */
+    public static ParallelGZIPOutputStream createOutputStream(OutputStream os) {
+        return new ParallelGZIPOutputStream(os);
+    }
 }
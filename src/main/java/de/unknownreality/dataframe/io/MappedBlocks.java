@@ -0,0 +1,185 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memory-mapped blocks of one column in a binary data frame file ({@link BinaryFormat}).
+ * Rows are resolved to their block and read directly from the mapped region.
+ */
+final class MappedBlocks {
+    private final int size;
+    private final int blockSize;
+    private final int[] flags;
+    private final ByteBuffer[] na;
+    private final ByteBuffer[] values;
+    private final AtomicReferenceArray<Dictionary> dictionaries;
+
+    MappedBlocks(int size, int blockSize) {
+        this.size = size;
+        this.blockSize = blockSize;
+        int blockCount = (int) (((long) size + blockSize - 1) / blockSize);
+        flags = new int[blockCount];
+        na = new ByteBuffer[blockCount];
+        values = new ByteBuffer[blockCount];
+        dictionaries = new AtomicReferenceArray<>(blockCount);
+    }
+
+    /**
+     * Sets the mapped content of a block
+     *
+     * @param block   block index
+     * @param flags   encoding flags of the block
+     * @param content mapped block content
+     */
+    void setBlock(int block, int flags, ByteBuffer content) {
+        this.flags[block] = flags;
+        int offset = 4;
+        if (content.getInt(0) > 0) {
+            int length = BinaryColumnCodec.words(getBlockLength(block)) * 8;
+            na[block] = slice(content, offset, length);
+            offset += length;
+        }
+        values[block] = slice(content, offset, content.limit() - offset);
+    }
+
+    int getBlock(int row) {
+        return row / blockSize;
+    }
+
+    int getOffset(int row) {
+        return row % blockSize;
+    }
+
+    int getBlockLength(int block) {
+        return Math.min(blockSize, size - block * blockSize);
+    }
+
+    int getFlags(int block) {
+        return flags[block];
+    }
+
+    /**
+     * Returns the values of a block, starting after the NA bitmap
+     *
+     * @param block block index
+     * @return values of the block
+     */
+    ByteBuffer getValues(int block) {
+        return values[block];
+    }
+
+    boolean isNA(int row) {
+        if (row >= size) {
+            return true;
+        }
+        ByteBuffer bits = na[row / blockSize];
+        if (bits == null) {
+            return false;
+        }
+        int offset = row % blockSize;
+        return (bits.getLong((offset >>> 6) << 3) & (1L << offset)) != 0;
+    }
+
+    int countNA() {
+        int count = 0;
+        for (int b = 0; b < na.length; b++) {
+            if (na[b] != null) {
+                int length = getBlockLength(b);
+                for (int w = 0; w < BinaryColumnCodec.words(length); w++) {
+                    long bits = na[b].getLong(w << 3);
+                    int rest = length - (w << 6);
+                    if (rest < 64) {
+                        bits &= (1L << rest) - 1;
+                    }
+                    count += Long.bitCount(bits);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the string value of a row in a string column block
+     *
+     * @param row row index
+     * @return string value or <tt>null</tt> if the value is NA
+     */
+    String getString(int row) {
+        if (isNA(row)) {
+            return null;
+        }
+        int block = row / blockSize;
+        int offset = row % blockSize;
+        ByteBuffer in = values[block];
+        if ((flags[block] & BinaryColumnCodec.DICTIONARY) != 0) {
+            Dictionary dictionary = getDictionary(block);
+            return dictionary.entries[BinaryColumnCodec.getCode(in, dictionary.codeOffset + offset * dictionary.width, dictionary.width)];
+        }
+        int start = offset == 0 ? 0 : in.getInt((offset - 1) << 2);
+        int end = in.getInt(offset << 2);
+        return BinaryColumnCodec.getString(in, (getBlockLength(block) << 2) + start, end - start);
+    }
+
+    /**
+     * Returns the dictionary of a dictionary encoded block.
+     * The dictionary is decoded on first access.
+     *
+     * @param block block index
+     * @return dictionary of the block
+     */
+    private Dictionary getDictionary(int block) {
+        Dictionary dictionary = dictionaries.get(block);
+        if (dictionary == null) {
+            dictionaries.compareAndSet(block, null, new Dictionary(values[block].duplicate()));
+            dictionary = dictionaries.get(block);
+        }
+        return dictionary;
+    }
+
+    static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(offset + length);
+        duplicate.position(offset);
+        return duplicate.slice();
+    }
+
+    private static final class Dictionary {
+        private final String[] entries;
+        private final int width;
+        private final int codeOffset;
+
+        private Dictionary(ByteBuffer in) {
+            entries = new String[in.getInt()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = BinaryColumnCodec.getString(in);
+            }
+            width = BinaryColumnCodec.codeWidth(entries.length);
+            codeOffset = in.position();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.column.NumberColumn;
+
+/**
+ * Shared functionality of the read-only memory-mapped columns.
+ */
+final class MappedColumns {
+    private MappedColumns() {
+    }
+
+    static DataFrameRuntimeException readOnly() {
+        return new DataFrameRuntimeException("memory-mapped columns are read-only, use copy() to get a modifiable column");
+    }
+
+    static double sum(NumberColumn<?, ?> column) {
+        double sum = 0d;
+        for (int i = 0; i < column.size(); i++) {
+            if (!column.isNA(i)) {
+                sum += column.getDouble(i);
+            }
+        }
+        return sum;
+    }
+
+    static double min(NumberColumn<?, ?> column) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < column.size(); i++) {
+            if (!column.isNA(i)) {
+                min = Math.min(min, column.getDouble(i));
+            }
+        }
+        return min;
+    }
+
+    static double max(NumberColumn<?, ?> column) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < column.size(); i++) {
+            if (!column.isNA(i)) {
+                max = Math.max(max, column.getDouble(i));
+            }
+        }
+        return max;
+    }
+
+    static double squaredDeviationSum(NumberColumn<?, ?> column, double mean) {
+        double sum = 0d;
+        for (int i = 0; i < column.size(); i++) {
+            if (!column.isNA(i)) {
+                double d = column.getDouble(i) - mean;
+                sum += d * d;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.MapFunction;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.common.math.PrimitiveStatistics;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Read-only long column backed by memory-mapped blocks of a binary data frame file.
+ * Values are read from the mapped file on access, copies are regular heap columns.
+ */
+final class MappedLongColumn extends LongColumn {
+    private final MappedBlocks blocks;
+
+    MappedLongColumn(String name, MappedBlocks blocks, int size) {
+        super(name, new long[0], size);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public Long get(int index) {
+        return isNA(index) ? null : getLong(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return blocks.getValues(blocks.getBlock(index)).getLong(blocks.getOffset(index) << 3);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public boolean isNA(int index) {
+        return blocks.isNA(index);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public int countNA() {
+        return blocks.countNA();
+    }
+
+    @Override
+    protected double valueSum() {
+        return MappedColumns.sum(this);
+    }
+
+    @Override
+    protected double valueMin() {
+        return MappedColumns.min(this);
+    }
+
+    @Override
+    protected double valueMax() {
+        return MappedColumns.max(this);
+    }
+
+    @Override
+    protected double squaredDeviationSum(double mean) {
+        return MappedColumns.squaredDeviationSum(this, mean);
+    }
+
+    @Override
+    protected Long selectValue(int rank) {
+        long[] values = new long[size() - countNA()];
+        int size = size();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isNA(i)) {
+                values[j++] = getLong(i);
+            }
+        }
+        return PrimitiveStatistics.select(values, values.length, rank);
+    }
+
+    @Override
+    public LongColumn copy() {
+        int[] rows = new int[size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return copy(rows);
+    }
+
+    @Override
+    public LongColumn copy(int[] rowIndices) {
+        long[] copyValues = new long[rowIndices.length];
+        LongColumn copy = new LongColumn(getName(), copyValues, rowIndices.length);
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            if (index < 0 || isNA(index)) {
+                copy.setNA(i);
+            } else {
+                copyValues[i] = getLong(index);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public LongColumn setLong(int index, long value) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    public LongColumn setCapacity(int capacity) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSet(int index, Long value) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSetNA(int index) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppend(Long value) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppendNA() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppendAll(Collection<? extends Long> c) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doMap(MapFunction<Long> mapFunction) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doReverse() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doReorder(int[] order) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSort() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSort(Comparator<Long> comparator) {
+        throw MappedColumns.readOnly();
+    }
+}
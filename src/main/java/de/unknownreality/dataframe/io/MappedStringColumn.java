@@ -0,0 +1,199 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.io;
+
+import de.unknownreality.dataframe.MapFunction;
+import de.unknownreality.dataframe.column.StringColumn;
+
+import java.util.*;
+
+/**
+ * Read-only string column backed by memory-mapped blocks of a binary data frame file.
+ * Values are decoded from the mapped file on access, copies are regular heap columns.
+ */
+final class MappedStringColumn extends StringColumn {
+    private final MappedBlocks blocks;
+
+    MappedStringColumn(String name, MappedBlocks blocks, int size) {
+        super(name, new String[0], size);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public String get(int index) {
+        return blocks.getString(index);
+    }
+
+    @Override
+    public boolean isNA(int index) {
+        return blocks.isNA(index);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean contains(String o) {
+        for (int i = 0; i < size(); i++) {
+            if (Objects.equals(o, get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        return new HashSet<>(asList()).containsAll(c);
+    }
+
+    @Override
+    public Set<String> uniq() {
+        Set<String> u = new HashSet<>();
+        for (int i = 0; i < size(); i++) {
+            if (!isNA(i)) {
+                u.add(get(i));
+            }
+        }
+        return u;
+    }
+
+    @Override
+    public Comparable[] toArray() {
+        return toArray(new String[size()]);
+    }
+
+    @Override
+    public String[] toArray(String[] a) {
+        int size = size();
+        if (a.length < size) {
+            a = new String[size];
+        }
+        for (int i = 0; i < size; i++) {
+            a[i] = get(i);
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public List<String> toList() {
+        return new ArrayList<>(asList());
+    }
+
+    @Override
+    public List<String> asList() {
+        return Collections.unmodifiableList(new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return MappedStringColumn.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return MappedStringColumn.this.size();
+            }
+        });
+    }
+
+    @Override
+    public StringColumn copy() {
+        return new StringColumn(getName(), toArray(new String[size()]));
+    }
+
+    @Override
+    public StringColumn copy(int[] rowIndices) {
+        String[] copyValues = new String[rowIndices.length];
+        for (int i = 0; i < rowIndices.length; i++) {
+            int index = rowIndices[i];
+            copyValues[i] = index < 0 ? null : get(index);
+        }
+        return new StringColumn(getName(), copyValues);
+    }
+
+    @Override
+    public StringColumn setCapacity(int capacity) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSet(int index, String value) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSetNA(int index) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppend(String value) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppendNA() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected boolean doAppendAll(Collection<? extends String> c) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doMap(MapFunction<String> mapFunction) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doReverse() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doReorder(int[] order) {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSort() {
+        throw MappedColumns.readOnly();
+    }
+
+    @Override
+    protected void doSort(Comparator<String> comparator) {
+        throw MappedColumns.readOnly();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream that compresses blocks of data in parallel.
+ * Each block is compressed independently into a complete gzip member,
+ * the members are written in order and form a valid multi-member gzip stream
+ * that can be read by {@link java.util.zip.GZIPInputStream} and other gzip tools.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 17;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private byte[] block;
+    private int blockLength = 0;
+    private boolean memberWritten = false;
+    private boolean finished = false;
+
+    /**
+     * Creates a parallel gzip output stream using the default block size
+     *
+     * @param out target output stream
+     */
+    public ParallelGZIPOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a parallel gzip output stream
+     *
+     * @param out       target output stream
+     * @param blockSize size of the independently compressed blocks
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+        this.block = new byte[blockSize];
+        this.maxPendingBlocks = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses and writes the buffered data.
+     * Each flush ends the current gzip member.
+     *
+     * @throws IOException thrown if the data can not be written
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock();
+        }
+        while (!pendingBlocks.isEmpty()) {
+            writeNextBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data without closing the underlying stream
+     *
+     * @throws IOException thrown if the data can not be written
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (!memberWritten && blockLength == 0) {
+            submitBlock();
+        }
+        flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("stream finished");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = blockLength;
+        pendingBlocks.add(ForkJoinPool.commonPool().submit(() -> compress(data, length)));
+        memberWritten = true;
+        block = new byte[blockSize];
+        blockLength = 0;
+        if (pendingBlocks.size() >= maxPendingBlocks) {
+            writeNextBlock();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        try {
+            out.write(pendingBlocks.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while compressing data");
+        } catch (ExecutionException e) {
+            throw new IOException("error compressing data", e.getCause());
+        }
+    }
+
+    /**
+     * Compresses a block into a complete gzip member
+     */
+    private static byte[] compress(byte[] data, int length) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        byte[] member = new byte[HEADER.length + length + length / 1000 + 64];
+        System.arraycopy(HEADER, 0, member, 0, HEADER.length);
+        int position = HEADER.length;
+        while (!deflater.finished()) {
+            if (position == member.length) {
+                member = Arrays.copyOf(member, member.length * 2);
+            }
+            position += deflater.deflate(member, position, member.length - position);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        if (member.length - position < 8) {
+            member = Arrays.copyOf(member, position + 8);
+        }
+        position = writeInt(member, position, (int) crc.getValue());
+        position = writeInt(member, position, length);
+        return position == member.length ? member : Arrays.copyOf(member, position);
+    }
+
+    private static int writeInt(byte[] bytes, int position, int value) {
+        bytes[position++] = (byte) value;
+        bytes[position++] = (byte) (value >> 8);
+        bytes[position++] = (byte) (value >> 16);
+        bytes[position++] = (byte) (value >> 24);
+        return position;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input stream that reads a source stream on a background thread.
+ * Blocks of the source stream are read ahead while the consumer processes the previous blocks,
+ * e.g. a gzip stream is inflated while the data of the previous block is parsed.
+ * <p>
+ * The background threads are shared by all read-ahead streams and limited to {@link #MAX_READER_THREADS}.
+ * If all threads are busy, the source stream is read directly on the consumer thread.
+ * A stream that is neither read to its end nor closed releases its thread and closes its source stream
+ * once it is garbage collected.
+ * </p>
+ */
+public class ReadAheadInputStream extends InputStream {
+    private static final Logger log = LoggerFactory.getLogger(ReadAheadInputStream.class);
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    public static final int DEFAULT_BLOCK_COUNT = 4;
+    public static final int MAX_READER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final long OWNER_CHECK_MILLIS = 100;
+    private static final Block END = new Block(new byte[0], -1, null);
+    private static final ThreadPoolExecutor READERS = new ThreadPoolExecutor(0, MAX_READER_THREADS,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+        Thread thread = new Thread(r, "read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Reader reader;
+    private final boolean direct;
+    private Block current = null;
+    private int position = 0;
+
+    /**
+     * Creates a read-ahead input stream using the default block size and count
+     *
+     * @param source source input stream
+     */
+    public ReadAheadInputStream(InputStream source) {
+        this(source, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCK_COUNT);
+    }
+
+    /**
+     * Creates a read-ahead input stream
+     *
+     * @param source     source input stream
+     * @param blockSize  size of the blocks read from the source stream
+     * @param blockCount maximal number of blocks that are read ahead
+     */
+    public ReadAheadInputStream(final InputStream source, final int blockSize, int blockCount) {
+        this.reader = new Reader(source, blockSize, blockCount, this);
+        boolean started;
+        try {
+            READERS.execute(reader);
+            started = true;
+        } catch (RejectedExecutionException e) {
+            log.debug("all read-ahead threads busy, reading directly");
+            started = false;
+        }
+        this.direct = !started;
+    }
+
+    /**
+     * Returns the current block or <tt>null</tt> if the end of the stream is reached
+     */
+    private Block currentBlock() throws IOException {
+        if (reader.closed) {
+            throw new IOException("stream closed");
+        }
+        if (current != null && (current == END || position < current.length)) {
+            return current == END ? null : current;
+        }
+        try {
+            current = reader.blocks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while reading data");
+        }
+        position = 0;
+        if (current.exception != null) {
+            IOException e = current.exception;
+            current = END;
+            throw new IOException("error reading data", e);
+        }
+        return current == END ? null : current;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (direct) {
+            return reader.source.read();
+        }
+        Block block = currentBlock();
+        if (block == null) {
+            return -1;
+        }
+        return block.data[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (direct) {
+            return reader.source.read(b, off, len);
+        }
+        if (len == 0) {
+            return 0;
+        }
+        Block block = currentBlock();
+        if (block == null) {
+            return -1;
+        }
+        int n = Math.min(len, block.length - position);
+        System.arraycopy(block.data, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (direct) {
+            return reader.source.available();
+        }
+        if (reader.closed || current == null || current == END) {
+            return 0;
+        }
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (direct) {
+            reader.closed = true;
+            reader.source.close();
+            return;
+        }
+        reader.close();
+    }
+
+    /**
+     * Reads the blocks of the source stream on a shared thread.
+     * Only holds a weak reference to the read-ahead stream, so an abandoned stream can be garbage collected.
+     */
+    private static class Reader implements Runnable {
+        private final InputStream source;
+        private final int blockSize;
+        private final BlockingQueue<Block> blocks;
+        private final WeakReference<ReadAheadInputStream> owner;
+        private volatile boolean closed = false;
+        private Thread thread;
+
+        private Reader(InputStream source, int blockSize, int blockCount, ReadAheadInputStream owner) {
+            this.source = source;
+            this.blockSize = blockSize;
+            this.blocks = new ArrayBlockingQueue<>(blockCount);
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /**
+         * Reads the source stream until its end is reached, the stream is closed or no longer referenced.
+         * The source stream is closed afterwards.
+         */
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (closed) {
+                    closeSource();
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+            try {
+                while (!closed) {
+                    byte[] data = new byte[blockSize];
+                    int length = 0;
+                    int n;
+                    while (length < blockSize && (n = source.read(data, length, blockSize - length)) != -1) {
+                        length += n;
+                    }
+                    if (length > 0 && !put(new Block(data, length, null))) {
+                        return;
+                    }
+                    if (length < blockSize) {
+                        put(END);
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // closed by the consumer
+            } catch (IOException e) {
+                try {
+                    put(new Block(null, -1, e));
+                } catch (InterruptedException ie) {
+                    // closed by the consumer
+                }
+            } finally {
+                synchronized (this) {
+                    thread = null;
+                }
+                // clears an interrupt of close() that arrived after the last blocking call
+                Thread.interrupted();
+                closeSource();
+            }
+        }
+
+        /**
+         * Waits until the block is queued.
+         * Returns <tt>false</tt> if the stream was closed or garbage collected in the meantime.
+         */
+        private boolean put(Block block) throws InterruptedException {
+            while (!blocks.offer(block, OWNER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed || owner.get() == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private void closeSource() {
+            try {
+                source.close();
+            } catch (IOException e) {
+                log.warn("error closing source stream", e);
+            }
+        }
+    }
+
+    private static class Block {
+        private final byte[] data;
+        private final int length;
+        private final IOException exception;
+
+        private Block(byte[] data, int length, IOException exception) {
+            this.data = data;
+            this.length = length;
+            this.exception = exception;
+        }
+    }
+}
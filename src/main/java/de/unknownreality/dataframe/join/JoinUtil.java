@@ -34,10 +34,19 @@ public interface JoinUtil {
     JoinedDataFrame innerJoin(DataFrame dfA, DataFrame  dfB, JoinColumn... joinColumns);
     JoinedDataFrame innerJoin(DataFrame  dfA, DataFrame  dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns);
 
+    JoinedDataFrame innerJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns);
+    JoinedDataFrame innerJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
     JoinedDataFrame rightJoin(DataFrame dfA, DataFrame  dfB, JoinColumn... joinColumns);
     JoinedDataFrame rightJoin(DataFrame  dfA, DataFrame  dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns);
 
+    JoinedDataFrame rightJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns);
+    JoinedDataFrame rightJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
     JoinedDataFrame leftJoin(DataFrame dfA, DataFrame  dfB, JoinColumn... joinColumns);
     JoinedDataFrame leftJoin(DataFrame  dfA, DataFrame  dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns);
 
+    JoinedDataFrame leftJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns);
+    JoinedDataFrame leftJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns);
+
 }
@@ -25,14 +25,14 @@
 package de.unknownreality.dataframe.join.impl;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameHeader;
-import de.unknownreality.dataframe.DataRow;
-import de.unknownreality.dataframe.Values;
-import de.unknownreality.dataframe.common.Row;
-import de.unknownreality.dataframe.group.DataGroup;
 import de.unknownreality.dataframe.join.JoinColumn;
 import de.unknownreality.dataframe.join.JoinInfo;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -43,38 +43,89 @@ import java.util.Set;
  * Created by Alex on 10.07.2016.
  */
 public abstract class AbstractJoinOperation {
+    private static final Logger log = LoggerFactory.getLogger(AbstractJoinOperation.class);
 
-    public abstract JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns);
+    /**
+     * Joins two data frames using the {@link JoinStrategy#AUTO} strategy
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the second data frame
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     */
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+        return join(dfA, dfB, joinSuffixA, joinSuffixB, JoinStrategy.AUTO, joinColumns);
+    }
 
+    /**
+     * Joins two data frames using the specified strategy
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     */
+    public abstract JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB,
+                                         JoinStrategy strategy, JoinColumn... joinColumns);
 
     /**
-     * Fills the values of a row into the corresponding values in a joined row value
+     * Finds the joined row indices of two data frames using the specified strategy.
+     * If the strategy can not be applied to the data frames, a {@link HashJoin} is used.
      *
-     * @param dataFrame       parent data frame of row
-     * @param row             row containing the values
-     * @param joinInfo        info about the joined data frame
-     * @param joinedRowValues array that is filled with the row values
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @param keepA       keep rows of the first data frame without match (<tt>LEFT JOIN</tt>)
+     * @param keepB       keep rows of the second data frame without match (<tt>RIGHT JOIN</tt>)
+     * @param strategy    strategy used to find the matching rows
+     * @return joined row indices
      */
-    public void fillValues(DataFrame dataFrame, DataRow row, JoinInfo joinInfo, Comparable[] joinedRowValues) {
-        for (String headerName : dataFrame.getHeader()) {
-            int joinedIndex = joinInfo.getJoinedIndex(headerName, dataFrame);
-            joinedRowValues[joinedIndex] = row.get(headerName);
+    public JoinRowIndices joinRows(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns,
+                                   boolean keepA, boolean keepB, JoinStrategy strategy) {
+        if (strategy == JoinStrategy.AUTO) {
+            strategy = DefaultJoinUtil.selectStrategy(dfA, dfB, joinColumns);
+        }
+        switch (strategy) {
+            case MERGE:
+                if (MergeJoin.isComparable(getKeyColumns(dfA, joinColumns, true), getKeyColumns(dfB, joinColumns, false))) {
+                    return MergeJoin.join(dfA, dfB, joinColumns, keepA, keepB);
+                }
+                log.warn("merge join not possible for join columns with different types, using hash join");
+                break;
+            case INDEX:
+                if (IndexJoin.isApplicable(dfA, dfB, joinColumns)) {
+                    return IndexJoin.join(dfA, dfB, joinColumns, keepA, keepB);
+                }
+                log.warn("index join not possible without index on join columns, using hash join");
+                break;
+            default:
+                break;
         }
+        return HashJoin.join(dfA, dfB, joinColumns, keepA, keepB);
     }
 
     /**
-     * Fills an value array with {@link Values#NA}
+     * Returns the join columns of one of the joined data frames
      *
-     * @param joinedRowValues array with <tt>NA</tt> values
+     * @param dataFrame   data frame containing the columns
+     * @param joinColumns columns used for the join
+     * @param columnsA    <tt>true</tt> for the columns of the first data frame, <tt>false</tt> for the second
+     * @return join columns of the data frame
      */
-    public void fillNA(Comparable[] joinedRowValues) {
-        for (int i = 0; i < joinedRowValues.length; i++) {
-            if (joinedRowValues[i] == null) {
-                joinedRowValues[i] = Values.NA;
-            }
+    public static DataFrameColumn[] getKeyColumns(DataFrame dataFrame, JoinColumn[] joinColumns, boolean columnsA) {
+        DataFrameColumn[] keyColumns = new DataFrameColumn[joinColumns.length];
+        for (int i = 0; i < joinColumns.length; i++) {
+            keyColumns[i] = dataFrame.getColumn(columnsA ? joinColumns[i].getColumnA() : joinColumns[i].getColumnB());
         }
+        return keyColumns;
     }
 
+
     /**
      * Fills a join header with the header information of two data frames.<br>
      * Headers that are used for the join are merged.<br>
@@ -132,51 +183,50 @@ public abstract class AbstractJoinOperation {
 
 
     /**
-     * Fills the join values of the first data frame into an values array
+     * Creates the joined data frame from pairs of joined row indices.
+     * Each column is copied at once using the row indices of the respective data frame.
+     * Values of join columns are taken from the first data frame, or from the second data frame if the first has no matching row.
      *
-     * @param groupValues values array to be filled
-     * @param row         row containing the values
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinInfo    info about the join
      * @param joinColumns columns used for the join
+     * @param rows        joined row indices
+     * @return joined data frame
      */
-    public void setGroupValuesA(Comparable[] groupValues, Row<Comparable,String> row, JoinColumn[] joinColumns) {
-        for (int i = 0; i < joinColumns.length; i++) {
-            String headerName = joinColumns[i].getColumnA();
-            groupValues[i] = row.get(headerName);
+    @SuppressWarnings("unchecked")
+    public JoinedDataFrame createJoinedDataFrame(DataFrame dfA, DataFrame dfB, JoinInfo joinInfo,
+                                                 JoinColumn[] joinColumns, JoinRowIndices rows) {
+        Map<String, String> joinedAToBMap = new HashMap<>();
+        for (JoinColumn column : joinColumns) {
+            joinedAToBMap.put(column.getColumnA(), column.getColumnB());
         }
-    }
-
-    /**
-     * Fills the join values of the second data frame into an values array
-     *
-     * @param groupValues values array to be filled
-     * @param row         row containing the values
-     * @param joinColumns columns used for the join
-     */
-    public void setGroupValuesB(Comparable[] groupValues, Row<Comparable,String> row, JoinColumn[] joinColumns) {
-        for (int i = 0; i < joinColumns.length; i++) {
-            String headerName = joinColumns[i].getColumnB();
-            groupValues[i] = row.get(headerName);
+        int[] rowsA = rows.getRowsA();
+        int[] rowsB = rows.getRowsB();
+        JoinedDataFrame joinedDataFrame = new JoinedDataFrame(joinInfo);
+        for (String headerName : dfA.getHeader()) {
+            DataFrameColumn column = dfA.getColumn(headerName).copy(rowsA);
+            String columnB = joinedAToBMap.get(headerName);
+            if (columnB != null) {
+                DataFrameColumn joinColumnB = dfB.getColumn(columnB);
+                for (int i = 0; i < rowsA.length; i++) {
+                    if (rowsA[i] < 0 && rowsB[i] >= 0 && !joinColumnB.isNA(rowsB[i])) {
+                        column.set(i, joinColumnB.get(rowsB[i]));
+                    }
+                }
+            }
+            column.setName(joinInfo.getJoinedHeaderA(headerName));
+            joinedDataFrame.addColumn(column);
         }
-    }
-
-    /**
-     * Appends the joined rows resulting from a row from one data frame and a data group from the other data frame
-     *
-     * @param group      data group a data frame
-     * @param dfA        first data frame
-     * @param dfB        second data frame
-     * @param rowA       row from the other data frame  (not the same as the data group)
-     * @param joinInfo   info about the join
-     * @param joinHeader resulting data frame header
-     * @param joinedDataFrame resulting joined data frame
-     */
-    public void appendGroupJoinedRows(DataGroup group, DataFrame dfA, DataFrame dfB, DataRow rowA, JoinInfo joinInfo, DataFrameHeader joinHeader, DataFrame joinedDataFrame) {
-        for (DataRow rowB : group) {
-            Comparable[] joinedRowValues = new Comparable[joinHeader.size()];
-            fillValues(dfA, rowA, joinInfo, joinedRowValues);
-            fillValues(dfB, rowB, joinInfo, joinedRowValues);
-            fillNA(joinedRowValues);
-            joinedDataFrame.append(joinedRowValues);
+        Set<String> joinColumnSetB = new HashSet<>(joinedAToBMap.values());
+        for (String headerName : dfB.getHeader()) {
+            if (joinColumnSetB.contains(headerName)) {
+                continue;
+            }
+            DataFrameColumn column = dfB.getColumn(headerName).copy(rowsB);
+            column.setName(joinInfo.getJoinedHeaderB(headerName));
+            joinedDataFrame.addColumn(column);
         }
+        return joinedDataFrame;
     }
 }
@@ -25,7 +25,9 @@
 package de.unknownreality.dataframe.join.impl;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 
@@ -139,5 +141,126 @@ public class DefaultJoinUtil implements JoinUtil {
         return INNER.join(dfA, dfB, joinSuffixA, joinSuffixB, joinColumns);
     }
 
+    /**
+     * Joins two data frames using the <tt>LEFT JOIN</tt> method, the specified strategy and the default header name suffixes
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see LeftJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame leftJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return leftJoin(dfA, dfB, JOIN_SUFFIX_A, JOIN_SUFFIX_B, strategy, joinColumns);
+    }
+
+    /**
+     * Joins two data frames using the <tt>LEFT JOIN</tt> method, the specified strategy and specified suffixes for the column header names
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns in the first data frame
+     * @param joinSuffixB suffix used for columns in the second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see LeftJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame leftJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return LEFT.join(dfA, dfB, joinSuffixA, joinSuffixB, strategy, joinColumns);
+    }
+
+    /**
+     * Joins two data frames using the <tt>RIGHT JOIN</tt> method, the specified strategy and the default header name suffixes
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see RightJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame rightJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return rightJoin(dfA, dfB, JOIN_SUFFIX_A, JOIN_SUFFIX_B, strategy, joinColumns);
+    }
+
+    /**
+     * Joins two data frames using the <tt>RIGHT JOIN</tt> method, the specified strategy and specified suffixes for the column header names
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns in the first data frame
+     * @param joinSuffixB suffix used for columns in the second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see RightJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame rightJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return RIGHT.join(dfA, dfB, joinSuffixA, joinSuffixB, strategy, joinColumns);
+    }
 
+    /**
+     * Joins two data frames using the <tt>INNER JOIN</tt> method, the specified strategy and the default header name suffixes
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see InnerJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame innerJoin(DataFrame dfA, DataFrame dfB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return innerJoin(dfA, dfB, JOIN_SUFFIX_A, JOIN_SUFFIX_B, strategy, joinColumns);
+    }
+
+    /**
+     * Joins two data frames using the <tt>INNER JOIN</tt> method, the specified strategy and specified suffixes for the column header names
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns in the first data frame
+     * @param joinSuffixB suffix used for columns in the second data frame
+     * @param strategy    strategy used to find the matching rows
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     * @see InnerJoin#join(DataFrame, DataFrame, String, String, JoinStrategy, JoinColumn...)
+     */
+    public JoinedDataFrame innerJoin(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinStrategy strategy, JoinColumn... joinColumns) {
+        return INNER.join(dfA, dfB, joinSuffixA, joinSuffixB, strategy, joinColumns);
+    }
+
+    /**
+     * Selects the strategy used to join two data frames.
+     * <ul>
+     * <li>{@link JoinStrategy#MERGE} if both data frames are already sorted by the join columns</li>
+     * <li>{@link JoinStrategy#INDEX} if the larger data frame has an index on its join columns</li>
+     * <li>{@link JoinStrategy#HASH} otherwise</li>
+     * </ul>
+     * An index join probes the index with every row of the other data frame.
+     * It only saves work compared to a hash join, which builds a table for the smaller data frame and probes it with the larger one,
+     * if the probed index belongs to the larger data frame.
+     * An index on the smaller data frame would be probed with all rows of the larger one and is ignored.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @return selected join strategy
+     */
+    public static JoinStrategy selectStrategy(DataFrame dfA, DataFrame dfB, JoinColumn... joinColumns) {
+        DataFrameColumn[] keyColumnsA = AbstractJoinOperation.getKeyColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keyColumnsB = AbstractJoinOperation.getKeyColumns(dfB, joinColumns, false);
+        if (MergeJoin.isComparable(keyColumnsA, keyColumnsB)
+                && MergeJoin.isSorted(keyColumnsA, dfA.size())
+                && MergeJoin.isSorted(keyColumnsB, dfB.size())) {
+            return JoinStrategy.MERGE;
+        }
+        boolean indexA = dfA.size() >= dfB.size() && dfA.findIndex(keyColumnsA) != null;
+        boolean indexB = dfB.size() >= dfA.size() && dfB.findIndex(keyColumnsB) != null;
+        if (indexA || indexB) {
+            return JoinStrategy.INDEX;
+        }
+        return JoinStrategy.HASH;
+    }
 }
@@ -26,11 +26,9 @@ package de.unknownreality.dataframe.join.impl;
 
 import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameHeader;
-import de.unknownreality.dataframe.DataRow;
-import de.unknownreality.dataframe.group.DataGrouping;
-import de.unknownreality.dataframe.group.GroupRow;
 import de.unknownreality.dataframe.join.JoinColumn;
 import de.unknownreality.dataframe.join.JoinInfo;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 
 /**
@@ -38,9 +36,10 @@ import de.unknownreality.dataframe.join.JoinedDataFrame;
  */
 public abstract class DirectionJoin extends AbstractJoinOperation {
     /**
-     * Creates a direction (left or right) join
+     * Creates a direction (left or right) join.
+     * All rows of the first data frame are kept.
      *
-     * @param dfA         first data frame
+     * @param dfA         first data frame, all rows are kept
      * @param dfB         second data frame
      * @param joinHeader  joined data frame header
      * @param joinInfo    info about the columns in the joined data frame
@@ -49,32 +48,27 @@ public abstract class DirectionJoin extends AbstractJoinOperation {
      */
     public JoinedDataFrame createDirectionJoin(DataFrame dfA, DataFrame dfB,
                                                DataFrameHeader joinHeader, JoinInfo joinInfo, JoinColumn[] joinColumns) {
-        String[] groupColumns = new String[joinColumns.length];
-        for (int i = 0; i < joinColumns.length; i++) {
-            groupColumns[i] = joinColumns[i].getColumnB();
-        }
-        Comparable[] groupValues = new Comparable[joinColumns.length];
-        DataGrouping joinedGroups = dfB.groupBy(groupColumns);
-        JoinedDataFrame joinedDataFrame = new JoinedDataFrame(joinInfo);
-        joinedDataFrame.set(joinHeader);
-        for (DataRow row : dfA) {
-            if (joinInfo.isA(dfA)) {
-                setGroupValuesA(groupValues, row, joinColumns);
-            } else {
-                setGroupValuesB(groupValues, row, joinColumns);
-            }
-            GroupRow groupRow = joinedGroups.findByGroupValues((Comparable[]) groupValues);
-            if (groupRow == null) {
-                Comparable[] joinedRowValues = new Comparable[joinHeader.size()];
-                fillValues(dfA, row, joinInfo, joinedRowValues);
-                fillNA(joinedRowValues);
-                joinedDataFrame.append(joinedRowValues);
-            } else {
-                appendGroupJoinedRows(groupRow.getGroup(), dfA, dfB, row, joinInfo, joinHeader, joinedDataFrame);
-            }
+        if (joinInfo.isA(dfA)) {
+            return createDirectionJoin(dfA, dfB, joinInfo, joinColumns, true, JoinStrategy.AUTO);
         }
-        return joinedDataFrame;
+        return createDirectionJoin(dfB, dfA, joinInfo, joinColumns, false, JoinStrategy.AUTO);
     }
 
-
+    /**
+     * Creates a direction (left or right) join using the specified strategy.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinInfo    info about the columns in the joined data frame
+     * @param joinColumns columns used for the join
+     * @param keepA       <tt>true</tt> to keep all rows of the first data frame (<tt>LEFT JOIN</tt>),
+     *                    <tt>false</tt> to keep all rows of the second data frame (<tt>RIGHT JOIN</tt>)
+     * @param strategy    strategy used to find the matching rows
+     * @return joined data frame
+     */
+    protected JoinedDataFrame createDirectionJoin(DataFrame dfA, DataFrame dfB, JoinInfo joinInfo,
+                                                  JoinColumn[] joinColumns, boolean keepA, JoinStrategy strategy) {
+        JoinRowIndices rows = joinRows(dfA, dfB, joinColumns, keepA, !keepA, strategy);
+        return createJoinedDataFrame(dfA, dfB, joinInfo, joinColumns, rows);
+    }
 }
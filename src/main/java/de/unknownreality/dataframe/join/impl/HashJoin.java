@@ -0,0 +1,105 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.join.JoinColumn;
+
+import java.util.BitSet;
+
+/**
+ * Hash join on row indices.
+ * A {@link RowIndexHashTable} is built for the smaller data frame and probed with the rows of the larger one.
+ * The resulting row pairs are ordered by the rows of the first data frame,
+ * or the second data frame if only unmatched rows of the second data frame are kept (<tt>RIGHT JOIN</tt>).
+ */
+public class HashJoin {
+
+    private HashJoin() {
+    }
+
+    /**
+     * Joins the rows of two data frames.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @param keepA       keep rows of the first data frame without match (<tt>LEFT JOIN</tt>)
+     * @param keepB       keep rows of the second data frame without match (<tt>RIGHT JOIN</tt>)
+     * @return joined row indices
+     */
+    public static JoinRowIndices join(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns, boolean keepA, boolean keepB) {
+        DataFrameColumn[] keyColumnsA = AbstractJoinOperation.getKeyColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keyColumnsB = AbstractJoinOperation.getKeyColumns(dfB, joinColumns, false);
+        boolean buildA = dfA.size() < dfB.size();
+        IntList rowsA = new IntList(Math.max(dfA.size(), dfB.size()));
+        IntList rowsB = new IntList(Math.max(dfA.size(), dfB.size()));
+        if (buildA) {
+            probe(keyColumnsA, dfA.size(), keyColumnsB, dfB.size(), keepA, keepB, rowsA, rowsB);
+        } else {
+            probe(keyColumnsB, dfB.size(), keyColumnsA, dfA.size(), keepB, keepA, rowsB, rowsA);
+        }
+        boolean orderByB = keepB && !keepA;
+        if (orderByB) {
+            return buildA ? new JoinRowIndices(rowsA.toArray(), rowsB.toArray())
+                    : JoinRowIndices.orderBy(rowsB, rowsA, dfB.size(), false);
+        }
+        return buildA ? JoinRowIndices.orderBy(rowsA, rowsB, dfA.size(), true)
+                : new JoinRowIndices(rowsA.toArray(), rowsB.toArray());
+    }
+
+    private static void probe(DataFrameColumn[] buildColumns, int buildSize,
+                              DataFrameColumn[] probeColumns, int probeSize,
+                              boolean keepBuild, boolean keepProbe,
+                              IntList buildRows, IntList probeRows) {
+        RowIndexHashTable table = new RowIndexHashTable(buildColumns, buildSize);
+        BitSet matched = keepBuild ? new BitSet(buildSize) : null;
+        for (int p = 0; p < probeSize; p++) {
+            int r = table.getFirstRow(RowIndexHashTable.createKey(probeColumns, p));
+            if (r < 0) {
+                if (keepProbe) {
+                    probeRows.add(p);
+                    buildRows.add(-1);
+                }
+                continue;
+            }
+            while (r >= 0) {
+                probeRows.add(p);
+                buildRows.add(r);
+                if (matched != null) {
+                    matched.set(r);
+                }
+                r = table.getNextRow(r);
+            }
+        }
+        if (matched != null) {
+            for (int r = matched.nextClearBit(0); r < buildSize; r = matched.nextClearBit(r + 1)) {
+                probeRows.add(-1);
+                buildRows.add(r);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.index.HashIndex;
+import de.unknownreality.dataframe.index.Index;
+import de.unknownreality.dataframe.join.JoinColumn;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index nested loop join on row indices.
+ * An existing {@link Index} on the join columns of one data frame is probed with the rows of the other data frame.
+ * If both data frames have such an index, the index of the larger data frame is used.
+ */
+public class IndexJoin {
+
+    private IndexJoin() {
+    }
+
+    /**
+     * Returns <tt>true</tt> if at least one of the data frames has an index on its join columns
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @return <tt>true</tt> if an index join is possible
+     */
+    public static boolean isApplicable(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns) {
+        return dfA.findIndex(AbstractJoinOperation.getKeyColumns(dfA, joinColumns, true)) != null
+                || dfB.findIndex(AbstractJoinOperation.getKeyColumns(dfB, joinColumns, false)) != null;
+    }
+
+    /**
+     * Joins the rows of two data frames.
+     * The resulting row pairs have the same order as the ones created by {@link HashJoin}.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @param keepA       keep rows of the first data frame without match (<tt>LEFT JOIN</tt>)
+     * @param keepB       keep rows of the second data frame without match (<tt>RIGHT JOIN</tt>)
+     * @return joined row indices
+     */
+    public static JoinRowIndices join(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns, boolean keepA, boolean keepB) {
+        DataFrameColumn[] keyColumnsA = AbstractJoinOperation.getKeyColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keyColumnsB = AbstractJoinOperation.getKeyColumns(dfB, joinColumns, false);
+        Index indexA = dfA.findIndex(keyColumnsA);
+        Index indexB = dfB.findIndex(keyColumnsB);
+        if (indexA == null && indexB == null) {
+            throw new DataFrameRuntimeException("index join requires an index on the join columns");
+        }
+        IntList rowsA = new IntList(Math.max(dfA.size(), dfB.size()));
+        IntList rowsB = new IntList(Math.max(dfA.size(), dfB.size()));
+        boolean probeA = indexB != null && (indexA == null || dfB.size() >= dfA.size());
+        if (probeA) {
+            probe(indexB, keyColumnsB, dfB.size(), keyColumnsA, dfA.size(), keepB, keepA, rowsB, rowsA);
+        } else {
+            probe(indexA, keyColumnsA, dfA.size(), keyColumnsB, dfB.size(), keepA, keepB, rowsA, rowsB);
+        }
+        boolean orderByB = keepB && !keepA;
+        if (orderByB) {
+            return probeA ? JoinRowIndices.orderBy(rowsB, rowsA, dfB.size(), false)
+                    : new JoinRowIndices(rowsA.toArray(), rowsB.toArray());
+        }
+        return probeA ? new JoinRowIndices(rowsA.toArray(), rowsB.toArray())
+                : JoinRowIndices.orderBy(rowsA, rowsB, dfA.size(), true);
+    }
+
+    private static int[] find(Index index, Comparable[] values) {
+        if (index instanceof HashIndex) {
+            return ((HashIndex) index).findRows(values);
+        }
+        Collection<Integer> found = index.find(values);
+        int[] rows = new int[found.size()];
+        int k = 0;
+        for (Integer r : found) {
+            rows[k++] = r;
+        }
+        return rows;
+    }
+
+    private static void probe(Index index, DataFrameColumn[] indexedColumns, int indexedSize,
+                              DataFrameColumn[] probeColumns, int probeSize,
+                              boolean keepIndexed, boolean keepProbe,
+                              IntList indexedRows, IntList probeRows) {
+        List<DataFrameColumn> indexColumns = index.getColumns();
+        DataFrameColumn[] probeValueColumns = new DataFrameColumn[indexColumns.size()];
+        for (int i = 0; i < indexedColumns.length; i++) {
+            probeValueColumns[indexColumns.indexOf(indexedColumns[i])] = probeColumns[i];
+        }
+        BitSet matched = keepIndexed ? new BitSet(indexedSize) : null;
+        Comparable[] values = new Comparable[probeValueColumns.length];
+        for (int p = 0; p < probeSize; p++) {
+            for (int i = 0; i < probeValueColumns.length; i++) {
+                Comparable value = probeValueColumns[i].get(p);
+                values[i] = value == null ? Values.NA : value;
+            }
+            int[] rows = find(index, values);
+            if (rows.length == 0) {
+                if (keepProbe) {
+                    probeRows.add(p);
+                    indexedRows.add(-1);
+                }
+                continue;
+            }
+            Arrays.sort(rows);
+            for (int r : rows) {
+                probeRows.add(p);
+                indexedRows.add(r);
+                if (matched != null) {
+                    matched.set(r);
+                }
+            }
+        }
+        if (matched != null) {
+            for (int r = matched.nextClearBit(0); r < indexedSize; r = matched.nextClearBit(r + 1)) {
+                probeRows.add(-1);
+                indexedRows.add(r);
+            }
+        }
+    }
+}
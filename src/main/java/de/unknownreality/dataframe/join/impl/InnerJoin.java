@@ -26,11 +26,9 @@ package de.unknownreality.dataframe.join.impl;
 
 import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameHeader;
-import de.unknownreality.dataframe.DataRow;
-import de.unknownreality.dataframe.group.DataGrouping;
-import de.unknownreality.dataframe.group.GroupRow;
 import de.unknownreality.dataframe.join.JoinColumn;
 import de.unknownreality.dataframe.join.JoinInfo;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 
 /**
@@ -42,35 +40,23 @@ public class InnerJoin extends AbstractJoinOperation {
 
 
     /**
-     * Joins two data frames using the <tt>INNER JOIN</tt> method
+     * Joins two data frames using the <tt>INNER JOIN</tt> method.
      *
      * @param dfA         first data frame
      * @param dfB         second data frame
      * @param joinSuffixA suffix used for columns from the first data frame
      * @param joinSuffixB suffix used for columns from the second data frame
+     * @param strategy    strategy used to find the matching rows
      * @param joinColumns columns used for the join
      * @return joined data frame
      */
     @Override
-    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB,
+                                JoinStrategy strategy, JoinColumn... joinColumns) {
         DataFrameHeader joinHeader = new DataFrameHeader();
         JoinInfo joinInfo = fillJoinHeader(joinHeader, dfA, dfB, joinColumns, joinSuffixA, joinSuffixB);
-        String[] groupColumns = new String[joinColumns.length];
-        for (int i = 0; i < joinColumns.length; i++) {
-            groupColumns[i] = joinColumns[i].getColumnB();
-        }
-        Comparable[] groupValues = new Comparable[joinColumns.length];
-        JoinedDataFrame joinedDataFrame = new JoinedDataFrame(joinInfo);
-        joinedDataFrame.set(joinHeader);
-        DataGrouping joinedGroups = dfB.groupBy(groupColumns);
-        for (DataRow row : dfA) {
-            setGroupValuesA(groupValues, row, joinColumns);
-            GroupRow groupRow = joinedGroups.findByGroupValues((Comparable[]) groupValues);
-            if (groupRow != null) {
-                appendGroupJoinedRows(groupRow.getGroup(), dfA, dfB, row, joinInfo, joinHeader, joinedDataFrame);
-            }
-        }
-        return joinedDataFrame;
+        JoinRowIndices rows = joinRows(dfA, dfB, joinColumns, false, false, strategy);
+        return createJoinedDataFrame(dfA, dfB, joinInfo, joinColumns, rows);
     }
 
 
@@ -0,0 +1,98 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.common.IntList;
+
+/**
+ * Pairs of joined row indices. Index <tt>i</tt> of both arrays describes one row of the joined data frame.
+ * A negative index means that there is no matching row in the respective data frame.
+ */
+public class JoinRowIndices {
+    private final int[] rowsA;
+    private final int[] rowsB;
+
+    public JoinRowIndices(int[] rowsA, int[] rowsB) {
+        if (rowsA.length != rowsB.length) {
+            throw new IllegalArgumentException("row index arrays must have same length");
+        }
+        this.rowsA = rowsA;
+        this.rowsB = rowsB;
+    }
+
+    /**
+     * Returns the row indices in the first data frame
+     *
+     * @return row indices in the first data frame
+     */
+    public int[] getRowsA() {
+        return rowsA;
+    }
+
+    /**
+     * Returns the row indices in the second data frame
+     *
+     * @return row indices in the second data frame
+     */
+    public int[] getRowsB() {
+        return rowsB;
+    }
+
+    public int size() {
+        return rowsA.length;
+    }
+
+    /**
+     * Stable counting sort of row index pairs by the rows of one data frame.
+     * Unmatched rows (negative indices) of this data frame are put at the end.
+     *
+     * @param orderRows row indices of the data frame that defines the order
+     * @param otherRows row indices of the other data frame
+     * @param orderSize number of rows in the data frame that defines the order
+     * @param orderIsA  <tt>true</tt> if the order is defined by the first data frame
+     * @return sorted row index pairs
+     */
+    static JoinRowIndices orderBy(IntList orderRows, IntList otherRows, int orderSize, boolean orderIsA) {
+        int size = orderRows.size();
+        int[] offsets = new int[orderSize + 2];
+        for (int i = 0; i < size; i++) {
+            offsets[slot(orderRows.get(i), orderSize) + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] sortedOrder = new int[size];
+        int[] sortedOther = new int[size];
+        for (int i = 0; i < size; i++) {
+            int target = offsets[slot(orderRows.get(i), orderSize)]++;
+            sortedOrder[target] = orderRows.get(i);
+            sortedOther[target] = otherRows.get(i);
+        }
+        return orderIsA ? new JoinRowIndices(sortedOrder, sortedOther) : new JoinRowIndices(sortedOther, sortedOrder);
+    }
+
+    private static int slot(int row, int orderSize) {
+        return row < 0 ? orderSize : row;
+    }
+}
@@ -28,6 +28,7 @@ import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameHeader;
 import de.unknownreality.dataframe.join.JoinColumn;
 import de.unknownreality.dataframe.join.JoinInfo;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 
 /**
@@ -44,13 +45,15 @@ public class LeftJoin extends DirectionJoin {
      * @param dfB         second data frame
      * @param joinSuffixA suffix used for columns from the first data frame
      * @param joinSuffixB suffix used for columns from the second data frame
+     * @param strategy    strategy used to find the matching rows
      * @param joinColumns columns used for the join
      * @return joined data frame
      */
     @Override
-    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB,
+                                JoinStrategy strategy, JoinColumn... joinColumns) {
         DataFrameHeader joinHeader = new DataFrameHeader();
         JoinInfo joinInfo = fillJoinHeader(joinHeader, dfA, dfB, joinColumns, joinSuffixA, joinSuffixB);
-        return createDirectionJoin(dfA, dfB, joinHeader, joinInfo, joinColumns);
+        return createDirectionJoin(dfA, dfB, joinInfo, joinColumns, true, strategy);
     }
 }
@@ -0,0 +1,189 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
+
+/**
+ * Sort-merge join on row indices.
+ * Both data frames are traversed in the order of their join columns and rows with equal keys are merged.
+ * Data frames that are already sorted by the join columns are merged directly,
+ * otherwise a sorted permutation of their row indices is created first using the {@link RowIndexSorter}.
+ * <tt>NA</tt> values are sorted after all other values, like in {@link DataFrame#sort(String)}, and match each other.
+ */
+public class MergeJoin {
+
+    private MergeJoin() {
+    }
+
+    /**
+     * Joins the rows of two data frames.
+     * The resulting row pairs have the same order as the ones created by {@link HashJoin}.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @param keepA       keep rows of the first data frame without match (<tt>LEFT JOIN</tt>)
+     * @param keepB       keep rows of the second data frame without match (<tt>RIGHT JOIN</tt>)
+     * @return joined row indices
+     */
+    public static JoinRowIndices join(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns, boolean keepA, boolean keepB) {
+        DataFrameColumn[] keyColumnsA = AbstractJoinOperation.getKeyColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keyColumnsB = AbstractJoinOperation.getKeyColumns(dfB, joinColumns, false);
+        if (!isComparable(keyColumnsA, keyColumnsB)) {
+            throw new DataFrameRuntimeException("merge join requires join columns with equal types");
+        }
+        int sizeA = dfA.size();
+        int sizeB = dfB.size();
+        int[] orderA = isSorted(keyColumnsA, sizeA) ? null : RowIndexSorter.sort(keyColumnsA, new boolean[keyColumnsA.length], sizeA);
+        int[] orderB = isSorted(keyColumnsB, sizeB) ? null : RowIndexSorter.sort(keyColumnsB, new boolean[keyColumnsB.length], sizeB);
+        boolean orderByB = keepB && !keepA;
+
+        IntList rowsA = new IntList(Math.max(sizeA, sizeB));
+        IntList rowsB = new IntList(Math.max(sizeA, sizeB));
+        int i = 0;
+        int j = 0;
+        while (i < sizeA && j < sizeB) {
+            int a = row(orderA, i);
+            int b = row(orderB, j);
+            int c = compare(keyColumnsA, a, keyColumnsB, b);
+            if (c < 0) {
+                if (keepA) {
+                    rowsA.add(a);
+                    rowsB.add(-1);
+                }
+                i++;
+            } else if (c > 0) {
+                if (keepB) {
+                    rowsA.add(-1);
+                    rowsB.add(b);
+                }
+                j++;
+            } else {
+                int endA = runEnd(keyColumnsA, orderA, i, sizeA);
+                int endB = runEnd(keyColumnsB, orderB, j, sizeB);
+                if (orderByB) {
+                    for (int y = j; y < endB; y++) {
+                        for (int x = i; x < endA; x++) {
+                            rowsA.add(row(orderA, x));
+                            rowsB.add(row(orderB, y));
+                        }
+                    }
+                } else {
+                    for (int x = i; x < endA; x++) {
+                        for (int y = j; y < endB; y++) {
+                            rowsA.add(row(orderA, x));
+                            rowsB.add(row(orderB, y));
+                        }
+                    }
+                }
+                i = endA;
+                j = endB;
+            }
+        }
+        for (; keepA && i < sizeA; i++) {
+            rowsA.add(row(orderA, i));
+            rowsB.add(-1);
+        }
+        for (; keepB && j < sizeB; j++) {
+            rowsA.add(-1);
+            rowsB.add(row(orderB, j));
+        }
+        if (orderByB) {
+            return orderB == null ? new JoinRowIndices(rowsA.toArray(), rowsB.toArray())
+                    : JoinRowIndices.orderBy(rowsB, rowsA, sizeB, false);
+        }
+        return orderA == null ? new JoinRowIndices(rowsA.toArray(), rowsB.toArray())
+                : JoinRowIndices.orderBy(rowsA, rowsB, sizeA, true);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the join columns of both data frames can be compared with each other
+     *
+     * @param keyColumnsA join columns of the first data frame
+     * @param keyColumnsB join columns of the second data frame
+     * @return <tt>true</tt> if the join columns have equal types
+     */
+    public static boolean isComparable(DataFrameColumn[] keyColumnsA, DataFrameColumn[] keyColumnsB) {
+        for (int i = 0; i < keyColumnsA.length; i++) {
+            if (keyColumnsA[i].getType() != keyColumnsB[i].getType()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the rows are sorted in ascending order of the key columns.
+     *
+     * @param keyColumns key columns
+     * @param size       number of rows
+     * @return <tt>true</tt> if the rows are sorted
+     */
+    public static boolean isSorted(DataFrameColumn[] keyColumns, int size) {
+        for (int i = 1; i < size; i++) {
+            if (compare(keyColumns, i - 1, keyColumns, i) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int row(int[] order, int i) {
+        return order == null ? i : order[i];
+    }
+
+    private static int runEnd(DataFrameColumn[] keyColumns, int[] order, int start, int size) {
+        int first = row(order, start);
+        int end = start + 1;
+        while (end < size && compare(keyColumns, first, keyColumns, row(order, end)) == 0) {
+            end++;
+        }
+        return end;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(DataFrameColumn[] columnsX, int rowX, DataFrameColumn[] columnsY, int rowY) {
+        for (int i = 0; i < columnsX.length; i++) {
+            Comparable x = columnsX[i].get(rowX);
+            Comparable y = columnsY[i].get(rowY);
+            if (x == null || y == null) {
+                if (x != y) {
+                    return x == null ? 1 : -1;
+                }
+                continue;
+            }
+            int c = x.compareTo(y);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameHeader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.common.IntList;
+import de.unknownreality.dataframe.index.Index;
+import de.unknownreality.dataframe.index.interval.StaticIntervalIndex;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinInfo;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
+
+/**
+ * Interval overlap join on row indices.
+ * Rows are joined if their closed intervals <tt>[start, end]</tt> overlap.
+ * The intervals of one data frame are looked up in a {@link StaticIntervalIndex} of the other data frame.
+ * An existing static interval index on the interval columns is used, otherwise one is built for the join.
+ */
+public class OverlapJoin {
+
+    private OverlapJoin() {
+    }
+
+    /**
+     * Joins the rows of two data frames with overlapping intervals using the <tt>INNER JOIN</tt> method.
+     * All columns of both data frames are kept, column names contained in both data frames are altered using the suffixes.
+     *
+     * @param dfA     first data frame
+     * @param startA  start column of the first data frame
+     * @param endA    end column of the first data frame
+     * @param dfB     second data frame
+     * @param startB  start column of the second data frame
+     * @param endB    end column of the second data frame
+     * @param suffixA suffix used for columns from the first data frame
+     * @param suffixB suffix used for columns from the second data frame
+     * @return joined data frame
+     */
+    public static JoinedDataFrame join(DataFrame dfA, String startA, String endA,
+                                       DataFrame dfB, String startB, String endB,
+                                       String suffixA, String suffixB) {
+        JoinColumn[] joinColumns = new JoinColumn[0];
+        JoinInfo joinInfo = DefaultJoinUtil.INNER.fillJoinHeader(new DataFrameHeader(), dfA, dfB, joinColumns, suffixA, suffixB);
+        JoinRowIndices rows = joinRows(dfA, startA, endA, dfB, startB, endB);
+        return DefaultJoinUtil.INNER.createJoinedDataFrame(dfA, dfB, joinInfo, joinColumns, rows);
+    }
+
+    /**
+     * Finds the pairs of rows with overlapping intervals, ordered by the rows of the first and the second data frame.
+     * If only the first data frame has a static interval index, the second data frame is probed against it,
+     * otherwise the index of the second data frame is used.
+     *
+     * @param dfA    first data frame
+     * @param startA start column of the first data frame
+     * @param endA   end column of the first data frame
+     * @param dfB    second data frame
+     * @param startB start column of the second data frame
+     * @param endB   end column of the second data frame
+     * @return joined row indices
+     */
+    public static JoinRowIndices joinRows(DataFrame dfA, String startA, String endA,
+                                          DataFrame dfB, String startB, String endB) {
+        NumberColumn<?, ?> startColumnA = getColumn(dfA, startA);
+        NumberColumn<?, ?> endColumnA = getColumn(dfA, endA);
+        NumberColumn<?, ?> startColumnB = getColumn(dfB, startB);
+        NumberColumn<?, ?> endColumnB = getColumn(dfB, endB);
+        StaticIntervalIndex indexA = findIndex(dfA, startColumnA, endColumnA);
+        StaticIntervalIndex indexB = findIndex(dfB, startColumnB, endColumnB);
+        IntList rowsA = new IntList(Math.max(dfA.size(), dfB.size()));
+        IntList rowsB = new IntList(Math.max(dfA.size(), dfB.size()));
+        if (indexB == null && indexA != null) {
+            indexA.overlaps(startColumnB, endColumnB, rowsB, rowsA);
+            return JoinRowIndices.orderBy(rowsA, rowsB, dfA.size(), true);
+        }
+        if (indexB == null) {
+            indexB = new StaticIntervalIndex("overlap", startColumnB, endColumnB);
+            indexB.updateRows(dfB, 0);
+        }
+        indexB.overlaps(startColumnA, endColumnA, rowsA, rowsB);
+        return new JoinRowIndices(rowsA.toArray(), rowsB.toArray());
+    }
+
+    private static NumberColumn<?, ?> getColumn(DataFrame dataFrame, String name) {
+        if (!(dataFrame.getColumn(name) instanceof NumberColumn)) {
+            throw new DataFrameRuntimeException(String.format("number column not found '%s'", name));
+        }
+        return dataFrame.getNumberColumn(name);
+    }
+
+    private static StaticIntervalIndex findIndex(DataFrame dataFrame, NumberColumn<?, ?> start, NumberColumn<?, ?> end) {
+        Index index = dataFrame.findIndex(start, end);
+        if (index instanceof StaticIntervalIndex && index.getColumns().get(0) == start) {
+            return (StaticIntervalIndex) index;
+        }
+        return null;
+    }
+}
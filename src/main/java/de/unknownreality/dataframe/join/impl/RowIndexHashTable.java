@@ -0,0 +1,105 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.common.CompositeKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the key values of one or more columns to the indices of all rows containing these values.
+ * Only the first row of each key is stored in a hash map, the following rows are chained using an int array.
+ * The chained rows are returned in ascending order.
+ */
+public class RowIndexHashTable {
+    private final Map<Object, Integer> firstRows;
+    private final int[] nextRows;
+
+    /**
+     * Creates the hash table for the first <tt>size</tt> rows of the key columns
+     *
+     * @param keyColumns key columns
+     * @param size       number of rows
+     */
+    public RowIndexHashTable(DataFrameColumn[] keyColumns, int size) {
+        this.firstRows = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        this.nextRows = new int[size];
+        for (int row = size - 1; row >= 0; row--) {
+            Integer next = firstRows.put(createKey(keyColumns, row), row);
+            nextRows[row] = next == null ? -1 : next;
+        }
+    }
+
+    /**
+     * Returns the first row with the specified key or <tt>-1</tt> if no row was found.
+     *
+     * @param key key created by {@link #createKey(DataFrameColumn[], int)}
+     * @return index of the first row
+     */
+    public int getFirstRow(Object key) {
+        Integer row = firstRows.get(key);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Returns the next row with the same key as the specified row or <tt>-1</tt> if there are no more rows.
+     *
+     * @param row current row
+     * @return index of the next row
+     */
+    public int getNextRow(int row) {
+        return nextRows[row];
+    }
+
+    /**
+     * Returns the number of distinct keys
+     *
+     * @return number of keys
+     */
+    public int keyCount() {
+        return firstRows.size();
+    }
+
+    /**
+     * Creates the key for a row.
+     * For a single column the value itself is used, otherwise a {@link CompositeKey}.
+     * <tt>NA</tt> values are represented by <tt>null</tt>.
+     *
+     * @param keyColumns key columns
+     * @param row        row index
+     * @return key of the row
+     */
+    public static Object createKey(DataFrameColumn[] keyColumns, int row) {
+        if (keyColumns.length == 1) {
+            return keyColumns[0].get(row);
+        }
+        Comparable[] values = new Comparable[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            values[i] = keyColumns[i].get(row);
+        }
+        return new CompositeKey(values);
+    }
+}
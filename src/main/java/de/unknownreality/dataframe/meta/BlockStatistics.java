@@ -0,0 +1,75 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.meta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Column statistics of a block of consecutive rows in a written data frame.
+ * Used to skip blocks that can not contain rows matching a filter predicate.
+ */
+public class BlockStatistics {
+    private final int from;
+    private final int size;
+    private final Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+
+    public BlockStatistics(int from, int size) {
+        this.from = from;
+        this.size = size;
+    }
+
+    /**
+     * Returns the index of the first row in this block
+     *
+     * @return first row index
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the number of rows in this block
+     *
+     * @return number of rows
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the statistics of a column in this block or <tt>null</tt> if no statistics are available
+     *
+     * @param name column name
+     * @return column statistics
+     */
+    public ColumnStatistics getColumnStatistics(String name) {
+        return columns.get(name);
+    }
+
+    public Map<String, ColumnStatistics> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.meta;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+
+/**
+ * Minimum, maximum and number of NA values of a column within a block of rows.
+ * Minimum and maximum are <tt>null</tt> if all values in the block are NA.
+ */
+public class ColumnStatistics {
+    private final Comparable min;
+    private final Comparable max;
+    private final int naCount;
+
+    public ColumnStatistics(Comparable min, Comparable max, int naCount) {
+        this.min = min;
+        this.max = max;
+        this.naCount = naCount;
+    }
+
+    /**
+     * Computes the statistics of the values in a range of a column.
+     * Values are ordered by their {@linkplain Comparable natural ordering}.
+     *
+     * @param column source column
+     * @param from   first row of the range
+     * @param to     end of the range (exclusive)
+     * @return statistics of the range
+     */
+    @SuppressWarnings("unchecked")
+    public static ColumnStatistics create(DataFrameColumn<?, ?> column, int from, int to) {
+        Comparable min = null;
+        Comparable max = null;
+        int naCount = 0;
+        for (int i = from; i < to; i++) {
+            if (column.isNA(i)) {
+                naCount++;
+                continue;
+            }
+            Comparable value = column.get(i);
+            if (min == null || value.compareTo(min) < 0) {
+                min = value;
+            }
+            if (max == null || value.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+        return new ColumnStatistics(min, max, naCount);
+    }
+
+    public Comparable getMin() {
+        return min;
+    }
+
+    public Comparable getMax() {
+        return max;
+    }
+
+    public int getNACount() {
+        return naCount;
+    }
+}
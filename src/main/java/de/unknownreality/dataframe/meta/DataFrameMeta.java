@@ -38,11 +38,13 @@ import java.util.*;
  */
 public class DataFrameMeta {
     public static final String META_FILE_EXTENSION = "dfm";
+    public static final int DEFAULT_STATISTICS_BLOCK_SIZE = 1 << 16;
 
     private Class<? extends ReadFormat> readFormatClass;
     private Map<String, String> attributes = new HashMap<>();
     private Map<String, Class<? extends DataFrameColumn>> columns = new LinkedHashMap<>();
     private int size = 0;
+    private List<BlockStatistics> blockStatistics = new ArrayList<>();
 
     /**
      * Creates data frame meta information
@@ -128,6 +130,41 @@ public class DataFrameMeta {
         return size;
     }
 
+    /**
+     * Returns the statistics of the row blocks of the data frame.
+     * The list is empty if no statistics were written.
+     *
+     * @return block statistics
+     */
+    public List<BlockStatistics> getBlockStatistics() {
+        return blockStatistics;
+    }
+
+    public void setBlockStatistics(List<BlockStatistics> blockStatistics) {
+        this.blockStatistics = blockStatistics;
+    }
+
+    /**
+     * Computes the statistics of consecutive row blocks for a list of columns
+     *
+     * @param columns   columns of a data frame
+     * @param blockSize number of rows per block
+     * @return block statistics
+     */
+    public static List<BlockStatistics> createBlockStatistics(List<DataFrameColumn> columns, int blockSize) {
+        List<BlockStatistics> statistics = new ArrayList<>();
+        int size = columns.isEmpty() ? 0 : columns.get(0).size();
+        for (int from = 0; from < size; from += blockSize) {
+            int to = Math.min(size, from + blockSize);
+            BlockStatistics block = new BlockStatistics(from, to - from);
+            for (DataFrameColumn<?, ?> column : columns) {
+                block.getColumns().put(column.getName(), ColumnStatistics.create(column, from, to));
+            }
+            statistics.add(block);
+        }
+        return statistics;
+    }
+
     public List<ColumnInformation> getColumnInformation(){
         List<ColumnInformation> columnInformations = new ArrayList<>();
         int i = 0;
@@ -26,6 +26,7 @@ package de.unknownreality.dataframe.meta;
 
 import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameException;
+import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.io.ReadFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,10 +40,8 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.TreeMap;
+import java.text.ParseException;
+import java.util.*;
 
 /**
  * Created by Alex on 07.06.2016.
@@ -210,6 +209,66 @@ public class DataFrameMetaReader {
     }
 
 
+    /**
+     * Extracts the block statistics from a xml document.
+     * Minimum and maximum values are parsed using the parser of the respective column type.
+     *
+     * @param doc     input doc
+     * @param columns columns map
+     * @return block statistics
+     * @throws DataFrameException thrown if the statistics can not be parsed
+     */
+    private static List<BlockStatistics> findBlockStatistics(Document doc, Map<String, Class<? extends DataFrameColumn>> columns) throws DataFrameException {
+        List<BlockStatistics> statistics = new ArrayList<>();
+        NodeList blockNodes = doc.getElementsByTagName("block");
+        Map<String, Parser<?>> parsers = new HashMap<>();
+        for (int i = 0; i < blockNodes.getLength(); i++) {
+            Element blockElement = (Element) blockNodes.item(i);
+            BlockStatistics block;
+            try {
+                block = new BlockStatistics(Integer.parseInt(blockElement.getAttribute("from")),
+                        Integer.parseInt(blockElement.getAttribute("size")));
+            } catch (NumberFormatException e) {
+                throw new DataFrameException("error parsing statistics block element", e);
+            }
+            NodeList columnNodes = blockElement.getElementsByTagName("column");
+            for (int j = 0; j < columnNodes.getLength(); j++) {
+                Element column = (Element) columnNodes.item(j);
+                String name = column.getAttribute("name");
+                Parser<?> parser = parsers.get(name);
+                if (parser == null && columns.containsKey(name)) {
+                    parser = getParser(columns.get(name));
+                    parsers.put(name, parser);
+                }
+                if (parser == null) {
+                    continue;
+                }
+                try {
+                    Comparable min = null;
+                    Comparable max = null;
+                    if (column.hasAttribute("min")) {
+                        min = (Comparable) parser.parse(column.getAttribute("min"));
+                        max = (Comparable) parser.parse(column.getAttribute("max"));
+                    }
+                    int naCount = Integer.parseInt(column.getAttribute("na"));
+                    block.getColumns().put(name, new ColumnStatistics(min, max, naCount));
+                } catch (ParseException | NumberFormatException e) {
+                    throw new DataFrameException(String.format("error parsing statistics of column '%s'", name), e);
+                }
+            }
+            statistics.add(block);
+        }
+        return statistics;
+    }
+
+    private static Parser<?> getParser(Class<? extends DataFrameColumn> columnClass) throws DataFrameException {
+        try {
+            return columnClass.newInstance().getParser();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new DataFrameException(String.format("error creating column of type '%s'", columnClass.getName()), e);
+        }
+    }
+
     /**
      * Creates a data frame meta from an input file
      *
@@ -281,7 +340,9 @@ public class DataFrameMetaReader {
         } else {
             throw new DataFrameException("error parsing columns element");
         }
-        return new DataFrameMeta(size,columns, readFormatClass, readerBuilderAttributes);
+        DataFrameMeta meta = new DataFrameMeta(size,columns, readFormatClass, readerBuilderAttributes);
+        meta.setBlockStatistics(findBlockStatistics(doc, columns));
+        return meta;
 
     }
 
@@ -38,6 +38,7 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.File;
+import java.util.Map;
 
 /**
  * Created by Alex on 07.06.2016.
@@ -98,6 +99,27 @@ public class DataFrameMetaWriter {
                 columns.appendChild(colAttribute);
             }
 
+            if (!metaFile.getBlockStatistics().isEmpty()) {
+                Element statistics = doc.createElement("statistics");
+                rootElement.appendChild(statistics);
+                for (BlockStatistics blockStatistics : metaFile.getBlockStatistics()) {
+                    Element block = doc.createElement("block");
+                    block.setAttribute("from", Integer.toString(blockStatistics.getFrom()));
+                    block.setAttribute("size", Integer.toString(blockStatistics.getSize()));
+                    for (Map.Entry<String, ColumnStatistics> e : blockStatistics.getColumns().entrySet()) {
+                        Element column = doc.createElement("column");
+                        column.setAttribute("name", e.getKey());
+                        column.setAttribute("na", Integer.toString(e.getValue().getNACount()));
+                        if (e.getValue().getMin() != null) {
+                            column.setAttribute("min", e.getValue().getMin().toString());
+                            column.setAttribute("max", e.getValue().getMax().toString());
+                        }
+                        block.appendChild(column);
+                    }
+                    statistics.appendChild(block);
+                }
+            }
+
             TransformerFactory transformerFactory = TransformerFactory.newInstance();
             Transformer transformer = transformerFactory.newTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
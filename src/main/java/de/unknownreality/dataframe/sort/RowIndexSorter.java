@@ -0,0 +1,588 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.sort;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorts the rows of a data frame by creating a permutation of the row indices.
+ * Values are accessed directly in the sort columns using typed comparators.
+ * Large data frames that are only sorted by number columns are sorted using a LSD radix sort.
+ * Like in {@link RowColumnComparator}, <tt>NA</tt> values are always put at the end, independent of the sort direction.
+ * All sorts are stable.
+ * </p>
+ * <p>
+ * Data frames with at least {@link #getParallelSortThreshold()} rows are sorted in parallel using the common {@link ForkJoinPool}.
+ * The radix sort then processes chunks of rows in parallel,
+ * other sorts use a fork/join merge sort with a parallel stable merge.
+ */
+public class RowIndexSorter {
+    /**
+     * Minimum number of rows for the radix sort
+     */
+    public static final int RADIX_SORT_THRESHOLD = 1024;
+    /**
+     * Default minimum number of rows for parallel sorting
+     */
+    public static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 17;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 13;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+    private static final int RADIX_PASSES = Long.SIZE / RADIX_BITS;
+
+    private static volatile int parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
+
+    private RowIndexSorter() {
+    }
+
+    /**
+     * Returns the minimum number of values for parallel sorting of data frames and columns
+     *
+     * @return minimum number of values for parallel sorting
+     */
+    public static int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * Sets the minimum number of values for parallel sorting of data frames and columns.
+     * {@link Integer#MAX_VALUE} disables parallel sorting.
+     *
+     * @param threshold minimum number of values for parallel sorting
+     */
+    public static void setParallelSortThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("parallel sort threshold must be greater than 0");
+        }
+        parallelSortThreshold = threshold;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the specified number of values should be sorted in parallel
+     *
+     * @param size number of values
+     * @return <tt>true</tt> if the values should be sorted in parallel
+     */
+    public static boolean isParallel(int size) {
+        return size >= parallelSortThreshold;
+    }
+
+    /**
+     * Compares two rows using their indices.
+     */
+    interface RowComparator {
+        int compare(int rowA, int rowB);
+    }
+
+    /**
+     * Returns the permutation of row indices that sorts a data frame by the specified sort columns.
+     * Index <tt>i</tt> of the permutation contains the index of the row that is moved to position <tt>i</tt>.
+     *
+     * @param dataFrame   data frame to sort
+     * @param sortColumns sort columns
+     * @return sorted row indices
+     */
+    public static int[] sort(DataFrame dataFrame, SortColumn... sortColumns) {
+        DataFrameColumn[] columns = new DataFrameColumn[sortColumns.length];
+        boolean[] descending = new boolean[sortColumns.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            columns[i] = dataFrame.getColumn(sortColumns[i].getName());
+            if (columns[i] == null) {
+                throw new DataFrameRuntimeException(String.format("sort column not found '%s'", sortColumns[i].getName()));
+            }
+            descending[i] = sortColumns[i].getDirection() == SortColumn.Direction.Descending;
+        }
+        return sort(columns, descending, dataFrame.size());
+    }
+
+    /**
+     * Returns the permutation of row indices that sorts the rows by the specified columns.
+     *
+     * @param columns    sort columns
+     * @param descending sort direction of each column, <tt>true</tt> for descending
+     * @param size       number of rows
+     * @return sorted row indices
+     */
+    public static int[] sort(DataFrameColumn[] columns, boolean[] descending, int size) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        boolean parallel = isParallel(size);
+        int chunkCount = parallel ? Math.max(1, Math.min(Math.max(2, ForkJoinPool.getCommonPoolParallelism()) * 4, size / MIN_PARALLEL_CHUNK_SIZE)) : 1;
+        if (size >= RADIX_SORT_THRESHOLD && isNumeric(columns)) {
+            if (chunkCount == 1) {
+                return radixSort(rows, columns, descending, 1);
+            }
+            return ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> radixSort(rows, columns, descending, chunkCount)));
+        }
+        RowComparator comparator = createComparator(columns, descending);
+        if (chunkCount == 1) {
+            mergeSort(rows, 0, size, new int[size], comparator);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(rows, new int[size], 0, size, size / chunkCount, comparator));
+        }
+        return rows;
+    }
+
+    private static boolean isNumeric(DataFrameColumn[] columns) {
+        for (DataFrameColumn column : columns) {
+            if (!(column instanceof NumberColumn)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a comparator for the rows of the specified columns
+     *
+     * @param columns    sort columns
+     * @param descending sort direction of each column, <tt>true</tt> for descending
+     * @return row comparator
+     */
+    static RowComparator createComparator(DataFrameColumn[] columns, boolean[] descending) {
+        if (columns.length == 1) {
+            return createComparator(columns[0], descending[0]);
+        }
+        final RowComparator[] comparators = new RowComparator[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            comparators[i] = createComparator(columns[i], descending[i]);
+        }
+        return (a, b) -> {
+            for (RowComparator comparator : comparators) {
+                int c = comparator.compare(a, b);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RowComparator createComparator(final DataFrameColumn column, final boolean descending) {
+        final RowComparator valueComparator;
+        if (column instanceof LongColumn) {
+            final LongColumn longColumn = (LongColumn) column;
+            valueComparator = (a, b) -> Long.compare(longColumn.getLong(a), longColumn.getLong(b));
+        } else if (column instanceof NumberColumn) {
+            final NumberColumn<?, ?> numberColumn = (NumberColumn<?, ?>) column;
+            valueComparator = (a, b) -> Double.compare(numberColumn.getDouble(a), numberColumn.getDouble(b));
+        } else {
+            valueComparator = (a, b) -> column.get(a).compareTo(column.get(b));
+        }
+        return (a, b) -> {
+            boolean naA = column.isNA(a);
+            boolean naB = column.isNA(b);
+            if (naA || naB) {
+                return naA == naB ? 0 : (naA ? 1 : -1);
+            }
+            int c = valueComparator.compare(a, b);
+            return descending ? -c : c;
+        };
+    }
+
+    /**
+     * Stable merge sort of a range of row indices.
+     *
+     * @param rows       row indices
+     * @param from       first index of the range (inclusive)
+     * @param to         last index of the range (exclusive)
+     * @param buffer     buffer with at least the size of the rows array
+     * @param comparator row comparator
+     */
+    static void mergeSort(int[] rows, int from, int to, int[] buffer, RowComparator comparator) {
+        for (int start = from; start < to; start += INSERTION_SORT_THRESHOLD) {
+            insertionSort(rows, start, Math.min(start + INSERTION_SORT_THRESHOLD, to), comparator);
+        }
+        for (int width = INSERTION_SORT_THRESHOLD; width < to - from; width *= 2) {
+            for (int start = from; start < to - width; start += 2 * width) {
+                merge(rows, start, start + width, Math.min(start + 2 * width, to), buffer, comparator);
+            }
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted ranges of row indices.
+     *
+     * @param rows       row indices
+     * @param from       start of the first range
+     * @param mid        start of the second range
+     * @param to         end of the second range
+     * @param buffer     buffer with at least the size of the rows array
+     * @param comparator row comparator
+     */
+    static void merge(int[] rows, int from, int mid, int to, int[] buffer, RowComparator comparator) {
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < mid && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[k] = buffer[left++];
+            } else {
+                rows[k] = buffer[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(int[] rows, int from, int to, RowComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+
+    /**
+     * Fork/join merge sort. Ranges are split until they are smaller than the granularity,
+     * sorted sequentially and merged in parallel.
+     */
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] rows;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final int granularity;
+        private final RowComparator comparator;
+
+        SortTask(int[] rows, int[] buffer, int from, int to, int granularity, RowComparator comparator) {
+            this.rows = rows;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= granularity) {
+                mergeSort(rows, from, to, buffer, comparator);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(rows, buffer, from, mid, granularity, comparator),
+                    new SortTask(rows, buffer, mid, to, granularity, comparator));
+            if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(rows, from, buffer, from, to - from);
+            new MergeTask(buffer, from, mid, mid, to, rows, from, granularity, comparator).compute();
+        }
+    }
+
+    /**
+     * Stable parallel merge of two sorted ranges into a target array.
+     * The larger range is split at its middle value and the other range at the matching position,
+     * both parts are merged independently.
+     */
+    private static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] source;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int[] target;
+        private final int targetFrom;
+        private final int granularity;
+        private final RowComparator comparator;
+
+        MergeTask(int[] source, int leftFrom, int leftTo, int rightFrom, int rightTo,
+                  int[] target, int targetFrom, int granularity, RowComparator comparator) {
+            this.source = source;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.target = target;
+            this.targetFrom = targetFrom;
+            this.granularity = granularity;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            int leftSize = leftTo - leftFrom;
+            int rightSize = rightTo - rightFrom;
+            if (leftSize + rightSize <= granularity) {
+                mergeSequential();
+                return;
+            }
+            int leftSplit;
+            int rightSplit;
+            if (leftSize >= rightSize) {
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                rightSplit = search(source[leftSplit], rightFrom, rightTo, false);
+            } else {
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                leftSplit = search(source[rightSplit], leftFrom, leftTo, true);
+            }
+            int targetSplit = targetFrom + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+            invokeAll(new MergeTask(source, leftFrom, leftSplit, rightFrom, rightSplit, target, targetFrom, granularity, comparator),
+                    new MergeTask(source, leftSplit, leftTo, rightSplit, rightTo, target, targetSplit, granularity, comparator));
+        }
+
+        /**
+         * Returns the first position in a range with a value greater than (<tt>upper</tt>)
+         * or greater or equal (<tt>!upper</tt>) to the specified row.
+         * Equal values of the left range are kept before equal values of the right range.
+         */
+        private int search(int row, int from, int to, boolean upper) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int c = comparator.compare(source[mid], row);
+                if (c < 0 || (upper && c == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void mergeSequential() {
+            int left = leftFrom;
+            int right = rightFrom;
+            int k = targetFrom;
+            while (left < leftTo && right < rightTo) {
+                if (comparator.compare(source[left], source[right]) <= 0) {
+                    target[k++] = source[left++];
+                } else {
+                    target[k++] = source[right++];
+                }
+            }
+            while (left < leftTo) {
+                target[k++] = source[left++];
+            }
+            while (right < rightTo) {
+                target[k++] = source[right++];
+            }
+        }
+    }
+
+    /**
+     * Runs an action for each chunk. Chunks are processed in parallel if there is more than one chunk,
+     * this must only happen inside of a {@link ForkJoinPool} computation.
+     */
+    private static void forEachChunk(int chunkCount, IntConsumer action) {
+        if (chunkCount == 1) {
+            action.accept(0);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            final int chunk = i;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(chunk)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * LSD radix sort. The rows are sorted by each column, starting with the last one.
+     * Each column is sorted by 8 bit digits of a key that preserves the order of the values,
+     * digits that are equal for all rows are skipped.
+     * <tt>NA</tt> values are moved to the end afterwards.
+     * The rows are split into chunks, each chunk counts and scatters its keys independently.
+     */
+    private static int[] radixSort(int[] rows, DataFrameColumn[] columns, boolean[] descending, int chunkCount) {
+        final int size = rows.length;
+        final int chunkSize = (size + chunkCount - 1) / chunkCount;
+        int[] rowsBuffer = new int[size];
+        long[] keys = new long[size];
+        long[] keysBuffer = new long[size];
+        final int[][] chunkCounts = new int[chunkCount][RADIX_BUCKETS];
+        final int[][][] chunkTotals = new int[chunkCount][RADIX_PASSES][RADIX_BUCKETS];
+        final boolean[] chunkHasNA = new boolean[chunkCount];
+        for (int c = columns.length - 1; c >= 0; c--) {
+            final NumberColumn<?, ?> column = (NumberColumn<?, ?>) columns[c];
+            final boolean columnDescending = descending[c];
+            final int[] fillRows = rows;
+            final long[] fillKeys = keys;
+            forEachChunk(chunkCount, chunk -> {
+                int from = chunk * chunkSize;
+                int to = Math.min(from + chunkSize, size);
+                chunkHasNA[chunk] = fillKeys(column, columnDescending, fillRows, fillKeys, from, to, chunkTotals[chunk]);
+            });
+            boolean hasNA = false;
+            for (boolean chunkNA : chunkHasNA) {
+                hasNA |= chunkNA;
+            }
+            for (int p = 0; p < RADIX_PASSES; p++) {
+                final int shift = p * RADIX_BITS;
+                int firstBucket = (int) (keys[0] >>> shift) & (RADIX_BUCKETS - 1);
+                int firstBucketSize = 0;
+                for (int[][] totals : chunkTotals) {
+                    firstBucketSize += totals[p][firstBucket];
+                }
+                if (firstBucketSize == size) {
+                    continue;
+                }
+                final int[] sourceRows = rows;
+                final long[] sourceKeys = keys;
+                final int[] targetRows = rowsBuffer;
+                final long[] targetKeys = keysBuffer;
+                if (chunkCount == 1) {
+                    System.arraycopy(chunkTotals[0][p], 0, chunkCounts[0], 0, RADIX_BUCKETS);
+                } else {
+                    forEachChunk(chunkCount, chunk -> {
+                        int[] count = chunkCounts[chunk];
+                        Arrays.fill(count, 0);
+                        int to = Math.min(chunk * chunkSize + chunkSize, size);
+                        for (int i = chunk * chunkSize; i < to; i++) {
+                            count[(int) (sourceKeys[i] >>> shift) & (RADIX_BUCKETS - 1)]++;
+                        }
+                    });
+                }
+                int offset = 0;
+                for (int b = 0; b < RADIX_BUCKETS; b++) {
+                    for (int[] count : chunkCounts) {
+                        int bucketSize = count[b];
+                        count[b] = offset;
+                        offset += bucketSize;
+                    }
+                }
+                forEachChunk(chunkCount, chunk -> {
+                    int[] count = chunkCounts[chunk];
+                    int to = Math.min(chunk * chunkSize + chunkSize, size);
+                    for (int i = chunk * chunkSize; i < to; i++) {
+                        long key = sourceKeys[i];
+                        int target = count[(int) (key >>> shift) & (RADIX_BUCKETS - 1)]++;
+                        targetKeys[target] = key;
+                        targetRows[target] = sourceRows[i];
+                    }
+                });
+                keys = targetKeys;
+                keysBuffer = sourceKeys;
+                rows = targetRows;
+                rowsBuffer = sourceRows;
+            }
+            if (hasNA) {
+                final int[] sourceRows = rows;
+                final int[] targetRows = rowsBuffer;
+                final int[] naCounts = new int[chunkCount];
+                forEachChunk(chunkCount, chunk -> {
+                    int to = Math.min(chunk * chunkSize + chunkSize, size);
+                    for (int i = chunk * chunkSize; i < to; i++) {
+                        if (column.isNA(sourceRows[i])) {
+                            naCounts[chunk]++;
+                        }
+                    }
+                });
+                final int[] valueOffsets = new int[chunkCount];
+                final int[] naOffsets = new int[chunkCount];
+                int valueOffset = 0;
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    valueOffsets[chunk] = valueOffset;
+                    valueOffset += Math.max(0, Math.min(chunkSize, size - chunk * chunkSize)) - naCounts[chunk];
+                }
+                int naOffset = valueOffset;
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    naOffsets[chunk] = naOffset;
+                    naOffset += naCounts[chunk];
+                }
+                forEachChunk(chunkCount, chunk -> {
+                    int valueTarget = valueOffsets[chunk];
+                    int naTarget = naOffsets[chunk];
+                    int to = Math.min(chunk * chunkSize + chunkSize, size);
+                    for (int i = chunk * chunkSize; i < to; i++) {
+                        int row = sourceRows[i];
+                        if (column.isNA(row)) {
+                            targetRows[naTarget++] = row;
+                        } else {
+                            targetRows[valueTarget++] = row;
+                        }
+                    }
+                });
+                rows = targetRows;
+                rowsBuffer = sourceRows;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Fills the radix keys of a column for a range of rows in the current row order
+     * and counts the digits of the keys for all radix passes.
+     * The unsigned order of the keys equals the order of the values.
+     *
+     * @return <tt>true</tt> if the range contains <tt>NA</tt> values
+     */
+    private static boolean fillKeys(NumberColumn<?, ?> column, boolean descending, int[] rows, long[] keys,
+                                    int from, int to, int[][] counts) {
+        for (int[] count : counts) {
+            Arrays.fill(count, 0);
+        }
+        boolean hasNA = false;
+        boolean floating = column.getType() == Double.class || column.getType() == Float.class;
+        LongColumn longColumn = column instanceof LongColumn ? (LongColumn) column : null;
+        for (int i = from; i < to; i++) {
+            int row = rows[i];
+            long key;
+            if (column.isNA(row)) {
+                hasNA = true;
+                key = 0;
+            } else if (floating) {
+                long bits = Double.doubleToLongBits(column.getDouble(row));
+                key = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+            } else if (longColumn != null) {
+                key = longColumn.getLong(row) ^ Long.MIN_VALUE;
+            } else {
+                key = ((long) column.getDouble(row)) ^ Long.MIN_VALUE;
+            }
+            if (descending) {
+                key = ~key;
+            }
+            keys[i] = key;
+            for (int p = 0; p < RADIX_PASSES; p++) {
+                counts[p][(int) (key >>> (p * RADIX_BITS)) & (RADIX_BUCKETS - 1)]++;
+            }
+        }
+        return hasNA;
+    }
+}
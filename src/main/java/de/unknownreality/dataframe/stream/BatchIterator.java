@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.stream;
+
+import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.io.ColumnInformation;
+import de.unknownreality.dataframe.io.DataIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Data iterator returning at most <tt>batchSize</tt> rows of a parent data iterator.
+ * The parent iterator is not consumed beyond the returned rows,
+ * so consecutive batch iterators over the same parent iterator return consecutive batches.
+ */
+class BatchIterator<R extends Row> implements DataIterator<R> {
+    private final Iterator<R> rows;
+    private final List<ColumnInformation> columnsInformation;
+    private final int batchSize;
+    private int count = 0;
+
+    BatchIterator(Iterator<R> rows, List<ColumnInformation> columnsInformation, int batchSize) {
+        this.rows = rows;
+        this.columnsInformation = columnsInformation;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the number of rows returned by this batch iterator
+     *
+     * @return number of rows
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public List<ColumnInformation> getColumnsInformation() {
+        return columnsInformation;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return count < batchSize && rows.hasNext();
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("end of batch reached");
+        }
+        count++;
+        return rows.next();
+    }
+
+    @Override
+    public Iterator<R> iterator() {
+        return this;
+    }
+}
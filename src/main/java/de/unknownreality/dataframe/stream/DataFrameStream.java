@@ -0,0 +1,337 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.stream;
+
+import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.io.ColumnInformation;
+import de.unknownreality.dataframe.io.DataIterator;
+import de.unknownreality.dataframe.io.DataReader;
+import de.unknownreality.dataframe.io.DataWriter;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lazy pipeline over the rows of a {@link DataIterator}.
+ * The rows are converted into data frames of at most <tt>batchSize</tt> rows, the operations of the pipeline
+ * are applied to each batch when a terminal operation ({@link #forEach(Consumer)}, {@link #count()},
+ * {@link #collect()}, {@link #write(File, DataWriter)} or {@link StreamGrouping#collect()}) is called.
+ * Only one batch is held in memory at a time, so files larger than the heap can be filtered, projected,
+ * aggregated and written.
+ * <p>
+ * Column types are inferred for each batch, so a column can have different types in different batches.
+ * {@link #collect()} and {@link StreamGrouping#collect()} promote differing types to a common type
+ * (see {@link TypeInference}), values promoted to <tt>String</tt> use the string representation of their parsed value.
+ * A filter that directly follows the source is evaluated while the rows are parsed.
+ * </p>
+ * <p>
+ * Like {@link java.util.stream.Stream}, a data frame stream can only be consumed once.
+ * Operations return new streams sharing the same source.
+ * </p>
+ * <pre>
+ * DataFrameStream.of(new File("large.csv"), CSVReaderBuilder.create().withSeparator(';').build())
+ *     .filter("value &gt; 10")
+ *     .selectColumns("name", "value")
+ *     .groupBy("name")
+ *     .agg("sum", Aggregate.sum("value"))
+ *     .collect();
+ * </pre>
+ */
+public class DataFrameStream implements Iterable<DataFrame> {
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+    private final Function<FilterPredicate, Iterator<DataFrame>> source;
+    private final FilterPredicate sourcePredicate;
+    private final List<MapFunction<DataFrame>> stages;
+    private final AtomicBoolean consumed;
+
+    private DataFrameStream(Function<FilterPredicate, Iterator<DataFrame>> source, FilterPredicate sourcePredicate,
+                            List<MapFunction<DataFrame>> stages, AtomicBoolean consumed) {
+        this.source = source;
+        this.sourcePredicate = sourcePredicate;
+        this.stages = stages;
+        this.consumed = consumed;
+    }
+
+    /**
+     * Creates a stream over the rows of a data iterator using the {@link #DEFAULT_BATCH_SIZE default batch size}.
+     *
+     * @param dataIterator data iterator
+     * @param <R>          row type
+     * @return data frame stream
+     */
+    public static <R extends Row> DataFrameStream of(DataIterator<R> dataIterator) {
+        return of(dataIterator, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a stream over the rows of a data iterator.
+     *
+     * @param dataIterator data iterator
+     * @param batchSize    maximum number of rows per batch
+     * @param <R>          row type
+     * @return data frame stream
+     */
+    public static <R extends Row> DataFrameStream of(DataIterator<R> dataIterator, int batchSize) {
+        return of(dataIterator, null, batchSize);
+    }
+
+    /**
+     * Creates a stream over the rows of a data iterator.
+     * If no column information is defined, the one specified by the data iterator is used.
+     *
+     * @param dataIterator       data iterator
+     * @param columnsInformation column information
+     * @param batchSize          maximum number of rows per batch
+     * @param <R>                row type
+     * @return data frame stream
+     */
+    public static <R extends Row> DataFrameStream of(final DataIterator<R> dataIterator, List<ColumnInformation> columnsInformation, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new DataFrameRuntimeException(String.format("invalid batch size: %d", batchSize));
+        }
+        final List<ColumnInformation> information = new ArrayList<>(
+                columnsInformation == null ? dataIterator.getColumnsInformation() : columnsInformation);
+        information.sort(Comparator.comparingInt(ColumnInformation::getIndex));
+        return new DataFrameStream(predicate -> new Batches<>(dataIterator, information, batchSize, predicate),
+                FilterPredicate.EMPTY_FILTER, Collections.emptyList(), new AtomicBoolean());
+    }
+
+    /**
+     * Creates a stream over the rows of a file using the {@link #DEFAULT_BATCH_SIZE default batch size}.
+     *
+     * @param file       input file
+     * @param dataReader reader used to read the file
+     * @return data frame stream
+     */
+    public static DataFrameStream of(File file, DataReader<?, ?> dataReader) {
+        return of(dataReader.load(file), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Returns a stream containing only the rows validated by a predicate.
+     *
+     * @param predicate filter predicate
+     * @return filtered stream
+     */
+    public DataFrameStream filter(final FilterPredicate predicate) {
+        if (stages.isEmpty()) {
+            return new DataFrameStream(source, sourcePredicate == FilterPredicate.EMPTY_FILTER
+                    ? predicate : sourcePredicate.and(predicate), stages, consumed);
+        }
+        return then(batch -> batch.filter(predicate));
+    }
+
+    /**
+     * Returns a stream containing only the rows validated by a predicate string.
+     *
+     * @param predicateString filter predicate string
+     * @return filtered stream
+     * @see FilterPredicate#compile(String)
+     */
+    public DataFrameStream filter(String predicateString) {
+        return filter(FilterPredicate.compile(predicateString));
+    }
+
+    /**
+     * Returns a stream containing only the specified columns.
+     *
+     * @param columnNames names of the selected columns
+     * @return projected stream
+     */
+    public DataFrameStream selectColumns(final String... columnNames) {
+        return then(batch -> batch.selectColumns(columnNames).allRows());
+    }
+
+    /**
+     * Returns a stream that applies a function to each batch.
+     * The function may modify and return its input batch or return a new data frame,
+     * all returned batches must contain the same columns.
+     *
+     * @param mapFunction function applied to each batch
+     * @return mapped stream
+     */
+    public DataFrameStream map(MapFunction<DataFrame> mapFunction) {
+        return then(mapFunction);
+    }
+
+    /**
+     * Groups the rows of this stream by one or more columns.
+     * Aggregates are calculated incrementally for each batch.
+     *
+     * @param columnNames group columns
+     * @return stream grouping
+     */
+    public StreamGrouping groupBy(String... columnNames) {
+        return new StreamGrouping(this, columnNames);
+    }
+
+    /**
+     * Passes each batch of this stream to a consumer.
+     *
+     * @param consumer batch consumer
+     */
+    @Override
+    public void forEach(Consumer<? super DataFrame> consumer) {
+        Iterator<DataFrame> batches = iterator();
+        while (batches.hasNext()) {
+            consumer.accept(batches.next());
+        }
+    }
+
+    /**
+     * Returns the number of rows in this stream.
+     *
+     * @return number of rows
+     */
+    public long count() {
+        long count = 0;
+        Iterator<DataFrame> batches = iterator();
+        while (batches.hasNext()) {
+            count += batches.next().size();
+        }
+        return count;
+    }
+
+    /**
+     * Collects all rows of this stream into one data frame.
+     * Differing column types of the batches are promoted to a common type.
+     *
+     * @return data frame containing all rows
+     */
+    public DataFrame collect() {
+        List<DataFrameColumn[]> parts = new ArrayList<>();
+        forEach(batch -> parts.add(batch.getColumns().toArray(new DataFrameColumn[0])));
+        return DataFrameConverter.fromColumnParts(parts.toArray(new DataFrameColumn[0][]), FilterPredicate.EMPTY_FILTER);
+    }
+
+    /**
+     * Writes all rows of this stream to a file.
+     *
+     * @param file       target file
+     * @param dataWriter data writer
+     */
+    public void write(File file, DataWriter dataWriter) {
+        dataWriter.write(file, new StreamDataContainer(iterator()));
+    }
+
+    /**
+     * Writes all rows of this stream to a writer.
+     *
+     * @param writer     target writer
+     * @param dataWriter data writer
+     */
+    public void write(Writer writer, DataWriter dataWriter) {
+        dataWriter.write(writer, new StreamDataContainer(iterator()));
+    }
+
+    /**
+     * Writes all rows of this stream to an output stream.
+     *
+     * @param outputStream target output stream
+     * @param dataWriter   data writer
+     */
+    public void write(OutputStream outputStream, DataWriter dataWriter) {
+        dataWriter.write(outputStream, new StreamDataContainer(iterator()));
+    }
+
+    /**
+     * Returns an iterator over the batches of this stream.
+     * At least one, possibly empty, batch is returned.
+     *
+     * @return batch iterator
+     */
+    @Override
+    public Iterator<DataFrame> iterator() {
+        if (!consumed.compareAndSet(false, true)) {
+            throw new DataFrameRuntimeException("data frame stream has already been consumed");
+        }
+        final Iterator<DataFrame> batches = source.apply(sourcePredicate);
+        return new Iterator<DataFrame>() {
+            @Override
+            public boolean hasNext() {
+                return batches.hasNext();
+            }
+
+            @Override
+            public DataFrame next() {
+                DataFrame batch = batches.next();
+                for (MapFunction<DataFrame> stage : stages) {
+                    batch = stage.map(batch);
+                }
+                return batch;
+            }
+        };
+    }
+
+    private DataFrameStream then(MapFunction<DataFrame> stage) {
+        List<MapFunction<DataFrame>> next = new ArrayList<>(stages);
+        next.add(stage);
+        return new DataFrameStream(source, sourcePredicate, next, consumed);
+    }
+
+    /**
+     * Converts the rows of a data iterator into batches.
+     * The column types of autodetected columns are inferred for each batch.
+     */
+    private static class Batches<R extends Row> implements Iterator<DataFrame> {
+        private final DataIterator<R> dataIterator;
+        private final Iterator<R> rows;
+        private final int batchSize;
+        private final FilterPredicate predicate;
+        private final List<ColumnInformation> columnsInformation;
+        private boolean first = true;
+
+        Batches(DataIterator<R> dataIterator, List<ColumnInformation> columnsInformation, int batchSize, FilterPredicate predicate) {
+            this.dataIterator = dataIterator;
+            this.rows = dataIterator.iterator();
+            this.columnsInformation = columnsInformation;
+            this.batchSize = batchSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return first || rows.hasNext();
+        }
+
+        @Override
+        public DataFrame next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("end of stream reached");
+            }
+            first = false;
+            BatchIterator<R> batch = new BatchIterator<>(rows, dataIterator.getColumnsInformation(), batchSize);
+            return DataFrameConverter.fromDataIterator(batch, batchSize,
+                    new ArrayList<>(columnsInformation), predicate);
+        }
+    }
+}
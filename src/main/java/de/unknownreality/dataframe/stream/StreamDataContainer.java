@@ -0,0 +1,97 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.stream;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameHeader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.common.DataContainer;
+import de.unknownreality.dataframe.common.mapping.DataMapper;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Data container returning the rows of all batches of a {@link DataFrameStream}.
+ * Batches are read when their rows are accessed and released afterwards,
+ * so a {@link de.unknownreality.dataframe.io.DataWriter} only holds one batch in memory.
+ * The rows can be iterated once.
+ * The header contains the column types of the first batch, the values of later batches keep their own types.
+ */
+class StreamDataContainer implements DataContainer<DataFrameHeader, DataRow> {
+    private final Iterator<DataFrame> batches;
+    private final DataFrameHeader header;
+    private DataFrame first;
+
+    StreamDataContainer(Iterator<DataFrame> batches) {
+        this.batches = batches;
+        this.first = batches.next();
+        this.header = first.getHeader();
+    }
+
+    @Override
+    public DataFrameHeader getHeader() {
+        return header;
+    }
+
+    @Override
+    public <T> List<T> map(Class<T> cl) {
+        return DataMapper.map(this, cl);
+    }
+
+    @Override
+    public Iterator<DataRow> iterator() {
+        if (first == null) {
+            throw new DataFrameRuntimeException("the rows of a data frame stream can only be iterated once");
+        }
+        final DataFrame firstBatch = first;
+        first = null;
+        return new Iterator<DataRow>() {
+            private DataFrame batch = firstBatch;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index == batch.size()) {
+                    if (!batches.hasNext()) {
+                        return false;
+                    }
+                    batch = batches.next();
+                    index = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public DataRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("end of stream reached");
+                }
+                return batch.getRow(index++);
+            }
+        };
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package de.unknownreality.dataframe.stream;
+
+import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.common.CompositeKey;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.AccumulatorFunction;
+
+import java.util.*;
+
+/**
+ * Grouping of the rows of a {@link DataFrameStream}.
+ * Only {@link AccumulatorFunction accumulator functions} can be used as aggregates, their accumulators
+ * are updated with the rows of each batch and merged with the state of the previous batches.
+ * The memory required is proportional to the number of groups, not to the number of rows.
+ * </p>
+ * <p>
+ * The accumulators are {@link Accumulator#detach() detached} after each batch, so that only their state is kept
+ * and a batch can be released before the next batch is read.
+ * </p>
+ * <p>
+ * If a group column has different types in different batches, the group values are promoted to a common type
+ * (see {@link TypeInference}) and groups with equal promoted values are merged.
+ */
+public class StreamGrouping {
+    private final DataFrameStream stream;
+    private final String[] groupColumns;
+    private final List<String> names = new ArrayList<>();
+    private final List<AccumulatorFunction<?>> functions = new ArrayList<>();
+
+    StreamGrouping(DataFrameStream stream, String... groupColumns) {
+        this.stream = stream;
+        this.groupColumns = groupColumns;
+    }
+
+    /**
+     * Adds an aggregate column to the grouping.
+     *
+     * @param columnName name of the aggregate column
+     * @param fun        accumulator function
+     * @return <tt>self</tt> for method chaining
+     */
+    public StreamGrouping agg(String columnName, AccumulatorFunction<?> fun) {
+        names.add(columnName);
+        functions.add(fun);
+        return this;
+    }
+
+    /**
+     * Consumes the stream and returns a data frame containing one row for each group.
+     * The data frame contains the group columns followed by the aggregate columns,
+     * groups are ordered by their first occurrence.
+     *
+     * @return aggregated data frame
+     */
+    @SuppressWarnings("unchecked")
+    public DataFrame collect() {
+        Map<CompositeKey, Group> groups = new LinkedHashMap<>();
+        final DataFrameColumn[] keyColumns = new DataFrameColumn[groupColumns.length];
+        for (DataFrame batch : stream) {
+            DataFrameColumn[] columns = new DataFrameColumn[groupColumns.length];
+            DataFrameColumn[] keys = new DataFrameColumn[groupColumns.length];
+            for (int i = 0; i < groupColumns.length; i++) {
+                columns[i] = batch.getColumn(groupColumns[i]);
+                keys[i] = columns[i];
+                if (keyColumns[i] == null) {
+                    keyColumns[i] = columns[i].copyEmpty();
+                } else if (!columns[i].getType().equals(keyColumns[i].getType())) {
+                    Class<?> type = TypeInference.getCommonType(keyColumns[i].getType(), columns[i].getType());
+                    if (!type.equals(keyColumns[i].getType())) {
+                        keyColumns[i] = TypeInference.promote(keyColumns[i], type);
+                        groups = promoteKeys(groups, keyColumns);
+                    }
+                    keys[i] = TypeInference.promote(columns[i], type);
+                }
+            }
+            Map<CompositeKey, Accumulator[]> bound = new HashMap<>();
+            for (int r = 0; r < batch.size(); r++) {
+                Comparable[] values = new Comparable[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    values[i] = keys[i].isNA(r) ? Values.NA : keys[i].get(r);
+                }
+                CompositeKey key = new CompositeKey(values);
+                Accumulator[] accumulators = bound.get(key);
+                if (accumulators == null) {
+                    Group group = groups.get(key);
+                    if (group == null) {
+                        Comparable[] original = new Comparable[columns.length];
+                        for (int i = 0; i < columns.length; i++) {
+                            original[i] = columns[i].isNA(r) ? Values.NA : columns[i].get(r);
+                        }
+                        group = new Group(original);
+                        groups.put(key, group);
+                    }
+                    accumulators = new Accumulator[functions.size()];
+                    for (int i = 0; i < accumulators.length; i++) {
+                        accumulators[i] = functions.get(i).init(batch);
+                        if (group.accumulators != null) {
+                            accumulators[i].merge(group.accumulators[i]);
+                        }
+                    }
+                    group.accumulators = accumulators;
+                    bound.put(key, accumulators);
+                }
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.accumulate(r);
+                }
+            }
+            for (Accumulator[] accumulators : bound.values()) {
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.detach();
+                }
+            }
+        }
+        DataFrame result = new DefaultDataFrame();
+        for (DataFrameColumn keyColumn : keyColumns) {
+            keyColumn.setCapacity(groups.size());
+        }
+        for (CompositeKey key : groups.keySet()) {
+            Comparable[] values = key.getValues();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == Values.NA) {
+                    keyColumns[i].appendNA();
+                } else {
+                    keyColumns[i].append(values[i]);
+                }
+            }
+        }
+        for (DataFrameColumn keyColumn : keyColumns) {
+            result.addColumn(keyColumn);
+        }
+        for (int f = 0; f < functions.size(); f++) {
+            List<Comparable> values = new ArrayList<>(groups.size());
+            for (Group group : groups.values()) {
+                values.add((Comparable) group.accumulators[f].finish());
+            }
+            result.addColumn(createColumn(names.get(f), values));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the keys of all groups from their first values promoted to the types of the key columns.
+     * Groups with equal promoted keys are merged into the group that occurred first.
+     *
+     * @param groups     groups
+     * @param keyColumns key columns defining the key types
+     * @return groups with promoted keys
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<CompositeKey, Group> promoteKeys(Map<CompositeKey, Group> groups, DataFrameColumn[] keyColumns) {
+        Map<CompositeKey, Group> promoted = new LinkedHashMap<>();
+        for (Group group : groups.values()) {
+            Comparable[] values = new Comparable[group.values.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = group.values[i] == Values.NA ? Values.NA
+                        : (Comparable) TypeInference.promoteValue(group.values[i], keyColumns[i].getType());
+            }
+            CompositeKey key = new CompositeKey(values);
+            Group first = promoted.get(key);
+            if (first == null) {
+                promoted.put(key, group);
+            } else {
+                for (int i = 0; i < first.accumulators.length; i++) {
+                    first.accumulators[i].merge(group.accumulators[i]);
+                }
+            }
+        }
+        return promoted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataFrameColumn createColumn(String name, List<Comparable> values) {
+        Class<? extends Comparable> type = null;
+        for (Comparable value : values) {
+            if (value != null && !Values.NA.isNA(value)) {
+                type = type == null ? value.getClass() : (Class) TypeInference.getCommonType(type, value.getClass());
+            }
+        }
+        if (type == null) {
+            type = String.class;
+        }
+        Class<? extends DataFrameColumn> columnType = ColumnTypeMap.get((Class) type);
+        if (columnType == null) {
+            throw new DataFrameRuntimeException(String.format("no column type found for value type '%s'", type.getCanonicalName()));
+        }
+        DataFrameColumn column;
+        try {
+            column = columnType.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", columnType.getCanonicalName()), e);
+        }
+        column.setName(name);
+        column.setCapacity(values.size());
+        for (Comparable value : values) {
+            if (value == null || Values.NA.isNA(value)) {
+                column.appendNA();
+            } else {
+                column.append(TypeInference.promoteValue(value, type));
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Accumulators of a group and the group values of its first row
+     */
+    private static class Group {
+        private final Comparable[] values;
+        private Accumulator[] accumulators;
+
+        Group(Comparable[] values) {
+            this.values = values;
+        }
+    }
+}
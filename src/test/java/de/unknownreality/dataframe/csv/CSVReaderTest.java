@@ -23,13 +23,30 @@
 package de.unknownreality.dataframe.csv;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameLoader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.TypeInference;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.aggr.AccumulatorFunction;
+import de.unknownreality.dataframe.group.aggr.Aggregate;
+import de.unknownreality.dataframe.stream.DataFrameStream;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -165,4 +182,379 @@ public class CSVReaderTest {
     }
 
 
+
+    @Test
+    public void testParallelReading() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("// comment\n\n#A;B;C;D;E\n");
+        for (int i = 0; i < 2000; i++) {
+            if (i % 97 == 0) {
+                sb.append("\n// comment\n");
+            }
+            sb.append(i).append(';');
+            sb.append(i % 13 == 0 ? "NA" : "\"v;" + i + "\"").append(';');
+            sb.append(i < 1900 ? Integer.toString(i * 3) : (i * 1.5) + "").append(';');
+            sb.append(i % 7 == 0 ? "" : Long.toString(i * 10000000000L)).append(';');
+            sb.append(i % 2 == 0).append('\n');
+        }
+        File file = File.createTempFile("dataframe", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(sb.toString());
+        }
+        CSVReaderBuilder builder = CSVFormat.createReader()
+                .withHeaderPrefix("#")
+                .withSeparator(';')
+                .addSkipPrefix("//")
+                .ignoreColumn("E");
+        long minPartSize = ParallelCSVReader.getMinPartSize();
+        try {
+            ParallelCSVReader.setMinPartSize(1000);
+            CSVSettings settings = new CSVSettings();
+            settings.setSkipPrefixes(Collections.singletonList("//"));
+            long[] bounds = ParallelCSVReader.findPartBounds(file, settings);
+            Assert.assertTrue(bounds.length > 3);
+            DataFrame expected = DataFrame.load(file, builder.build());
+            DataFrame parallel = DataFrame.load(file, builder.withParallelReading(true).build());
+            Assert.assertEquals(2000, expected.size());
+            Assert.assertEquals(expected.getHeader(), parallel.getHeader());
+            Assert.assertEquals(Double.class, parallel.getHeader().getType("C"));
+            for (int i = 0; i < expected.size(); i++) {
+                for (int j = 0; j < expected.getColumns().size(); j++) {
+                    Assert.assertEquals(expected.getValue(j, i), parallel.getValue(j, i));
+                }
+            }
+        } finally {
+            ParallelCSVReader.setMinPartSize(minPartSize);
+        }
+    }
+
+    @Test
+    public void testMappedReading() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("// comment\r\n\r\n#A;B;C;D;E;F\r\n");
+        for (int i = 0; i < 2000; i++) {
+            if (i % 97 == 0) {
+                sb.append("\r\n// comment\r\n");
+            }
+            sb.append(i).append(';');
+            sb.append(i % 13 == 0 ? "NA" : i % 5 == 0 ? "\"v;" + i + "\"" : "v" + i).append(';');
+            sb.append(i < 1900 ? Integer.toString(-i * 3) : (-i * 1.25) + "").append(';');
+            sb.append(i % 7 == 0 ? "" : Long.toString(i * 10000000000L)).append(';');
+            sb.append(i % 2 == 0).append(';');
+            sb.append(i % 11 == 0 ? "null" : (i / 7.0) + "").append("\r\n");
+        }
+        File file = File.createTempFile("dataframe", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(sb.toString());
+        }
+        CSVReaderBuilder builder = CSVFormat.createReader()
+                .withHeaderPrefix("#")
+                .withSeparator(';')
+                .addSkipPrefix("//")
+                .ignoreColumn("E");
+        long minPartSize = ParallelCSVReader.getMinPartSize();
+        try {
+            ParallelCSVReader.setMinPartSize(1000);
+            DataFrame expected = DataFrame.load(file, builder.build());
+            DataFrame mapped = DataFrame.load(file, builder.withMemoryMapping(true).build());
+            DataFrame parallel = DataFrame.load(file, builder.withParallelReading(true).build());
+            Assert.assertEquals(2000, expected.size());
+            Assert.assertEquals(Double.class, mapped.getHeader().getType("C"));
+            for (DataFrame df : Arrays.asList(mapped, parallel)) {
+                Assert.assertEquals(expected.getHeader(), df.getHeader());
+                Assert.assertEquals(expected.size(), df.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    for (int j = 0; j < expected.getColumns().size(); j++) {
+                        Assert.assertEquals(expected.getValue(j, i), df.getValue(j, i));
+                    }
+                }
+            }
+        } finally {
+            ParallelCSVReader.setMinPartSize(minPartSize);
+        }
+    }
+
+    @Test
+    public void testTypePromotion() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;B;C;D\n");
+        for (int i = 0; i < 500; i++) {
+            sb.append(i == 100 ? "10000000000" : i == 300 ? "2.5" : Integer.toString(i)).append(';');
+            sb.append(i == 400 ? "x" : Boolean.toString(i % 2 == 0)).append(';');
+            sb.append(i < 250 ? Integer.toString(i) : "10000000000").append(';');
+            sb.append(i % 3 == 0 ? "NA" : Integer.toString(i)).append('\n');
+        }
+        File file = File.createTempFile("dataframe", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(sb.toString());
+        }
+        CSVReaderBuilder builder = CSVFormat.createReader().withSeparator(';');
+        long minPartSize = ParallelCSVReader.getMinPartSize();
+        int sampleRows = TypeInference.getSampleRows();
+        try {
+            ParallelCSVReader.setMinPartSize(1000);
+            TypeInference.setSampleRows(10);
+            DataFrame df = DataFrame.load(file, builder.build());
+            Assert.assertEquals(Double.class, df.getHeader().getType("A"));
+            Assert.assertEquals(String.class, df.getHeader().getType("B"));
+            Assert.assertEquals(Long.class, df.getHeader().getType("C"));
+            Assert.assertEquals(Integer.class, df.getHeader().getType("D"));
+            Assert.assertEquals(1e10, df.getRow(100).getDouble("A"), 0);
+            Assert.assertEquals(2.5, df.getRow(300).getDouble("A"), 0);
+            Assert.assertEquals("true", df.getRow(0).getString("B"));
+            Assert.assertEquals("x", df.getRow(400).getString("B"));
+            Assert.assertEquals(10000000000L, (long) df.getRow(499).getLong("C"));
+            Assert.assertTrue(df.getRow(3).isNA("D"));
+            DataFrame parallel = DataFrame.load(file, builder.withParallelReading(true).build());
+            DataFrame mapped = DataFrame.load(file, builder.withMemoryMapping(true).build());
+            for (DataFrame other : Arrays.asList(parallel, mapped)) {
+                Assert.assertEquals(df.getHeader(), other.getHeader());
+                for (int i = 0; i < df.size(); i++) {
+                    for (int j = 0; j < df.getColumns().size(); j++) {
+                        Assert.assertEquals(df.getValue(j, i), other.getValue(j, i));
+                    }
+                }
+            }
+        } finally {
+            ParallelCSVReader.setMinPartSize(minPartSize);
+            TypeInference.setSampleRows(sampleRows);
+        }
+    }
+
+    @Test
+    public void testPromotionKeepsText() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;B;C;D;E;F\n");
+        List<String[]> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String[] values = new String[]{
+                    i == 450 ? "x" : i % 3 == 0 ? String.format("%03d", i) : i % 3 == 1 ? "+" + i : Integer.toString(i),
+                    i == 450 ? "y" : i % 4 == 0 ? i + ".50" : i % 4 == 1 ? i + "e1" : i % 4 == 2 ? "0.000" + (i % 9 + 1) : i + ".25",
+                    i == 450 ? "z" : i % 3 == 0 ? "TRUE" : i % 3 == 1 ? "false" : "t",
+                    i == 450 ? "w" : i < 200 ? Integer.toString(i) : i + ".5",
+                    i == 450 ? "v" : i % 5 == 0 ? (12345678 + i) + ".5" : i % 5 == 1 ? "-0.0" : i % 5 == 2 ? Integer.toString(i * 1000)
+                            : i % 5 == 3 ? "0.00000000" + (i % 9 + 1) : "1" + i + "000000.125",
+                    i == 450 ? "u" : i < 100 ? Long.toString(9007199254740993L + i) : i < 200 ? Integer.toString(-i) : i + ".5"
+            };
+            expected.add(values);
+            sb.append(String.join(";", values)).append('\n');
+        }
+        File file = File.createTempFile("dataframe", ".csv");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(sb.toString());
+        }
+        CSVReaderBuilder builder = CSVFormat.createReader().withSeparator(';');
+        long minPartSize = ParallelCSVReader.getMinPartSize();
+        int sampleRows = TypeInference.getSampleRows();
+        try {
+            ParallelCSVReader.setMinPartSize(1000);
+            TypeInference.setSampleRows(10);
+            for (DataFrame df : Arrays.asList(DataFrame.load(file, builder.build()),
+                    DataFrame.load(file, builder.withParallelReading(true).build()),
+                    DataFrame.load(file, builder.withMemoryMapping(true).build()))) {
+                for (String name : Arrays.asList("A", "B", "C", "D", "E", "F")) {
+                    Assert.assertEquals(String.class, df.getHeader().getType(name));
+                }
+                for (int i = 0; i < expected.size(); i++) {
+                    for (int j = 0; j < 6; j++) {
+                        Assert.assertEquals(expected.get(i)[j], df.getValue(j, i));
+                    }
+                }
+            }
+        } finally {
+            ParallelCSVReader.setMinPartSize(minPartSize);
+            TypeInference.setSampleRows(sampleRows);
+        }
+
+        TypeInference.InferredColumn column = new TypeInference.InferredColumn("x", Integer.class, -1);
+        for (int i = 0; i < 1000; i++) {
+            column.append(Integer.toString(i - 500));
+        }
+        column.append("12345678.5");
+        column.append("1e3");
+        Assert.assertEquals(Double.class, column.getColumn().getType());
+        for (int i = 0; i < 1001; i++) {
+            Assert.assertNull(column.getOriginalText().get(i));
+        }
+        Assert.assertEquals("1e3", column.getOriginalText().get(1001));
+    }
+
+    @Test
+    public void testFilterPushdown() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;B;C;D\n");
+        for (int i = 0; i < 300; i++) {
+            sb.append(i).append(';');
+            sb.append(i >= 100 && i % 2 == 1 ? "x" : Integer.toString(i)).append(';');
+            sb.append("\"c;").append(i).append("\";");
+            sb.append(i * 0.5).append('\n');
+        }
+        CSVReader reader = CSVFormat.createReader()
+                .withSeparator(';')
+                .selectColumns("A", "B", "D")
+                .build();
+        FilterPredicate predicate = FilterPredicate.eq("A", 150).or(
+                FilterPredicate.and(FilterPredicate.gt("A", 10), FilterPredicate.lt("A", 20)));
+        int sampleRows = TypeInference.getSampleRows();
+        try {
+            TypeInference.setSampleRows(50);
+            DataFrame df = DataFrameLoader.load(reader.load(sb.toString()), predicate);
+            Assert.assertEquals(Arrays.asList("A", "B", "D"), new ArrayList<>(df.getColumnNames()));
+            Assert.assertEquals(10, df.size());
+            Assert.assertEquals(Integer.class, df.getHeader().getType("A"));
+            Assert.assertEquals(Integer.class, df.getHeader().getType("B"));
+            Assert.assertEquals(11, (int) df.getRow(0).getInteger("B"));
+            Assert.assertEquals(150, (int) df.getRow(9).getInteger("B"));
+            Assert.assertEquals(75d, df.getRow(9).getDouble("D"), 0);
+        } finally {
+            TypeInference.setSampleRows(sampleRows);
+        }
+    }
+
+    @Test
+    public void testFilterPushdownWithPromotion() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;B\n");
+        for (int i = 0; i < 200; i++) {
+            sb.append(i == 150 ? "x" : String.format("%03d", i)).append(';').append(i).append('\n');
+        }
+        CSVReader reader = CSVFormat.createReader().withSeparator(';').build();
+        FilterPredicate predicate = FilterPredicate.eq("A", "001").or(FilterPredicate.eq("A", "050"));
+        int sampleRows = TypeInference.getSampleRows();
+        try {
+            for (int samples : new int[]{1, 10}) {
+                TypeInference.setSampleRows(samples);
+                DataFrame df = DataFrameLoader.load(reader.load(sb.toString()), predicate);
+                Assert.assertEquals(String.class, df.getHeader().getType("A"));
+                Assert.assertEquals(2, df.size());
+                Assert.assertEquals("001", df.getRow(0).getString("A"));
+                Assert.assertEquals(50, (int) df.getRow(1).getInteger("B"));
+                Assert.assertEquals(DataFrameLoader.load(reader.load(sb.toString())).select(predicate), df);
+            }
+        } finally {
+            TypeInference.setSampleRows(sampleRows);
+        }
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;G;V\n");
+        for (int i = 0; i < 1000; i++) {
+            sb.append(i).append(';').append('g').append(i % 3).append(';').append(i * 0.5).append('\n');
+        }
+        CSVReader reader = CSVFormat.createReader().withSeparator(';').build();
+        DataFrame df = DataFrame.load(sb.toString(), reader).filter("A >= 100");
+
+        DataFrame grouped = DataFrameStream.of(reader.load(sb.toString()), 64)
+                .filter("A >= 100")
+                .groupBy("G")
+                .agg("count", Aggregate.count())
+                .agg("sum", Aggregate.sum("V"))
+                .agg("first", Aggregate.first("A"))
+                .collect();
+        DataGrouping expected = df.groupBy("G")
+                .agg("count", Aggregate.count())
+                .agg("sum", Aggregate.sum("V"))
+                .agg("first", Aggregate.first("A"));
+        Assert.assertEquals(3, grouped.size());
+        for (DataRow row : grouped) {
+            DataRow expectedRow = expected.selectByIndex(DataGrouping.GROUP_INDEX, row.get("G")).getRow(0);
+            Assert.assertEquals(expectedRow.getInteger("count"), row.getInteger("count"));
+            Assert.assertEquals(expectedRow.getDouble("sum"), row.getDouble("sum"), 1e-9);
+            Assert.assertEquals(expectedRow.getInteger("first"), row.getInteger("first"));
+        }
+
+        StringWriter streamed = new StringWriter();
+        DataFrameStream.of(reader.load(sb.toString()), 64)
+                .filter("A >= 100")
+                .selectColumns("A", "V")
+                .map(batch -> batch.filter(FilterPredicate.lt("V", 400)))
+                .write(streamed, CSVFormat.createWriter().build());
+        StringWriter written = new StringWriter();
+        df.selectColumns("A", "V").where(FilterPredicate.lt("V", 400))
+                .write(written, CSVFormat.createWriter().build());
+        Assert.assertEquals(written.toString(), streamed.toString());
+
+        DataFrameStream stream = DataFrameStream.of(reader.load(sb.toString()), 64);
+        Assert.assertEquals(1000, stream.count());
+        exception.expect(DataFrameRuntimeException.class);
+        stream.filter("A > 1").count();
+    }
+
+    @Test
+    public void testStreamingPromotesTypes() throws IOException {
+        String csv = "x;g;y\n1;a;1\n2;b;2\n3;a;3.5\n4.5;b;4.5\nfoo;a;5\n";
+        CSVReader reader = CSVFormat.createReader().withSeparator(';').build();
+
+        DataFrame collected = DataFrameStream.of(reader.load(csv), 2).collect();
+        Assert.assertEquals(String.class, collected.getHeader().getType("x"));
+        Assert.assertEquals(Double.class, collected.getHeader().getType("y"));
+        Assert.assertEquals(5, collected.size());
+        Assert.assertEquals(Arrays.asList("1", "2", "3.0", "4.5", "foo"), new ArrayList<>(collected.getStringColumn("x").asList()));
+        Assert.assertEquals(DataFrame.load(csv, reader).selectColumns("g", "y").allRows(), collected.selectColumns("g", "y").allRows());
+
+        StringWriter streamed = new StringWriter();
+        DataFrameStream.of(reader.load(csv), 2)
+                .selectColumns("x")
+                .write(streamed, CSVFormat.createWriter().build());
+        Assert.assertEquals("x\n1\n2\n3.0\n4.5\nfoo\n", streamed.toString().replace("\r", ""));
+
+        DataFrame grouped = DataFrameStream.of(reader.load(csv), 2)
+                .groupBy("g")
+                .agg("count", Aggregate.count())
+                .agg("sum", Aggregate.sum("y"))
+                .collect();
+        Assert.assertEquals(2, grouped.size());
+        Assert.assertEquals(3, (int) grouped.getRow(0).getInteger("count"));
+        Assert.assertEquals(9.5, grouped.getRow(0).getDouble("sum"), 0);
+        Assert.assertEquals(6.5, grouped.getRow(1).getDouble("sum"), 0);
+
+        grouped = DataFrameStream.of(reader.load(csv), 2)
+                .groupBy("x")
+                .agg("count", Aggregate.count())
+                .collect();
+        Assert.assertEquals(String.class, grouped.getHeader().getType("x"));
+        Assert.assertEquals(Arrays.asList("1", "2", "3.0", "4.5", "foo"), new ArrayList<>(grouped.getStringColumn("x").asList()));
+    }
+
+    @Test
+    public void testStreamGroupingReleasesBatches() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("A;G\n");
+        for (int i = 0; i < 1000; i++) {
+            sb.append(i).append(';').append(i == 0 ? "rare" : "g" + (i % 3)).append('\n');
+        }
+        CSVReader reader = CSVFormat.createReader().withSeparator(';').build();
+        final List<WeakReference<DataFrame>> batches = new ArrayList<>();
+        final boolean[] released = new boolean[1];
+        AccumulatorFunction<Integer> trackingCount = df -> {
+            if (batches.isEmpty() || batches.get(batches.size() - 1).get() != df) {
+                batches.add(new WeakReference<>(df));
+                if (batches.size() > 3 && !released[0]) {
+                    for (int i = 0; i < 10 && batches.get(0).get() != null; i++) {
+                        System.gc();
+                    }
+                    released[0] = batches.get(0).get() == null;
+                }
+            }
+            return Aggregate.count().init(df);
+        };
+        DataFrame grouped = DataFrameStream.of(reader.load(sb.toString()), 64)
+                .groupBy("G")
+                .agg("count", trackingCount)
+                .agg("first", Aggregate.first("A"))
+                .agg("sum", Aggregate.sum("A"))
+                .collect();
+        Assert.assertTrue(released[0]);
+        Assert.assertEquals(4, grouped.size());
+        Assert.assertEquals("rare", grouped.getRow(0).getString("G"));
+        Assert.assertEquals(0, (int) grouped.getRow(0).getInteger("first"));
+        Assert.assertEquals(333, (int) grouped.getRow(1).getInteger("count"));
+        Assert.assertEquals(1, (int) grouped.getRow(1).getInteger("first"));
+    }
 }
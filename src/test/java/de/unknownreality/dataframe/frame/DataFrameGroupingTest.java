@@ -33,7 +33,10 @@ import de.unknownreality.dataframe.filter.FilterPredicate;
 import de.unknownreality.dataframe.group.DataGroup;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupRow;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.AccumulatorFunction;
 import de.unknownreality.dataframe.group.aggr.Aggregate;
+import de.unknownreality.dataframe.group.impl.ParallelHashGroupUtil;
 import de.unknownreality.dataframe.group.impl.TreeGroupUtil;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -43,6 +46,7 @@ import org.junit.rules.ExpectedException;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -184,6 +188,122 @@ public class DataFrameGroupingTest {
 
     }
 
+    @Test
+    public void testParallelHashGroupUtil() throws IOException {
+        CSVReader csvReader = CSVReaderBuilder.create()
+                .withHeader(true)
+                .withHeaderPrefix("")
+                .withSeparator(';')
+                .setColumnType("ID",Integer.class)
+                .setColumnType("NAME",String.class)
+                .setColumnType("VALUE",Integer.class)
+                .build();
+
+        DataFrame dataFrame = DataFrameLoader.load("data_grouping.csv", DataFrameGroupingTest.class.getClassLoader(), csvReader);
+        DataGrouping treeGroups = new TreeGroupUtil().groupBy(dataFrame, "ID", "NAME");
+        ((DefaultDataFrame)dataFrame).setGroupUtil(new ParallelHashGroupUtil(ForkJoinPool.commonPool(), 2));
+
+        DataGrouping dataGroups = dataFrame.groupBy("ID", "NAME")
+                .agg("MAX", Aggregate.max("VALUE"));
+        Assert.assertEquals(6, dataGroups.size());
+        for (int i = 0; i < treeGroups.size(); i++) {
+            Assert.assertEquals(treeGroups.getRow(i).get("ID"), dataGroups.getRow(i).get("ID"));
+            Assert.assertEquals(treeGroups.getRow(i).get("NAME"), dataGroups.getRow(i).get("NAME"));
+            Assert.assertEquals(treeGroups.getGroup(i), dataGroups.getGroup(i));
+        }
+        Assert.assertEquals((Integer)6, dataGroups.findByGroupValues(1, "A").getInteger("MAX"));
+        testGroup(dataGroups.findByGroupValues(1, "A"), 1, 6);
+        testGroup(dataGroups.findByGroupValues(3, "B"), 4, 8);
+        testGroup(dataGroups.findByGroupValues(4, "B"), 7);
+    }
+
+    @Test
+    public void testAccumulators() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new DoubleColumn("x"));
+        dataFrame.addColumn(new IntegerColumn("y"));
+        dataFrame.append("a", 1d, 5);
+        dataFrame.append("b", 2d, null);
+        dataFrame.append("a", null, 3);
+        dataFrame.append("c", 4d, 8);
+        dataFrame.append("a", 7d, 1);
+        dataFrame.append("b", 3d, 2);
+
+        DataGrouping grouping = dataFrame.groupBy("name")
+                .agg("count", Aggregate.count())
+                .agg("sum", Aggregate.sum("y"))
+                .agg("mean", Aggregate.mean("x"))
+                .agg("min", Aggregate.min("x"))
+                .agg("max", Aggregate.max("y"))
+                .agg("first", Aggregate.first("x"))
+                .agg("last", Aggregate.last("y"))
+                .agg("na", Aggregate.naCount("x"));
+        Assert.assertEquals(3, grouping.size());
+        DataRow a = grouping.findByGroupValues("a");
+        Assert.assertEquals((Integer) 3, a.getInteger("count"));
+        Assert.assertEquals((Integer) 9, a.getInteger("sum"));
+        Assert.assertEquals(4d, a.getDouble("mean"), 0d);
+        Assert.assertEquals(1d, a.getDouble("min"), 0d);
+        Assert.assertEquals((Integer) 5, a.getInteger("max"));
+        Assert.assertEquals(1d, a.getDouble("first"), 0d);
+        Assert.assertEquals((Integer) 1, a.getInteger("last"));
+        Assert.assertEquals((Integer) 1, a.getInteger("na"));
+        DataRow b = grouping.findByGroupValues("b");
+        Assert.assertEquals((Integer) 2, b.getInteger("sum"));
+        Assert.assertEquals((Integer) 2, b.getInteger("max"));
+
+        for (int i = 0; i < grouping.size(); i++) {
+            DataGroup group = grouping.getGroup(i);
+            Assert.assertEquals(grouping.getRow(i).get("mean"), Aggregate.mean("x").aggregate(group));
+            Assert.assertEquals(grouping.getRow(i).get("sum"), Aggregate.sum("y").aggregate(group));
+        }
+
+        AccumulatorFunction<Comparable> max = Aggregate.max("y");
+        Accumulator<Comparable> first = max.init(dataFrame);
+        Accumulator<Comparable> second = max.init(dataFrame);
+        first.accumulate(0);
+        first.accumulate(1);
+        second.accumulate(3);
+        first.merge(second);
+        Assert.assertEquals(8, first.finish());
+
+        DataGrouping view = dataFrame.groupByView("name");
+        dataFrame.sort("x");
+        grouping.agg("count2", Aggregate.count());
+        Assert.assertEquals(a.getInteger("count"), grouping.findByGroupValues("a").getInteger("count2"));
+        exception.expect(DataFrameRuntimeException.class);
+        view.agg("count2", Aggregate.count());
+    }
+
+    @Test
+    public void testGroupingSnapshot() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("y"));
+        dataFrame.append("a", 1);
+        dataFrame.append("b", 2);
+        dataFrame.append("a", 3);
+        DefaultDataFrame hashed = (DefaultDataFrame) dataFrame.copy();
+        hashed.setGroupUtil(new ParallelHashGroupUtil());
+        for (DataFrame source : new DataFrame[]{dataFrame, hashed}) {
+            DataGrouping grouping = source.groupBy("name");
+            DataGrouping view = source.groupByView("name");
+            source.getRow(0).set("y", 10);
+            source.update(source.getRow(0));
+            grouping.agg("sum", Aggregate.sum("y"));
+            view.agg("sum", Aggregate.sum("y"));
+            Assert.assertEquals((Integer) 4, grouping.findByGroupValues("a").getInteger("sum"));
+            Assert.assertEquals((Integer) 13, view.findByGroupValues("a").getInteger("sum"));
+            Assert.assertEquals((Integer) 1, grouping.findByGroupValues("a").getGroup().getRow(0).getInteger("y"));
+
+            source.sort("y");
+            source.append("a", 5);
+            Assert.assertEquals(2, grouping.findByGroupValues("a").getGroup().size());
+            Assert.assertEquals((Integer) 4, grouping.agg("sum2", Aggregate.sum("y")).findByGroupValues("a").getInteger("sum2"));
+        }
+    }
+
     @Test
     public void testAgg() throws IOException {
         DataFrame dataFrame = new DefaultDataFrame();
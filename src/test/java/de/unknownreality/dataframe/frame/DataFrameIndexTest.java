@@ -26,14 +26,22 @@ import de.unknownreality.dataframe.*;
 import de.unknownreality.dataframe.column.IntegerColumn;
 import de.unknownreality.dataframe.csv.CSVReader;
 import de.unknownreality.dataframe.csv.CSVReaderBuilder;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.index.HashIndex;
+import de.unknownreality.dataframe.index.Indices;
+import de.unknownreality.dataframe.index.SortedIndex;
+import de.unknownreality.dataframe.index.TreeIndex;
+import de.unknownreality.dataframe.index.interval.IntervalIndex;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -244,4 +252,275 @@ public class DataFrameIndexTest {
         Assert.assertEquals("D",test.getRow(1).get("name"));
     }
 
+    @Test
+    public void testHashIndex() {
+        DataFrame dataFrame = DataFrame.create()
+                .addIntegerColumn("k")
+                .addStringColumn("s")
+                .addIntegerColumn("uid");
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            dataFrame.append(i % 97 == 0 ? null : random.nextInt(300), "s" + (i % 7), i);
+        }
+        dataFrame.setPrimaryKey("uid");
+        dataFrame.addIndex("hash", "k", "s");
+        dataFrame.addIndex(new TreeIndex("tree", dataFrame.getColumn("k"), dataFrame.getColumn("s")));
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.getIntegerColumn("k").set(random.nextInt(dataFrame.size()), random.nextInt(300));
+        }
+        dataFrame.filter("s != 's3'");
+        dataFrame.sort("k");
+        dataFrame.append(null, "s1", -1);
+        for (int k = 0; k < 300; k++) {
+            for (int j = 0; j < 7; j++) {
+                Assert.assertEquals(rowIndices(dataFrame.selectRowsByIndex("tree", k, "s" + j)),
+                        rowIndices(dataFrame.selectRowsByIndex("hash", k, "s" + j)));
+            }
+        }
+        Assert.assertEquals(rowIndices(dataFrame.selectRowsByIndex("tree", Values.NA, "s1")),
+                rowIndices(dataFrame.selectRowsByIndex("hash", null, "s1")));
+        Assert.assertFalse(rowIndices(dataFrame.selectRowsByIndex("hash", Values.NA, "s1")).isEmpty());
+        for (DataRow row : dataFrame) {
+            Assert.assertEquals(row.getIndex(), (int) dataFrame.selectFirstRowByIndex(Indices.PRIMARY_KEY_NAME,
+                    row.getInteger("uid")).getIndex());
+        }
+        exception.expect(DataFrameRuntimeException.class);
+        dataFrame.append(1, "s1", 1);
+    }
+
+    @Test
+    public void testRebuildIndexWithoutRemap() {
+        DataFrame dataFrame = DataFrame.create()
+                .addIntegerColumn("k")
+                .addStringColumn("s");
+        for (int i = 0; i < 100; i++) {
+            dataFrame.append((i * 37) % 11, "s" + i);
+        }
+        dataFrame.addIndex(new HashIndex("hash", dataFrame.getColumn("k")) {
+            @Override
+            public boolean remapRows(int[] oldToNew) {
+                return false;
+            }
+        });
+        dataFrame.sort("s");
+        for (int k = 0; k < 11; k++) {
+            for (DataRow row : dataFrame.selectRowsByIndex("hash", k)) {
+                Assert.assertEquals((Integer) k, dataFrame.getRow(row.getIndex()).getInteger("k"));
+            }
+            Assert.assertEquals(dataFrame.select("k == " + k).size(), dataFrame.selectRowsByIndex("hash", k).size());
+        }
+    }
+
+    @Test
+    public void testSortedIndex() {
+        DataFrame dataFrame = DataFrame.create()
+                .addLongColumn("ts")
+                .addStringColumn("s");
+        Random random = new Random(4);
+        for (int i = 0; i < 3000; i++) {
+            dataFrame.append(i % 50 == 0 ? null : (long) random.nextInt(10000), "s" + (i % 5));
+        }
+        dataFrame.addIndex(SortedIndex.create(dataFrame, "ts_idx", "ts"));
+        Assert.assertEquals(dataFrame.select("ts > 1000 && ts < 2000"),
+                dataFrame.selectByIndexRange("ts_idx", 1000, false, 2000, false));
+        Assert.assertEquals(dataFrame.select("ts >= 1000 && ts <= 2000"),
+                dataFrame.selectByIndexRange("ts_idx", 1000L, 2000L));
+
+        for (int i = 0; i < 100; i++) {
+            dataFrame.append(10000L + i, "s1");
+        }
+        dataFrame.getLongColumn("ts").set(5, 9999L);
+        dataFrame.shuffle();
+        dataFrame.filter("s != 's3'");
+        Assert.assertEquals(dataFrame.select("ts >= 9000"), dataFrame.selectByIndexRange("ts_idx", 9000, null));
+        Assert.assertEquals(dataFrame.select("ts < 500"), dataFrame.selectByIndexRange("ts_idx", null, true, 500.5, false));
+
+        DataFrame selected = dataFrame.select("s == 's1'");
+        Assert.assertEquals(selected.select("ts <= 3000"), selected.selectByIndexRange("ts_idx", null, 3000));
+        Assert.assertEquals(rowIndices(selected.selectRowsByIndex("ts_idx", 10050L)).size(), 1);
+        exception.expect(DataFrameRuntimeException.class);
+        dataFrame.addIndex("hash", "s").selectByIndexRange("hash", "s1", "s2");
+    }
+
+    @Test
+    public void testIndexPlanner() {
+        DataFrame indexed = DataFrame.create()
+                .addIntegerColumn("id")
+                .addStringColumn("name")
+                .addLongColumn("ts")
+                .addIntegerColumn("start")
+                .addIntegerColumn("end");
+        DataFrame plain = DataFrame.create()
+                .addIntegerColumn("id")
+                .addStringColumn("name")
+                .addLongColumn("ts")
+                .addIntegerColumn("start")
+                .addIntegerColumn("end");
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(1000);
+            Comparable[] values = {i, i % 30 == 0 ? null : "n" + (i % 20), i % 40 == 0 ? null : (long) random.nextInt(500),
+                    start, start + random.nextInt(50)};
+            indexed.append(values);
+            plain.append(values);
+        }
+        indexed.setPrimaryKey("id");
+        indexed.addIndex("name_idx", "name");
+        indexed.addIndex("name_ts_idx", "name", "ts");
+        indexed.addIndex(SortedIndex.create(indexed, "ts_idx", "ts"));
+        indexed.addIndex(IntervalIndex.create(indexed, "interval_idx", "start", "end"));
+
+        List<String> queries = Arrays.asList(
+                "id == 15", "id == 15.5", "name == 'n3'", "name == 'n3' && ts > 100",
+                "name == 'n3' && ts == 100", "ts >= 100 && ts < 200 && id > 1000",
+                "(name == 'n3' || name == 'n5') && ts <= 50", "name == 'n3' || ts > 490",
+                "name == 'n3' || end > 1000", "start <= 500 && end >= 500",
+                "start <= 500 && end >= 500 && name != 'n1'", "ts != 3");
+        for (String query : queries) {
+            Assert.assertEquals(query, plain.select(query), indexed.select(query));
+        }
+        FilterPredicate in = FilterPredicate.and(
+                FilterPredicate.in("name", new Object[]{"n1", "n2"}),
+                FilterPredicate.le("ts", 100L));
+        Assert.assertEquals(plain.select(in), indexed.select(in));
+
+        Assert.assertTrue(indexed.explain("id == 15").startsWith("INDEX %primary_key%"));
+        Assert.assertTrue(indexed.explain("name == 'n3' && ts == 100").startsWith("INDEX name_ts_idx"));
+        Assert.assertTrue(indexed.explain("ts > 100 && ts < 200 && end > 10").contains("FILTER (end > 10)"));
+        Assert.assertTrue(indexed.explain("name == 'n3' || end > 1000").startsWith("SCAN"));
+        Assert.assertTrue(plain.explain("id == 15").startsWith("SCAN"));
+    }
+
+    @Test
+    public void testIndexAfterFilter() {
+        DataFrame indexed = DataFrame.create()
+                .addIntegerColumn("id")
+                .addIntegerColumn("v");
+        DataFrame plain = DataFrame.create()
+                .addIntegerColumn("id")
+                .addIntegerColumn("v");
+        for (int i = 0; i < 100; i++) {
+            indexed.append(i, i % 10);
+            plain.append(i, i % 10);
+        }
+        indexed.addIndex("v_idx", "v");
+        indexed.addIndex(SortedIndex.create(indexed, "id_idx", "id"));
+        for (DataFrame dataFrame : Arrays.asList(indexed, plain)) {
+            dataFrame.filter("v > 2");
+            dataFrame.setValue(1, 0, 100);
+            dataFrame.append(1000, 100);
+            dataFrame.filter("id != 50");
+            dataFrame.setValue(1, 5, 100);
+        }
+        Assert.assertEquals(3, indexed.select("v == 100").size());
+        for (String query : Arrays.asList("v == 100", "v == 3", "id > 90", "v == 100 && id < 20")) {
+            Assert.assertEquals(query, plain.select(query), indexed.select(query));
+        }
+        Assert.assertTrue(indexed.explain("v == 100").startsWith("INDEX v_idx"));
+    }
+
+    @Test
+    public void testSortedIndexSignedZero() {
+        DataFrame indexed = DataFrame.create()
+                .addDoubleColumn("x")
+                .addFloatColumn("f");
+        DataFrame plain = DataFrame.create()
+                .addDoubleColumn("x")
+                .addFloatColumn("f");
+        for (DataFrame dataFrame : Arrays.asList(indexed, plain)) {
+            dataFrame.append(-0.0, -0.0f);
+            dataFrame.append(0.0, 0.0f);
+            dataFrame.append(1.0, 1.0f);
+            dataFrame.append(-1.0, -1.0f);
+            dataFrame.append(Double.NaN, Float.NaN);
+        }
+        indexed.addIndex(SortedIndex.create(indexed, "sx", "x"));
+        indexed.addIndex(SortedIndex.create(indexed, "sf", "f"));
+        Assert.assertEquals(4, plain.select("x >= 0").size());
+        for (String column : Arrays.asList("x", "f")) {
+            for (String query : Arrays.asList("%s >= 0", "%s > 0", "%s < 0", "%s <= 0", "%s >= 0.0", "%s < 0.0",
+                    "%s > -1 && %s < 1", "%s >= -0.0 && %s <= 0")) {
+                String q = query.replace("%s", column);
+                Assert.assertEquals(q, plain.select(q), indexed.select(q));
+            }
+        }
+        Assert.assertTrue(indexed.explain("x >= 0").startsWith("INDEX sx"));
+    }
+
+    @Test
+    public void testBulkAppend() {
+        DataFrame bulk = DataFrame.create()
+                .addIntegerColumn("id")
+                .addStringColumn("name")
+                .addLongColumn("ts");
+        DataFrame single = DataFrame.create()
+                .addIntegerColumn("id")
+                .addStringColumn("name")
+                .addLongColumn("ts");
+        for (DataFrame dataFrame : Arrays.asList(bulk, single)) {
+            dataFrame.setPrimaryKey("id");
+            dataFrame.addIndex("name_idx", "name");
+            dataFrame.addIndex(SortedIndex.create(dataFrame, "ts_idx", "ts"));
+        }
+
+        Random random = new Random(11);
+        bulk.beginBulkAppend();
+        for (int i = 0; i < 1000; i++) {
+            Comparable[] values = {i, "n" + (i % 7), (long) random.nextInt(100)};
+            bulk.append(values);
+            single.append(values);
+        }
+        Assert.assertEquals(500, bulk.selectByPrimaryKey(500).get("id"));
+        for (int i = 1000; i < 1200; i++) {
+            Comparable[] values = {i, "n" + (i % 7), (long) random.nextInt(100)};
+            bulk.append(values);
+            single.append(values);
+        }
+        bulk.setValue(2, 0, 1000L);
+        single.setValue(2, 0, 1000L);
+        bulk.endBulkAppend();
+
+        Assert.assertEquals(single.selectByIndex("name_idx", "n3"), bulk.selectByIndex("name_idx", "n3"));
+        Assert.assertEquals(single.selectByIndexRange("ts_idx", 50L, null), bulk.selectByIndexRange("ts_idx", 50L, null));
+        Assert.assertEquals(1199, bulk.selectByPrimaryKey(1199).get("id"));
+
+        exception.expect(DataFrameRuntimeException.class);
+        bulk.concat(single.select("id < 10"));
+    }
+
+    @Test
+    public void testBulkAppendDuplicateIndexesLaterRows() {
+        DataFrame dataFrame = DataFrame.create()
+                .addIntegerColumn("id")
+                .addStringColumn("name");
+        dataFrame.addIndex("name_idx", "name");
+        dataFrame.setPrimaryKey("id");
+        dataFrame.append(1, "a");
+        dataFrame.beginBulkAppend();
+        dataFrame.append(2, "b");
+        dataFrame.append(1, "c");
+        dataFrame.append(3, "d");
+        try {
+            dataFrame.endBulkAppend();
+            Assert.fail("duplicated primary key not detected");
+        } catch (DataFrameRuntimeException e) {
+            // expected
+        }
+        Assert.assertEquals(3, dataFrame.selectByPrimaryKey(3).get("id"));
+        Assert.assertEquals("a", dataFrame.selectByPrimaryKey(1).get("name"));
+        Assert.assertEquals(1, dataFrame.selectByIndex("name_idx", "d").size());
+        Assert.assertEquals(1, dataFrame.selectByIndex("name_idx", "c").size());
+
+        dataFrame.filter("name != 'c'");
+        Assert.assertEquals(3, dataFrame.size());
+        Assert.assertEquals(3, dataFrame.selectByPrimaryKey(3).get("id"));
+    }
+
+    private static Set<Integer> rowIndices(DataRows rows) {
+        Set<Integer> indices = new HashSet<>();
+        for (DataRow row : rows) {
+            indices.add(row.getIndex());
+        }
+        return indices;
+    }
 }
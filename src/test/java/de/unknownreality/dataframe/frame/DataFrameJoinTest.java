@@ -23,12 +23,19 @@
 package de.unknownreality.dataframe.frame;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DefaultDataFrame;
 import de.unknownreality.dataframe.DataFrameLoader;
 import de.unknownreality.dataframe.DataRow;
 import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
 import de.unknownreality.dataframe.csv.CSVReader;
 import de.unknownreality.dataframe.csv.CSVReaderBuilder;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinStrategy;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
+import de.unknownreality.dataframe.join.impl.HashJoin;
+import de.unknownreality.dataframe.join.impl.JoinRowIndices;
 import de.unknownreality.dataframe.join.impl.DefaultJoinUtil;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -36,6 +43,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -144,6 +154,147 @@ public class DataFrameJoinTest {
     }
 
 
+    @Test
+    public void testHashJoin() {
+        Random random = new Random(7);
+        DataFrame small = createJoinFrame(random, 20, "id", "s");
+        DataFrame large = createJoinFrame(random, 50, "key", "l");
+        JoinColumn[] joinColumns = {new JoinColumn("id", "key"), new JoinColumn("type", "type")};
+
+        for (boolean keepA : new boolean[]{false, true}) {
+            for (boolean keepB : new boolean[]{false, true}) {
+                if (keepA && keepB) {
+                    continue;
+                }
+                checkJoinRows(small, large, joinColumns, keepA, keepB);
+                JoinColumn[] swapped = {new JoinColumn("key", "id"), new JoinColumn("type", "type")};
+                checkJoinRows(large, small, swapped, keepA, keepB);
+            }
+        }
+
+        JoinedDataFrame rightJoin = small.joinRight(large, joinColumns);
+        Assert.assertEquals(HashJoin.join(small, large, joinColumns, false, true).size(), rightJoin.size());
+        for (int i = 0; i < rightJoin.size(); i++) {
+            Assert.assertFalse(rightJoin.getRow(i).isNA("id"));
+        }
+    }
+
+    @Test
+    public void testJoinStrategies() {
+        Random random = new Random(11);
+        DataFrame dfA = createJoinFrame(random, 40, "id", "a");
+        DataFrame dfB = createJoinFrame(random, 60, "key", "b");
+        dfA.append(Values.NA, "x", 40);
+        dfB.append(Values.NA, "x", 60);
+        dfB.addIndex("keyIndex", "type", "key");
+        JoinColumn[] joinColumns = {new JoinColumn("id", "key"), new JoinColumn("type", "type")};
+
+        Assert.assertEquals(JoinStrategy.INDEX, DefaultJoinUtil.selectStrategy(dfA, dfB, joinColumns));
+        Assert.assertEquals(JoinStrategy.HASH, DefaultJoinUtil.selectStrategy(dfA, dfA.copy().removeIndex("keyIndex"),
+                new JoinColumn("id"), new JoinColumn("type")));
+        Assert.assertEquals(JoinStrategy.INDEX, DefaultJoinUtil.selectStrategy(dfB, dfA, swap(joinColumns)));
+        Assert.assertEquals(JoinStrategy.HASH, DefaultJoinUtil.selectStrategy(dfA, dfB, new JoinColumn("id", "key")));
+        DataFrame smallB = createJoinFrame(random, 20, "key", "b").addIndex("keyIndex", "type", "key");
+        Assert.assertEquals(JoinStrategy.HASH, DefaultJoinUtil.selectStrategy(dfA, smallB, joinColumns));
+        Assert.assertEquals(JoinStrategy.HASH, DefaultJoinUtil.selectStrategy(smallB, dfA, swap(joinColumns)));
+        checkStrategies(dfA, smallB, joinColumns);
+        DataFrame sameSizeB = createJoinFrame(random, 41, "key", "b").addIndex("keyIndex", "type", "key");
+        Assert.assertEquals(JoinStrategy.INDEX, DefaultJoinUtil.selectStrategy(dfA, sameSizeB, joinColumns));
+
+        checkStrategies(dfA, dfB, joinColumns);
+        dfA.sort("id");
+        dfB.sort("key");
+        Assert.assertEquals(JoinStrategy.MERGE, DefaultJoinUtil.selectStrategy(dfA, dfB, new JoinColumn("id", "key")));
+        checkStrategies(dfA, dfB, joinColumns);
+        checkStrategies(dfA, dfB, new JoinColumn[]{new JoinColumn("id", "key")});
+
+        JoinedDataFrame hashJoined = dfA.joinLeft(dfB, JoinStrategy.HASH, joinColumns);
+        JoinedDataFrame mergeJoined = dfA.joinLeft(dfB, JoinStrategy.MERGE, joinColumns);
+        Assert.assertEquals(hashJoined.size(), mergeJoined.size());
+        for (int i = 0; i < hashJoined.size(); i++) {
+            Assert.assertEquals(hashJoined.getRow(i).toString(), mergeJoined.getRow(i).toString());
+        }
+    }
+
+    private static JoinColumn[] swap(JoinColumn[] joinColumns) {
+        JoinColumn[] swapped = new JoinColumn[joinColumns.length];
+        for (int i = 0; i < joinColumns.length; i++) {
+            swapped[i] = new JoinColumn(joinColumns[i].getColumnB(), joinColumns[i].getColumnA());
+        }
+        return swapped;
+    }
+
+    private static void checkStrategies(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns) {
+        for (boolean keepA : new boolean[]{false, true}) {
+            for (boolean keepB : new boolean[]{false, true}) {
+                if (keepA && keepB) {
+                    continue;
+                }
+                JoinRowIndices expected = DefaultJoinUtil.INNER.joinRows(dfA, dfB, joinColumns, keepA, keepB, JoinStrategy.HASH);
+                for (JoinStrategy strategy : new JoinStrategy[]{JoinStrategy.MERGE, JoinStrategy.INDEX}) {
+                    JoinRowIndices rows = DefaultJoinUtil.INNER.joinRows(dfA, dfB, joinColumns, keepA, keepB, strategy);
+                    Assert.assertArrayEquals(expected.getRowsA(), rows.getRowsA());
+                    Assert.assertArrayEquals(expected.getRowsB(), rows.getRowsB());
+                }
+            }
+        }
+    }
+
+    private static DataFrame createJoinFrame(Random random, int size, String idColumn, String valueColumn) {
+        DataFrame df = new DefaultDataFrame();
+        df.addColumn(new IntegerColumn(idColumn));
+        df.addColumn(new StringColumn("type"));
+        df.addColumn(new IntegerColumn(valueColumn));
+        for (int i = 0; i < size; i++) {
+            df.append(random.nextInt(10), random.nextBoolean() ? "x" : "y", i);
+        }
+        return df;
+    }
+
+    private static boolean matches(DataFrame dfA, int a, DataFrame dfB, int b, JoinColumn[] joinColumns) {
+        for (JoinColumn joinColumn : joinColumns) {
+            if (!dfA.getRow(a).get(joinColumn.getColumnA()).equals(dfB.getRow(b).get(joinColumn.getColumnB()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkJoinRows(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns, boolean keepA, boolean keepB) {
+        List<int[]> expected = new ArrayList<>();
+        if (keepB) {
+            for (int b = 0; b < dfB.size(); b++) {
+                int count = expected.size();
+                for (int a = 0; a < dfA.size(); a++) {
+                    if (matches(dfA, a, dfB, b, joinColumns)) {
+                        expected.add(new int[]{a, b});
+                    }
+                }
+                if (count == expected.size()) {
+                    expected.add(new int[]{-1, b});
+                }
+            }
+        } else {
+            for (int a = 0; a < dfA.size(); a++) {
+                int count = expected.size();
+                for (int b = 0; b < dfB.size(); b++) {
+                    if (matches(dfA, a, dfB, b, joinColumns)) {
+                        expected.add(new int[]{a, b});
+                    }
+                }
+                if (keepA && count == expected.size()) {
+                    expected.add(new int[]{a, -1});
+                }
+            }
+        }
+        JoinRowIndices rows = HashJoin.join(dfA, dfB, joinColumns, keepA, keepB);
+        Assert.assertEquals(expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertEquals(expected.get(i)[0], rows.getRowsA()[i]);
+            Assert.assertEquals(expected.get(i)[1], rows.getRowsB()[i]);
+        }
+    }
+
     private static void checkJoinedRow(DataRow row, Object geneId, Object gene_fpkm, Object chr, Object transcriptId, Object transcript_fpkm, Object transcriptNumber) {
         Assert.assertEquals(geneId, row.get("GENE_ID"));
         Assert.assertEquals(gene_fpkm, row.get("FPKM" + DefaultJoinUtil.JOIN_SUFFIX_A));
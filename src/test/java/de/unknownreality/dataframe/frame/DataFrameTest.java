@@ -30,6 +30,8 @@ import de.unknownreality.dataframe.column.StringColumn;
 import de.unknownreality.dataframe.csv.CSVReader;
 import de.unknownreality.dataframe.csv.CSVReaderBuilder;
 import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.sort.RowColumnComparator;
+import de.unknownreality.dataframe.sort.RowIndexSorter;
 import de.unknownreality.dataframe.sort.SortColumn;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -39,6 +41,7 @@ import org.junit.rules.ExpectedException;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -508,6 +511,78 @@ public class DataFrameTest {
 
     }
 
+    @Test
+    public void testSort() {
+        Random random = new Random(3);
+        DataFrame dataFrame = DataFrame.create()
+                .addIntegerColumn("id")
+                .addIntegerColumn("i")
+                .addDoubleColumn("d")
+                .addLongColumn("l")
+                .addStringColumn("s");
+        double[] doubles = {-1.5, -0.0, 0.0, 2.25, Double.NaN, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < 3000; i++) {
+            dataFrame.append(i,
+                    random.nextInt(10) == 0 ? Values.NA : random.nextInt(100) - 50,
+                    random.nextInt(10) == 0 ? Values.NA : doubles[random.nextInt(doubles.length)] * random.nextInt(3),
+                    random.nextLong() >> random.nextInt(64),
+                    random.nextInt(10) == 0 ? Values.NA : "s" + random.nextInt(20));
+        }
+        dataFrame.addIndex("idIndex", "id");
+        checkSort(dataFrame, new SortColumn("i"));
+        checkSort(dataFrame, new SortColumn("i", SortColumn.Direction.Descending), new SortColumn("d"));
+        checkSort(dataFrame, new SortColumn("d", SortColumn.Direction.Descending), new SortColumn("l"));
+        checkSort(dataFrame, new SortColumn("l", SortColumn.Direction.Descending));
+        checkSort(dataFrame, new SortColumn("s"), new SortColumn("i", SortColumn.Direction.Descending));
+        checkSort(dataFrame.getRows(0, 100).toDataFrame(), new SortColumn("d"), new SortColumn("i"));
+
+        for (int i = 0; i < 3000; i += 100) {
+            Assert.assertEquals(i, dataFrame.selectFirstRowByIndex("idIndex", i).getInteger("id").intValue());
+        }
+        dataFrame.shuffle();
+        for (int i = 0; i < 3000; i += 100) {
+            Assert.assertEquals(i, dataFrame.selectFirstRowByIndex("idIndex", i).getInteger("id").intValue());
+        }
+    }
+
+    @Test
+    public void testParallelSort() {
+        Random random = new Random(5);
+        DataFrame dataFrame = DataFrame.create()
+                .addIntegerColumn("id")
+                .addDoubleColumn("d")
+                .addLongColumn("l")
+                .addStringColumn("s");
+        for (int i = 0; i < 40000; i++) {
+            dataFrame.append(i,
+                    random.nextInt(10) == 0 ? Values.NA : random.nextGaussian(),
+                    (long) random.nextInt(1000),
+                    random.nextInt(10) == 0 ? Values.NA : "s" + random.nextInt(5000));
+        }
+        DoubleColumn column = dataFrame.getDoubleColumn("d").copy();
+        DoubleColumn expectedColumn = column.copy().sort();
+        RowIndexSorter.setParallelSortThreshold(1000);
+        try {
+            checkSort(dataFrame, new SortColumn("l", SortColumn.Direction.Descending), new SortColumn("d"));
+            checkSort(dataFrame, new SortColumn("s"), new SortColumn("l"));
+            checkSort(dataFrame, new SortColumn("d"));
+            Assert.assertArrayEquals(expectedColumn.toArray(new Double[0]), column.sort().toArray(new Double[0]));
+        } finally {
+            RowIndexSorter.setParallelSortThreshold(RowIndexSorter.DEFAULT_PARALLEL_SORT_THRESHOLD);
+        }
+    }
+
+    private static void checkSort(DataFrame dataFrame, SortColumn... sortColumns) {
+        DataRows rows = dataFrame.getRows();
+        Collections.sort(rows, new RowColumnComparator(sortColumns));
+        Integer[] expected = new Integer[rows.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = rows.get(i).getInteger("id");
+        }
+        dataFrame.sort(sortColumns);
+        Assert.assertArrayEquals(expected, dataFrame.getIntegerColumn("id").toArray(new Integer[0]));
+    }
+
     @Test
     public void listTest(){
         DataFrame dataFrame = DataFrame.create()
@@ -25,14 +25,42 @@
 package de.unknownreality.dataframe.frame;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameBuilder;
+import de.unknownreality.dataframe.DataFrameException;
+import de.unknownreality.dataframe.DataFrameLoader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.csv.CSVFormat;
+import de.unknownreality.dataframe.csv.CSVWriter;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.io.BinaryFormat;
 import de.unknownreality.dataframe.io.FileFormat;
+import de.unknownreality.dataframe.io.GZipUtil;
+import de.unknownreality.dataframe.io.ReadAheadInputStream;
+import de.unknownreality.dataframe.meta.ColumnStatistics;
+import de.unknownreality.dataframe.meta.DataFrameMeta;
+import de.unknownreality.dataframe.meta.DataFrameMetaReader;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -65,4 +93,251 @@ public class DataFrameWriterTest {
 
 
 
+    @Test
+    public void byteWriterTest() throws IOException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .addLongColumn("l")
+                .addDoubleColumn("d")
+                .addStringColumn("s")
+                .addBooleanColumn("b")
+                .build();
+        double[] doubles = {0d, -0d, 1d, -2.5, 0.001, 0.1 + 0.2, 1e-5, 1e7, 123456.789, Double.NaN, 1d / 3, -9999999.5};
+        String special = Charset.defaultCharset().newEncoder().canEncode('\u00e4') ? "\u00e4" : "_";
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            double d = i < doubles.length ? doubles[i] : (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+            df.append(i % 5 == 0 ? Values.NA : random.nextInt() , i == 1 ? Long.MIN_VALUE : random.nextLong(), d,
+                    i % 7 == 0 ? special + i : "s" + i, i % 2 == 0);
+        }
+        CSVWriter writer = CSVFormat.createWriter().withSeparator(';').build();
+        StringWriter stringWriter = new StringWriter();
+        df.write(stringWriter, writer);
+        File file = File.createTempFile("dataframe", ".csv");
+        file.deleteOnExit();
+        df.write(file, writer, false);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(outputStream, df);
+        String[] expectedLines = stringWriter.toString().split(System.lineSeparator());
+        String[] fileLines = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset()).split(System.lineSeparator());
+        Assert.assertEquals(new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset()),
+                new String(outputStream.toByteArray(), Charset.defaultCharset()));
+        Assert.assertEquals(expectedLines.length, fileLines.length);
+        Assert.assertEquals(expectedLines[0], fileLines[0]);
+        for (int i = 1; i < expectedLines.length; i++) {
+            String[] expected = expectedLines[i].split(";");
+            String[] actual = fileLines[i].split(";");
+            Assert.assertEquals(expected[0], actual[0]);
+            Assert.assertEquals(expected[1], actual[1]);
+            Assert.assertEquals(Double.doubleToLongBits(Double.parseDouble(expected[2])),
+                    Double.doubleToLongBits(Double.parseDouble(actual[2])));
+            if (i <= doubles.length) {
+                Assert.assertEquals(expected[2], actual[2]);
+            }
+            Assert.assertEquals(expected[3], actual[3]);
+            Assert.assertEquals(expected[4], actual[4]);
+        }
+    }
+
+    @Test
+    public void gzipTest() throws IOException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .addDoubleColumn("d")
+                .addStringColumn("s")
+                .build();
+        Random random = new Random(1);
+        for (int i = 0; i < 50000; i++) {
+            df.append(i, random.nextDouble(), "s" + random.nextInt(100));
+        }
+        File file = File.createTempFile("dataframe", ".csv.gz");
+        file.deleteOnExit();
+        df.write(file, CSVFormat.createWriter().useGzip(true).build(), false);
+        Assert.assertTrue(GZipUtil.isGzipped(file));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        df.write(new OutputStreamWriter(expected), CSVFormat.createWriter().build());
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (InputStream is = new GZIPInputStream(new FileInputStream(file))) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                inflated.write(buffer, 0, n);
+            }
+        }
+        Assert.assertArrayEquals(expected.toByteArray(), inflated.toByteArray());
+
+        DataFrame loaded = DataFrame.load(file, CSVFormat.createReader().withSeparator(';').build());
+        Assert.assertEquals(df, loaded);
+    }
+
+    @Test
+    public void readAheadTest() throws IOException, InterruptedException {
+        int streamCount = ReadAheadInputStream.MAX_READER_THREADS + 2;
+        List<InputStream> streams = new ArrayList<>();
+        for (int i = 0; i < streamCount; i++) {
+            streams.add(new ReadAheadInputStream(new ByteArrayInputStream(new byte[1 << 20]), 1 << 10, 2));
+        }
+        byte[] buffer = new byte[4096];
+        for (int i = streamCount - 1; i >= 0; i--) {
+            long total = 0;
+            int n;
+            while ((n = streams.get(i).read(buffer)) != -1) {
+                total += n;
+            }
+            Assert.assertEquals(1 << 20, total);
+            streams.get(i).close();
+        }
+
+        final AtomicBoolean sourceClosed = new AtomicBoolean(false);
+        InputStream source = new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+
+            @Override
+            public void close() {
+                sourceClosed.set(true);
+            }
+        };
+        InputStream abandoned = new ReadAheadInputStream(source, 1 << 10, 2);
+        Assert.assertEquals(0, abandoned.read());
+        abandoned = null;
+        for (int i = 0; i < 50 && !sourceClosed.get(); i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Assert.assertTrue(sourceClosed.get());
+    }
+
+    @Test
+    public void binaryTest() throws IOException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .addLongColumn("l")
+                .addDoubleColumn("d")
+                .addBooleanColumn("b")
+                .addStringColumn("s")
+                .addStringColumn("u")
+                .build();
+        Random random = new Random(1);
+        for (int i = 0; i < 2500; i++) {
+            df.append(i % 7 == 0 ? null : i, random.nextLong(), i % 11 == 0 ? null : random.nextDouble(),
+                    i % 13 == 0 ? null : random.nextBoolean(), i % 5 == 0 ? null : "s" + random.nextInt(10), "u" + i);
+        }
+        for (boolean compress : new boolean[]{false, true}) {
+            File file = File.createTempFile("dataframe", "." + BinaryFormat.FILE_EXTENSION);
+            file.deleteOnExit();
+            df.write(file, BinaryFormat.createWriter().withBlockSize(1000).useCompression(compress).build(), false);
+            DataFrame loaded = DataFrame.load(file, FileFormat.BINARY);
+            Assert.assertEquals(df.size(), loaded.size());
+            Assert.assertEquals(Integer.class, loaded.getHeader().getType(0));
+            Assert.assertEquals(Boolean.class, loaded.getHeader().getType(3));
+            Assert.assertEquals(df, loaded);
+
+            DataFrame selected = DataFrame.load(file, BinaryFormat.createReader().selectColumns("d", "s").build());
+            Assert.assertEquals(2, selected.getColumns().size());
+            Assert.assertEquals(df.getColumn("s").toList(), selected.getColumn("s").toList());
+        }
+    }
+
+    @Test
+    public void mappedBinaryTest() throws IOException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .addLongColumn("l")
+                .addDoubleColumn("d")
+                .addBooleanColumn("b")
+                .addStringColumn("s")
+                .addStringColumn("u")
+                .build();
+        Random random = new Random(2);
+        for (int i = 0; i < 2500; i++) {
+            df.append(i % 7 == 0 ? null : i, random.nextLong(), i % 11 == 0 ? null : random.nextDouble(),
+                    random.nextBoolean(), i % 5 == 0 ? null : "s" + random.nextInt(10), i % 3 == 0 ? null : "u" + i);
+        }
+        for (boolean compress : new boolean[]{true, false}) {
+            File file = File.createTempFile("dataframe", "." + BinaryFormat.FILE_EXTENSION);
+            file.deleteOnExit();
+            df.write(file, BinaryFormat.createWriter().withBlockSize(1000).useCompression(compress).build(), false);
+            DataFrame mapped = DataFrame.load(file, BinaryFormat.createReader().withMemoryMapping(true).build());
+            Assert.assertEquals(df, mapped);
+            Assert.assertEquals(df.getDoubleColumn("d").sum(), mapped.getDoubleColumn("d").sum(), 1e-9);
+            Assert.assertEquals(df.getLongColumn("l").median(), mapped.getLongColumn("l").median());
+            Assert.assertEquals(df.getLongColumn("l").getQuantile(0.9), mapped.getLongColumn("l").getQuantile(0.9));
+            Assert.assertEquals(df.getIntegerColumn("i").median(), mapped.getIntegerColumn("i").median());
+            Assert.assertEquals(df.getDoubleColumn("d").getQuantile(0.25), mapped.getDoubleColumn("d").getQuantile(0.25));
+            Assert.assertEquals(df.select("i > 1200").size(), mapped.select("i > 1200").size());
+            Assert.assertEquals(df.groupBy("s").size(), mapped.groupBy("s").size());
+            DataFrame copy = mapped.copy();
+            Assert.assertEquals(df, copy);
+            copy.getIntegerColumn("i").set(0, 1);
+            Assert.assertEquals(df.getRows(0, 10).toDataFrame(), mapped.getRows(0, 10).toDataFrame());
+            File copyFile = File.createTempFile("dataframe", "." + BinaryFormat.FILE_EXTENSION);
+            copyFile.deleteOnExit();
+            mapped.write(copyFile, BinaryFormat.createWriter().build(), false);
+            Assert.assertEquals(df, DataFrame.load(copyFile, BinaryFormat.createReader().build()));
+            if (!compress) {
+                exception.expect(DataFrameRuntimeException.class);
+                mapped.getIntegerColumn("i").set(0, 1);
+            }
+        }
+    }
+
+    @Test
+    public void mappedAppendTest() throws IOException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .build();
+        for (int i = 0; i < 100; i++) {
+            df.append(i);
+        }
+        File file = File.createTempFile("dataframe", "." + BinaryFormat.FILE_EXTENSION);
+        file.deleteOnExit();
+        df.write(file, BinaryFormat.createWriter().build(), false);
+        DataFrame mapped = DataFrame.load(file, BinaryFormat.createReader().withMemoryMapping(true).build());
+        mapped.addColumn(StringColumn.class, "s", (row) -> "s" + row.getInteger("i"));
+        try {
+            mapped.append(100, "s100");
+            Assert.fail("append to a read-only column should fail");
+        } catch (DataFrameRuntimeException e) {
+            Assert.assertEquals(100, mapped.size());
+            Assert.assertEquals(100, mapped.getStringColumn("s").size());
+        }
+        DataFrame copy = mapped.copy();
+        copy.append(100, "s100");
+        Assert.assertEquals(101, copy.size());
+        Assert.assertEquals("s100", copy.getStringColumn("s").get(100));
+    }
+
+    @Test
+    public void blockStatisticsTest() throws IOException, DataFrameException {
+        DataFrame df = DataFrameBuilder.create()
+                .addIntegerColumn("i")
+                .addStringColumn("s")
+                .build();
+        for (int i = 0; i < 5500; i++) {
+            df.append(i % 9 == 0 ? null : i, "s" + (i % 4));
+        }
+        File file = File.createTempFile("dataframe", "." + BinaryFormat.FILE_EXTENSION);
+        file.deleteOnExit();
+        File metaFile = new File(file.getAbsolutePath() + "." + DataFrameMeta.META_FILE_EXTENSION);
+        metaFile.deleteOnExit();
+        df.write(file, BinaryFormat.createWriter().withBlockSize(1000).build());
+        DataFrameMeta meta = DataFrameMetaReader.read(metaFile);
+        Assert.assertEquals(6, meta.getBlockStatistics().size());
+        ColumnStatistics statistics = meta.getBlockStatistics().get(2).getColumnStatistics("i");
+        Assert.assertEquals(2000, statistics.getMin());
+        Assert.assertEquals(2999, statistics.getMax());
+        Assert.assertEquals(111, statistics.getNACount());
+
+        FilterPredicate predicate = FilterPredicate.ge("i", 2200).and(FilterPredicate.lt("i", 3100));
+        DataFrame expected = df.select(predicate);
+        Assert.assertEquals(expected, DataFrameLoader.load(file, metaFile, predicate));
+        DataFrame mapped = BinaryFormat.createReader().withMemoryMapping(true).build()
+                .loadDataFrame(file, meta, predicate);
+        Assert.assertEquals(expected, mapped);
+        Assert.assertEquals(df.select(FilterPredicate.eq("s", "s1")), DataFrameLoader.load(file, metaFile, FilterPredicate.eq("s", "s1")));
+    }
 }
@@ -24,8 +24,12 @@
 
 package de.unknownreality.dataframe.frame;
 
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataRow;
 import de.unknownreality.dataframe.index.interval.Interval;
 import de.unknownreality.dataframe.index.interval.IntervalSearchTree;
+import de.unknownreality.dataframe.index.interval.StaticIntervalIndex;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
 import org.junit.Test;
 
 import java.util.*;
@@ -33,6 +37,7 @@ import java.util.*;
 import static de.unknownreality.dataframe.common.NumberUtil.ge;
 import static de.unknownreality.dataframe.common.NumberUtil.le;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -122,4 +127,63 @@ public class IntervalSearchTreeTest {
         }
         return result;
     }
+
+    @Test
+    public void staticIntervalIndexTest(){
+        for (int c : new int[]{1, 37, 1000}) {
+            DataFrame longIntervals = DataFrame.create().addLongColumn("start").addLongColumn("end");
+            DataFrame doubleIntervals = DataFrame.create().addDoubleColumn("start").addDoubleColumn("end");
+            for (int i = 0; i < c; i++) {
+                long low = RANDOM.nextInt(1000);
+                long high = low + (i % 10 == 0 ? RANDOM.nextInt(1000) : RANDOM.nextInt(20));
+                longIntervals.append(i % 50 == 3 ? null : low, high);
+                doubleIntervals.append(low / 10d, high / 10d + 0.05);
+            }
+            longIntervals.addIndex(StaticIntervalIndex.create(longIntervals, "idx", "start", "end"));
+            doubleIntervals.addIndex(StaticIntervalIndex.create(doubleIntervals, "idx", "start", "end"));
+            StaticIntervalIndex longIndex = (StaticIntervalIndex) longIntervals.findIndex(
+                    longIntervals.getColumn("start"), longIntervals.getColumn("end"));
+
+            Number[] values = new Number[100];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i % 2 == 0 ? (Number) (long) RANDOM.nextInt(2000) : (Number) (RANDOM.nextInt(20000) / 10d);
+            }
+            int[][] found = longIndex.findAll(values);
+            for (int i = 0; i < values.length; i++) {
+                Set<Integer> naive = new HashSet<>(findNaive(longIntervals, values[i], values[i]));
+                assertEquals(naive, rowIndices(longIntervals.selectRowsByIndex("idx", (Comparable) values[i])));
+                assertEquals(naive.size(), found[i].length);
+                Number high = values[i].doubleValue() + 15;
+                assertEquals(new HashSet<>(findNaive(doubleIntervals, values[i].doubleValue() / 10d, high.doubleValue() / 10d)),
+                        rowIndices(doubleIntervals.selectRowsByIndex("idx", values[i].doubleValue() / 10d, high.doubleValue() / 10d)));
+            }
+
+            JoinedDataFrame joined = doubleIntervals.joinOverlap(longIntervals, "start", "end");
+            int naiveCount = 0;
+            for (DataRow row : doubleIntervals) {
+                naiveCount += findNaive(longIntervals, row.getDouble("start"), row.getDouble("end")).size();
+            }
+            assertEquals(naiveCount, joined.size());
+            assertEquals(findNaive(longIntervals, 500L, 500L).size(), longIntervals.select("start <= 500 && end >= 500").size());
+            assertTrue(longIntervals.explain("start <= 500 && end >= 500").startsWith("INDEX idx"));
+        }
+    }
+
+    private static Set<Integer> rowIndices(Iterable<DataRow> rows) {
+        Set<Integer> indices = new HashSet<>();
+        for (DataRow row : rows) {
+            indices.add(row.getIndex());
+        }
+        return indices;
+    }
+
+    private List<Integer> findNaive(DataFrame intervals, Number low, Number high){
+        List<Integer> result = new ArrayList<Integer>();
+        for (DataRow row : intervals) {
+            if (!row.isNA("start") && ge(high, row.getNumber("start")) && le(low, row.getNumber("end"))) {
+                result.add(row.getIndex());
+            }
+        }
+        return result;
+    }
 }
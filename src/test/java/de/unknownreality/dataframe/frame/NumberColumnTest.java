@@ -27,6 +27,7 @@ package de.unknownreality.dataframe.frame;
 import de.unknownreality.dataframe.column.DoubleColumn;
 import de.unknownreality.dataframe.column.FloatColumn;
 import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
 import de.unknownreality.dataframe.common.math.Quantiles;
 import org.junit.Assert;
 import org.junit.Test;
@@ -34,6 +35,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Created by Alex on 17.07.2017.
@@ -123,4 +125,91 @@ public class NumberColumnTest {
         Assert.assertEquals((Double)2d,dc.getQuantile(0.25));
         Assert.assertEquals((Double)4d,dc.getQuantile(0.75));
     }
+
+    @Test
+    public void primitiveStorageTest() {
+        IntegerColumn ic = new IntegerColumn("A");
+        for (int i = 0; i < 300; i++) {
+            if (i % 3 == 0) {
+                ic.appendNA();
+            } else {
+                ic.append(i);
+            }
+        }
+        Assert.assertEquals(300, ic.size());
+        Assert.assertTrue(ic.isNA(0));
+        Assert.assertNull(ic.get(3));
+        Assert.assertEquals(4, ic.getInt(4));
+        Assert.assertEquals((Integer) 5, ic.get(5));
+
+        ic.setInt(3, 42);
+        Assert.assertFalse(ic.isNA(3));
+        Assert.assertEquals((Integer) 42, ic.get(3));
+        ic.setNA(4);
+        Assert.assertTrue(ic.isNA(4));
+
+        IntegerColumn copy = ic.copy();
+        Assert.assertTrue(copy.isNA(4));
+        Assert.assertEquals(42, copy.getInt(3));
+
+        ic.sort();
+        Assert.assertTrue(ic.isNA(0));
+        Assert.assertEquals(1, ic.getInt(100));
+        Assert.assertEquals(299, ic.getInt(299));
+
+        DoubleColumn dc = new DoubleColumn("B", new double[]{1d, 2.5d, 3d});
+        Assert.assertEquals(2.5d, dc.getDouble(1), 0d);
+        dc.append(4d);
+        Assert.assertEquals(4d, dc.getDouble(3), 0d);
+        Assert.assertEquals(Arrays.asList(1d, 2.5d, 3d, 4d), dc.toList());
+
+        LongColumn lc = new LongColumn("C", new Long[]{1L, null, 3L});
+        Assert.assertTrue(lc.isNA(1));
+        Assert.assertEquals(3d, lc.getDouble(2), 0d);
+        Assert.assertArrayEquals(new Long[]{1L, null, 3L}, lc.toArray(new Long[3]));
+        lc.clear();
+        Assert.assertEquals(0, lc.size());
+        lc.append(7L);
+        Assert.assertEquals(7L, lc.getLong(0));
+    }
+
+    @Test
+    public void statisticsTest() {
+        DoubleColumn dc = new DoubleColumn("A");
+        dc.appendAll(Arrays.asList(2d, 4d, null, 4d, 4d, 5d, 5d, 7d, 9d));
+        Assert.assertEquals(40d, dc.sum(), 0d);
+        Assert.assertEquals(5d, dc.mean(), 0d);
+        Assert.assertEquals(32d / 7d, dc.variance(), 1e-10);
+        Assert.assertEquals(Math.sqrt(32d / 7d), dc.stddev(), 1e-10);
+        Assert.assertEquals(1, dc.countNA());
+
+        Random random = new Random(42);
+        LongColumn lc = new LongColumn("B");
+        IntegerColumn ic = new IntegerColumn("C");
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 == 0) {
+                lc.appendNA();
+                ic.appendNA();
+                continue;
+            }
+            long v = random.nextInt(500) - 250;
+            values.add(v);
+            lc.append(v);
+            ic.append((int) v);
+        }
+        values.sort(null);
+        for (double q : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 1d}) {
+            int index = (int) Math.ceil(q * values.size()) - 1;
+            Assert.assertEquals(values.get(index), lc.getQuantile(q));
+            Assert.assertEquals(values.get(index).intValue(), ic.getQuantile(q).intValue());
+        }
+        Assert.assertEquals(values.get(values.size() / 2), lc.median());
+        Assert.assertEquals(values.get(0), lc.min());
+        Assert.assertEquals(values.get(values.size() - 1), lc.max());
+        Assert.assertEquals(values.stream().mapToLong(Long::longValue).sum(), lc.sum().longValue());
+        Assert.assertEquals(values.stream().mapToLong(Long::longValue).sum(), ic.sum().longValue());
+
+        Assert.assertNull(new IntegerColumn("D").median());
+    }
 }
@@ -28,7 +28,9 @@ import de.unknownreality.dataframe.Values;
 import de.unknownreality.dataframe.column.BooleanColumn;
 import de.unknownreality.dataframe.column.DoubleColumn;
 import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
 import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.filter.BoundPredicate;
 import de.unknownreality.dataframe.filter.FilterPredicate;
 import de.unknownreality.dataframe.filter.compile.PredicateCompiler;
 import de.unknownreality.dataframe.filter.compile.PredicateCompilerException;
@@ -37,6 +39,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.BitSet;
+
 /**
  * Created by Alex on 12.03.2016.
  */
@@ -207,6 +211,59 @@ public class PredicateParserTest {
         Assert.assertEquals("c",filtered.getRow(0).getString("name"));
     }
 
+    @Test
+    public void testBoundPredicates() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("s"));
+        dataFrame.addColumn(new DoubleColumn("d"));
+        dataFrame.addColumn(new IntegerColumn("i"));
+        dataFrame.addColumn(new LongColumn("l"));
+        dataFrame.addColumn(new BooleanColumn("b"));
+
+        dataFrame.append("a", 1.5d, 1, 1L, true);
+        dataFrame.append("b", -0d, 2, Long.MAX_VALUE, false);
+        dataFrame.append(null, Double.NaN, null, null, null);
+        dataFrame.append("3", 0d, 3, -5L, true);
+        dataFrame.append("abc", Double.POSITIVE_INFINITY, -1, 3L, false);
+        dataFrame.append("2", null, 2, 2L, true);
+
+        String[] predicates = {
+                "d > 1", "d == 0", "d != 0", "d <= 1.5", "i < 2", "i == 2.0", ".i >= .d", ".d == .i",
+                "l > 1", "l == 2", "l < 1.5", "l != 9223372036854775807", ".l >= .i", ".i < .l",
+                "s == 'a'", "s > 'a'", "s != 'b'", "s > 2", "s == 3", "d > 'a'",
+                "b == true", "b != false", ".s ~= /a.*/", "i ~= /2/", "d ~= /NA/",
+                "(d > 1 && i < 3) || s == 'b'", "!(l < 2) XOR b", "(d > 0) NOR (i > 1)"
+        };
+        for (String predicateString : predicates) {
+            FilterPredicate predicate = FilterPredicate.compile(predicateString);
+            BoundPredicate boundPredicate = predicate.bind(dataFrame);
+            BitSet selection = new BitSet();
+            selection.set(0, dataFrame.size());
+            boundPredicate.filter(selection);
+            BitSet oddSelection = new BitSet();
+            for (int i = 1; i < dataFrame.size(); i += 2) {
+                oddSelection.set(i);
+            }
+            boundPredicate.filter(oddSelection);
+            for (int i = 0; i < dataFrame.size(); i++) {
+                boolean valid = predicate.valid(dataFrame.getRow(i));
+                Assert.assertEquals(predicateString + " row " + i, valid, boundPredicate.valid(i));
+                Assert.assertEquals(predicateString + " row " + i, valid, selection.get(i));
+                Assert.assertEquals(predicateString + " row " + i, valid && i % 2 == 1, oddSelection.get(i));
+            }
+        }
+        Assert.assertEquals(2, dataFrame.select(".i < .l && d >= 0").size());
+        Assert.assertEquals("abc", dataFrame.selectFirst("i < 0").getString("s"));
+        Assert.assertEquals(3, dataFrame.selectRows("b == true").size());
+
+        dataFrame.addIndex("idx", "i");
+        DataFrame selected = dataFrame.select("(b == true) OR (s == 'abc')");
+        Assert.assertEquals(4, selected.size());
+        Assert.assertEquals(Long.valueOf(3L), selected.getRow(2).getLong("l"));
+        Assert.assertTrue(selected.getColumn("d").isNA(3));
+        Assert.assertEquals("abc", selected.selectByIndex("idx", -1).getRow(0).getString("s"));
+    }
+
     @Test(expected=PredicateCompilerException.class)
     public void testWrongOperation() {
         PredicateCompiler.compile("((name != 'a') X (x < 3.5)) OR (y == 2)");